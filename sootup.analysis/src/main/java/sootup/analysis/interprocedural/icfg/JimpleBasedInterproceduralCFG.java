@@ -31,11 +31,11 @@ import heros.ThreadSafe;
 import heros.solver.IDESolver;
 import java.util.*;
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.callgraph.CallEdge;
 import sootup.callgraph.CallGraph;
 import sootup.callgraph.CallGraphAlgorithm;
 import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
@@ -60,7 +60,11 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
       LoggerFactory.getLogger(JimpleBasedInterproceduralCFG.class);
   private final MethodSignature mainMethodSignature;
 
-  protected boolean includeReflectiveCalls;
+  /**
+   * @deprecated the call graph of this ICFG does not contain reflective calls, so there is nothing
+   *     to include. The flag has no effect.
+   */
+  @Deprecated protected boolean includeReflectiveCalls;
 
   @DontSynchronize("readonly")
   protected final CallGraph cg;
@@ -71,7 +75,22 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
         @Override
         public Collection<SootMethod> load(Stmt stmt) {
           ArrayList<SootMethod> res = new ArrayList<>();
-          MethodSignature methodSignature = stmt.getInvokeExpr().getMethodSignature();
+          List<CallEdge> calls = cg.callsAt(stmt);
+          if (calls.isEmpty()) {
+            // the call site is not part of the call graph, fall back to the declared callee
+            addCalleeWithBody(res, stmt.getInvokeExpr().getMethodSignature());
+          }
+          for (CallEdge call : calls) {
+            if (call.getKind().isExplicit()) {
+              addCalleeWithBody(res, call.getTarget());
+            }
+          }
+          res.trimToSize();
+          return res;
+        }
+
+        private void addCalleeWithBody(
+            @Nonnull List<SootMethod> res, @Nonnull MethodSignature methodSignature) {
           Optional<? extends SootMethod> smOpt = view.getMethod(methodSignature);
           if (smOpt.isPresent()) {
             SootMethod sm = smOpt.get();
@@ -82,8 +101,6 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
                   "Method {} is referenced but has no body!", sm.getSignature(), new Exception());
             }
           }
-          res.trimToSize();
-          return res;
         }
       };
 
@@ -91,42 +108,32 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
   protected final LoadingCache<Stmt, Collection<SootMethod>> stmtToCallees =
       IDESolver.DEFAULT_CACHE_BUILDER.build(loaderUnitToCallees);
 
+  /**
+   * Maps every method of the call graph to the calls of it, including their call sites and kinds.
+   * It is built once from the call site index of the call graph, so looking up the callers of a
+   * method does not traverse any body.
+   */
+  @DontSynchronize("readonly")
+  protected final Map<MethodSignature, List<CallEdge>> calleeToCalls;
+
   protected CacheLoader<SootMethod, Collection<Stmt>> loaderMethodToCallers =
       new CacheLoader<SootMethod, Collection<Stmt>>() {
         @Nonnull
         @Override
         public Collection<Stmt> load(SootMethod method) {
-          ArrayList<Stmt> res = new ArrayList<>();
-          // only retain callers that are explicit call sites or
-          // Thread.start()
-          Set<MethodSignature> callsToMethod = cg.callsTo(method.getSignature());
-          for (MethodSignature methodSignature : callsToMethod) {
-            Stmt stmt = filterEdgeAndGetCallerStmt(methodSignature);
-            if (stmt != null) {
-              res.add(stmt);
-            }
+          List<CallEdge> calls = calleeToCalls.get(method.getSignature());
+          if (calls == null) {
+            return Collections.emptyList();
           }
-          res.trimToSize();
-          return res;
-        }
-
-        @Nullable
-        private Stmt filterEdgeAndGetCallerStmt(@Nonnull MethodSignature methodSignature) {
-          Set<Pair<MethodSignature, CalleeMethodSignature>> callEdges =
-              CGEdgeUtil.getCallEdges(view, cg);
-          for (Pair<MethodSignature, CalleeMethodSignature> callEdge : callEdges) {
-            CalleeMethodSignature callee = callEdge.getValue();
-            if (callee.getMethodSignature().equals(methodSignature)) {
-              CGEdgeUtil.CallGraphEdgeType edgeType = callee.getEdgeType();
-              if (edgeType.isExplicit()
-                  || edgeType.isFake()
-                  || edgeType.isClinit()
-                  || (includeReflectiveCalls && edgeType.isReflection())) {
-                return callee.getSourceStmt();
-              }
+          ArrayList<Stmt> res = new ArrayList<>(calls.size());
+          // only retain explicit call sites like the callees of a statement do, the statements
+          // that trigger a static initializer are no call sites
+          for (CallEdge call : calls) {
+            if (call.getKind().isExplicit()) {
+              res.add(call.getInvokingStmt());
             }
           }
-          return null;
+          return res;
         }
       };
 
@@ -135,18 +142,36 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
       IDESolver.DEFAULT_CACHE_BUILDER.build(loaderMethodToCallers);
 
   public JimpleBasedInterproceduralCFG(
-      View view,
-      MethodSignature mainMethodSignature,
-      boolean enableExceptions,
-      boolean includeReflectiveCalls) {
+      View view, MethodSignature mainMethodSignature, boolean enableExceptions) {
     super(enableExceptions);
-    this.includeReflectiveCalls = includeReflectiveCalls;
     this.view = view;
     this.mainMethodSignature = mainMethodSignature;
     cg = initCallGraph();
+    calleeToCalls = buildCallSiteIndex(cg);
     initializeStmtToOwner();
   }
 
+  /**
+   * @deprecated the call graph of this ICFG does not contain reflective calls, so
+   *     includeReflectiveCalls has no effect. Use {@link #JimpleBasedInterproceduralCFG(View,
+   *     MethodSignature, boolean)} instead.
+   */
+  @Deprecated
+  public JimpleBasedInterproceduralCFG(
+      View view,
+      MethodSignature mainMethodSignature,
+      boolean enableExceptions,
+      boolean includeReflectiveCalls) {
+    this(view, mainMethodSignature, enableExceptions);
+    this.includeReflectiveCalls = includeReflectiveCalls;
+  }
+
+  /** Returns the call graph this ICFG is built on. */
+  @Nonnull
+  public CallGraph getCallGraph() {
+    return cg;
+  }
+
   public String buildICFGGraph(CallGraph callGraph) {
     Map<MethodSignature, StmtGraph<?>> signatureToStmtGraph = new LinkedHashMap<>();
     computeAllCalls(mainMethodSignature, signatureToStmtGraph, callGraph);
@@ -192,6 +217,22 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
     return cga.initialize(Collections.singletonList(mainMethodSignature));
   }
 
+  /**
+   * Inverts the call site index of the call graph, i.e. collects all calls to a method together
+   * with their invoking statements and kinds.
+   */
+  @Nonnull
+  protected static Map<MethodSignature, List<CallEdge>> buildCallSiteIndex(
+      @Nonnull CallGraph cg) {
+    Map<MethodSignature, List<CallEdge>> index = new HashMap<>();
+    for (Stmt callSite : cg.getCallSites()) {
+      for (CallEdge call : cg.callsAt(callSite)) {
+        index.computeIfAbsent(call.getTarget(), target -> new ArrayList<>()).add(call);
+      }
+    }
+    return index;
+  }
+
   protected void initializeStmtToOwner() {
     for (MethodSignature methodSignature : cg.getMethodSignatures()) {
       final Optional<? extends SootMethod> methodOpt = view.getMethod(methodSignature);
@@ -199,11 +240,19 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
     }
   }
 
+  /**
+   * Returns the callees of the given call site. They are looked up in the call site index of the
+   * call graph, so no body has to be traversed.
+   */
   @Override
   public Collection<SootMethod> getCalleesOfCallAt(@Nonnull Stmt u) {
     return stmtToCallees.getUnchecked(u);
   }
 
+  /**
+   * Returns the call sites of the given method. They are looked up in the reverse call site index
+   * that is built when this ICFG is created.
+   */
   @Override
   public Collection<Stmt> getCallersOf(@Nonnull SootMethod m) {
     return methodToCallers.getUnchecked(m);
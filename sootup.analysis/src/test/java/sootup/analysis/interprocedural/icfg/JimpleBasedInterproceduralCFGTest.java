@@ -0,0 +1,138 @@
+package sootup.analysis.interprocedural.icfg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.callgraph.CallEdge;
+import sootup.callgraph.CallKind;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class JimpleBasedInterproceduralCFGTest {
+
+  private final JavaView view =
+      new JavaView(new JavaClassPathAnalysisInputLocation("src/test/resources/icfg/binary"));
+
+  private SootMethod getMethod(String signature) {
+    return view.getMethod(JavaIdentifierFactory.getInstance().parseMethodSignature(signature))
+        .get();
+  }
+
+  private JimpleBasedInterproceduralCFG buildICFG(String entryMethod) {
+    return new JimpleBasedInterproceduralCFG(view, getMethod(entryMethod).getSignature(), false);
+  }
+
+  /** Returns the call site of the given method that invokes a method with the given name. */
+  private Stmt getCallSite(SootMethod method, String calleeName) {
+    List<Stmt> callSites =
+        method.getBody().getStmts().stream()
+            .filter(Stmt::containsInvokeExpr)
+            .filter(stmt -> stmt.getInvokeExpr().getMethodSignature().getName().equals(calleeName))
+            .collect(Collectors.toList());
+    assertEquals(1, callSites.size());
+    return callSites.get(0);
+  }
+
+  private static Set<String> signatures(Collection<SootMethod> methods) {
+    return methods.stream().map(m -> m.getSignature().toString()).collect(Collectors.toSet());
+  }
+
+  @Test
+  public void directCalls() {
+    JimpleBasedInterproceduralCFG icfg = buildICFG("<ICFGExample: void entryPoint()>");
+    SootMethod entryPoint = getMethod("<ICFGExample: void entryPoint()>");
+    SootMethod id = getMethod("<ICFGExample: java.lang.String id(java.lang.String)>");
+    SootMethod sink = getMethod("<ICFGExample: void sink(java.lang.String)>");
+    SootMethod secondMethod = getMethod("<ICFGExample: void secondMethod(java.lang.String)>");
+    SootMethod thirdMethod =
+        getMethod("<ICFGExample: java.lang.String thirdMethod(java.lang.String)>");
+
+    Stmt callOfId = getCallSite(entryPoint, "id");
+    Stmt callOfSink = getCallSite(entryPoint, "sink");
+    Stmt callOfSecondMethod = getCallSite(sink, "secondMethod");
+    Stmt callOfThirdMethod = getCallSite(secondMethod, "thirdMethod");
+
+    assertEquals(Collections.singletonList(id), new ArrayList<>(icfg.getCalleesOfCallAt(callOfId)));
+    assertEquals(
+        Collections.singletonList(sink), new ArrayList<>(icfg.getCalleesOfCallAt(callOfSink)));
+    assertEquals(
+        Collections.singletonList(thirdMethod),
+        new ArrayList<>(icfg.getCalleesOfCallAt(callOfThirdMethod)));
+
+    assertEquals(Collections.singletonList(callOfId), new ArrayList<>(icfg.getCallersOf(id)));
+    assertEquals(Collections.singletonList(callOfSink), new ArrayList<>(icfg.getCallersOf(sink)));
+    assertEquals(
+        Collections.singletonList(callOfSecondMethod),
+        new ArrayList<>(icfg.getCallersOf(secondMethod)));
+    assertEquals(
+        Collections.singletonList(callOfThirdMethod),
+        new ArrayList<>(icfg.getCallersOf(thirdMethod)));
+    assertEquals(sink, icfg.getMethodOf(callOfSecondMethod));
+    assertTrue(icfg.getCallersOf(entryPoint).isEmpty());
+  }
+
+  @Test
+  public void virtualCallResolvesToAllOverridingMethods() {
+    JimpleBasedInterproceduralCFG icfg = buildICFG("<ICFGExample2: void entryPoint()>");
+    SootMethod entryPoint = getMethod("<ICFGExample2: void entryPoint()>");
+    SootMethod superM = getMethod("<ICFGSuperClass: void m()>");
+    SootMethod subM = getMethod("<ICFGSubClass: void m()>");
+    SootMethod subInit = getMethod("<ICFGSubClass: void <init>()>");
+    SootMethod superInit = getMethod("<ICFGSuperClass: void <init>()>");
+
+    Stmt callOfM = getCallSite(entryPoint, "m");
+    assertEquals(
+        new HashSet<>(Arrays.asList("<ICFGSuperClass: void m()>", "<ICFGSubClass: void m()>")),
+        signatures(icfg.getCalleesOfCallAt(callOfM)));
+    assertEquals(Collections.singletonList(callOfM), new ArrayList<>(icfg.getCallersOf(superM)));
+    assertEquals(Collections.singletonList(callOfM), new ArrayList<>(icfg.getCallersOf(subM)));
+
+    // the constructor of the subclass calls the constructor of its superclass
+    Stmt callOfSubInit = getCallSite(entryPoint, "<init>");
+    Stmt callOfSuperInit = getCallSite(subInit, "<init>");
+    assertEquals(
+        Collections.singletonList(callOfSubInit), new ArrayList<>(icfg.getCallersOf(subInit)));
+    assertEquals(
+        Collections.singletonList(callOfSuperInit), new ArrayList<>(icfg.getCallersOf(superInit)));
+    assertEquals(
+        Collections.singletonList(superInit),
+        new ArrayList<>(icfg.getCalleesOfCallAt(callOfSuperInit)));
+  }
+
+  @Test
+  public void staticInitializerTriggersAreNoCallSites() {
+    JimpleBasedInterproceduralCFG icfg =
+        buildICFG("<ICFGStaticInitializerExample: void entryPoint()>");
+    SootMethod entryPoint = getMethod("<ICFGStaticInitializerExample: void entryPoint()>");
+    SootMethod clinit = getMethod("<ICFGStaticHolder: void <clinit>()>");
+    SootMethod init = getMethod("<ICFGStaticHolder: java.lang.String init()>");
+    SootMethod id = getMethod("<ICFGStaticHolder: java.lang.String id(java.lang.String)>");
+
+    // the static initializer is reached via the field read and the static call
+    List<CallEdge> clinitCalls =
+        entryPoint.getBody().getStmts().stream()
+            .flatMap(stmt -> icfg.cg.callsAt(stmt).stream())
+            .filter(call -> call.getKind() == CallKind.CLINIT)
+            .collect(Collectors.toList());
+    assertEquals(2, clinitCalls.size());
+    assertTrue(clinitCalls.stream().anyMatch(call -> !call.getInvokingStmt().containsInvokeExpr()));
+
+    // neither of them is a call site, just like they are no callees of the static call
+    assertTrue(icfg.getCallersOf(clinit).isEmpty());
+    Stmt callOfId = getCallSite(entryPoint, "id");
+    assertEquals(Collections.singletonList(id), new ArrayList<>(icfg.getCalleesOfCallAt(callOfId)));
+    assertEquals(Collections.singletonList(callOfId), new ArrayList<>(icfg.getCallersOf(id)));
+
+    // the calls within the static initializer are part of the icfg
+    Stmt callOfInit = getCallSite(clinit, "init");
+    assertEquals(Collections.singletonList(callOfInit), new ArrayList<>(icfg.getCallersOf(init)));
+  }
+}
@@ -0,0 +1,80 @@
+package sootup.analysis.interprocedural.ifds;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import heros.InterproceduralCFG;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.analysis.interprocedural.icfg.JimpleBasedInterproceduralCFG;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.JrtFileSystemAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures the construction of the ICFG of an android library, the lookup of the callers of every
+ * reachable method and a full run of the taint analysis on it.
+ */
+@Tag("Benchmark")
+public class ICFGBenchmark {
+
+  private static final String JAR =
+      "../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar";
+
+  private static final String ENTRY_METHOD =
+      "<cn.jpush.android.api.JPushInterface: void init(android.content.Context)>";
+
+  @Test
+  public void constructionAndTaintAnalysis() {
+    JavaView view =
+        new JavaView(
+            Arrays.asList(
+                PathBasedAnalysisInputLocation.create(Paths.get(JAR), SourceType.Application),
+                new JrtFileSystemAnalysisInputLocation()));
+    MethodSignature entryMethodSignature =
+        view.getIdentifierFactory().parseMethodSignature(ENTRY_METHOD);
+    SootMethod entryMethod = view.getMethod(entryMethodSignature).get();
+
+    long start = System.nanoTime();
+    JimpleBasedInterproceduralCFG icfg =
+        new JimpleBasedInterproceduralCFG(view, entryMethodSignature, false);
+    long construction = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    int methods = 0;
+    int callers = 0;
+    for (MethodSignature methodSignature : icfg.getCallGraph().getMethodSignatures()) {
+      SootMethod method = view.getMethod(methodSignature).orElse(null);
+      if (method != null) {
+        methods++;
+        callers += icfg.getCallersOf(method).size();
+      }
+    }
+    long callerLookup = System.nanoTime() - start;
+    assertFalse(methods == 0);
+
+    start = System.nanoTime();
+    IFDSTaintAnalysisProblem problem = new IFDSTaintAnalysisProblem(icfg, entryMethod);
+    JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> solver =
+        new JimpleIFDSSolver(problem);
+    solver.solve(entryMethod.getDeclaringClassType().getClassName());
+    long analysis = System.nanoTime() - start;
+
+    System.out.printf(
+        "%12s %12s %12s %12s %12s%n",
+        "methods", "call sites", "icfg [ms]", "callers [ms]", "ifds [ms]");
+    System.out.printf(
+        "%12d %12d %12d %12d %12d%n",
+        methods,
+        callers,
+        TimeUnit.NANOSECONDS.toMillis(construction),
+        TimeUnit.NANOSECONDS.toMillis(callerLookup),
+        TimeUnit.NANOSECONDS.toMillis(analysis));
+  }
+}
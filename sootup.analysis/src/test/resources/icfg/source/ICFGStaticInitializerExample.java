@@ -0,0 +1,18 @@
+public class ICFGStaticInitializerExample {
+    public static void entryPoint() {
+        String value = ICFGStaticHolder.value;
+        ICFGStaticHolder.id(value);
+    }
+}
+
+class ICFGStaticHolder {
+    static String value = init();
+
+    static String init() {
+        return "value";
+    }
+
+    static String id(String s) {
+        return s;
+    }
+}
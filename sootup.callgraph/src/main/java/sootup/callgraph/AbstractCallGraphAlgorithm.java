@@ -23,17 +23,23 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.core.IdentifierFactory;
+import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.expr.JStaticInvokeExpr;
 import sootup.core.jimple.common.ref.JStaticFieldRef;
 import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.JInvokeStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Method;
 import sootup.core.model.SootClass;
@@ -52,6 +58,12 @@ import sootup.java.core.types.JavaClassType;
  * The AbstractCallGraphAlgorithm class is the super class of all call graph algorithm. It provides
  * basic methods used in all call graph algorithm. It is abstract since it has no implemented
  * functionality to resolve method calls because it is decided by the applied call graph algorithm
+ *
+ * <p>If the algorithm is created with a parallelism greater than one, the methods of the work list
+ * are processed concurrently by a {@link ForkJoinPool} with that many threads and the call graph is
+ * built as a {@link ConcurrentCallGraph}. The resulting call graph contains the same methods and
+ * calls as the one built sequentially. The view has to support concurrent access in this mode, e.g.
+ * a JavaView with concurrent resolution enabled.
  */
 public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
@@ -59,8 +71,38 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
   @Nonnull protected final View view;
 
+  /** the number of threads processing the work list; 1 means the work list is processed in order */
+  protected final int parallelism;
+
+  /**
+   * the methods which were added to a work list while the work list is processed. A method is only
+   * added by the caller that adds it to this set first, see {@link #addToWorkList}.
+   */
+  @Nonnull private Set<MethodSignature> enqueued = Collections.emptySet();
+
   protected AbstractCallGraphAlgorithm(@Nonnull View view) {
+    this(view, 1);
+  }
+
+  protected AbstractCallGraphAlgorithm(@Nonnull View view, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism has to be at least 1, but is " + parallelism);
+    }
     this.view = view;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * @return the number of threads used to construct the call graph. If it is greater than one, the
+   *     work list is processed in parallel.
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /** Returns true if the work list is processed by more than one thread. */
+  protected boolean isParallel() {
+    return parallelism > 1;
   }
 
   /**
@@ -77,7 +119,7 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     MutableCallGraph cg = initializeCallGraph();
 
     Deque<MethodSignature> workList = new ArrayDeque<>(entryPoints);
-    Set<MethodSignature> processed = new HashSet<>();
+    Set<MethodSignature> processed = createMethodSet();
 
     // implicit edge from entry point to static initializer
     addImplicitEdgesOfEntryPoints(entryPoints, cg, workList);
@@ -88,12 +130,19 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
   /**
    * This method creates the mutable call graph which is used in the call graph algorithm. Overwrite
-   * it to change the used mutable call graph
+   * it to change the used mutable call graph. In parallel mode the returned call graph has to be
+   * thread-safe.
    *
    * @return the initialized call graph used in the call graph algorithm
    */
   protected MutableCallGraph initializeCallGraph() {
-    return new GraphBasedCallGraph();
+    return isParallel() ? new ConcurrentCallGraph() : new GraphBasedCallGraph();
+  }
+
+  /** Creates a set of methods, which is concurrent if the work list is processed in parallel. */
+  @Nonnull
+  private Set<MethodSignature> createMethodSet() {
+    return isParallel() ? ConcurrentHashMap.newKeySet() : new HashSet<>();
   }
 
   /**
@@ -135,6 +184,10 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
    *  workList</code> and processed as well. <code>cg</code> is updated accordingly. The method
    * postProcessingMethod is called after a method is processed in the <code>workList</code>.
    *
+   * <p>In parallel mode, the entries are processed concurrently and <code>processed</code> as well
+   * as <code>cg</code> have to be thread-safe. Methods found while the work list is processed are
+   * added by {@link #addToWorkList}, so that every method is added exactly once.
+   *
    * @param view it contains the classes.
    * @param workList it contains all method that have to be processed in the call graph generation.
    *     This list is filled in the execution with found call targets in the call graph algorithm.
@@ -146,57 +199,146 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       Deque<MethodSignature> workList,
       Set<MethodSignature> processed,
       MutableCallGraph cg) {
-    while (!workList.isEmpty()) {
-      MethodSignature currentMethodSignature = workList.pop();
-      // skip if already processed
-      if (processed.contains(currentMethodSignature)) {
-        continue;
+    enqueued = createMethodSet();
+    enqueued.addAll(processed);
+    enqueued.addAll(workList);
+    try {
+      if (isParallel()) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+          pool.invoke(new ProcessMethodTask(view, workList, processed, cg));
+        } finally {
+          pool.shutdownNow();
+        }
+        workList.clear();
+        return;
       }
-
-      // skip if library class
-      SootClass currentClass =
-          view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
-      if (currentClass == null || currentClass.isLibraryClass()) {
-        continue;
+      while (!workList.isEmpty()) {
+        processMethod(view, workList.pop(), workList, processed, cg);
       }
+    } finally {
+      enqueued = Collections.emptySet();
+    }
+  }
 
-      // perform pre-processing if needed
-      preProcessingMethod(view, currentMethodSignature, workList, cg);
+  /**
+   * Adds a method that is found while the work list is processed to the <code>workList</code>, if
+   * it was not added to any work list before. The check is atomic, so in parallel mode a found
+   * method is added by exactly one thread, no matter in which order the methods and calls are added
+   * to the call graph.
+   *
+   * @param workList the work list of the currently processed method
+   * @param method the found method
+   */
+  protected final void addToWorkList(
+      @Nonnull Deque<MethodSignature> workList, @Nonnull MethodSignature method) {
+    if (enqueued.add(method)) {
+      workList.push(method);
+    }
+  }
 
-      // process the method
-      if (!cg.containsMethod(currentMethodSignature)) {
-        cg.addMethod(currentMethodSignature);
-      }
+  /**
+   * Processes a single method of the work list: all call edges of the method are added to the graph
+   * and their targets are added to the <code>workList</code> if they were not added before. A
+   * method is only processed by the caller that adds it to <code>processed</code> first.
+   */
+  private void processMethod(
+      View view,
+      MethodSignature currentMethodSignature,
+      Deque<MethodSignature> workList,
+      Set<MethodSignature> processed,
+      MutableCallGraph cg) {
+    // skip if already processed, otherwise claim the method
+    if (!processed.add(currentMethodSignature)) {
+      return;
+    }
 
-      // transform the method signature to the actual SootMethod
-      SootMethod currentMethod =
-          currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
+    // skip if library class
+    SootClass currentClass = view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
+    if (currentClass == null || currentClass.isLibraryClass()) {
+      return;
+    }
 
-      // get all call targets of invocations in the method body
-      Stream<MethodSignature> invocationTargets = resolveAllCallsFromSourceMethod(currentMethod);
+    // perform pre-processing if needed
+    preProcessingMethod(view, currentMethodSignature, workList, cg);
 
-      // get all call targets of implicit edges in the method body
-      Stream<MethodSignature> implicitTargets =
-          resolveAllImplicitCallsFromSourceMethod(view, currentMethod);
+    // process the method
+    if (!cg.containsMethod(currentMethodSignature)) {
+      cg.addMethod(currentMethodSignature);
+    }
 
-      // save calls in the call graphs
-      Stream.concat(invocationTargets, implicitTargets)
-          .forEach(
-              t -> {
-                if (!cg.containsMethod(t)) {
-                  cg.addMethod(t);
-                }
-                if (!cg.containsCall(currentMethodSignature, t)) {
-                  cg.addCall(currentMethodSignature, t);
-                  workList.push(t);
-                }
-              });
+    // transform the method signature to the actual SootMethod
+    SootMethod currentMethod =
+        currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
+
+    // get all calls of invocations in the method body
+    Stream<CallEdge> invocationCalls = resolveAllCallsFromSourceMethod(currentMethod);
+
+    // get all implicit calls in the method body
+    Stream<CallEdge> implicitCalls = resolveAllImplicitCallsFromSourceMethod(view, currentMethod);
+
+    // save calls in the call graphs
+    Stream.concat(invocationCalls, implicitCalls)
+        .forEach(
+            call -> {
+              MethodSignature t = call.getTarget();
+              if (!cg.containsMethod(t)) {
+                cg.addMethod(t);
+              }
+              cg.addCall(call);
+              addToWorkList(workList, t);
+            });
 
-      // set method as processed
-      processed.add(currentMethodSignature);
+    // perform post-processing if needed
+    postProcessingMethod(view, currentMethodSignature, workList, cg);
+  }
 
-      // perform post-processing if needed
-      postProcessingMethod(view, currentMethodSignature, workList, cg);
+  /**
+   * Processes one method of the work list in parallel mode and forks a task for every method it
+   * discovers. The hooks of the algorithm get a work list that is local to the task. The root task
+   * only forks the tasks of the initial work list and completes as soon as all tasks are done.
+   */
+  private final class ProcessMethodTask extends CountedCompleter<Void> {
+    @Nonnull private final View view;
+    @Nullable private final MethodSignature method;
+    @Nonnull private final Deque<MethodSignature> workList;
+    @Nonnull private final Set<MethodSignature> processed;
+    @Nonnull private final MutableCallGraph cg;
+
+    private ProcessMethodTask(
+        @Nonnull View view,
+        @Nonnull Deque<MethodSignature> workList,
+        @Nonnull Set<MethodSignature> processed,
+        @Nonnull MutableCallGraph cg) {
+      super(null);
+      this.view = view;
+      this.method = null;
+      this.workList = workList;
+      this.processed = processed;
+      this.cg = cg;
+    }
+
+    private ProcessMethodTask(@Nonnull ProcessMethodTask parent, @Nonnull MethodSignature method) {
+      super(parent);
+      this.view = parent.view;
+      this.method = method;
+      this.workList = new ArrayDeque<>();
+      this.processed = parent.processed;
+      this.cg = parent.cg;
+    }
+
+    @Override
+    public void compute() {
+      if (method != null) {
+        processMethod(view, method, workList, processed, cg);
+      }
+      for (MethodSignature target : workList) {
+        if (!processed.contains(target)) {
+          addToPendingCount(1);
+          new ProcessMethodTask(this, target).fork();
+        }
+      }
+      tryComplete();
     }
   }
 
@@ -207,17 +349,24 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
    *
    * @param sourceMethod this signature is used to access the statements contained method body of
    *     the specified method
-   * @return a stream containing all resolved callable method signatures by the given source method
+   * @return a stream containing all resolved calls of the source method together with their
+   *     invoking statement
    */
   @Nonnull
-  Stream<MethodSignature> resolveAllCallsFromSourceMethod(SootMethod sourceMethod) {
+  Stream<CallEdge> resolveAllCallsFromSourceMethod(SootMethod sourceMethod) {
     if (sourceMethod == null || !sourceMethod.hasBody()) {
       return Stream.empty();
     }
 
+    MethodSignature source = sourceMethod.getSignature();
     return sourceMethod.getBody().getStmts().stream()
         .filter(Stmt::containsInvokeExpr)
-        .flatMap(s -> resolveCall(sourceMethod, s.getInvokeExpr()));
+        .flatMap(
+            stmt -> {
+              CallKind kind = CallKind.of(stmt.getInvokeExpr());
+              return resolveCall(sourceMethod, stmt)
+                  .map(target -> new CallEdge(source, target, stmt, kind));
+            });
   }
 
   /**
@@ -225,10 +374,10 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
    *
    * @param view it contains the class data
    * @param sourceMethod the inspected source method
-   * @return a stream containing all method signatures of targets of implicit calls.
+   * @return a stream containing all implicit calls together with the statement causing them.
    */
   @Nonnull
-  protected Stream<MethodSignature> resolveAllImplicitCallsFromSourceMethod(
+  protected Stream<CallEdge> resolveAllImplicitCallsFromSourceMethod(
       View view, SootMethod sourceMethod) {
     if (sourceMethod == null || !sourceMethod.hasBody()) {
       return Stream.empty();
@@ -243,16 +392,17 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
    *
    * @param view it contains the class data
    * @param sourceMethod the inspected source method
-   * @return a stream containing all method signatures of targets of implicit calls.
+   * @return a stream containing all calls of static initializers together with the statement
+   *     causing them.
    */
   @Nonnull
-  protected Stream<MethodSignature> resolveAllStaticInitializerCallsFromSourceMethod(
+  protected Stream<CallEdge> resolveAllStaticInitializerCallsFromSourceMethod(
       View view, SootMethod sourceMethod) {
     if (sourceMethod == null || !sourceMethod.hasBody()) {
       return Stream.empty();
     }
 
-    Stream.Builder<ClassType> targetsToStaticInitializer = Stream.builder();
+    Stream.Builder<Map.Entry<Stmt, ClassType>> targetsToStaticInitializer = Stream.builder();
 
     InstantiateClassValueVisitor instantiateVisitor = new InstantiateClassValueVisitor();
 
@@ -264,7 +414,8 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
               // static field usage
               if (stmt.containsFieldRef() && stmt.getFieldRef() instanceof JStaticFieldRef) {
                 targetsToStaticInitializer.add(
-                    stmt.getFieldRef().getFieldSignature().getDeclClassType());
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        stmt, stmt.getFieldRef().getFieldSignature().getDeclClassType()));
               }
 
               // constructor calls
@@ -274,29 +425,37 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
                 rightOp.accept(instantiateVisitor);
                 ClassType classType = instantiateVisitor.getResult();
                 if (classType != null) {
-                  targetsToStaticInitializer.add(classType);
+                  targetsToStaticInitializer.add(
+                      new AbstractMap.SimpleImmutableEntry<>(stmt, classType));
                 }
               }
 
               // static method calls
               if (stmt.containsInvokeExpr() && stmt.getInvokeExpr() instanceof JStaticInvokeExpr) {
                 targetsToStaticInitializer.add(
-                    stmt.getInvokeExpr().getMethodSignature().getDeclClassType());
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        stmt, stmt.getInvokeExpr().getMethodSignature().getDeclClassType()));
               }
             });
 
+    MethodSignature source = sourceMethod.getSignature();
     return targetsToStaticInitializer
         .build()
         .flatMap(
-            classType ->
+            target ->
                 Stream.concat(
-                    Stream.of(classType),
-                    view.getTypeHierarchy().superClassesOf(classType).stream()))
-        .filter(Objects::nonNull)
-        .map(classType -> view.getMethod(classType.getStaticInitializer()))
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .map(SootClassMember::getSignature);
+                        Stream.of(target.getValue()),
+                        view.getTypeHierarchy().superClassesOf(target.getValue()).stream())
+                    .filter(Objects::nonNull)
+                    .map(classType -> view.getMethod(classType.getStaticInitializer()))
+                    .filter(Optional::isPresent)
+                    .map(
+                        staticInitializer ->
+                            new CallEdge(
+                                source,
+                                staticInitializer.get().getSignature(),
+                                target.getKey(),
+                                CallKind.CLINIT)));
   }
 
   /**
@@ -343,11 +502,13 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       return oldCallGraph;
     }
 
-    MutableCallGraph updated = oldCallGraph.copy();
+    MutableCallGraph updated =
+        isParallel() ? new ConcurrentCallGraph(oldCallGraph) : oldCallGraph.copy();
 
     // Step 1: Add edges from the new methods to other methods
     Deque<MethodSignature> workList = new ArrayDeque<>(newMethodSignatures);
-    Set<MethodSignature> processed = new HashSet<>(oldCallGraph.getMethodSignatures());
+    Set<MethodSignature> processed = createMethodSet();
+    processed.addAll(oldCallGraph.getMethodSignatures());
     processWorkList(view, workList, processed, updated);
 
     // Step 2: Add edges from old methods to methods overridden in the new class
@@ -379,6 +540,8 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
               if (updated.containsMethod(overriddenMethodSig)) {
                 for (MethodSignature callingMethodSig : updated.callsTo(overriddenMethodSig)) {
                   updated.addCall(callingMethodSig, overridingMethodSig);
+                  addCallsAtCallSites(
+                      updated, callingMethodSig, overriddenMethodSig, overridingMethodSig);
                 }
               }
             });
@@ -386,6 +549,28 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     return updated;
   }
 
+  /**
+   * Adds a call to <code>overridingMethod</code> at every call site of <code>callingMethod</code>
+   * that calls <code>overriddenMethod</code>.
+   */
+  private void addCallsAtCallSites(
+      @Nonnull MutableCallGraph cg,
+      @Nonnull MethodSignature callingMethod,
+      @Nonnull MethodSignature overriddenMethod,
+      @Nonnull MethodSignature overridingMethod) {
+    SootMethod method = view.getMethod(callingMethod).orElse(null);
+    if (method == null || !method.hasBody()) {
+      return;
+    }
+    for (Stmt stmt : method.getBody().getStmts()) {
+      for (CallEdge call : cg.callsAt(stmt)) {
+        if (call.getTarget().equals(overriddenMethod)) {
+          cg.addCall(new CallEdge(callingMethod, overridingMethod, stmt, call.getKind()));
+        }
+      }
+    }
+  }
+
   /**
    * The method iterates over all classes present in view, and finds method with name main and
    * SourceType - Library. This method is used by initialize() method used for creating call graph
@@ -436,17 +621,35 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
   }
 
   /**
-   * This method resolves the possible targets of a given invoke expression. The results are
+   * This method resolves the possible targets of a given invoke statement. The results are
    * dependable of the applied call graph algorithm. therefore, it is abstract.
    *
+   * @param method the method object that contains the given invoke statement in the body.
+   * @param invokingStmt the statement containing the invoke expression of the call which is
+   *     resolved.
+   * @return a stream of all reachable method signatures defined by the applied call graph
+   *     algorithm.
+   */
+  @Nonnull
+  protected abstract Stream<MethodSignature> resolveCall(SootMethod method, Stmt invokingStmt);
+
+  /**
+   * This method resolves the possible targets of a given invoke expression.
+   *
    * @param method the method object that contains the given invoke expression in the body.
    * @param invokeExpr it contains the call which is resolved.
    * @return a stream of all reachable method signatures defined by the applied call graph
    *     algorithm.
+   * @deprecated the call is resolved for a new statement without position that wraps the invoke
+   *     expression, so it is not attributed to a call site of the body. Use {@link
+   *     #resolveCall(SootMethod, Stmt)} with the invoking statement instead.
    */
+  @Deprecated
   @Nonnull
-  protected abstract Stream<MethodSignature> resolveCall(
-      SootMethod method, AbstractInvokeExpr invokeExpr);
+  protected Stream<MethodSignature> resolveCall(SootMethod method, AbstractInvokeExpr invokeExpr) {
+    return resolveCall(
+        method, new JInvokeStmt(invokeExpr, StmtPositionInfo.getNoStmtPositionInfo()));
+  }
 
   /**
    * Searches for the signature of the method that is the concrete implementation of <code>m</code>.
@@ -0,0 +1,137 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A call in the call graph from a source method to a target method together with the statement
+ * that causes the call and the kind of the call. Statements are compared by identity, so a call
+ * edge belongs to the body instance that contains its statement.
+ */
+public final class CallEdge {
+
+  private static final CallEdge[] NO_CALLS = new CallEdge[0];
+
+  @Nonnull private final MethodSignature source;
+  @Nonnull private final MethodSignature target;
+  @Nullable private final Stmt invokingStmt;
+  @Nonnull private final CallKind kind;
+
+  /**
+   * @param source the calling method
+   * @param target the called method
+   * @param invokingStmt the statement in the body of the source that causes the call, or null if
+   *     the call is not caused by a specific statement, e.g. the static initializer of an entry
+   *     point
+   * @param kind the kind of the call
+   */
+  public CallEdge(
+      @Nonnull MethodSignature source,
+      @Nonnull MethodSignature target,
+      @Nullable Stmt invokingStmt,
+      @Nonnull CallKind kind) {
+    this.source = source;
+    this.target = target;
+    this.invokingStmt = invokingStmt;
+    this.kind = kind;
+  }
+
+  @Nonnull
+  public MethodSignature getSource() {
+    return source;
+  }
+
+  @Nonnull
+  public MethodSignature getTarget() {
+    return target;
+  }
+
+  @Nullable
+  public Stmt getInvokingStmt() {
+    return invokingStmt;
+  }
+
+  @Nonnull
+  public CallKind getKind() {
+    return kind;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CallEdge)) {
+      return false;
+    }
+    CallEdge callEdge = (CallEdge) o;
+    return source.equals(callEdge.source)
+        && target.equals(callEdge.target)
+        && invokingStmt == callEdge.invokingStmt
+        && kind == callEdge.kind;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(source, target, System.identityHashCode(invokingStmt), kind);
+  }
+
+  @Override
+  public String toString() {
+    String callSite = invokingStmt == null ? "" : " at " + invokingStmt;
+    return kind + " " + source + " -> " + target + callSite;
+  }
+
+  /**
+   * Returns the calls with the given call appended, or the given calls if it is contained already.
+   * The given array is not modified, so published arrays can be read without synchronization.
+   */
+  @Nonnull
+  static CallEdge[] appendIfAbsent(@Nullable CallEdge[] calls, @Nonnull CallEdge call) {
+    if (calls == null) {
+      return new CallEdge[] {call};
+    }
+    for (CallEdge existing : calls) {
+      if (existing.equals(call)) {
+        return calls;
+      }
+    }
+    CallEdge[] appended = Arrays.copyOf(calls, calls.length + 1);
+    appended[calls.length] = call;
+    return appended;
+  }
+
+  /** Returns an unmodifiable list view of the given calls array, which is never modified. */
+  @Nonnull
+  static List<CallEdge> asList(@Nullable CallEdge[] calls) {
+    return Collections.unmodifiableList(Arrays.asList(calls == null ? NO_CALLS : calls));
+  }
+}
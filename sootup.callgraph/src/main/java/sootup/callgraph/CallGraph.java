@@ -22,8 +22,11 @@ package sootup.callgraph;
  * #L%
  */
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.signatures.MethodSignature;
 
 /** The interface of all implemented call graph data structures */
@@ -59,6 +62,38 @@ public interface CallGraph {
   @Nonnull
   Set<MethodSignature> callsTo(@Nonnull MethodSignature targetMethod);
 
+  /**
+   * This method returns all calls that are caused by the given statement, i.e. all targets of the
+   * call site together with the kind of the call. The statement is compared by identity, so it has
+   * to be contained in the same body instance the call graph was built from.
+   *
+   * <p>The call graph keeps a reference to every recorded statement, so the bodies of the
+   * statements are not freed while the call graph is alive. If a body is evicted from its view (see
+   * {@link sootup.core.model.SootMethod#getBody()}) and resolved again, the statements of the new
+   * body are not found, and this method returns an empty list for them.
+   *
+   * <p>Call graphs that do not record call sites return an empty list.
+   *
+   * @param invokingStmt the statement of the call site
+   * @return the calls of the call site, or an empty list if no call of the statement is recorded
+   */
+  @Nonnull
+  default List<CallEdge> callsAt(@Nonnull Stmt invokingStmt) {
+    return Collections.emptyList();
+  }
+
+  /**
+   * This method returns all statements for which calls are recorded in the call graph. The same
+   * identity restrictions as for {@link #callsAt(Stmt)} apply. Call graphs that do not record call
+   * sites return an empty set.
+   *
+   * @return a set containing the invoking statements of all calls with a call site
+   */
+  @Nonnull
+  default Set<Stmt> getCallSites() {
+    return Collections.emptySet();
+  }
+
   /**
    * This method checks if a given method signature is a node in the call graph.
    *
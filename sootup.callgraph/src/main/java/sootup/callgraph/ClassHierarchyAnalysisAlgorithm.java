@@ -30,6 +30,7 @@ import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
 import sootup.core.jimple.common.expr.JInterfaceInvokeExpr;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.MethodModifier;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
@@ -53,6 +54,17 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
     super(view);
   }
 
+  /**
+   * The constructor of the CHA algorithm which processes the work list with the given number of
+   * threads.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param parallelism the number of threads constructing the call graph
+   */
+  public ClassHierarchyAnalysisAlgorithm(@Nonnull View view, int parallelism) {
+    super(view, parallelism);
+  }
+
   @Nonnull
   @Override
   public CallGraph initialize() {
@@ -70,14 +82,15 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
    * subclass of the class is considered as target if it contains an implementation of the methods
    * called in the invoke expression.
    *
-   * @param method the method object that contains the given invoke expression in the body.
-   * @param invokeExpr it contains the call which is resolved.
+   * @param method the method object that contains the given invoke statement in the body.
+   * @param invokingStmt it contains the call which is resolved.
    * @return a stream containing all reachable method signatures after applying the CHA call graph
    *     algorithm
    */
   @Override
   @Nonnull
-  protected Stream<MethodSignature> resolveCall(SootMethod method, AbstractInvokeExpr invokeExpr) {
+  protected Stream<MethodSignature> resolveCall(SootMethod method, Stmt invokingStmt) {
+    AbstractInvokeExpr invokeExpr = invokingStmt.getInvokeExpr();
     MethodSignature targetMethodSignature = invokeExpr.getMethodSignature();
     if ((invokeExpr instanceof JDynamicInvokeExpr)) {
       return Stream.empty();
@@ -0,0 +1,221 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Preconditions;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A thread-safe mutable call graph. Methods and calls can be added by several threads at the same
+ * time, e.g. while the work list of a call graph algorithm is processed in parallel. Adding a
+ * method or a call that is already contained has no effect. Queries that run concurrently to
+ * additions see a consistent state of every single method, but not necessarily of the whole graph.
+ */
+public class ConcurrentCallGraph implements MutableCallGraph {
+
+  /** The callers and callees of a method in the call graph. */
+  private static final class Node {
+    @Nonnull final Set<MethodSignature> callees = ConcurrentHashMap.newKeySet();
+    @Nonnull final Set<MethodSignature> callers = ConcurrentHashMap.newKeySet();
+  }
+
+  @Nonnull private final ConcurrentMap<MethodSignature, Node> nodes = new ConcurrentHashMap<>();
+  @Nonnull private final AtomicInteger callCount = new AtomicInteger();
+  // the arrays are never modified but replaced atomically, see CallEdge#appendIfAbsent
+  @Nonnull
+  private final ConcurrentMap<Stmt, CallEdge[]> callSiteToCalls = new ConcurrentHashMap<>();
+
+  /** Creates an empty call graph. */
+  public ConcurrentCallGraph() {}
+
+  /**
+   * Creates a call graph that contains all methods and calls of the given call graph.
+   *
+   * @param callGraph the call graph that is copied
+   */
+  public ConcurrentCallGraph(@Nonnull CallGraph callGraph) {
+    Set<MethodSignature> methods = callGraph.getMethodSignatures();
+    methods.forEach(this::addMethod);
+    for (MethodSignature method : methods) {
+      for (MethodSignature target : callGraph.callsFrom(method)) {
+        addCall(method, target);
+      }
+    }
+    if (callGraph instanceof ConcurrentCallGraph) {
+      callSiteToCalls.putAll(((ConcurrentCallGraph) callGraph).callSiteToCalls);
+    } else {
+      callGraph.getCallSites().forEach(stmt -> callGraph.callsAt(stmt).forEach(this::addCall));
+    }
+  }
+
+  @Override
+  public void addMethod(@Nonnull MethodSignature calledMethod) {
+    nodes.computeIfAbsent(calledMethod, method -> new Node());
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    Node source = nodeOf(sourceMethod);
+    Node target = nodeOf(targetMethod);
+    if (source.callees.add(targetMethod)) {
+      target.callers.add(sourceMethod);
+      callCount.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void addCall(@Nonnull CallEdge call) {
+    addCall(call.getSource(), call.getTarget());
+    Stmt invokingStmt = call.getInvokingStmt();
+    if (invokingStmt != null) {
+      callSiteToCalls.compute(invokingStmt, (stmt, calls) -> CallEdge.appendIfAbsent(calls, call));
+    }
+  }
+
+  @Nonnull
+  @Override
+  public List<CallEdge> callsAt(@Nonnull Stmt invokingStmt) {
+    return CallEdge.asList(callSiteToCalls.get(invokingStmt));
+  }
+
+  @Nonnull
+  @Override
+  public Set<Stmt> getCallSites() {
+    return Collections.unmodifiableSet(callSiteToCalls.keySet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return Collections.unmodifiableSet(nodes.keySet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    return new HashSet<>(nodeOf(sourceMethod).callees);
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsTo(@Nonnull MethodSignature targetMethod) {
+    return new HashSet<>(nodeOf(targetMethod).callers);
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return nodes.containsKey(method);
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    Node source = nodes.get(sourceMethod);
+    return source != null && source.callees.contains(targetMethod);
+  }
+
+  @Override
+  public int callCount() {
+    return callCount.get();
+  }
+
+  /** Exports a snapshot of the call graph in the same format as {@link GraphBasedCallGraph}. */
+  @Override
+  public String exportAsDot() {
+    return toGraphBasedCallGraph().exportAsDot();
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    return new ConcurrentCallGraph(this);
+  }
+
+  /**
+   * Creates a snapshot of this call graph that is backed by a graph. Calls that are added while the
+   * snapshot is created may be missing.
+   *
+   * @return a graph based call graph with the methods and calls of this call graph
+   */
+  @Nonnull
+  public GraphBasedCallGraph toGraphBasedCallGraph() {
+    GraphBasedCallGraph graph = new GraphBasedCallGraph();
+    nodes.keySet().forEach(graph::addMethod);
+    nodes.forEach(
+        (method, node) ->
+            node.callees.stream()
+                .filter(graph::containsMethod)
+                .forEach(target -> graph.addCall(method, target)));
+    for (CallEdge[] calls : callSiteToCalls.values()) {
+      for (CallEdge call : calls) {
+        if (graph.containsMethod(call.getSource()) && graph.containsMethod(call.getTarget())) {
+          graph.addCall(call);
+        }
+      }
+    }
+    return graph;
+  }
+
+  @Nonnull
+  private Node nodeOf(@Nonnull MethodSignature method) {
+    Node node = nodes.get(method);
+    Preconditions.checkNotNull(node, "Node for %s has not been added yet", method);
+    return node;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder("ConcurrentCallGraph(" + callCount() + ")");
+    if (nodes.isEmpty()) {
+      return stringBuilder.append(" is empty").toString();
+    }
+    stringBuilder.append(":\n");
+    Comparator<MethodSignature> order = Comparator.comparing(MethodSignature::toString);
+    nodes.keySet().stream()
+        .sorted(order)
+        .forEach(
+            method -> {
+              Node node = nodes.get(method);
+              stringBuilder.append(method).append(":\n");
+              node.callees.stream()
+                  .sorted(order)
+                  .forEach(m -> stringBuilder.append("\tto ").append(m).append("\n"));
+              node.callers.stream()
+                  .sorted(order)
+                  .forEach(m -> stringBuilder.append("\tfrom ").append(m).append("\n"));
+              stringBuilder.append("\n");
+            });
+    return stringBuilder.toString();
+  }
+}
@@ -23,13 +23,16 @@ package sootup.callgraph;
  */
 
 import com.google.common.base.Preconditions;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.jgrapht.graph.DefaultDirectedGraph;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.SootClassMemberSignature;
 
@@ -58,18 +61,29 @@ public class GraphBasedCallGraph implements MutableCallGraph {
 
   @Nonnull private final DefaultDirectedGraph<Vertex, Edge> graph;
   @Nonnull private final Map<MethodSignature, Vertex> signatureToVertex;
+  // the arrays are never modified but replaced, see CallEdge#appendIfAbsent
+  @Nonnull private final Map<Stmt, CallEdge[]> callSiteToCalls;
 
   /** The constructor of the graph based call graph. it initializes the call graph object. */
   public GraphBasedCallGraph() {
     graph = new DefaultDirectedGraph<>(null, null, false);
     signatureToVertex = new HashMap<>();
+    callSiteToCalls = new HashMap<>();
   }
 
   public GraphBasedCallGraph(
       @Nonnull DefaultDirectedGraph<Vertex, Edge> graph,
       @Nonnull Map<MethodSignature, Vertex> signatureToVertex) {
+    this(graph, signatureToVertex, new HashMap<>());
+  }
+
+  protected GraphBasedCallGraph(
+      @Nonnull DefaultDirectedGraph<Vertex, Edge> graph,
+      @Nonnull Map<MethodSignature, Vertex> signatureToVertex,
+      @Nonnull Map<Stmt, CallEdge[]> callSiteToCalls) {
     this.graph = graph;
     this.signatureToVertex = signatureToVertex;
+    this.callSiteToCalls = callSiteToCalls;
   }
 
   @Override
@@ -94,6 +108,30 @@ public class GraphBasedCallGraph implements MutableCallGraph {
     graph.addEdge(vertexOf(sourceMethod), vertexOf(targetMethod), edge);
   }
 
+  @Override
+  public void addCall(@Nonnull CallEdge call) {
+    if (!containsCall(call.getSource(), call.getTarget())) {
+      addCall(call.getSource(), call.getTarget());
+    }
+    Stmt invokingStmt = call.getInvokingStmt();
+    if (invokingStmt != null) {
+      callSiteToCalls.put(
+          invokingStmt, CallEdge.appendIfAbsent(callSiteToCalls.get(invokingStmt), call));
+    }
+  }
+
+  @Nonnull
+  @Override
+  public List<CallEdge> callsAt(@Nonnull Stmt invokingStmt) {
+    return CallEdge.asList(callSiteToCalls.get(invokingStmt));
+  }
+
+  @Nonnull
+  @Override
+  public Set<Stmt> getCallSites() {
+    return Collections.unmodifiableSet(callSiteToCalls.keySet());
+  }
+
   @Nonnull
   @Override
   public Set<MethodSignature> getMethodSignatures() {
@@ -195,7 +233,9 @@ public class GraphBasedCallGraph implements MutableCallGraph {
   @Override
   public MutableCallGraph copy() {
     return new GraphBasedCallGraph(
-        (DefaultDirectedGraph<Vertex, Edge>) graph.clone(), new HashMap<>(signatureToVertex));
+        (DefaultDirectedGraph<Vertex, Edge>) graph.clone(),
+        new HashMap<>(signatureToVertex),
+        new HashMap<>(callSiteToCalls));
   }
 
   /**
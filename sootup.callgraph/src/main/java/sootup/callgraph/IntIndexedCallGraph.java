@@ -0,0 +1,530 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Preconditions;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A mutable call graph that stores methods and calls in primitive arrays. Every method signature
+ * is interned to an int id, which is its index in the order the methods were added. The callees
+ * and callers of a method are stored in growable int arrays, so there is no object per call.
+ *
+ * <p>Besides the {@link CallGraph} methods, the id based methods like {@link #getCallee(int, int)}
+ * allow to iterate the graph without allocations. The sets returned by {@link #callsFrom}, {@link
+ * #callsTo} and {@link #getMethodSignatures()} are unmodifiable views of the state at the time of
+ * the call and are not copied.
+ *
+ * <p>{@link #copy()} is copy-on-write: the copy shares all arrays with this call graph and an array
+ * is only copied when one of both graphs modifies it for the first time. The map of the call sites
+ * is copied shallowly on the first call site that is added after a copy. This class is not
+ * thread-safe.
+ */
+public class IntIndexedCallGraph implements MutableCallGraph {
+
+  private static final int[] EMPTY_ROW = new int[0];
+  private static final int MINIMUM_ROW_LENGTH = 4;
+
+  @Nonnull private MethodSignature[] signatures;
+  private int methodCount;
+  /** open addressing table that maps the hash of a signature to its id + 1, 0 marks a free slot */
+  @Nonnull private int[] slots;
+
+  @Nonnull private int[][] callees;
+  @Nonnull private int[] calleeCounts;
+  @Nonnull private int[][] callers;
+  @Nonnull private int[] callerCounts;
+  private int callCount;
+  // the arrays are never modified but replaced, see CallEdge#appendIfAbsent
+  @Nonnull private Map<Stmt, CallEdge[]> callSiteToCalls;
+
+  /** true if the arrays of this call graph might be shared with a copy */
+  private boolean shared;
+  /** true if the map of the call sites might be shared with a copy */
+  private boolean callSitesShared;
+  /** the ids whose callee row is not shared with a copy and can be modified in place */
+  @Nonnull private final BitSet ownedCallees;
+  /** the ids whose caller row is not shared with a copy and can be modified in place */
+  @Nonnull private final BitSet ownedCallers;
+
+  /** Creates an empty call graph. */
+  public IntIndexedCallGraph() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty call graph with space for the given number of methods.
+   *
+   * @param expectedMethodCount the number of methods that can be added without growing the arrays
+   */
+  public IntIndexedCallGraph(int expectedMethodCount) {
+    int capacity = Math.max(1, expectedMethodCount);
+    signatures = new MethodSignature[capacity];
+    slots = new int[tableSizeFor(capacity)];
+    callees = new int[capacity][];
+    calleeCounts = new int[capacity];
+    callers = new int[capacity][];
+    callerCounts = new int[capacity];
+    callSiteToCalls = new HashMap<>();
+    ownedCallees = new BitSet(capacity);
+    ownedCallers = new BitSet(capacity);
+  }
+
+  /** Creates a copy that shares all arrays with the given call graph. */
+  private IntIndexedCallGraph(@Nonnull IntIndexedCallGraph other) {
+    signatures = other.signatures;
+    methodCount = other.methodCount;
+    slots = other.slots;
+    callees = other.callees;
+    calleeCounts = other.calleeCounts;
+    callers = other.callers;
+    callerCounts = other.callerCounts;
+    callCount = other.callCount;
+    callSiteToCalls = other.callSiteToCalls;
+    shared = true;
+    callSitesShared = true;
+    ownedCallees = new BitSet();
+    ownedCallers = new BitSet();
+  }
+
+  /**
+   * Returns the id of the given method.
+   *
+   * @param method the method signature
+   * @return the id of the method, or -1 if the method is not contained in the call graph
+   */
+  public int idOf(@Nonnull MethodSignature method) {
+    int mask = slots.length - 1;
+    for (int i = hash(method) & mask; ; i = (i + 1) & mask) {
+      int slot = slots[i];
+      if (slot == 0) {
+        return -1;
+      }
+      if (signatures[slot - 1].equals(method)) {
+        return slot - 1;
+      }
+    }
+  }
+
+  /**
+   * Returns the method signature with the given id.
+   *
+   * @param id the id of a method in the call graph
+   * @return the method signature of the id
+   */
+  @Nonnull
+  public MethodSignature getMethodSignature(int id) {
+    Preconditions.checkElementIndex(id, methodCount);
+    return signatures[id];
+  }
+
+  /** @return the number of methods in the call graph. The ids are 0 to this number - 1. */
+  public int getMethodCount() {
+    return methodCount;
+  }
+
+  /** @return the number of methods called by the method with the given id */
+  public int getCalleeCount(int id) {
+    Preconditions.checkElementIndex(id, methodCount);
+    return calleeCounts[id];
+  }
+
+  /**
+   * @param id the id of the calling method
+   * @param index the index of the callee, from 0 to {@link #getCalleeCount(int)} - 1
+   * @return the id of the called method
+   */
+  public int getCallee(int id, int index) {
+    Preconditions.checkElementIndex(index, getCalleeCount(id));
+    return callees[id][index];
+  }
+
+  /** @return the number of methods calling the method with the given id */
+  public int getCallerCount(int id) {
+    Preconditions.checkElementIndex(id, methodCount);
+    return callerCounts[id];
+  }
+
+  /**
+   * @param id the id of the called method
+   * @param index the index of the caller, from 0 to {@link #getCallerCount(int)} - 1
+   * @return the id of the calling method
+   */
+  public int getCaller(int id, int index) {
+    Preconditions.checkElementIndex(index, getCallerCount(id));
+    return callers[id][index];
+  }
+
+  /** Passes the ids of all methods called by the method with the given id to the consumer. */
+  public void forEachCallee(int id, @Nonnull IntConsumer consumer) {
+    int count = getCalleeCount(id);
+    int[] row = callees[id];
+    for (int i = 0; i < count; i++) {
+      consumer.accept(row[i]);
+    }
+  }
+
+  /** Passes the ids of all methods calling the method with the given id to the consumer. */
+  public void forEachCaller(int id, @Nonnull IntConsumer consumer) {
+    int count = getCallerCount(id);
+    int[] row = callers[id];
+    for (int i = 0; i < count; i++) {
+      consumer.accept(row[i]);
+    }
+  }
+
+  /**
+   * Adds the method to the call graph if it is not contained yet.
+   *
+   * @param method the method that is added
+   * @return the id of the method
+   */
+  public int addMethodAndGetId(@Nonnull MethodSignature method) {
+    int id = idOf(method);
+    if (id >= 0) {
+      return id;
+    }
+    unshare();
+    if (methodCount == signatures.length) {
+      int capacity = methodCount * 2;
+      signatures = Arrays.copyOf(signatures, capacity);
+      callees = Arrays.copyOf(callees, capacity);
+      calleeCounts = Arrays.copyOf(calleeCounts, capacity);
+      callers = Arrays.copyOf(callers, capacity);
+      callerCounts = Arrays.copyOf(callerCounts, capacity);
+    }
+    id = methodCount++;
+    signatures[id] = method;
+    callees[id] = EMPTY_ROW;
+    calleeCounts[id] = 0;
+    callers[id] = EMPTY_ROW;
+    callerCounts[id] = 0;
+    if (methodCount * 2 > slots.length) {
+      rehash(slots.length * 2);
+    } else {
+      insertSlot(id);
+    }
+    return id;
+  }
+
+  @Override
+  public void addMethod(@Nonnull MethodSignature calledMethod) {
+    addMethodAndGetId(calledMethod);
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    addCall(idOfContained(sourceMethod), idOfContained(targetMethod));
+  }
+
+  /**
+   * Adds a call between the methods with the given ids if it is not contained yet.
+   *
+   * @param source the id of the calling method
+   * @param target the id of the called method
+   */
+  public void addCall(int source, int target) {
+    if (containsCall(source, target)) {
+      return;
+    }
+    unshare();
+    append(callees, calleeCounts, ownedCallees, source, target);
+    append(callers, callerCounts, ownedCallers, target, source);
+    callCount++;
+  }
+
+  @Override
+  public void addCall(@Nonnull CallEdge call) {
+    addCall(idOfContained(call.getSource()), idOfContained(call.getTarget()));
+    Stmt invokingStmt = call.getInvokingStmt();
+    if (invokingStmt == null) {
+      return;
+    }
+    CallEdge[] calls = callSiteToCalls.get(invokingStmt);
+    CallEdge[] appended = CallEdge.appendIfAbsent(calls, call);
+    if (appended != calls) {
+      if (callSitesShared) {
+        callSiteToCalls = new HashMap<>(callSiteToCalls);
+        callSitesShared = false;
+      }
+      callSiteToCalls.put(invokingStmt, appended);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public List<CallEdge> callsAt(@Nonnull Stmt invokingStmt) {
+    return CallEdge.asList(callSiteToCalls.get(invokingStmt));
+  }
+
+  @Nonnull
+  @Override
+  public Set<Stmt> getCallSites() {
+    return Collections.unmodifiableSet(callSiteToCalls.keySet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return new MethodSet(null, methodCount);
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    int id = idOfContained(sourceMethod);
+    return new MethodSet(callees[id], calleeCounts[id]);
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsTo(@Nonnull MethodSignature targetMethod) {
+    int id = idOfContained(targetMethod);
+    return new MethodSet(callers[id], callerCounts[id]);
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return idOf(method) >= 0;
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    int source = idOf(sourceMethod);
+    int target = idOf(targetMethod);
+    return source >= 0 && target >= 0 && containsCall(source, target);
+  }
+
+  /**
+   * Checks if the method with the id <code>source</code> calls the method with the id <code>target
+   * </code>. The shorter one of the callee row of the source and the caller row of the target is
+   * searched.
+   */
+  public boolean containsCall(int source, int target) {
+    int calleeCount = getCalleeCount(source);
+    int callerCount = getCallerCount(target);
+    if (calleeCount <= callerCount) {
+      return contains(callees[source], calleeCount, target);
+    }
+    return contains(callers[target], callerCount, source);
+  }
+
+  @Override
+  public int callCount() {
+    return callCount;
+  }
+
+  @Override
+  public String exportAsDot() {
+    GraphBasedCallGraph graph = new GraphBasedCallGraph();
+    for (int id = 0; id < methodCount; id++) {
+      graph.addMethod(signatures[id]);
+    }
+    for (int id = 0; id < methodCount; id++) {
+      for (int i = 0; i < calleeCounts[id]; i++) {
+        graph.addCall(signatures[id], signatures[callees[id][i]]);
+      }
+    }
+    return graph.exportAsDot();
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    shared = true;
+    callSitesShared = true;
+    ownedCallees.clear();
+    ownedCallers.clear();
+    return new IntIndexedCallGraph(this);
+  }
+
+  private int idOfContained(@Nonnull MethodSignature method) {
+    int id = idOf(method);
+    Preconditions.checkArgument(id >= 0, "Node for %s has not been added yet", method);
+    return id;
+  }
+
+  /** Copies the arrays that are shared with a copy, except the rows of the callees and callers. */
+  private void unshare() {
+    if (!shared) {
+      return;
+    }
+    signatures = signatures.clone();
+    slots = slots.clone();
+    callees = callees.clone();
+    calleeCounts = calleeCounts.clone();
+    callers = callers.clone();
+    callerCounts = callerCounts.clone();
+    shared = false;
+  }
+
+  /** Appends the value to the row of the id and copies the row if it is full or shared. */
+  private static void append(
+      @Nonnull int[][] rows, @Nonnull int[] counts, @Nonnull BitSet owned, int id, int value) {
+    int[] row = rows[id];
+    int count = counts[id];
+    if (count == row.length) {
+      row = Arrays.copyOf(row, Math.max(MINIMUM_ROW_LENGTH, count * 2));
+      rows[id] = row;
+      owned.set(id);
+    } else if (!owned.get(id)) {
+      row = row.clone();
+      rows[id] = row;
+      owned.set(id);
+    }
+    row[count] = value;
+    counts[id] = count + 1;
+  }
+
+  private static boolean contains(@Nonnull int[] row, int count, int value) {
+    for (int i = 0; i < count; i++) {
+      if (row[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void rehash(int tableSize) {
+    slots = new int[tableSize];
+    for (int id = 0; id < methodCount; id++) {
+      insertSlot(id);
+    }
+  }
+
+  private void insertSlot(int id) {
+    int mask = slots.length - 1;
+    int i = hash(signatures[id]) & mask;
+    while (slots[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    slots[i] = id + 1;
+  }
+
+  private static int hash(@Nonnull MethodSignature method) {
+    int h = method.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /** @return the smallest power of two that holds the given number of methods at a load of 1/2 */
+  private static int tableSizeFor(int methodCount) {
+    return Integer.highestOneBit(Math.max(2, methodCount * 2 - 1)) << 1;
+  }
+
+  /**
+   * An unmodifiable set of the methods with the ids in <code>row</code>, or of all methods if
+   * <code>row</code> is null. Rows are only appended to or replaced, so the first <code>size</code>
+   * entries of the row and of the signatures never change.
+   */
+  private final class MethodSet extends AbstractSet<MethodSignature> {
+    @Nullable private final int[] row;
+    private final int size;
+    @Nonnull private final MethodSignature[] methods = signatures;
+
+    private MethodSet(@Nullable int[] row, int size) {
+      this.row = row;
+      this.size = size;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof MethodSignature)) {
+        return false;
+      }
+      int id = idOf((MethodSignature) o);
+      if (row == null) {
+        return id >= 0 && id < size;
+      }
+      return id >= 0 && IntIndexedCallGraph.contains(row, size, id);
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<MethodSignature> iterator() {
+      return new Iterator<MethodSignature>() {
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+          return index < size;
+        }
+
+        @Override
+        public MethodSignature next() {
+          if (index >= size) {
+            throw new NoSuchElementException();
+          }
+          int id = row == null ? index : row[index];
+          index++;
+          return methods[id];
+        }
+      };
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder("IntIndexedCallGraph(" + callCount + ")");
+    if (methodCount == 0) {
+      return stringBuilder.append(" is empty").toString();
+    }
+    stringBuilder.append(":\n");
+    Comparator<MethodSignature> order = Comparator.comparing(MethodSignature::toString);
+    getMethodSignatures().stream()
+        .sorted(order)
+        .forEach(
+            method -> {
+              stringBuilder.append(method).append(":\n");
+              callsFrom(method).stream()
+                  .sorted(order)
+                  .forEach(m -> stringBuilder.append("\tto ").append(m).append("\n"));
+              callsTo(method).stream()
+                  .sorted(order)
+                  .forEach(m -> stringBuilder.append("\tfrom ").append(m).append("\n"));
+              stringBuilder.append("\n");
+            });
+    return stringBuilder.toString();
+  }
+}
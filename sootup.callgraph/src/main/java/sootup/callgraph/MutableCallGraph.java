@@ -45,4 +45,19 @@ public interface MutableCallGraph extends CallGraph {
    * @param targetMethod this paramter defines the target node of the edge in the call graph.
    */
   void addCall(@Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod);
+
+  /**
+   * This method enables to add calls together with their call site. The edge between the source
+   * and target method is added if it is not contained yet, and the call is recorded for its
+   * invoking statement, see {@link #callsAt}. Call graphs that do not record call sites only add
+   * the edge between the methods.
+   *
+   * @param call the call that will be added to the call graph. Its source and target method have
+   *     to be added before.
+   */
+  default void addCall(@Nonnull CallEdge call) {
+    if (!containsCall(call.getSource(), call.getTarget())) {
+      addCall(call.getSource(), call.getTarget());
+    }
+  }
 }
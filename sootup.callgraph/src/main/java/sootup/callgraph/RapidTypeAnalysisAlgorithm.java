@@ -23,6 +23,7 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -30,6 +31,7 @@ import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.expr.JNewExpr;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
 import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.MethodModifier;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.MethodSignature;
@@ -43,6 +45,10 @@ import sootup.core.views.View;
  *
  * <p>Compared to the CHA algorithm, this algorithm is more precise because it only considers
  * instantiated subclasses as call targets and CHA considers all subclasses.
+ *
+ * <p>In parallel mode, a class is marked as instantiated by exactly one thread, which adds all
+ * calls that were ignored until then. The ignored calls of a class are stored atomically with the
+ * check if the class is instantiated, so no call is lost if both happen at the same time.
  */
 public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
 
@@ -54,14 +60,20 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
   private static class Call {
     @Nonnull final MethodSignature source;
     @Nonnull final MethodSignature target;
+    @Nonnull final Stmt invokingStmt;
 
-    private Call(@Nonnull MethodSignature source, @Nonnull MethodSignature target) {
+    private Call(
+        @Nonnull MethodSignature source,
+        @Nonnull MethodSignature target,
+        @Nonnull Stmt invokingStmt) {
       this.source = source;
       this.target = target;
+      this.invokingStmt = invokingStmt;
     }
   }
 
   @Nonnull private Set<ClassType> instantiatedClasses = Collections.emptySet();
+  // a ConcurrentHashMap while the call graph is constructed, its compute method is atomic
   @Nonnull private Map<ClassType, List<Call>> ignoredCalls = Collections.emptyMap();
 
   /**
@@ -73,6 +85,17 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     super(view);
   }
 
+  /**
+   * The constructor of the RTA algorithm which processes the work list with the given number of
+   * threads.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param parallelism the number of threads constructing the call graph
+   */
+  public RapidTypeAnalysisAlgorithm(@Nonnull View view, int parallelism) {
+    super(view, parallelism);
+  }
+
   @Nonnull
   @Override
   public CallGraph initialize() {
@@ -83,8 +106,8 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
   @Nonnull
   @Override
   public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
-    instantiatedClasses = new HashSet<>();
-    ignoredCalls = new HashMap<>();
+    instantiatedClasses = ConcurrentHashMap.newKeySet();
+    ignoredCalls = new ConcurrentHashMap<>();
     CallGraph cg = constructCompleteCallGraph(view, entryPoints);
     instantiatedClasses = Collections.emptySet();
     ignoredCalls = Collections.emptyMap();
@@ -109,12 +132,7 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
             .filter(value -> value instanceof JNewExpr)
             .map(value -> ((JNewExpr) value).getType())
             .collect(Collectors.toSet());
-    List<ClassType> newInstantiatedClassTypes =
-        instantiated.stream()
-            .filter(classType -> !instantiatedClasses.contains(classType))
-            .collect(Collectors.toList());
-    instantiatedClasses.addAll(instantiated);
-    return newInstantiatedClassTypes;
+    return instantiated.stream().filter(instantiatedClasses::add).collect(Collectors.toList());
   }
 
   /**
@@ -123,15 +141,15 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    * is instantiated and if it contains an implementation of the methods called in the invoke
    * expression.
    *
-   * @param sourceMethod the method object that contains the given invoke expression in the body.
-   * @param invokeExpr it contains the call which is resolved.
+   * @param sourceMethod the method object that contains the given invoke statement in the body.
+   * @param invokingStmt it contains the call which is resolved.
    * @return a stream containing all reachable method signatures after applying the RTA call graph
    *     algorithm
    */
   @Override
   @Nonnull
-  protected Stream<MethodSignature> resolveCall(
-      SootMethod sourceMethod, AbstractInvokeExpr invokeExpr) {
+  protected Stream<MethodSignature> resolveCall(SootMethod sourceMethod, Stmt invokingStmt) {
+    AbstractInvokeExpr invokeExpr = invokingStmt.getInvokeExpr();
     MethodSignature resolveBaseMethodSignature = invokeExpr.getMethodSignature();
     Stream<MethodSignature> result = Stream.of(resolveBaseMethodSignature);
 
@@ -144,13 +162,15 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
       return result;
     } else {
       // the class of the actual method call is instantiated
-      if (instantiatedClasses.contains(resolveBaseMethodSignature.getDeclClassType())) {
+      if (isInstantiatedOrSaveIgnoredCall(
+          sourceMethod.getSignature(), resolveBaseMethodSignature, invokingStmt)) {
         return Stream.concat(
             Stream.of(concreteBaseMethod.getSignature()),
-            resolveAllCallTargets(sourceMethod.getSignature(), resolveBaseMethodSignature));
+            resolveAllCallTargets(
+                sourceMethod.getSignature(), resolveBaseMethodSignature, invokingStmt));
       } else {
-        saveIgnoredCall(sourceMethod.getSignature(), resolveBaseMethodSignature);
-        return resolveAllCallTargets(sourceMethod.getSignature(), resolveBaseMethodSignature);
+        return resolveAllCallTargets(
+            sourceMethod.getSignature(), resolveBaseMethodSignature, invokingStmt);
       }
     }
   }
@@ -163,11 +183,12 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    * @param source the method which contains call
    * @param resolveBaseMethodSignature the base of the resolving. All subtypes of the declaring
    *     class are analyzed as potential targets
+   * @param invokingStmt the statement of the call
    * @return a stream of all method signatures of instantiated classes that can be resolved as
    *     target from the given base method signature.
    */
   private Stream<MethodSignature> resolveAllCallTargets(
-      MethodSignature source, MethodSignature resolveBaseMethodSignature) {
+      MethodSignature source, MethodSignature resolveBaseMethodSignature, Stmt invokingStmt) {
     return view.getTypeHierarchy().subtypesOf(resolveBaseMethodSignature.getDeclClassType())
         .stream()
         .map(
@@ -175,10 +196,9 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
               MethodSignature method =
                   view.getIdentifierFactory()
                       .getMethodSignature(classType, resolveBaseMethodSignature.getSubSignature());
-              if (instantiatedClasses.contains(classType)) {
+              if (isInstantiatedOrSaveIgnoredCall(source, method, invokingStmt)) {
                 return resolveConcreteDispatch(view, method);
               } else {
-                saveIgnoredCall(source, method);
                 return Optional.<MethodSignature>empty();
               }
             })
@@ -187,21 +207,38 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
   }
 
   /**
-   * This method saves an ignored call If this is the first ignored call of the class type in the
-   * target method, an entry for the class type is created in the ignoredCalls Hashmap
+   * This method checks if the declaring class of the target is instantiated. If not, the call is
+   * saved as ignored call. If this is the first ignored call of the class type in the target
+   * method, an entry for the class type is created in the ignoredCalls Hashmap. The check and the
+   * saving are atomic.
    *
    * @param source the source method of the call
    * @param target the target method of the call
+   * @param invokingStmt the statement of the call
+   * @return true if the declaring class of the target is instantiated, false if the call is saved
    */
-  private void saveIgnoredCall(MethodSignature source, MethodSignature target) {
-    ClassType notInstantiatedClass = target.getDeclClassType();
-    List<Call> calls = ignoredCalls.get(notInstantiatedClass);
-    Call ignoredCall = new Call(source, target);
-    if (calls == null) {
-      calls = new ArrayList<>();
-      ignoredCalls.put(notInstantiatedClass, calls);
+  private boolean isInstantiatedOrSaveIgnoredCall(
+      MethodSignature source, MethodSignature target, Stmt invokingStmt) {
+    ClassType classType = target.getDeclClassType();
+    // classes are never removed from the instantiated classes
+    if (instantiatedClasses.contains(classType)) {
+      return true;
     }
-    calls.add(ignoredCall);
+    boolean[] instantiated = {false};
+    ignoredCalls.compute(
+        classType,
+        (notInstantiatedClass, calls) -> {
+          if (instantiatedClasses.contains(notInstantiatedClass)) {
+            instantiated[0] = true;
+            return calls;
+          }
+          if (calls == null) {
+            calls = new ArrayList<>();
+          }
+          calls.add(new Call(source, target, invokingStmt));
+          return calls;
+        });
+    return instantiated[0];
   }
 
   /**
@@ -233,7 +270,8 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     List<ClassType> newInstantiatedClasses = collectInstantiatedClassesInMethod(method);
     newInstantiatedClasses.forEach(
         instantiatedClassType -> {
-          List<Call> newEdges = ignoredCalls.get(instantiatedClassType);
+          // can be removed because the instantiated class will be considered in future resolves
+          List<Call> newEdges = ignoredCalls.remove(instantiatedClassType);
           if (newEdges != null) {
             newEdges.forEach(
                 call -> {
@@ -242,18 +280,19 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
                   if (concreteTarget == null) {
                     return;
                   }
-                  if (cg.containsMethod(concreteTarget)) {
-                    // method is already analyzed or is in the work list, simply add the call
-                    cg.addCall(call.source, concreteTarget);
-                  } else {
-                    // new target method found that has to be analyzed
+                  CallEdge callEdge =
+                      new CallEdge(
+                          call.source,
+                          concreteTarget,
+                          call.invokingStmt,
+                          CallKind.of(call.invokingStmt.getInvokeExpr()));
+                  if (!cg.containsMethod(concreteTarget)) {
                     cg.addMethod(concreteTarget);
-                    cg.addCall(call.source, concreteTarget);
-                    workList.push(concreteTarget);
                   }
+                  cg.addCall(callEdge);
+                  // the target is only analyzed if it is not analyzed or in a work list already
+                  addToWorkList(workList, concreteTarget);
                 });
-            // can be removed because the instantiated class will be considered in future resolves
-            ignoredCalls.remove(instantiatedClassType);
           }
         });
   }
@@ -0,0 +1,149 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.stmt.JNopStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.JavaIdentifierFactory;
+
+@Tag("Java8")
+public class IntIndexedCallGraphTest {
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+
+  private List<MethodSignature> createMethods(int count) {
+    List<MethodSignature> methods = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      methods.add(
+          identifierFactory.getMethodSignature(
+              identifierFactory.getClassType("C" + (i % 7)),
+              "m" + i,
+              "void",
+              Collections.emptyList()));
+    }
+    return methods;
+  }
+
+  private static void assertSameCallGraph(CallGraph expected, CallGraph actual) {
+    assertEquals(expected.getMethodSignatures(), actual.getMethodSignatures());
+    assertEquals(expected.callCount(), actual.callCount());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(expected.callsFrom(method), actual.callsFrom(method));
+      assertEquals(expected.callsTo(method), actual.callsTo(method));
+    }
+    assertEquals(expected.exportAsDot(), actual.exportAsDot());
+  }
+
+  @Test
+  public void sameAsGraphBasedCallGraph() {
+    List<MethodSignature> methods = createMethods(500);
+    GraphBasedCallGraph expected = new GraphBasedCallGraph();
+    IntIndexedCallGraph actual = new IntIndexedCallGraph();
+    methods.forEach(expected::addMethod);
+    methods.forEach(actual::addMethod);
+    // adding a method twice does not change its id
+    actual.addMethod(methods.get(0));
+    assertEquals(methods.size(), actual.getMethodCount());
+
+    Random random = new Random(42);
+    for (int i = 0; i < 5000; i++) {
+      MethodSignature source = methods.get(random.nextInt(methods.size()));
+      MethodSignature target = methods.get(random.nextInt(methods.size()));
+      if (!expected.containsCall(source, target)) {
+        expected.addCall(source, target);
+      }
+      actual.addCall(source, target);
+      assertTrue(actual.containsCall(source, target));
+    }
+    assertSameCallGraph(expected, actual);
+
+    for (MethodSignature method : methods) {
+      int id = actual.idOf(method);
+      assertEquals(method, actual.getMethodSignature(id));
+      Set<MethodSignature> callees = new HashSet<>();
+      for (int i = 0; i < actual.getCalleeCount(id); i++) {
+        callees.add(actual.getMethodSignature(actual.getCallee(id, i)));
+      }
+      assertEquals(expected.callsFrom(method), callees);
+      Set<MethodSignature> callers = new HashSet<>();
+      actual.forEachCaller(id, caller -> callers.add(actual.getMethodSignature(caller)));
+      assertEquals(expected.callsTo(method), callers);
+    }
+    assertEquals(-1, actual.idOf(createMethods(501).get(500)));
+    assertThrows(
+        IllegalArgumentException.class, () -> actual.callsFrom(createMethods(501).get(500)));
+  }
+
+  @Test
+  public void copyOnWrite() {
+    List<MethodSignature> methods = createMethods(10);
+    IntIndexedCallGraph original = new IntIndexedCallGraph(2);
+    methods.subList(0, 5).forEach(original::addMethod);
+    original.addCall(methods.get(0), methods.get(1));
+    original.addCall(methods.get(1), methods.get(2));
+
+    Set<MethodSignature> calleesBeforeCopy = original.callsFrom(methods.get(0));
+    MutableCallGraph copy = original.copy();
+    copy.addMethod(methods.get(5));
+    copy.addCall(methods.get(0), methods.get(5));
+    copy.addCall(methods.get(3), methods.get(0));
+
+    original.addMethod(methods.get(6));
+    original.addCall(methods.get(0), methods.get(6));
+
+    assertEquals(Collections.singleton(methods.get(1)), calleesBeforeCopy);
+    assertEquals(
+        new HashSet<>(Arrays.asList(methods.get(1), methods.get(6))),
+        original.callsFrom(methods.get(0)));
+    assertEquals(
+        new HashSet<>(Arrays.asList(methods.get(1), methods.get(5))),
+        copy.callsFrom(methods.get(0)));
+    assertFalse(original.containsMethod(methods.get(5)));
+    assertFalse(copy.containsMethod(methods.get(6)));
+    assertFalse(original.containsCall(methods.get(3), methods.get(0)));
+    assertEquals(3, original.callCount());
+    assertEquals(4, copy.callCount());
+
+    // a copy of a copy
+    MutableCallGraph second = copy.copy();
+    second.addCall(methods.get(4), methods.get(4));
+    assertFalse(copy.containsCall(methods.get(4), methods.get(4)));
+    assertEquals(5, second.callCount());
+  }
+
+  @Test
+  public void callSitesCopyOnWrite() {
+    List<MethodSignature> methods = createMethods(3);
+    IntIndexedCallGraph original = new IntIndexedCallGraph();
+    methods.forEach(original::addMethod);
+    Stmt first = new JNopStmt(StmtPositionInfo.getNoStmtPositionInfo());
+    Stmt second = new JNopStmt(StmtPositionInfo.getNoStmtPositionInfo());
+    CallEdge call = new CallEdge(methods.get(0), methods.get(1), first, CallKind.VIRTUAL);
+    original.addCall(call);
+    original.addCall(call);
+    assertTrue(original.containsCall(methods.get(0), methods.get(1)));
+    assertEquals(Collections.singletonList(call), original.callsAt(first));
+
+    MutableCallGraph copy = original.copy();
+    CallEdge otherTarget = new CallEdge(methods.get(0), methods.get(2), first, CallKind.VIRTUAL);
+    copy.addCall(otherTarget);
+    copy.addCall(new CallEdge(methods.get(0), methods.get(1), second, CallKind.STATIC));
+
+    assertEquals(Collections.singletonList(call), original.callsAt(first));
+    assertTrue(original.callsAt(second).isEmpty());
+    assertEquals(Arrays.asList(call, otherTarget), copy.callsAt(first));
+    assertEquals(2, copy.getCallSites().size());
+    assertEquals(2, copy.callCount());
+  }
+}
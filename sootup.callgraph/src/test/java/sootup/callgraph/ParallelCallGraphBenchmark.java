@@ -0,0 +1,84 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.views.View;
+import sootup.java.bytecode.inputlocation.JrtFileSystemAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures the construction time of the CHA and RTA call graph of an android library with an
+ * increasing number of threads. Every concrete method of the library is an entry point. The call
+ * graphs of the parallel runs are compared with the sequential one.
+ */
+@Tag("Benchmark")
+public class ParallelCallGraphBenchmark {
+
+  private static final String JAR =
+      "../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar";
+
+  @Test
+  public void classHierarchyAnalysis() {
+    measure("CHA", ClassHierarchyAnalysisAlgorithm::new);
+  }
+
+  @Test
+  public void rapidTypeAnalysis() {
+    measure("RTA", RapidTypeAnalysisAlgorithm::new);
+  }
+
+  private void measure(
+      String name, BiFunction<View, Integer, AbstractCallGraphAlgorithm> algorithm) {
+    List<AnalysisInputLocation> inputLocations =
+        Arrays.asList(
+            PathBasedAnalysisInputLocation.create(Paths.get(JAR), SourceType.Application),
+            new JrtFileSystemAnalysisInputLocation());
+
+    int maxThreads =
+        Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+    System.out.printf("%s%n%8s %12s %12s %12s%n", name, "threads", "time [ms]", "methods", "calls");
+    CallGraph sequential = null;
+    for (int threads = 1; threads <= Math.max(2, maxThreads); threads *= 2) {
+      JavaView view = new JavaView(inputLocations, new FullCacheProvider(), true);
+      List<MethodSignature> entryPoints =
+          view.getClasses().stream()
+              .filter(clazz -> clazz.isApplicationClass())
+              .flatMap(clazz -> clazz.getMethods().stream())
+              .filter(SootMethod::isConcrete)
+              .map(SootMethod::getSignature)
+              .collect(Collectors.toList());
+      // build the type hierarchy before measuring
+      view.getTypeHierarchy()
+          .subtypesOf(view.getIdentifierFactory().getClassType("java.lang.Object"));
+
+      long start = System.nanoTime();
+      CallGraph cg = algorithm.apply(view, threads).initialize(entryPoints);
+      long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      System.out.printf(
+          "%8d %12d %12d %12d%n", threads, millis, cg.getMethodSignatures().size(), cg.callCount());
+
+      if (sequential == null) {
+        sequential = cg;
+      } else {
+        assertEquals(sequential.getMethodSignatures(), cg.getMethodSignatures());
+        assertEquals(sequential.callCount(), cg.callCount());
+        for (MethodSignature method : sequential.getMethodSignatures()) {
+          assertEquals(sequential.callsFrom(method), cg.callsFrom(method));
+        }
+      }
+    }
+  }
+}
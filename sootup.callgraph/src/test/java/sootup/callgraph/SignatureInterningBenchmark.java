@@ -0,0 +1,130 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.views.View;
+import sootup.java.bytecode.inputlocation.JrtFileSystemAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures the sequential construction time of the CHA and RTA call graph of an android library,
+ * whose work lists, visited sets and edge maps are keyed by {@link MethodSignature}s. Afterwards the
+ * signatures of the call graph are looked up in a hash map once with the canonical instances handed
+ * out by the identifier factory and once with equal, but not interned copies, which is what every
+ * lookup paid before the signatures were hash-consed.
+ */
+@Tag("Benchmark")
+public class SignatureInterningBenchmark {
+
+  private static final String JAR =
+      "../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar";
+
+  private static final int ROUNDS = 6;
+  private static final int LOOKUP_ROUNDS = 500;
+
+  @Test
+  public void classHierarchyAnalysis() {
+    measure("CHA", ClassHierarchyAnalysisAlgorithm::new);
+  }
+
+  @Test
+  public void rapidTypeAnalysis() {
+    measure("RTA", RapidTypeAnalysisAlgorithm::new);
+  }
+
+  private void measure(
+      String name, BiFunction<View, Integer, AbstractCallGraphAlgorithm> algorithm) {
+    List<AnalysisInputLocation> inputLocations =
+        Arrays.asList(
+            PathBasedAnalysisInputLocation.create(Paths.get(JAR), SourceType.Application),
+            new JrtFileSystemAnalysisInputLocation());
+
+    JavaView view = new JavaView(inputLocations, new FullCacheProvider(), true);
+    List<MethodSignature> entryPoints =
+        view.getClasses().stream()
+            .filter(clazz -> clazz.isApplicationClass())
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+    // build the type hierarchy before measuring
+    view.getTypeHierarchy()
+        .subtypesOf(view.getIdentifierFactory().getClassType("java.lang.Object"));
+
+    // the first round resolves the bodies of the reachable methods, the later ones measure the
+    // call graph algorithm itself
+    System.out.printf("%s%n%8s %12s %12s %12s%n", name, "round", "time [ms]", "methods", "calls");
+    CallGraph callGraph = null;
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      CallGraph cg = algorithm.apply(view, 1).initialize(entryPoints);
+      long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      if (round > 0) {
+        best = Math.min(best, millis);
+      }
+      System.out.printf(
+          "%8d %12d %12d %12d%n", round, millis, cg.getMethodSignatures().size(), cg.callCount());
+      if (callGraph != null) {
+        assertEquals(callGraph.getMethodSignatures(), cg.getMethodSignatures());
+      }
+      callGraph = cg;
+    }
+    System.out.printf("best warm round: %d ms%n", best);
+
+    Map<MethodSignature, Set<MethodSignature>> edges = new HashMap<>();
+    List<MethodSignature> canonical = new ArrayList<>();
+    List<MethodSignature> copies = new ArrayList<>();
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      edges.put(method, callGraph.callsFrom(method));
+      canonical.add(method);
+      MethodSubSignature subSignature = method.getSubSignature();
+      copies.add(
+          new MethodSignature(
+              method.getDeclClassType(),
+              new MethodSubSignature(
+                  subSignature.getName(),
+                  subSignature.getParameterTypes(),
+                  subSignature.getType())));
+    }
+    long canonicalNanos = Long.MAX_VALUE;
+    long copyNanos = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      canonicalNanos = Math.min(canonicalNanos, lookUp(edges, canonical));
+      copyNanos = Math.min(copyNanos, lookUp(edges, copies));
+    }
+    System.out.printf(
+        "%d lookups: interned %d ms, copies %d ms%n",
+        (long) LOOKUP_ROUNDS * canonical.size(),
+        TimeUnit.NANOSECONDS.toMillis(canonicalNanos),
+        TimeUnit.NANOSECONDS.toMillis(copyNanos));
+  }
+
+  private static long lookUp(
+      Map<MethodSignature, Set<MethodSignature>> edges, List<MethodSignature> keys) {
+    long calls = 0;
+    long start = System.nanoTime();
+    for (int round = 0; round < LOOKUP_ROUNDS; round++) {
+      for (MethodSignature key : keys) {
+        calls += edges.get(key).size();
+      }
+    }
+    long nanos = System.nanoTime() - start;
+    assertEquals(0, calls % LOOKUP_ROUNDS);
+    return nanos;
+  }
+}
@@ -0,0 +1,60 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.frontend.BodySource;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+
+/**
+ * Decides how long the resolved {@link Body} of a {@link SootMethod} is kept in memory. A body that
+ * is not retained anymore is resolved again via the {@link BodySource} of its method on the next
+ * access. Hence, unless the {@link StrongBodyRetentionPolicy} is used, analyses must not rely on
+ * the identity of a body or of its statements across multiple calls of {@link
+ * SootMethod#getBody()}.
+ */
+public interface BodyRetentionPolicy {
+
+  /**
+   * Creates the holder for the body of a single method.
+   *
+   * @param bodyResolver resolves the body (again) whenever it is not retained by the holder
+   */
+  @Nonnull
+  BodyHolder createBodyHolder(@Nonnull Supplier<Body> bodyResolver);
+
+  /** Holds the body of a single method according to the policy which created it. */
+  interface BodyHolder {
+
+    /** Returns the body of the method and resolves it if it is not retained. */
+    @Nonnull
+    Body getBody();
+
+    /** Returns the body of the method if it is currently retained, without resolving it. */
+    @Nullable
+    Body getRetainedBody();
+  }
+}
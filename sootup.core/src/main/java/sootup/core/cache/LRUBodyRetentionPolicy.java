@@ -0,0 +1,113 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+
+/**
+ * Keeps at most a specified amount of resolved bodies. If the amount is exceeded, the least
+ * recently used body among all methods whose holders were created by this policy is dropped and
+ * resolved again on its next access. Hence, the memory used by bodies stays bounded no matter how
+ * many methods an analysis touches.
+ */
+public class LRUBodyRetentionPolicy implements BodyRetentionPolicy {
+  private final int maximumBodies;
+
+  /** access ordered i.e. the eldest entry is the least recently used body */
+  private final LinkedHashMap<LRUBodyHolder, Boolean> retainedBodies =
+      new LinkedHashMap<LRUBodyHolder, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LRUBodyHolder, Boolean> eldest) {
+          if (size() > maximumBodies) {
+            eldest.getKey().body = null;
+            return true;
+          }
+          return false;
+        }
+      };
+
+  public LRUBodyRetentionPolicy(int maximumBodies) {
+    if (maximumBodies < 1) {
+      throw new IllegalArgumentException("Maximum amount of bodies has to be at least 1");
+    }
+    this.maximumBodies = maximumBodies;
+  }
+
+  @Nonnull
+  @Override
+  public BodyHolder createBodyHolder(@Nonnull Supplier<Body> bodyResolver) {
+    return new LRUBodyHolder(bodyResolver);
+  }
+
+  /** Returns the amount of bodies that are currently retained. */
+  public int getRetainedBodyCount() {
+    synchronized (retainedBodies) {
+      return retainedBodies.size();
+    }
+  }
+
+  private class LRUBodyHolder implements BodyHolder {
+    @Nonnull private final Supplier<Body> bodyResolver;
+    /** only set while this holder is an entry of the retained bodies */
+    @Nullable private volatile Body body;
+
+    private LRUBodyHolder(@Nonnull Supplier<Body> bodyResolver) {
+      this.bodyResolver = bodyResolver;
+    }
+
+    @Nonnull
+    @Override
+    public Body getBody() {
+      Body resolvedBody = body;
+      if (resolvedBody != null) {
+        synchronized (retainedBodies) {
+          // marks the body as most recently used
+          retainedBodies.get(this);
+        }
+        return resolvedBody;
+      }
+      synchronized (this) {
+        resolvedBody = body;
+        if (resolvedBody == null) {
+          resolvedBody = bodyResolver.get();
+          synchronized (retainedBodies) {
+            body = resolvedBody;
+            retainedBodies.put(this, Boolean.TRUE);
+          }
+        }
+      }
+      return resolvedBody;
+    }
+
+    @Nullable
+    @Override
+    public Body getRetainedBody() {
+      return body;
+    }
+  }
+}
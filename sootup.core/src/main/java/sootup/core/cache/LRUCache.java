@@ -22,6 +22,9 @@ package sootup.core.cache;
  * #L%
  */
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import java.util.*;
 import javax.annotation.Nonnull;
 import sootup.core.model.SootClass;
@@ -29,52 +32,51 @@ import sootup.core.types.ClassType;
 
 /**
  * Cache that implements a least recently used strategy. If the amount of stored classes exceeds a
- * specified amount, the lest recently used class will be overwritten.
+ * specified amount, the least recently used class will be evicted. The cache is segmented like a
+ * {@link java.util.concurrent.ConcurrentHashMap}: lookups do not take a lock, and insertions only
+ * lock the segment of the class. The access order is kept per segment, so with many classes the
+ * evicted class is the least recently used one of its segment.
  */
 public class LRUCache implements ClassCache {
-  private final int cacheSize;
-  private final Map<ClassType, SootClass> cache = new HashMap<>();
-  private final LinkedList<ClassType> accessOrder = new LinkedList<>();
+
+  @Nonnull private final Cache<ClassType, SootClass> cache;
 
   public LRUCache(int cacheSize) {
-    this.cacheSize = cacheSize;
+    this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build();
   }
 
   @Override
-  public synchronized SootClass getClass(ClassType classType) {
-    SootClass sootClass = cache.get(classType);
-    if (sootClass != null) {
-      accessOrder.remove(classType);
-      accessOrder.addFirst(classType);
-    }
-
-    return sootClass;
+  public SootClass getClass(ClassType classType) {
+    return cache.getIfPresent(classType);
   }
 
   @Nonnull
   @Override
-  public synchronized Collection<SootClass> getClasses() {
-    return cache.values();
+  public Collection<SootClass> getClasses() {
+    return new ArrayList<>(cache.asMap().values());
   }
 
   @Override
   public void putClass(ClassType classType, SootClass sootClass) {
-    if (accessOrder.size() >= cacheSize) {
-      ClassType leastAccessed = accessOrder.removeLast();
-      cache.remove(leastAccessed);
-    }
-
-    accessOrder.addFirst(classType);
-    cache.putIfAbsent(classType, sootClass);
+    cache.asMap().putIfAbsent(classType, sootClass);
   }
 
   @Override
   public boolean hasClass(ClassType classType) {
-    return cache.containsKey(classType);
+    return cache.asMap().containsKey(classType);
   }
 
   @Override
   public int size() {
-    return cache.size();
+    return (int) cache.size();
+  }
+
+  /**
+   * Returns a snapshot of the hit, miss and eviction counts of this cache. Only lookups via {@link
+   * #getClass(ClassType)} are counted as hits or misses.
+   */
+  @Nonnull
+  public CacheStats getStats() {
+    return cache.stats();
   }
 }
@@ -0,0 +1,79 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+
+/** Keeps a body forever once it is resolved. This is the default policy. */
+public class StrongBodyRetentionPolicy implements BodyRetentionPolicy {
+
+  @Nonnull
+  private static final StrongBodyRetentionPolicy INSTANCE = new StrongBodyRetentionPolicy();
+
+  @Nonnull
+  public static StrongBodyRetentionPolicy getInstance() {
+    return INSTANCE;
+  }
+
+  private StrongBodyRetentionPolicy() {}
+
+  @Nonnull
+  @Override
+  public BodyHolder createBodyHolder(@Nonnull Supplier<Body> bodyResolver) {
+    return new StrongBodyHolder(bodyResolver);
+  }
+
+  private static class StrongBodyHolder implements BodyHolder {
+    @Nonnull private final Supplier<Body> bodyResolver;
+    @Nullable private volatile Body body;
+
+    private StrongBodyHolder(@Nonnull Supplier<Body> bodyResolver) {
+      this.bodyResolver = bodyResolver;
+    }
+
+    @Nonnull
+    @Override
+    public Body getBody() {
+      Body resolvedBody = body;
+      if (resolvedBody == null) {
+        synchronized (this) {
+          resolvedBody = body;
+          if (resolvedBody == null) {
+            resolvedBody = bodyResolver.get();
+            body = resolvedBody;
+          }
+        }
+      }
+      return resolvedBody;
+    }
+
+    @Nullable
+    @Override
+    public Body getRetainedBody() {
+      return body;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.*;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.types.ClassType;
+
+/**
+ * Cache that implements a least recently used strategy which is bounded by the estimated retained
+ * size of the stored classes instead of their number. If the summed up weight of the stored classes
+ * exceeds the specified maximum, the least recently used classes are evicted until it fits again. A
+ * class that is heavier than the maximum on its own is evicted as well.
+ *
+ * <p>The weight of a class is estimated once when it is stored, so lookups neither take a lock nor
+ * walk the class. As the weight of a class grows when its methods and their bodies are resolved,
+ * which usually happens after the class was stored, {@link #updateWeight(ClassType)} estimates it
+ * again. Like the {@link LRUCache}, the cache is segmented and the access order is kept per
+ * segment.
+ */
+public class WeightedLRUCache implements ClassCache {
+
+  @Nonnull private final Cache<ClassType, SootClass> cache;
+  @Nonnull private final ToLongFunction<SootClass> weigher;
+
+  public WeightedLRUCache(long maximumWeight) {
+    this(maximumWeight, WeightedLRUCache::estimateRetainedSize);
+  }
+
+  public WeightedLRUCache(long maximumWeight, @Nonnull ToLongFunction<SootClass> weigher) {
+    this.weigher = weigher;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher((ClassType type, SootClass sootClass) -> weigh(sootClass))
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * Estimates the retained size of a class by the number of its already resolved methods, and the
+   * number of statements and locals of their currently retained bodies. The estimation does not
+   * trigger any resolution.
+   */
+  public static long estimateRetainedSize(@Nonnull SootClass sootClass) {
+    long weight = 1;
+    if (!sootClass.areMethodsResolved()) {
+      return weight;
+    }
+    for (SootMethod method : sootClass.getMethods()) {
+      weight++;
+      Optional<Body> body = method.getRetainedBody();
+      if (body.isPresent()) {
+        weight += body.get().getStmtGraph().getNodes().size() + body.get().getLocalCount();
+      }
+    }
+    return weight;
+  }
+
+  /** the weight of a single entry is an int, heavier classes are weighed with its maximum */
+  private int weigh(@Nonnull SootClass sootClass) {
+    return (int) Math.min(weigher.applyAsLong(sootClass), Integer.MAX_VALUE);
+  }
+
+  @Override
+  public SootClass getClass(ClassType classType) {
+    return cache.getIfPresent(classType);
+  }
+
+  @Nonnull
+  @Override
+  public Collection<SootClass> getClasses() {
+    return new ArrayList<>(cache.asMap().values());
+  }
+
+  @Override
+  public void putClass(ClassType classType, SootClass sootClass) {
+    cache.asMap().putIfAbsent(classType, sootClass);
+  }
+
+  /**
+   * Estimates the weight of the stored class of the given type again, e.g. after its bodies were
+   * resolved, and evicts the least recently used classes if the cache does not fit anymore. The
+   * update counts as an access of the class. Does nothing if the class is not stored.
+   */
+  public void updateWeight(@Nonnull ClassType classType) {
+    SootClass sootClass = cache.getIfPresent(classType);
+    if (sootClass != null) {
+      // replacing an entry weighs it again
+      cache.asMap().replace(classType, sootClass, sootClass);
+    }
+  }
+
+  @Override
+  public boolean hasClass(ClassType classType) {
+    return cache.asMap().containsKey(classType);
+  }
+
+  @Override
+  public int size() {
+    return (int) cache.size();
+  }
+
+  /**
+   * Returns a snapshot of the hit, miss and eviction counts of this cache. Only lookups via {@link
+   * #getClass(ClassType)} and {@link #updateWeight(ClassType)} are counted as hits or misses.
+   */
+  @Nonnull
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+}
@@ -0,0 +1,63 @@
+package sootup.core.cache.provider;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.ToLongFunction;
+import javax.annotation.Nonnull;
+import sootup.core.cache.ClassCache;
+import sootup.core.cache.WeightedLRUCache;
+import sootup.core.model.SootClass;
+
+/**
+ * Provides a new {@link WeightedLRUCache} object, i.e. a cache that is bounded by the estimated
+ * retained size of the stored classes instead of their number.
+ */
+public class WeightedLRUCacheProvider implements ClassCacheProvider {
+  private final long maximumWeight;
+  @Nonnull private final ToLongFunction<SootClass> weigher;
+
+  /**
+   * Create a new WeightedLRUCacheProvider that returns a {@link WeightedLRUCache} which weighs
+   * classes via {@link WeightedLRUCache#estimateRetainedSize(SootClass)}.
+   */
+  public WeightedLRUCacheProvider(long maximumWeight) {
+    this(maximumWeight, WeightedLRUCache::estimateRetainedSize);
+  }
+
+  /**
+   * Create a new WeightedLRUCacheProvider that returns a {@link WeightedLRUCache} with the
+   * specified maximum weight and weigher.
+   */
+  public WeightedLRUCacheProvider(long maximumWeight, @Nonnull ToLongFunction<SootClass> weigher) {
+    if (maximumWeight < 1) {
+      throw new IllegalArgumentException("Maximum weight has to be at least 1");
+    }
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+  }
+
+  @Override
+  public ClassCache createCache() {
+    return new WeightedLRUCache(maximumWeight, weigher);
+  }
+}
@@ -0,0 +1,430 @@
+package sootup.core.graph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * A worklist solver for gen/kill dataflow problems with a union merge (e.g. liveness or reaching
+ * definitions). The Stmts of the given StmtGraph and the elements of the analysed domain are
+ * numbered densely, so that the in- and out-sets of all Stmts are stored as bitvectors in two flat
+ * {@code long[]}s and the fixpoint iteration works on ints only.
+ *
+ * <p>The worklist is a bitset over the Stmt numbering, which is the reverse postorder of the
+ * StmtGraph for forward analyses and its postorder for backward analyses. Like in a {@code
+ * UniverseSortedPriorityQueue}, the Stmts are taken in the order of their numbers, but in sweeps:
+ * a Stmt that is added again behind the current position waits for the next sweep instead of
+ * being processed next. Thus a loop header with many back edges is not merged again after each
+ * of its back edges. Exceptional flows are handled like normal flows.
+ *
+ * <p>Subclasses number the elements of their domain after calling the constructor (e.g. via {@link
+ * #getStmtCount()} and {@link #getStmt(int)}), describe the effect of each Stmt in {@link
+ * #flowThrough(Stmt, GenKill)} and start the iteration via {@link #doAnalysis(int)}.
+ */
+public abstract class BitVectorFlowAnalysis {
+
+  public enum AnalysisDirection {
+    FORWARD,
+    BACKWARD
+  }
+
+  @Nonnull protected final StmtGraph<?> graph;
+  @Nonnull protected final AnalysisDirection direction;
+
+  // the Stmts in the order of their numbering
+  @Nonnull private final Stmt[] stmts;
+  @Nonnull private final Map<Stmt, Integer> stmtToIndex;
+
+  // flows in the direction of the analysis in compressed sparse row format: the flow
+  // predecessors of the Stmt with number i are stored in [predOffsets[i], predOffsets[i+1])
+  @Nonnull private final int[] predOffsets;
+  @Nonnull private final int[] preds;
+  @Nonnull private final int[] succOffsets;
+  @Nonnull private final int[] succs;
+
+  private int words;
+  // the sets before and after each Stmt in the direction of the analysis, words per Stmt each
+  @Nonnull private long[] flowBefore = new long[0];
+  @Nonnull private long[] flowAfter = new long[0];
+
+  protected BitVectorFlowAnalysis(
+      @Nonnull StmtGraph<?> graph, @Nonnull AnalysisDirection direction) {
+    this.graph = graph;
+    this.direction = direction;
+
+    Collection<Stmt> nodes = graph.getNodes();
+    int stmtCount = nodes.size();
+    stmts = new Stmt[stmtCount];
+    stmtToIndex = new IdentityHashMap<>(stmtCount);
+    numberStmts(nodes);
+
+    // collect the flows of the StmtGraph
+    int[] cfgSuccOffsets = new int[stmtCount + 1];
+    int[] cfgSuccs = new int[stmtCount];
+    int edgeCount = 0;
+    for (int i = 0; i < stmtCount; i++) {
+      cfgSuccOffsets[i] = edgeCount;
+      Stmt stmt = stmts[i];
+      List<Stmt> successors = graph.successors(stmt);
+      Collection<Stmt> exceptionalSuccessors = graph.exceptionalSuccessors(stmt).values();
+      int required = edgeCount + successors.size() + exceptionalSuccessors.size();
+      if (required > cfgSuccs.length) {
+        cfgSuccs = Arrays.copyOf(cfgSuccs, Math.max(required, cfgSuccs.length * 2));
+      }
+      for (Stmt succ : successors) {
+        cfgSuccs[edgeCount++] = stmtToIndex.get(succ);
+      }
+      for (Stmt succ : exceptionalSuccessors) {
+        cfgSuccs[edgeCount++] = stmtToIndex.get(succ);
+      }
+    }
+    cfgSuccOffsets[stmtCount] = edgeCount;
+
+    // invert them
+    int[] cfgPredOffsets = new int[stmtCount + 1];
+    for (int e = 0; e < edgeCount; e++) {
+      cfgPredOffsets[cfgSuccs[e] + 1]++;
+    }
+    for (int i = 0; i < stmtCount; i++) {
+      cfgPredOffsets[i + 1] += cfgPredOffsets[i];
+    }
+    int[] cfgPreds = new int[edgeCount];
+    int[] fill = Arrays.copyOf(cfgPredOffsets, stmtCount);
+    for (int i = 0; i < stmtCount; i++) {
+      for (int e = cfgSuccOffsets[i]; e < cfgSuccOffsets[i + 1]; e++) {
+        cfgPreds[fill[cfgSuccs[e]]++] = i;
+      }
+    }
+
+    if (direction == AnalysisDirection.FORWARD) {
+      predOffsets = cfgPredOffsets;
+      preds = cfgPreds;
+      succOffsets = cfgSuccOffsets;
+      succs = cfgSuccs;
+    } else {
+      predOffsets = cfgSuccOffsets;
+      preds = cfgSuccs;
+      succOffsets = cfgPredOffsets;
+      succs = cfgPreds;
+    }
+  }
+
+  /**
+   * numbers the Stmts in reverse postorder (forward analysis) or postorder (backward analysis) of
+   * a depth first traversal which starts at the starting Stmt of the StmtGraph. Stmts that are not
+   * reachable from it are numbered last.
+   */
+  private void numberStmts(@Nonnull Collection<Stmt> nodes) {
+    Set<Stmt> visited = Collections.newSetFromMap(new IdentityHashMap<>(nodes.size()));
+    List<Stmt> postorder = new ArrayList<>(nodes.size());
+    Deque<Stmt> stack = new ArrayDeque<>();
+    Deque<Iterator<Stmt>> iterators = new ArrayDeque<>();
+
+    List<Stmt> roots = new ArrayList<>(nodes.size() + 1);
+    if (graph.getStartingStmt() != null) {
+      // handlers are reached via the exceptional flows
+      roots.add(graph.getStartingStmt());
+    }
+    roots.addAll(nodes);
+    for (Stmt root : roots) {
+      if (!visited.add(root)) {
+        continue;
+      }
+      stack.push(root);
+      iterators.push(graph.getAllSuccessors(root).iterator());
+      while (!stack.isEmpty()) {
+        Iterator<Stmt> iterator = iterators.peek();
+        if (iterator.hasNext()) {
+          Stmt succ = iterator.next();
+          if (visited.add(succ)) {
+            stack.push(succ);
+            iterators.push(graph.getAllSuccessors(succ).iterator());
+          }
+        } else {
+          postorder.add(stack.pop());
+          iterators.pop();
+        }
+      }
+    }
+
+    int size = postorder.size();
+    for (int i = 0; i < size; i++) {
+      Stmt stmt =
+          direction == AnalysisDirection.FORWARD ? postorder.get(size - 1 - i) : postorder.get(i);
+      stmts[i] = stmt;
+      stmtToIndex.put(stmt, i);
+    }
+  }
+
+  /**
+   * describes the effect of the given Stmt: the elements that are killed are removed from the
+   * incoming set before the generated elements are added.
+   */
+  protected abstract void flowThrough(@Nonnull Stmt stmt, @Nonnull GenKill genKill);
+
+  /**
+   * collects the gen and kill sets of all Stmts and computes the fixpoint.
+   *
+   * @param domainSize the number of elements of the analysed domain
+   */
+  protected void doAnalysis(int domainSize) {
+    int stmtCount = stmts.length;
+    words = (domainSize + 63) >>> 6;
+    flowBefore = new long[stmtCount * words];
+    flowAfter = new long[stmtCount * words];
+
+    GenKill genKill = new GenKill(stmtCount, domainSize);
+    for (int i = 0; i < stmtCount; i++) {
+      genKill.startStmt(i);
+      flowThrough(stmts[i], genKill);
+    }
+    genKill.startStmt(stmtCount);
+
+    long[] worklist = new long[(stmtCount + 63) >>> 6];
+    for (int i = 0; i < stmtCount; i++) {
+      worklist[i >>> 6] |= 1L << i;
+    }
+    long[] out = new long[words];
+    int cursor = 0;
+    while (true) {
+      int stmtIdx = nextSetBit(worklist, cursor);
+      if (stmtIdx >= stmtCount) {
+        // start the next sweep
+        stmtIdx = nextSetBit(worklist, 0);
+        if (stmtIdx >= stmtCount) {
+          break;
+        }
+      }
+      cursor = stmtIdx + 1;
+      worklist[stmtIdx >>> 6] &= ~(1L << stmtIdx);
+
+      // merge the sets of the flow predecessors
+      int offset = stmtIdx * words;
+      Arrays.fill(out, 0L);
+      for (int e = predOffsets[stmtIdx]; e < predOffsets[stmtIdx + 1]; e++) {
+        int predOffset = preds[e] * words;
+        for (int w = 0; w < words; w++) {
+          out[w] |= flowAfter[predOffset + w];
+        }
+      }
+      System.arraycopy(out, 0, flowBefore, offset, words);
+
+      // apply the transfer function
+      for (int k = genKill.killOffsets[stmtIdx]; k < genKill.killOffsets[stmtIdx + 1]; k += 2) {
+        clearRange(out, genKill.kills[k], genKill.kills[k + 1]);
+      }
+      for (int g = genKill.genOffsets[stmtIdx]; g < genKill.genOffsets[stmtIdx + 1]; g++) {
+        int element = genKill.gens[g];
+        out[element >>> 6] |= 1L << element;
+      }
+
+      boolean changed = false;
+      for (int w = 0; w < words; w++) {
+        if (flowAfter[offset + w] != out[w]) {
+          flowAfter[offset + w] = out[w];
+          changed = true;
+        }
+      }
+      if (changed) {
+        for (int e = succOffsets[stmtIdx]; e < succOffsets[stmtIdx + 1]; e++) {
+          int succ = succs[e];
+          worklist[succ >>> 6] |= 1L << succ;
+        }
+      }
+    }
+  }
+
+  private static int nextSetBit(@Nonnull long[] bits, int fromIndex) {
+    int wordIdx = fromIndex >>> 6;
+    if (wordIdx >= bits.length) {
+      return Integer.MAX_VALUE;
+    }
+    long word = bits[wordIdx] & (-1L << fromIndex);
+    while (word == 0) {
+      if (++wordIdx >= bits.length) {
+        return Integer.MAX_VALUE;
+      }
+      word = bits[wordIdx];
+    }
+    return (wordIdx << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  private static void clearRange(@Nonnull long[] bits, int fromElement, int toElement) {
+    int fromWord = fromElement >>> 6;
+    int toWord = (toElement - 1) >>> 6;
+    long firstMask = -1L << fromElement;
+    long lastMask = -1L >>> -toElement;
+    if (fromWord == toWord) {
+      bits[fromWord] &= ~(firstMask & lastMask);
+      return;
+    }
+    bits[fromWord] &= ~firstMask;
+    for (int w = fromWord + 1; w < toWord; w++) {
+      bits[w] = 0;
+    }
+    bits[toWord] &= ~lastMask;
+  }
+
+  public int getStmtCount() {
+    return stmts.length;
+  }
+
+  @Nonnull
+  public Stmt getStmt(int stmtIdx) {
+    return stmts[stmtIdx];
+  }
+
+  /** returns the number of the given Stmt or -1 if it is not contained in the StmtGraph. */
+  public int getStmtIndex(@Nonnull Stmt stmt) {
+    Integer idx = stmtToIndex.get(stmt);
+    return idx == null ? -1 : idx;
+  }
+
+  /** checks whether the given element is contained in the set before the Stmt with the number. */
+  public boolean isSetBefore(int stmtIdx, int element) {
+    return isSet(direction == AnalysisDirection.FORWARD ? flowBefore : flowAfter, stmtIdx, element);
+  }
+
+  /** checks whether the given element is contained in the set after the Stmt with the number. */
+  public boolean isSetAfter(int stmtIdx, int element) {
+    return isSet(direction == AnalysisDirection.FORWARD ? flowAfter : flowBefore, stmtIdx, element);
+  }
+
+  /**
+   * returns the first element on or after <code>fromElement</code> that is contained in the set
+   * before the Stmt with the given number or -1 if there is none.
+   */
+  public int nextSetBefore(int stmtIdx, int fromElement) {
+    return nextSet(
+        direction == AnalysisDirection.FORWARD ? flowBefore : flowAfter, stmtIdx, fromElement);
+  }
+
+  /**
+   * returns the first element on or after <code>fromElement</code> that is contained in the set
+   * after the Stmt with the given number or -1 if there is none.
+   */
+  public int nextSetAfter(int stmtIdx, int fromElement) {
+    return nextSet(
+        direction == AnalysisDirection.FORWARD ? flowAfter : flowBefore, stmtIdx, fromElement);
+  }
+
+  private int nextSet(@Nonnull long[] sets, int stmtIdx, int fromElement) {
+    int offset = stmtIdx * words;
+    int wordIdx = fromElement >>> 6;
+    if (wordIdx >= words) {
+      return -1;
+    }
+    long word = sets[offset + wordIdx] & (-1L << fromElement);
+    while (word == 0) {
+      if (++wordIdx >= words) {
+        return -1;
+      }
+      word = sets[offset + wordIdx];
+    }
+    return (wordIdx << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  private boolean isSet(@Nonnull long[] sets, int stmtIdx, int element) {
+    return (sets[stmtIdx * words + (element >>> 6)] & (1L << element)) != 0;
+  }
+
+  /** returns the set of elements that holds before the given Stmt in the control flow. */
+  @Nonnull
+  public BitSet getFlowBefore(@Nonnull Stmt stmt) {
+    return toBitSet(direction == AnalysisDirection.FORWARD ? flowBefore : flowAfter, stmt);
+  }
+
+  /** returns the set of elements that holds after the given Stmt in the control flow. */
+  @Nonnull
+  public BitSet getFlowAfter(@Nonnull Stmt stmt) {
+    return toBitSet(direction == AnalysisDirection.FORWARD ? flowAfter : flowBefore, stmt);
+  }
+
+  @Nonnull
+  private BitSet toBitSet(@Nonnull long[] sets, @Nonnull Stmt stmt) {
+    int stmtIdx = getStmtIndex(stmt);
+    if (stmtIdx < 0) {
+      throw new IllegalArgumentException("Stmt: " + stmt + " is not in StmtGraph!");
+    }
+    int offset = stmtIdx * words;
+    return BitSet.valueOf(Arrays.copyOfRange(sets, offset, offset + words));
+  }
+
+  /** Collects the gen and kill sets of all Stmts in compressed sparse row format. */
+  public static final class GenKill {
+    private final int domainSize;
+    @Nonnull private final int[] genOffsets;
+    @Nonnull private int[] gens = new int[16];
+    private int genCount = 0;
+    @Nonnull private final int[] killOffsets;
+    // pairs of [from, to)
+    @Nonnull private int[] kills = new int[16];
+    private int killCount = 0;
+
+    private GenKill(int stmtCount, int domainSize) {
+      this.domainSize = domainSize;
+      genOffsets = new int[stmtCount + 1];
+      killOffsets = new int[stmtCount + 1];
+    }
+
+    private void startStmt(int stmtIdx) {
+      genOffsets[stmtIdx] = genCount;
+      killOffsets[stmtIdx] = killCount;
+    }
+
+    /** adds the element to the set after the current Stmt. */
+    public void gen(int element) {
+      checkElement(element);
+      if (genCount == gens.length) {
+        gens = Arrays.copyOf(gens, gens.length * 2);
+      }
+      gens[genCount++] = element;
+    }
+
+    /** removes the element from the set after the current Stmt. */
+    public void kill(int element) {
+      kill(element, element + 1);
+    }
+
+    /** removes the elements in [fromElement, toElement) from the set after the current Stmt. */
+    public void kill(int fromElement, int toElement) {
+      checkElement(fromElement);
+      if (toElement <= fromElement || toElement > domainSize) {
+        throw new IndexOutOfBoundsException("invalid range: " + fromElement + " - " + toElement);
+      }
+      if (killCount == kills.length) {
+        kills = Arrays.copyOf(kills, kills.length * 2);
+      }
+      kills[killCount++] = fromElement;
+      kills[killCount++] = toElement;
+    }
+
+    private void checkElement(int element) {
+      if (element < 0 || element >= domainSize) {
+        throw new IndexOutOfBoundsException("element " + element + " is not in the domain.");
+      }
+    }
+  }
+}
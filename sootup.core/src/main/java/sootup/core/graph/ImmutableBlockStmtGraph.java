@@ -22,7 +22,7 @@ package sootup.core.graph;
  * #L%
  */
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.ComparisonChain;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -30,208 +30,539 @@ import sootup.core.jimple.basic.Trap;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.types.ClassType;
 
-// FIXME: implement!
+/**
+ * A frozen, compact StmtGraph for Bodies that are not modified anymore. The Stmts are numbered in
+ * the order of the iteration of the given graph, so the Stmts of a block have consecutive numbers.
+ * The flows between the blocks are stored in int arrays and blocks with the same exceptional flows
+ * share a single entry of a table of exceptional flows.
+ *
+ * <p>The graph can not be modified. To modify a Body, its StmtGraph is copied into a {@link
+ * MutableBlockStmtGraph} e.g. via {@link sootup.core.model.Body#builder(sootup.core.model.Body,
+ * Set)}.
+ */
 public class ImmutableBlockStmtGraph
     extends StmtGraph<ImmutableBlockStmtGraph.ImmutableBasicBlock> {
 
-  private final List<ImmutableBasicBlock> blocks;
-  private final Map<Stmt, ImmutableBasicBlock> stmtToBlock = new HashMap<>();
+  @Nonnull private final Stmt[] stmts;
+
+  /** open addressing hash table (by identity) which maps a Stmt to its number + 1 */
+  @Nonnull private final int[] stmtIndexTable;
+
+  /** bitset which marks the Stmts that are the head of a block */
+  @Nonnull private final long[] blockHeads;
 
-  public ImmutableBlockStmtGraph(@Nonnull MutableStmtGraph graph) {
+  /** blockStarts[i] is the number of the head of block i; blockStarts[blockCount] == stmtCount */
+  @Nonnull private final int[] blockStarts;
 
-    final List<? extends BasicBlock<?>> mblocks = graph.getBlocksSorted();
-    blocks = Lists.newArrayListWithExpectedSize(mblocks.size());
-    for (BasicBlock<?> block : mblocks) {
-      /* TODO: link predecessors/successors as well..
-      // final ImmutableBasicBlock ib = new ImmutableBasicBlock();
-      block.getStmts().forEach(stmt -> stmtToBlock.put(stmt, ib));
+  @Nonnull private final int[] successorOffsets;
+  @Nonnull private final int[] successorBlocks;
+  @Nonnull private final int[] predecessorOffsets;
+  @Nonnull private final int[] predecessorBlocks;
 
-      blocks.add(ib);*/
+  /** index into exceptionalFlows for every block */
+  @Nonnull private final int[] blockExceptionalFlows;
+
+  @Nonnull private final ExceptionalFlows[] exceptionalFlows;
+  @Nonnull private final ImmutableBasicBlock[] blocks;
+  /** the traps of the graph, collected on the first call of {@link #getTraps()} */
+  @Nullable private volatile List<Trap> traps;
+  @Nullable private final Stmt startingStmt;
+
+  public ImmutableBlockStmtGraph(@Nonnull StmtGraph<?> graph) {
+    final List<? extends BasicBlock<?>> sortedBlocks = graph.getBlocksSorted();
+    final int blockCount = sortedBlocks.size();
+    final Map<BasicBlock<?>, Integer> blockIdx = new IdentityHashMap<>(blockCount);
+    int stmtCount = 0;
+    for (BasicBlock<?> block : sortedBlocks) {
+      blockIdx.put(block, blockIdx.size());
+      stmtCount += block.getStmtCount();
     }
+
+    stmts = new Stmt[stmtCount];
+    blockStarts = new int[blockCount + 1];
+    blockHeads = new long[(stmtCount + 64) >>> 6];
+    successorOffsets = new int[blockCount + 1];
+    predecessorOffsets = new int[blockCount + 1];
+    blockExceptionalFlows = new int[blockCount];
+    blocks = new ImmutableBasicBlock[blockCount];
+
+    int successorCount = 0;
+    int predecessorCount = 0;
+    int stmtIdx = 0;
+    for (int i = 0; i < blockCount; i++) {
+      final BasicBlock<?> block = sortedBlocks.get(i);
+      blockStarts[i] = stmtIdx;
+      blockHeads[stmtIdx >>> 6] |= 1L << stmtIdx;
+      for (Stmt stmt : block.getStmts()) {
+        stmts[stmtIdx++] = stmt;
+      }
+      successorCount += block.getSuccessors().size();
+      predecessorCount += block.getPredecessors().size();
+      blocks[i] = new ImmutableBasicBlock(i);
+    }
+    blockStarts[blockCount] = stmtCount;
+    // marks the end of the last block
+    blockHeads[stmtCount >>> 6] |= 1L << stmtCount;
+
+    successorBlocks = new int[successorCount];
+    predecessorBlocks = new int[predecessorCount];
+    final Map<List<Object>, Integer> exceptionalFlowsIdx = new HashMap<>();
+    final List<ExceptionalFlows> exceptionalFlowList = new ArrayList<>();
+    // blocks without exceptional flows share the first entry
+    exceptionalFlowList.add(new ExceptionalFlows(new ClassType[0], new int[0]));
+    exceptionalFlowsIdx.put(Collections.emptyList(), 0);
+    successorCount = 0;
+    predecessorCount = 0;
+    for (int i = 0; i < blockCount; i++) {
+      final BasicBlock<?> block = sortedBlocks.get(i);
+      for (BasicBlock<?> successor : block.getSuccessors()) {
+        successorBlocks[successorCount++] = blockIdx.get(successor);
+      }
+      successorOffsets[i + 1] = successorCount;
+      for (BasicBlock<?> predecessor : block.getPredecessors()) {
+        predecessorBlocks[predecessorCount++] = blockIdx.get(predecessor);
+      }
+      predecessorOffsets[i + 1] = predecessorCount;
+
+      final Map<? extends ClassType, ? extends BasicBlock<?>> exceptionalSuccessors =
+          block.getExceptionalSuccessors();
+      final ClassType[] exceptionTypes = new ClassType[exceptionalSuccessors.size()];
+      final int[] handlerBlocks = new int[exceptionalSuccessors.size()];
+      final List<Object> key = new ArrayList<>(2 * exceptionTypes.length);
+      int j = 0;
+      for (Map.Entry<? extends ClassType, ? extends BasicBlock<?>> entry :
+          exceptionalSuccessors.entrySet()) {
+        exceptionTypes[j] = entry.getKey();
+        handlerBlocks[j] = blockIdx.get(entry.getValue());
+        key.add(exceptionTypes[j]);
+        key.add(handlerBlocks[j]);
+        j++;
+      }
+      Integer flowsIdx = exceptionalFlowsIdx.get(key);
+      if (flowsIdx == null) {
+        flowsIdx = exceptionalFlowList.size();
+        exceptionalFlowsIdx.put(key, flowsIdx);
+        exceptionalFlowList.add(new ExceptionalFlows(exceptionTypes, handlerBlocks));
+      }
+      blockExceptionalFlows[i] = flowsIdx;
+    }
+    exceptionalFlows = exceptionalFlowList.toArray(new ExceptionalFlows[0]);
+
+    stmtIndexTable = new int[Integer.highestOneBit(Math.max(stmtCount, 1) * 2) << 1];
+    final int mask = stmtIndexTable.length - 1;
+    for (int i = 0; i < stmtCount; i++) {
+      int slot = hash(stmts[i]) & mask;
+      while (stmtIndexTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      stmtIndexTable[slot] = i + 1;
+    }
+
+    startingStmt = graph.getStartingStmt();
+  }
+
+  private static int hash(@Nonnull Stmt stmt) {
+    final int h = System.identityHashCode(stmt);
+    return h ^ (h >>> 16);
+  }
+
+  /** returns the number of the given Stmt or -1 if the Stmt is not contained in this graph */
+  private int indexOf(@Nonnull Stmt stmt) {
+    final int mask = stmtIndexTable.length - 1;
+    int slot = hash(stmt) & mask;
+    int idx;
+    while ((idx = stmtIndexTable[slot]) != 0) {
+      if (stmts[idx - 1] == stmt) {
+        return idx - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private int indexOfContained(@Nonnull Stmt stmt) {
+    final int idx = indexOf(stmt);
+    if (idx < 0) {
+      throw new IllegalArgumentException(
+          "Stmt '" + stmt + "' is not contained in the BlockStmtGraph");
+    }
+    return idx;
+  }
+
+  private boolean isBlockHead(int stmtIdx) {
+    return (blockHeads[stmtIdx >>> 6] & (1L << stmtIdx)) != 0;
+  }
+
+  private int blockIdxOf(int stmtIdx) {
+    final int idx = Arrays.binarySearch(blockStarts, 0, blocks.length, stmtIdx);
+    return idx >= 0 ? idx : -idx - 2;
   }
 
   @Nullable
   @Override
   public Stmt getStartingStmt() {
-    return blocks.isEmpty() ? null : blocks.get(0).getHead();
+    return startingStmt;
   }
 
   @Override
+  @Nullable
   public BasicBlock<?> getStartingStmtBlock() {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return startingStmt == null ? null : getBlockOf(startingStmt);
   }
 
   @Override
-  public BasicBlock<ImmutableBasicBlock> getBlockOf(@Nonnull Stmt stmt) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+  @Nonnull
+  public ImmutableBasicBlock getBlockOf(@Nonnull Stmt stmt) {
+    final int idx = indexOf(stmt);
+    if (idx < 0) {
+      throw new IllegalArgumentException("stmt '" + stmt + "' does not exist in this StmtGraph!");
+    }
+    return blocks[blockIdxOf(idx)];
   }
 
   @Nonnull
   @Override
-  public List<Stmt> getNodes() {
-    int size = 0;
-    for (ImmutableBasicBlock block : blocks) {
-      size += block.getStmtCount();
-    }
-    final ArrayList<Stmt> stmts = new ArrayList<>(size);
-    for (ImmutableBasicBlock block : blocks) {
-      stmts.addAll(block.getStmts());
-    }
-    return stmts;
+  public Set<Stmt> getNodes() {
+    return new AbstractSet<Stmt>() {
+      @Override
+      public boolean contains(Object o) {
+        return o instanceof Stmt && indexOf((Stmt) o) >= 0;
+      }
+
+      @Nonnull
+      @Override
+      public Iterator<Stmt> iterator() {
+        return ImmutableBlockStmtGraph.this.iterator();
+      }
+
+      @Override
+      public int size() {
+        return stmts.length;
+      }
+    };
+  }
+
+  @Override
+  public List<Stmt> getStmts() {
+    return new ArrayList<>(Arrays.asList(stmts));
   }
 
   @Nonnull
   @Override
-  public Collection<ImmutableBasicBlock> getBlocks() {
-    return blocks;
+  public List<ImmutableBasicBlock> getBlocks() {
+    return Collections.unmodifiableList(Arrays.asList(blocks));
   }
 
   @Nonnull
   @Override
-  public List<? extends BasicBlock<?>> getBlocksSorted() {
-    return blocks;
+  public List<ImmutableBasicBlock> getBlocksSorted() {
+    return getBlocks();
+  }
+
+  @Override
+  public Iterator<BasicBlock<?>> getBlockIterator() {
+    return Collections.<BasicBlock<?>>unmodifiableList(Arrays.asList(blocks)).iterator();
   }
 
   @Override
   public boolean containsNode(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return indexOf(node) >= 0;
   }
 
   @Nonnull
   @Override
   public List<Stmt> predecessors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfContained(node);
+    if (!isBlockHead(idx)) {
+      return Collections.singletonList(stmts[idx - 1]);
+    }
+    final int blockIdx = blockIdxOf(idx);
+    final int from = predecessorOffsets[blockIdx];
+    final int to = predecessorOffsets[blockIdx + 1];
+    final List<Stmt> preds = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      preds.add(stmts[blockStarts[predecessorBlocks[i] + 1] - 1]);
+    }
+    return preds;
   }
 
   @Nonnull
   @Override
   public List<Stmt> exceptionalPredecessors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("not implemented");
+    final int idx = indexOfContained(node);
+    if (!isBlockHead(idx)) {
+      // only the head of a block can be a traphandler
+      return Collections.emptyList();
+    }
+    final int blockIdx = blockIdxOf(idx);
+    final List<Stmt> exceptionalPreds = new ArrayList<>();
+    for (int i = predecessorOffsets[blockIdx]; i < predecessorOffsets[blockIdx + 1]; i++) {
+      final int predecessor = predecessorBlocks[i];
+      if (exceptionalFlows[blockExceptionalFlows[predecessor]].hasHandler(blockIdx)) {
+        for (int j = blockStarts[predecessor]; j < blockStarts[predecessor + 1]; j++) {
+          exceptionalPreds.add(stmts[j]);
+        }
+      }
+    }
+    return exceptionalPreds;
   }
 
   @Nonnull
   @Override
   public List<Stmt> successors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfContained(node);
+    if (!isBlockHead(idx + 1)) {
+      return Collections.singletonList(stmts[idx + 1]);
+    }
+    final int blockIdx = blockIdxOf(idx);
+    final int from = successorOffsets[blockIdx];
+    final int to = successorOffsets[blockIdx + 1];
+    final List<Stmt> succs = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      succs.add(stmts[blockStarts[successorBlocks[i]]]);
+    }
+    return succs;
   }
 
   @Nonnull
   @Override
   public Map<ClassType, Stmt> exceptionalSuccessors(@Nonnull Stmt node) {
-    // FIXME! implement
-    throw new RuntimeException("not implemented");
+    final int idx = indexOfContained(node);
+    return exceptionalFlows[blockExceptionalFlows[blockIdxOf(idx)]].getHandlerStmts();
   }
 
   @Override
   public int inDegree(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfContained(node);
+    if (!isBlockHead(idx)) {
+      return 1;
+    }
+    final int blockIdx = blockIdxOf(idx);
+    return predecessorOffsets[blockIdx + 1] - predecessorOffsets[blockIdx];
   }
 
   @Override
   public int outDegree(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfContained(node);
+    if (!isBlockHead(idx + 1)) {
+      return 1;
+    }
+    final int blockIdx = blockIdxOf(idx);
+    return successorOffsets[blockIdx + 1] - successorOffsets[blockIdx];
   }
 
   @Override
   public boolean hasEdgeConnecting(@Nonnull Stmt source, @Nonnull Stmt target) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOf(source);
+    if (idx < 0) {
+      throw new IllegalArgumentException(
+          "source Stmt is not contained in the BlockStmtGraph: " + source);
+    }
+    if (!isBlockHead(idx + 1)) {
+      return stmts[idx + 1] == target;
+    }
+    final int blockIdx = blockIdxOf(idx);
+    for (int i = successorOffsets[blockIdx]; i < successorOffsets[blockIdx + 1]; i++) {
+      if (stmts[blockStarts[successorBlocks[i]]] == target) {
+        return true;
+      }
+    }
+    return false;
   }
 
+  /**
+   * returns the traps of the graph. They are aggregated from the exceptional flows of the blocks on
+   * the first call, so a graph whose traps can not be aggregated fails only when they are
+   * requested.
+   */
   @Nonnull
   @Override
   public List<Trap> getTraps() {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    List<Trap> result = traps;
+    if (result == null) {
+      // racy but idempotent initialization
+      result = stmts.length == 0 ? Collections.emptyList() : collectTraps();
+      traps = result;
+    }
+    return result;
+  }
+
+  @Nonnull
+  private List<Trap> collectTraps() {
+    final BlockGraphIteratorAndTrapAggregator it =
+        new BlockGraphIteratorAndTrapAggregator(new ImmutableBasicBlock(-1));
+    // number the blocks in the order of the iteration to sort the traps like
+    // MutableBlockStmtGraph.getTraps()
+    final int[] iterationIdx = new int[blocks.length];
+    int i = 0;
+    while (it.hasNext()) {
+      iterationIdx[((ImmutableBasicBlock) it.next()).blockIdx] = i++;
+    }
+    final List<Trap> collectedTraps = it.getTraps();
+    collectedTraps.sort(
+        (a, b) ->
+            ComparisonChain.start()
+                .compare(
+                    iterationIdx[blockIdxOf(indexOfContained(a.getBeginStmt()))],
+                    iterationIdx[blockIdxOf(indexOfContained(b.getBeginStmt()))])
+                .compare(
+                    iterationIdx[blockIdxOf(indexOfContained(a.getEndStmt()))],
+                    iterationIdx[blockIdxOf(indexOfContained(b.getEndStmt()))])
+                .compare(a.getExceptionType().toString(), b.getExceptionType().toString())
+                .result());
+    return Collections.unmodifiableList(collectedTraps);
   }
 
   @Nonnull
   @Override
   public Iterator<Stmt> iterator() {
-    return new Iterator<Stmt>() {
-      final Iterator<ImmutableBasicBlock> blockIt = blocks.iterator();
-      Iterator<Stmt> stmtIt = blockIt.next().getStmts().iterator();
+    return Collections.unmodifiableList(Arrays.asList(stmts)).iterator();
+  }
 
-      @Override
-      public boolean hasNext() {
-        // hint: there are no empty blocks!
-        return stmtIt.hasNext() || blockIt.hasNext();
+  /** the exceptional flows of one or more blocks */
+  private class ExceptionalFlows {
+    @Nonnull private final ClassType[] exceptionTypes;
+    @Nonnull private final int[] handlerBlocks;
+    @Nullable private Map<ClassType, Stmt> handlerStmts;
+
+    private ExceptionalFlows(@Nonnull ClassType[] exceptionTypes, @Nonnull int[] handlerBlocks) {
+      this.exceptionTypes = exceptionTypes;
+      this.handlerBlocks = handlerBlocks;
+    }
+
+    private boolean hasHandler(int blockIdx) {
+      for (int handlerBlock : handlerBlocks) {
+        if (handlerBlock == blockIdx) {
+          return true;
+        }
       }
+      return false;
+    }
 
-      @Override
-      public Stmt next() {
-        if (stmtIt.hasNext()) {
-          return stmtIt.next();
+    @Nonnull
+    private Map<ClassType, ImmutableBasicBlock> getHandlerBlocks() {
+      if (exceptionTypes.length == 0) {
+        return Collections.emptyMap();
+      }
+      final Map<ClassType, ImmutableBasicBlock> map = new LinkedHashMap<>();
+      for (int i = 0; i < exceptionTypes.length; i++) {
+        map.put(exceptionTypes[i], blocks[handlerBlocks[i]]);
+      }
+      return Collections.unmodifiableMap(map);
+    }
+
+    @Nonnull
+    private Map<ClassType, Stmt> getHandlerStmts() {
+      Map<ClassType, Stmt> map = handlerStmts;
+      if (map == null) {
+        // racy but idempotent initialization
+        if (exceptionTypes.length == 0) {
+          map = Collections.emptyMap();
+        } else {
+          map = new LinkedHashMap<>();
+          for (int i = 0; i < exceptionTypes.length; i++) {
+            map.put(exceptionTypes[i], stmts[blockStarts[handlerBlocks[i]]]);
+          }
+          map = Collections.unmodifiableMap(map);
         }
-        stmtIt = blockIt.next().getStmts().iterator();
-        return stmtIt.next();
+        handlerStmts = map;
       }
-    };
+      return map;
+    }
   }
 
+  /** a view of a block of the graph */
   public class ImmutableBasicBlock implements BasicBlock<ImmutableBasicBlock> {
-    private final MutableBasicBlock graph;
-    private final int startIdx;
-    private final int endIdx;
-    private final List<ImmutableBasicBlock> successors;
-    private final List<ImmutableBasicBlock> predecessors;
-
-    private ImmutableBasicBlock(
-        MutableBasicBlock graph,
-        int startIdx,
-        int endIdx,
-        List<ImmutableBasicBlock> successors,
-        List<ImmutableBasicBlock> predecessors) {
-      this.graph = graph;
-      this.startIdx = startIdx;
-      this.endIdx = endIdx;
-      this.successors = successors;
-      this.predecessors = predecessors;
+    private final int blockIdx;
+
+    private ImmutableBasicBlock(int blockIdx) {
+      this.blockIdx = blockIdx;
+    }
+
+    @Nonnull
+    private List<ImmutableBasicBlock> toBlocks(@Nonnull int[] blockIdxs, int from, int to) {
+      return new AbstractList<ImmutableBasicBlock>() {
+        @Override
+        public ImmutableBasicBlock get(int index) {
+          if (index < 0 || index >= to - from) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+          }
+          return blocks[blockIdxs[from + index]];
+        }
+
+        @Override
+        public int size() {
+          return to - from;
+        }
+      };
     }
 
     @Nonnull
     @Override
     public List<ImmutableBasicBlock> getPredecessors() {
-      return predecessors;
+      return toBlocks(
+          predecessorBlocks, predecessorOffsets[blockIdx], predecessorOffsets[blockIdx + 1]);
     }
 
     @Nonnull
     @Override
     public List<ImmutableBasicBlock> getSuccessors() {
-      return successors;
+      return toBlocks(successorBlocks, successorOffsets[blockIdx], successorOffsets[blockIdx + 1]);
     }
 
     @Override
     @Nonnull
     public Map<ClassType, ImmutableBasicBlock> getExceptionalPredecessors() {
-      throw new UnsupportedOperationException("not implemented yet");
+      final Map<ClassType, ImmutableBasicBlock> exceptionalPreds = new HashMap<>();
+      for (int i = predecessorOffsets[blockIdx]; i < predecessorOffsets[blockIdx + 1]; i++) {
+        final ExceptionalFlows flows =
+            exceptionalFlows[blockExceptionalFlows[predecessorBlocks[i]]];
+        for (int j = 0; j < flows.handlerBlocks.length; j++) {
+          if (flows.handlerBlocks[j] == blockIdx) {
+            exceptionalPreds.put(flows.exceptionTypes[j], blocks[predecessorBlocks[i]]);
+          }
+        }
+      }
+      return exceptionalPreds;
     }
 
     @Nonnull
     @Override
-    public Map<? extends ClassType, ImmutableBasicBlock> getExceptionalSuccessors() {
-      throw new UnsupportedOperationException("not implemented yet");
+    public Map<ClassType, ImmutableBasicBlock> getExceptionalSuccessors() {
+      if (blockIdx < 0) {
+        // the empty block that starts the aggregation of the traps
+        return Collections.emptyMap();
+      }
+      return exceptionalFlows[blockExceptionalFlows[blockIdx]].getHandlerBlocks();
     }
 
     @Nonnull
     @Override
     public List<Stmt> getStmts() {
-      throw new UnsupportedOperationException();
+      return Collections.unmodifiableList(
+          Arrays.asList(stmts).subList(blockStarts[blockIdx], blockStarts[blockIdx + 1]));
     }
 
     @Override
     public int getStmtCount() {
-      return endIdx - startIdx + 1;
+      return blockStarts[blockIdx + 1] - blockStarts[blockIdx];
     }
 
     @Nonnull
     @Override
     public Stmt getHead() {
-      throw new UnsupportedOperationException();
+      return stmts[blockStarts[blockIdx]];
     }
 
     @Nonnull
     @Override
     public Stmt getTail() {
-      throw new UnsupportedOperationException();
+      return stmts[blockStarts[blockIdx + 1] - 1];
+    }
+
+    @Override
+    public String toString() {
+      return "ImmutableBasicBlock" + getStmts();
     }
   }
 }
@@ -24,6 +24,7 @@ package sootup.core.inputlocation;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.model.SootClass;
@@ -63,6 +64,35 @@ public interface AnalysisInputLocation {
   @Nonnull
   Collection<? extends SootClassSource> getClassSources(@Nonnull View view);
 
+  /**
+   * Scan the input location like {@link #getClassSources(View)}, but allow the implementation to
+   * create the ClassSources in parallel. Implementations do so via parallel streams, i.e. the work
+   * is executed in the {@link java.util.concurrent.ForkJoinPool} of the calling task, so the caller
+   * controls the parallelism by invoking this method from within its own pool. The default
+   * implementation scans sequentially.
+   *
+   * @return The source entries.
+   */
+  @Nonnull
+  default Collection<? extends SootClassSource> getClassSourcesInParallel(@Nonnull View view) {
+    return getClassSources(view);
+  }
+
+  /**
+   * Returns the fully-qualified names of all classes of this location if the location can list them
+   * without creating their ClassSources, e.g. from the central directory of an archive. Views use
+   * these names to route the lookup of a class to the locations that contain it, see {@link
+   * ClassLocationIndex}. The names have to include every class that {@link
+   * #getClassSource(ClassType, View)} can find. The default implementation does not list the
+   * classes.
+   *
+   * @return the names of the contained classes or an empty Optional if they are not known upfront
+   */
+  @Nonnull
+  default Optional<Set<String>> getIndexedClassNames() {
+    return Optional.empty();
+  }
+
   /**
    * If the AnalysisInputLocation is initialized with the SourceType then this method should return
    * that specific SourceType. This is the default implementation and it returns null when no source
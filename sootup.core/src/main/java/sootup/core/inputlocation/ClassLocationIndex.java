@@ -0,0 +1,129 @@
+package sootup.core.inputlocation;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.types.ClassType;
+
+/**
+ * An index over an ordered list of {@link AnalysisInputLocation}s, e.g. the entries of a class
+ * path, which maps the name of a class to the locations that may contain it. Locations that list
+ * their classes via {@link AnalysisInputLocation#getIndexedClassNames()} are only returned for the
+ * classes they contain, all other locations are returned for every class. The returned locations
+ * keep the order of the given list, so the first location that finds a class still wins like in
+ * an unindexed lookup.
+ *
+ * <p>The index is built once in the constructor and is immutable afterwards, i.e. it is safe to
+ * query it from multiple threads.
+ *
+ * @param <L> the type of the indexed locations
+ */
+public class ClassLocationIndex<L extends AnalysisInputLocation> {
+
+  private static final int[] NO_POSITIONS = new int[0];
+
+  @Nonnull private final List<L> locations;
+
+  /** the positions of the locations which do not list their classes */
+  @Nonnull private final int[] unindexedPositions;
+
+  /** class name to the ascending positions of the indexed locations which contain the class */
+  @Nonnull private final Map<String, int[]> indexedPositions;
+
+  private final boolean hasIndexedLocations;
+
+  public ClassLocationIndex(@Nonnull List<L> locations) {
+    this.locations = new ArrayList<>(locations);
+
+    List<Integer> unindexed = new ArrayList<>();
+    Map<String, int[]> positions = new HashMap<>();
+    boolean indexed = false;
+    for (int i = 0; i < this.locations.size(); i++) {
+      Optional<Set<String>> classNames = this.locations.get(i).getIndexedClassNames();
+      if (!classNames.isPresent()) {
+        unindexed.add(i);
+        continue;
+      }
+      indexed = true;
+      // most classes are contained in a single location, so these share one array per location
+      final int[] single = {i};
+      for (String className : classNames.get()) {
+        int[] containing = positions.get(className);
+        if (containing == null) {
+          positions.put(className, single);
+        } else {
+          int[] extended = Arrays.copyOf(containing, containing.length + 1);
+          extended[containing.length] = i;
+          positions.put(className, extended);
+        }
+      }
+    }
+    this.unindexedPositions = unindexed.stream().mapToInt(Integer::intValue).toArray();
+    this.indexedPositions = positions;
+    this.hasIndexedLocations = indexed;
+  }
+
+  /** Returns whether at least one of the locations lists its classes. */
+  public boolean hasIndexedLocations() {
+    return hasIndexedLocations;
+  }
+
+  /**
+   * Returns the locations that may contain the class of the given type in the order of the indexed
+   * list: the indexed locations that contain the class and all unindexed locations.
+   */
+  @Nonnull
+  public List<L> getCandidateLocations(@Nonnull ClassType type) {
+    return getCandidateLocations(type.getFullyQualifiedName());
+  }
+
+  /**
+   * Returns the locations that may contain the class with the given fully-qualified name, see
+   * {@link #getCandidateLocations(ClassType)}.
+   */
+  @Nonnull
+  public List<L> getCandidateLocations(@Nonnull String fullyQualifiedClassName) {
+    int[] indexed = indexedPositions.getOrDefault(fullyQualifiedClassName, NO_POSITIONS);
+    if (indexed.length == 0 && unindexedPositions.length == 0) {
+      return Collections.emptyList();
+    }
+    if (unindexedPositions.length == 0 && indexed.length == 1) {
+      return Collections.singletonList(locations.get(indexed[0]));
+    }
+
+    // merge both ascending position arrays
+    List<L> candidates = new ArrayList<>(indexed.length + unindexedPositions.length);
+    int i = 0;
+    int u = 0;
+    while (i < indexed.length || u < unindexedPositions.length) {
+      if (u == unindexedPositions.length
+          || (i < indexed.length && indexed[i] < unindexedPositions[u])) {
+        candidates.add(locations.get(indexed[i++]));
+      } else {
+        candidates.add(locations.get(unindexedPositions[u++]));
+      }
+    }
+    return candidates;
+  }
+}
@@ -21,6 +21,7 @@ package sootup.core.inputlocation;
  * #L%
  */
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -74,6 +75,16 @@ public class EagerInputLocation implements AnalysisInputLocation {
     return map.values();
   }
 
+  @Nonnull
+  @Override
+  public Optional<Set<String>> getIndexedClassNames() {
+    ImmutableSet.Builder<String> names = ImmutableSet.builder();
+    for (ClassType type : map.keySet()) {
+      names.add(type.getFullyQualifiedName());
+    }
+    return Optional.of(names.build());
+  }
+
   @Nonnull
   @Override
   public SourceType getSourceType() {
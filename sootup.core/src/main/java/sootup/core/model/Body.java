@@ -29,6 +29,7 @@ import java.util.*;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import sootup.core.graph.ImmutableBlockStmtGraph;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.graph.StmtGraph;
@@ -441,7 +442,7 @@ public class Body implements HasPosition {
         throw new RuntimeException("StmtGraph of " + methodSig + " is invalid.", e);
       }
 
-      return new Body(methodSig, locals, graph, position);
+      return new Body(methodSig, locals, new ImmutableBlockStmtGraph(graph), position);
     }
 
     @Nonnull
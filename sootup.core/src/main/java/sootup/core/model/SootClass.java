@@ -76,6 +76,7 @@ public class SootClass extends AbstractClass implements HasPosition {
 
     try {
       methods = ImmutableUtils.immutableSetOf(this.classSource.resolveMethods());
+      methodsResolved = true;
     } catch (ResolveException e) {
       // TODO: [JMP] Exception handling
       e.printStackTrace();
@@ -89,12 +90,22 @@ public class SootClass extends AbstractClass implements HasPosition {
   private final Supplier<Set<? extends SootMethod>> _lazyMethods =
       Suppliers.memoize(this::lazyMethodInitializer);
 
+  private volatile boolean methodsResolved = false;
+
   /** Gets the {@link Method methods} of this {@link SootClass} in an immutable set. */
   @Nonnull
   public Set<? extends SootMethod> getMethods() {
     return this._lazyMethods.get();
   }
 
+  /**
+   * Returns true if the {@link Method methods} of this {@link SootClass} have already been
+   * resolved from its class source. Does not trigger the resolution.
+   */
+  public boolean areMethodsResolved() {
+    return methodsResolved;
+  }
+
   @Nonnull
   private final Supplier<Set<? extends SootField>> _lazyFields =
       Suppliers.memoize(this::lazyFieldInitializer);
@@ -22,7 +22,6 @@ package sootup.core.model;
  * #L%
  */
 
-import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
@@ -36,6 +35,8 @@ import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
+import sootup.core.cache.BodyRetentionPolicy;
+import sootup.core.cache.StrongBodyRetentionPolicy;
 import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.ResolveException;
@@ -69,6 +70,11 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
   /** Tells this method how to find out where its body lives. */
   @Nonnull protected final BodySource bodySource;
 
+  /** Decides how long the resolved body is kept in memory. */
+  @Nonnull protected final BodyRetentionPolicy bodyRetentionPolicy;
+
+  @Nonnull private final BodyRetentionPolicy.BodyHolder bodyHolder;
+
   /** Constructs a SootMethod object with the given attributes. */
   public SootMethod(
       @Nonnull BodySource source,
@@ -76,12 +82,34 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
       @Nonnull Iterable<MethodModifier> modifiers,
       @Nonnull Iterable<ClassType> thrownExceptions,
       @Nonnull Position position) {
+    this(
+        source,
+        methodSignature,
+        modifiers,
+        thrownExceptions,
+        position,
+        StrongBodyRetentionPolicy.getInstance());
+  }
+
+  /**
+   * Constructs a SootMethod object with the given attributes whose body is retained according to
+   * the given {@link BodyRetentionPolicy}.
+   */
+  public SootMethod(
+      @Nonnull BodySource source,
+      @Nonnull MethodSignature methodSignature,
+      @Nonnull Iterable<MethodModifier> modifiers,
+      @Nonnull Iterable<ClassType> thrownExceptions,
+      @Nonnull Position position,
+      @Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
     super(methodSignature, position);
 
     this.bodySource = source;
     this.parameterTypes = ImmutableUtils.immutableListOf(methodSignature.getParameterTypes());
     this.modifiers = ImmutableUtils.immutableEnumSetOf(modifiers);
     this.exceptions = ImmutableUtils.immutableListOf(thrownExceptions);
+    this.bodyRetentionPolicy = bodyRetentionPolicy;
+    this.bodyHolder = bodyRetentionPolicy.createBodyHolder(this::lazyBodyInitializer);
   }
 
   @Nonnull
@@ -169,12 +197,35 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
     return parameterTypes;
   }
 
-  @Nonnull private final Supplier<Body> _lazyBody = Suppliers.memoize(this::lazyBodyInitializer);
-
-  /** Retrieves the active body for this method. */
+  /**
+   * Retrieves the active body for this method. Depending on the {@link BodyRetentionPolicy} of the
+   * method, the body might be resolved again if it was dropped since the last call.
+   */
   @Nonnull
   public Body getBody() {
-    return this._lazyBody.get();
+    return bodyHolder.getBody();
+  }
+
+  /**
+   * Returns the body of this method if it is currently resolved and retained, i.e. if {@link
+   * #getBody()} does not need to consult the {@link BodySource}. Does not trigger the resolution.
+   */
+  @Nonnull
+  public Optional<Body> getRetainedBody() {
+    return Optional.ofNullable(bodyHolder.getRetainedBody());
+  }
+
+  /**
+   * Returns true if the body of this method is currently resolved and retained. Does not trigger
+   * the resolution.
+   */
+  public boolean isBodyResolved() {
+    return bodyHolder.getRetainedBody() != null;
+  }
+
+  @Nonnull
+  public BodyRetentionPolicy getBodyRetentionPolicy() {
+    return bodyRetentionPolicy;
   }
 
   /** Returns true if this method has a body. */
@@ -260,24 +311,36 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
         getSignature(),
         getModifiers(),
         exceptions,
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
   public SootMethod withSource(BodySource source) {
-    return new SootMethod(source, getSignature(), getModifiers(), exceptions, getPosition());
+    return new SootMethod(
+        source, getSignature(), getModifiers(), exceptions, getPosition(), bodyRetentionPolicy);
   }
 
   @Nonnull
   public SootMethod withModifiers(Iterable<MethodModifier> modifiers) {
     return new SootMethod(
-        bodySource, getSignature(), modifiers, getExceptionSignatures(), getPosition());
+        bodySource,
+        getSignature(),
+        modifiers,
+        getExceptionSignatures(),
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
   public SootMethod withThrownExceptions(Iterable<ClassType> thrownExceptions) {
     return new SootMethod(
-        bodySource, getSignature(), getModifiers(), thrownExceptions, getPosition());
+        bodySource,
+        getSignature(),
+        getModifiers(),
+        thrownExceptions,
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
@@ -287,7 +350,8 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
         getSignature(),
         getModifiers(),
         exceptions,
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   /**
@@ -85,16 +85,12 @@ public class MethodSubSignature extends SootClassMemberSubSignature
 
     MethodSubSignature that = (MethodSubSignature) o;
 
-    if (!super.equals(that)) {
-      return false;
-    }
-
     return Objects.equal(getParameterTypes(), that.getParameterTypes());
   }
 
   @Override
-  public int hashCode() {
-    return Objects.hashCode(super.hashCode(), getParameterTypes());
+  protected int computeHashCode() {
+    return Objects.hashCode(super.computeHashCode(), getParameterTypes());
   }
 
   @Override
@@ -42,9 +42,13 @@ public abstract class SootClassMemberSignature<V extends SootClassMemberSubSigna
 
   @Nonnull private final V subSignature;
 
+  /** Signatures are used as map keys all over the place, so the hash code is computed once. */
+  private final int hashCode;
+
   public SootClassMemberSignature(@Nonnull ClassType klass, @Nonnull V subSignature) {
     this.declClassSignature = klass;
     this.subSignature = subSignature;
+    this.hashCode = Objects.hashCode(klass, subSignature);
   }
 
   @Nonnull
@@ -78,13 +82,16 @@ public abstract class SootClassMemberSignature<V extends SootClassMemberSubSigna
     }
 
     SootClassMemberSignature<V> that = (SootClassMemberSignature<V>) o;
+    if (hashCode != that.hashCode) {
+      return false;
+    }
     return Objects.equal(declClassSignature, that.declClassSignature)
         && Objects.equal(subSignature, that.subSignature);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(declClassSignature, subSignature);
+    return hashCode;
   }
 
   @Override
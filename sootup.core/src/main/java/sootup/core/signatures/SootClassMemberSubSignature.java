@@ -43,6 +43,9 @@ public abstract class SootClassMemberSubSignature {
   @Nonnull private final String name;
   @Nonnull private final Type type;
 
+  /** Lazily computed hash code; sub signatures are immutable and queried very often. */
+  private int hashCode;
+
   /** Creates a new instance of the {@link SootClassMemberSubSignature} class. */
   protected SootClassMemberSubSignature(@Nonnull String name, @Nonnull Type type) {
     this.name = name;
@@ -79,12 +82,28 @@ public abstract class SootClassMemberSubSignature {
     }
 
     SootClassMemberSubSignature that = (SootClassMemberSubSignature) o;
+    if (hashCode() != that.hashCode()) {
+      return false;
+    }
 
     return Objects.equal(getName(), that.getName()) && Objects.equal(getType(), that.getType());
   }
 
   @Override
-  public int hashCode() {
+  public final int hashCode() {
+    int h = hashCode;
+    if (h == 0) {
+      h = computeHashCode();
+      hashCode = h;
+    }
+    return h;
+  }
+
+  /**
+   * Computes the hash code of this sub signature. It is called at most once per instance (modulo
+   * benign races) and cached afterwards, so subclasses have to include all of their state here.
+   */
+  protected int computeHashCode() {
     return Objects.hashCode(getName(), getType());
   }
 
@@ -0,0 +1,48 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Is notified about each application of a {@link BodyInterceptor} that is wrapped into a {@link
+ * MeasuredBodyInterceptor}, e.g. to find out which interceptors dominate the construction of
+ * bodies. Implementations have to be thread-safe, as bodies can be resolved concurrently.
+ *
+ * @see BodyInterceptorMetrics for the default implementation which aggregates the measurements
+ */
+public interface BodyInterceptorListener {
+
+  /** Called after an interceptor was applied to the body of a method. */
+  void interceptorApplied(@Nonnull BodyInterceptorMeasurement measurement);
+
+  /**
+   * Called after all interceptors of an instrumented list were applied to the body of a method.
+   *
+   * @param wallTimeNanos the time spent in all interceptors
+   * @param allocatedBytes the bytes allocated by all interceptors or -1 if not measured
+   */
+  default void bodyIntercepted(
+      @Nonnull MethodSignature method, long wallTimeNanos, long allocatedBytes) {}
+}
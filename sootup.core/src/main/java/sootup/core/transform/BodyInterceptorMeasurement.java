@@ -0,0 +1,98 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/** The costs and the effect of applying a {@link BodyInterceptor} to the body of a method. */
+public class BodyInterceptorMeasurement {
+  @Nonnull private final MethodSignature method;
+  @Nonnull private final BodyInterceptor interceptor;
+  private final long wallTimeNanos;
+  private final int stmtCountBefore;
+  private final int stmtCountAfter;
+  private final long allocatedBytes;
+
+  public BodyInterceptorMeasurement(
+      @Nonnull MethodSignature method,
+      @Nonnull BodyInterceptor interceptor,
+      long wallTimeNanos,
+      int stmtCountBefore,
+      int stmtCountAfter,
+      long allocatedBytes) {
+    this.method = method;
+    this.interceptor = interceptor;
+    this.wallTimeNanos = wallTimeNanos;
+    this.stmtCountBefore = stmtCountBefore;
+    this.stmtCountAfter = stmtCountAfter;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  @Nonnull
+  public MethodSignature getMethod() {
+    return method;
+  }
+
+  /** Returns the measured interceptor, i.e. not the {@link MeasuredBodyInterceptor}. */
+  @Nonnull
+  public BodyInterceptor getInterceptor() {
+    return interceptor;
+  }
+
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  public int getStmtCountBefore() {
+    return stmtCountBefore;
+  }
+
+  public int getStmtCountAfter() {
+    return stmtCountAfter;
+  }
+
+  /** Returns the change of the amount of stmts, e.g. a negative value if stmts were removed. */
+  public int getStmtCountDelta() {
+    return stmtCountAfter - stmtCountBefore;
+  }
+
+  /** Returns the bytes allocated by the current thread in the interceptor or -1 if not measured. */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  @Override
+  public String toString() {
+    return interceptor
+        + " on "
+        + method
+        + ": "
+        + wallTimeNanos
+        + "ns, stmts "
+        + stmtCountBefore
+        + " -> "
+        + stmtCountAfter
+        + (allocatedBytes < 0 ? "" : ", " + allocatedBytes + " bytes");
+  }
+}
@@ -0,0 +1,265 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Aggregates the measurements of {@link MeasuredBodyInterceptor}s per interceptor and keeps the
+ * methods whose bodies took longest to intercept. e.g.
+ *
+ * <pre>
+ * BodyInterceptorMetrics metrics = new BodyInterceptorMetrics(true, 10);
+ * List&lt;BodyInterceptor&gt; interceptors = metrics.instrument(defaultInterceptors);
+ * // create the input location with the instrumented interceptors and resolve bodies
+ * System.out.println(metrics.report());
+ * </pre>
+ */
+public class BodyInterceptorMetrics implements BodyInterceptorListener {
+  private final boolean measureAllocations;
+  private final int slowestMethodCount;
+
+  /** the statistics per interceptor class in order of the first measurement */
+  @Nonnull
+  private final Map<Class<?>, InterceptorStatistics> interceptorStatistics =
+      Collections.synchronizedMap(new LinkedHashMap<>());
+
+  /** the slowest methods with the fastest of them at the head */
+  @Nonnull private final PriorityQueue<MethodTiming> slowestMethods;
+
+  public BodyInterceptorMetrics() {
+    this(false, 20);
+  }
+
+  /**
+   * @param measureAllocations whether the bytes allocated by the interceptors are measured
+   * @param slowestMethodCount the amount of slowest methods that are kept
+   */
+  public BodyInterceptorMetrics(boolean measureAllocations, int slowestMethodCount) {
+    this.measureAllocations = measureAllocations;
+    this.slowestMethodCount = slowestMethodCount;
+    this.slowestMethods =
+        new PriorityQueue<>(
+            slowestMethodCount + 1, Comparator.comparingLong(MethodTiming::getWallTimeNanos));
+  }
+
+  /** Wraps the given interceptors so that their applications are measured by this instance. */
+  @Nonnull
+  public List<BodyInterceptor> instrument(@Nonnull List<? extends BodyInterceptor> interceptors) {
+    return MeasuredBodyInterceptor.instrument(interceptors, this, measureAllocations);
+  }
+
+  @Override
+  public void interceptorApplied(@Nonnull BodyInterceptorMeasurement measurement) {
+    BodyInterceptor interceptor = measurement.getInterceptor();
+    InterceptorStatistics statistics;
+    synchronized (interceptorStatistics) {
+      statistics =
+          interceptorStatistics.computeIfAbsent(
+              interceptor.getClass(), c -> new InterceptorStatistics(c.getSimpleName()));
+    }
+    statistics.add(measurement);
+  }
+
+  @Override
+  public void bodyIntercepted(
+      @Nonnull MethodSignature method, long wallTimeNanos, long allocatedBytes) {
+    if (slowestMethodCount <= 0) {
+      return;
+    }
+    synchronized (slowestMethods) {
+      if (slowestMethods.size() < slowestMethodCount
+          || slowestMethods.peek().getWallTimeNanos() < wallTimeNanos) {
+        slowestMethods.add(new MethodTiming(method, wallTimeNanos, allocatedBytes));
+        if (slowestMethods.size() > slowestMethodCount) {
+          slowestMethods.poll();
+        }
+      }
+    }
+  }
+
+  /** Returns the statistics of all measured interceptors, the most time consuming first. */
+  @Nonnull
+  public List<InterceptorStatistics> getInterceptorStatistics() {
+    List<InterceptorStatistics> statistics;
+    synchronized (interceptorStatistics) {
+      statistics = new ArrayList<>(interceptorStatistics.values());
+    }
+    statistics.sort(
+        Comparator.comparingLong(InterceptorStatistics::getTotalWallTimeNanos).reversed());
+    return statistics;
+  }
+
+  /** Returns the methods whose bodies took longest to intercept, the slowest first. */
+  @Nonnull
+  public List<MethodTiming> getSlowestMethods() {
+    List<MethodTiming> methods;
+    synchronized (slowestMethods) {
+      methods = new ArrayList<>(slowestMethods);
+    }
+    methods.sort(Comparator.comparingLong(MethodTiming::getWallTimeNanos).reversed());
+    return methods;
+  }
+
+  /** Discards all measurements. */
+  public void reset() {
+    interceptorStatistics.clear();
+    synchronized (slowestMethods) {
+      slowestMethods.clear();
+    }
+  }
+
+  /** Returns a human readable summary of the statistics and the slowest methods. */
+  @Nonnull
+  public String report() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            "%-40s %12s %12s %12s %12s %16s%n",
+            "interceptor", "invocations", "total ms", "max ms", "stmt delta", "allocated bytes"));
+    for (InterceptorStatistics statistics : getInterceptorStatistics()) {
+      sb.append(
+          String.format(
+              "%-40s %12d %12.2f %12.2f %12d %16s%n",
+              statistics.getName(),
+              statistics.getInvocations(),
+              statistics.getTotalWallTimeNanos() / 1e6,
+              statistics.getMaxWallTimeNanos() / 1e6,
+              statistics.getStmtCountDelta(),
+              measureAllocations ? String.valueOf(statistics.getAllocatedBytes()) : "-"));
+    }
+    List<MethodTiming> methods = getSlowestMethods();
+    if (!methods.isEmpty()) {
+      sb.append(String.format("%nslowest methods:%n"));
+      for (MethodTiming method : methods) {
+        sb.append(String.format("%12.2f ms  %s%n", method.getWallTimeNanos() / 1e6, method));
+      }
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return report();
+  }
+
+  /** The aggregated measurements of one interceptor. */
+  public static class InterceptorStatistics {
+    @Nonnull private final String name;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalWallTimeNanos = new LongAdder();
+    private final LongAccumulator maxWallTimeNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder stmtCountDelta = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private InterceptorStatistics(@Nonnull String name) {
+      this.name = name;
+    }
+
+    private void add(@Nonnull BodyInterceptorMeasurement measurement) {
+      invocations.increment();
+      totalWallTimeNanos.add(measurement.getWallTimeNanos());
+      maxWallTimeNanos.accumulate(measurement.getWallTimeNanos());
+      stmtCountDelta.add(measurement.getStmtCountDelta());
+      if (measurement.getAllocatedBytes() > 0) {
+        allocatedBytes.add(measurement.getAllocatedBytes());
+      }
+    }
+
+    @Nonnull
+    public String getName() {
+      return name;
+    }
+
+    public long getInvocations() {
+      return invocations.sum();
+    }
+
+    public long getTotalWallTimeNanos() {
+      return totalWallTimeNanos.sum();
+    }
+
+    public long getMaxWallTimeNanos() {
+      return maxWallTimeNanos.get();
+    }
+
+    /** Returns the sum of the changes of the stmt count, i.e. negative if stmts were removed. */
+    public long getStmtCountDelta() {
+      return stmtCountDelta.sum();
+    }
+
+    /** Returns the bytes allocated by the interceptor or 0 if allocations were not measured. */
+    public long getAllocatedBytes() {
+      return allocatedBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+      return name
+          + "{invocations="
+          + getInvocations()
+          + ", totalWallTimeNanos="
+          + getTotalWallTimeNanos()
+          + ", stmtCountDelta="
+          + getStmtCountDelta()
+          + "}";
+    }
+  }
+
+  /** The time spent in all interceptors for the body of a method. */
+  public static class MethodTiming {
+    @Nonnull private final MethodSignature method;
+    private final long wallTimeNanos;
+    private final long allocatedBytes;
+
+    private MethodTiming(@Nonnull MethodSignature method, long wallTimeNanos, long allocatedBytes) {
+      this.method = method;
+      this.wallTimeNanos = wallTimeNanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+
+    @Nonnull
+    public MethodSignature getMethod() {
+      return method;
+    }
+
+    public long getWallTimeNanos() {
+      return wallTimeNanos;
+    }
+
+    /** Returns the bytes allocated by all interceptors or -1 if allocations were not measured. */
+    public long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return method.toString();
+    }
+  }
+}
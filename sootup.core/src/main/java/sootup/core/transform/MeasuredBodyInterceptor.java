@@ -0,0 +1,181 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.views.View;
+
+/**
+ * Wraps a {@link BodyInterceptor} and reports the wall time, the change of the stmt count and
+ * optionally the bytes allocated by the current thread for each application of the wrapped
+ * interceptor to a {@link BodyInterceptorListener}. Use {@link #instrument(List,
+ * BodyInterceptorListener, boolean)} to wrap a whole list of interceptors, which additionally
+ * reports the totals per method.
+ */
+public class MeasuredBodyInterceptor implements BodyInterceptor {
+
+  /** the bean to measure allocations or <code>null</code> if the JVM does not support it. */
+  @Nullable private static final com.sun.management.ThreadMXBean threadBean = findThreadBean();
+
+  @Nonnull private final BodyInterceptor delegate;
+  @Nonnull private final BodyInterceptorListener listener;
+  private final boolean measureAllocations;
+
+  /** the totals of the current method, shared by the interceptors of an instrumented list */
+  @Nullable private final ThreadLocal<long[]> chainTotals;
+
+  private final boolean firstInChain;
+  private final boolean lastInChain;
+
+  public MeasuredBodyInterceptor(
+      @Nonnull BodyInterceptor delegate,
+      @Nonnull BodyInterceptorListener listener,
+      boolean measureAllocations) {
+    this(delegate, listener, measureAllocations, null, false, false);
+  }
+
+  private MeasuredBodyInterceptor(
+      @Nonnull BodyInterceptor delegate,
+      @Nonnull BodyInterceptorListener listener,
+      boolean measureAllocations,
+      @Nullable ThreadLocal<long[]> chainTotals,
+      boolean firstInChain,
+      boolean lastInChain) {
+    this.delegate = delegate;
+    this.listener = listener;
+    this.measureAllocations = measureAllocations && threadBean != null;
+    this.chainTotals = chainTotals;
+    this.firstInChain = firstInChain;
+    this.lastInChain = lastInChain;
+  }
+
+  /**
+   * Wraps each of the given interceptors. After the last interceptor of the returned list was
+   * applied to a body, the listener is notified about the totals of that method.
+   *
+   * @param measureAllocations whether the bytes allocated by the interceptors are measured, which
+   *     is only supported by HotSpot based JVMs
+   */
+  @Nonnull
+  public static List<BodyInterceptor> instrument(
+      @Nonnull List<? extends BodyInterceptor> interceptors,
+      @Nonnull BodyInterceptorListener listener,
+      boolean measureAllocations) {
+    ThreadLocal<long[]> chainTotals = ThreadLocal.withInitial(() -> new long[2]);
+    List<BodyInterceptor> instrumented = new ArrayList<>(interceptors.size());
+    for (int i = 0; i < interceptors.size(); i++) {
+      instrumented.add(
+          new MeasuredBodyInterceptor(
+              interceptors.get(i),
+              listener,
+              measureAllocations,
+              chainTotals,
+              i == 0,
+              i == interceptors.size() - 1));
+    }
+    return instrumented;
+  }
+
+  /** Returns the interceptor if it is not measured, otherwise the measured interceptor. */
+  @Nonnull
+  public static BodyInterceptor unwrap(@Nonnull BodyInterceptor interceptor) {
+    while (interceptor instanceof MeasuredBodyInterceptor) {
+      interceptor = ((MeasuredBodyInterceptor) interceptor).getDelegate();
+    }
+    return interceptor;
+  }
+
+  @Nonnull
+  public BodyInterceptor getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
+    int stmtCountBefore = builder.getStmtGraph().getNodes().size();
+    long allocatedBefore = measureAllocations ? threadBean.getThreadAllocatedBytes(threadId()) : 0;
+    long start = System.nanoTime();
+
+    delegate.interceptBody(builder, view);
+
+    long wallTimeNanos = System.nanoTime() - start;
+    long allocatedBytes =
+        measureAllocations
+            ? threadBean.getThreadAllocatedBytes(threadId()) - allocatedBefore
+            : -1;
+    int stmtCountAfter = builder.getStmtGraph().getNodes().size();
+    listener.interceptorApplied(
+        new BodyInterceptorMeasurement(
+            builder.getMethodSignature(),
+            delegate,
+            wallTimeNanos,
+            stmtCountBefore,
+            stmtCountAfter,
+            allocatedBytes));
+
+    if (chainTotals != null) {
+      long[] totals = chainTotals.get();
+      if (firstInChain) {
+        totals[0] = 0;
+        totals[1] = 0;
+      }
+      totals[0] += wallTimeNanos;
+      totals[1] += allocatedBytes;
+      if (lastInChain) {
+        listener.bodyIntercepted(
+            builder.getMethodSignature(), totals[0], measureAllocations ? totals[1] : -1);
+      }
+    }
+  }
+
+  private static long threadId() {
+    return Thread.currentThread().getId();
+  }
+
+  @Nullable
+  private static com.sun.management.ThreadMXBean findThreadBean() {
+    try {
+      java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        if (threadBean.isThreadAllocatedMemorySupported()) {
+          threadBean.setThreadAllocatedMemoryEnabled(true);
+          return threadBean;
+        }
+      }
+    } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+      // e.g. the jdk.management module is not available
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
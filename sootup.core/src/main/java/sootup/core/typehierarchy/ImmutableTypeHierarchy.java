@@ -0,0 +1,538 @@
+package sootup.core.typehierarchy;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * An immutable {@link TypeHierarchy} of a {@link View} that answers the same queries as the {@link
+ * ViewTypeHierarchy} but stores the types as int ids in primitive arrays. Direct subtypes and
+ * directly implemented interfaces are kept as compressed sparse rows, and the superclass tree is
+ * numbered in pre- and post-order so that checking whether a class extends another one takes
+ * constant time. Transitive subtype and interface sets are computed once per type and cached as
+ * immutable sets.
+ *
+ * <p>The hierarchy is built from all classes of the view on its first query and does not reflect
+ * classes that are added to the view afterwards. Hence it is meant for views that do not change
+ * anymore, e.g. for call graph construction via {@link
+ * sootup.core.views.AbstractView#setTypeHierarchy(TypeHierarchy)}.
+ */
+public class ImmutableTypeHierarchy implements TypeHierarchy {
+
+  @Nonnull private final View view;
+  @Nullable private volatile Snapshot snapshot;
+
+  public ImmutableTypeHierarchy(@Nonnull View view) {
+    this.view = view;
+  }
+
+  @Nonnull
+  private Snapshot getSnapshot() {
+    Snapshot result = snapshot;
+    if (result == null) {
+      synchronized (this) {
+        result = snapshot;
+        if (result == null) {
+          result = scanView();
+          snapshot = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  private int getId(@Nonnull Snapshot snapshot, @Nonnull ClassType type, @Nonnull String message) {
+    Integer id = snapshot.typeToId.get(type);
+    if (id == null) {
+      throw new IllegalArgumentException(message);
+    }
+    return id;
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> implementersOf(@Nonnull ClassType interfaceType) {
+    Snapshot s = getSnapshot();
+    int id = getId(s, interfaceType, "Could not find '" + interfaceType + "' in hierarchy.");
+    if (!s.interfaceVertex.get(id)) {
+      throw new IllegalArgumentException("'" + interfaceType + "' is not an interface.");
+    }
+    return subtypesOf(s, id);
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> subclassesOf(@Nonnull ClassType classType) {
+    Snapshot s = getSnapshot();
+    int id = getId(s, classType, "Could not find '" + classType + "' in hierarchy.");
+    if (s.interfaceVertex.get(id)) {
+      throw new IllegalArgumentException("'" + classType + "' is not a class.");
+    }
+    return subtypesOf(s, id);
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> subtypesOf(@Nonnull ClassType type) {
+    Snapshot s = getSnapshot();
+    return subtypesOf(s, getId(s, type, "Could not find '" + type + "' in hierarchy."));
+  }
+
+  @Nonnull
+  private Set<ClassType> subtypesOf(@Nonnull Snapshot s, int id) {
+    Set<ClassType> subtypes = s.subtypes.get(id);
+    if (subtypes == null) {
+      ImmutableSet.Builder<ClassType> builder = ImmutableSet.builder();
+      BitSet visited = new BitSet(s.types.length);
+      visited.set(id);
+      int[] workList = new int[s.types.length];
+      int size = 0;
+      workList[size++] = id;
+      while (size > 0) {
+        int current = workList[--size];
+        for (int i = s.subtypeOffsets[current]; i < s.subtypeOffsets[current + 1]; i++) {
+          int subtype = s.subtypeIds[i];
+          if (!visited.get(subtype)) {
+            visited.set(subtype);
+            builder.add(s.types[subtype]);
+            workList[size++] = subtype;
+          }
+        }
+      }
+      subtypes = builder.build();
+      s.subtypes.set(id, subtypes);
+    }
+    return subtypes;
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> directSubtypesOf(@Nonnull ClassType type) {
+    Snapshot s = getSnapshot();
+    int id = getId(s, type, "Could not find '" + type + "' in hierarchy.");
+    ImmutableSet.Builder<ClassType> builder = ImmutableSet.builder();
+    for (int i = s.subtypeOffsets[id]; i < s.subtypeOffsets[id + 1]; i++) {
+      builder.add(s.types[s.subtypeIds[i]]);
+    }
+    return builder.build();
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> implementedInterfacesOf(@Nonnull ClassType type) {
+    Snapshot s = getSnapshot();
+    int id = getId(s, type, "Could not find " + type + " in hierarchy for view " + view);
+    Set<ClassType> interfaces = s.implementedInterfaces.get(id);
+    if (interfaces == null) {
+      BitSet visited = new BitSet(s.types.length);
+      ImmutableSet.Builder<ClassType> builder = ImmutableSet.builder();
+      if (s.interfaceVertex.get(id)) {
+        if (s.declaredInterface.get(id)) {
+          for (int i = s.interfaceOffsets[id]; i < s.interfaceOffsets[id + 1]; i++) {
+            addSelfAndExtendedInterfaces(s, s.interfaceIds[i], visited, builder);
+          }
+        }
+      } else {
+        // ascend through the superclasses and merge the interfaces each of them implements
+        for (int current = id, steps = 0;
+            current >= 0 && steps < s.types.length;
+            current = s.extendedClass(current), steps++) {
+          if (s.declaredClass(current)) {
+            for (int i = s.interfaceOffsets[current]; i < s.interfaceOffsets[current + 1]; i++) {
+              addSelfAndExtendedInterfaces(s, s.interfaceIds[i], visited, builder);
+            }
+          }
+        }
+      }
+      interfaces = builder.build();
+      s.implementedInterfaces.set(id, interfaces);
+    }
+    return interfaces;
+  }
+
+  private static void addSelfAndExtendedInterfaces(
+      @Nonnull Snapshot s,
+      int interfaceId,
+      @Nonnull BitSet visited,
+      @Nonnull ImmutableSet.Builder<ClassType> builder) {
+    if (visited.get(interfaceId)) {
+      return;
+    }
+    visited.set(interfaceId);
+    builder.add(s.types[interfaceId]);
+    if (s.declaredInterface.get(interfaceId)) {
+      for (int i = s.interfaceOffsets[interfaceId]; i < s.interfaceOffsets[interfaceId + 1]; i++) {
+        addSelfAndExtendedInterfaces(s, s.interfaceIds[i], visited, builder);
+      }
+    }
+  }
+
+  @Nullable
+  @Override
+  public ClassType superClassOf(@Nonnull ClassType classType) {
+    Snapshot s = snapshot;
+    if (s == null) {
+      // avoid scanning the whole view for a query the view answers on its own
+      final Optional<? extends SootClass> classOpt = view.getClass(classType);
+      if (!classOpt.isPresent()) {
+        throw new IllegalArgumentException("Could not find '" + classType + "' in the view.");
+      }
+      return classOpt.get().getSuperclass().orElse(null);
+    }
+    Integer id = s.typeToId.get(classType);
+    if (id == null || !s.declared.get(id)) {
+      throw new IllegalArgumentException("Could not find '" + classType + "' in the view.");
+    }
+    return s.superClassTypes[id];
+  }
+
+  @Override
+  public boolean isSubtype(@Nonnull Type supertype, @Nonnull Type potentialSubtype) {
+    if (supertype instanceof ClassType && potentialSubtype instanceof ClassType) {
+      Snapshot s = getSnapshot();
+      Integer superId = s.typeToId.get(supertype);
+      Integer subId = s.typeToId.get(potentialSubtype);
+      if (superId != null && subId != null && s.declared.get(subId) && s.preOrder[subId] >= 0) {
+        if (((ClassType) supertype).getFullyQualifiedName().equals("java.lang.Object")) {
+          return !superId.equals(subId);
+        }
+        // a descendant in the superclass tree is entered after and left before its ancestor
+        boolean isSubclass =
+            s.preOrder[superId] < s.preOrder[subId] && s.postOrder[subId] < s.postOrder[superId];
+        return isSubclass
+            || implementedInterfacesOf((ClassType) potentialSubtype).contains(supertype);
+      }
+    }
+    // arrays, primitives and incomplete hierarchies
+    return TypeHierarchy.super.isSubtype(supertype, potentialSubtype);
+  }
+
+  @Override
+  public Set<ClassType> directlyImplementedInterfacesOf(@Nonnull ClassType classType) {
+    Snapshot s = getSnapshot();
+    int id = getId(s, classType, "Could not find '" + classType + "' in hierarchy.");
+    if (s.interfaceVertex.get(id)) {
+      throw new IllegalArgumentException(classType + " is not a class.");
+    }
+    return s.declaredClass(id) ? directInterfacesOf(s, id) : ImmutableSet.of();
+  }
+
+  @Override
+  public Set<ClassType> directlyExtendedInterfacesOf(@Nonnull ClassType interfaceType) {
+    Snapshot s = getSnapshot();
+    int id = getId(s, interfaceType, "Could not find " + interfaceType + " in hierarchy.");
+    if (!s.interfaceVertex.get(id)) {
+      throw new IllegalArgumentException(interfaceType + " is not a class.");
+    }
+    return s.declaredInterface.get(id) ? directInterfacesOf(s, id) : ImmutableSet.of();
+  }
+
+  @Nonnull
+  private static Set<ClassType> directInterfacesOf(@Nonnull Snapshot s, int id) {
+    ImmutableSet.Builder<ClassType> builder = ImmutableSet.builder();
+    for (int i = s.interfaceOffsets[id]; i < s.interfaceOffsets[id + 1]; i++) {
+      builder.add(s.types[s.interfaceIds[i]]);
+    }
+    return builder.build();
+  }
+
+  @Override
+  public boolean isInterface(@Nonnull ClassType type) {
+    Snapshot s = getSnapshot();
+    return s.interfaceVertex.get(getId(s, type, "Could not find '" + type + "' in hierarchy."));
+  }
+
+  public boolean isClass(@Nonnull ClassType type) {
+    return !isInterface(type);
+  }
+
+  @Override
+  public boolean contains(ClassType type) {
+    return getSnapshot().typeToId.containsKey(type);
+  }
+
+  /**
+   * Scans the classes of the view in the same order and with the same rules as the {@link
+   * ViewTypeHierarchy}, i.e. a type that is only referenced is a class or an interface depending on
+   * how it was referenced first.
+   */
+  @Nonnull
+  private Snapshot scanView() {
+    Map<ClassType, Integer> typeToId = new HashMap<>();
+    List<ClassType> types = new ArrayList<>();
+    BitSet interfaceVertex = new BitSet();
+    BitSet declared = new BitSet();
+    BitSet declaredInterface = new BitSet();
+    Map<Integer, ClassType> superClassTypes = new HashMap<>();
+    // edges from a declared type to its directly implemented or extended interfaces
+    EdgeList interfaceEdges = new EdgeList();
+    // edges from a declared class to its superclass
+    EdgeList extendsEdges = new EdgeList();
+
+    for (SootClass sootClass : view.getClasses()) {
+      boolean isInterface = sootClass.isInterface();
+      int id = getOrCreateId(sootClass.getType(), isInterface, typeToId, types, interfaceVertex);
+      for (ClassType superInterface : sootClass.getInterfaces()) {
+        int interfaceId = getOrCreateId(superInterface, true, typeToId, types, interfaceVertex);
+        interfaceEdges.add(id, interfaceId);
+      }
+      Optional<? extends ClassType> superClass = sootClass.getSuperclass();
+      if (!isInterface && superClass.isPresent()) {
+        int superClassId = getOrCreateId(superClass.get(), false, typeToId, types, interfaceVertex);
+        extendsEdges.add(id, superClassId);
+      }
+      if (!declared.get(id)) {
+        declared.set(id);
+        declaredInterface.set(id, isInterface);
+        superClass.ifPresent(type -> superClassTypes.put(id, type));
+      }
+    }
+
+    int typeCount = types.size();
+    interfaceEdges.removeDuplicates();
+    extendsEdges.removeDuplicates();
+
+    // a direct subtype of an interface implements or extends it, one of a class extends it
+    EdgeList subtypeEdges = new EdgeList();
+    for (int i = 0; i < interfaceEdges.size; i++) {
+      if (interfaceVertex.get(interfaceEdges.targets[i])) {
+        subtypeEdges.add(interfaceEdges.targets[i], interfaceEdges.sources[i]);
+      }
+    }
+    for (int i = 0; i < extendsEdges.size; i++) {
+      if (!interfaceVertex.get(extendsEdges.targets[i])) {
+        subtypeEdges.add(extendsEdges.targets[i], extendsEdges.sources[i]);
+      }
+    }
+    subtypeEdges.removeDuplicates();
+
+    int[] superClass = new int[typeCount];
+    Arrays.fill(superClass, -1);
+    ClassType[] superClassTypeArray = new ClassType[typeCount];
+    for (Map.Entry<Integer, ClassType> entry : superClassTypes.entrySet()) {
+      superClassTypeArray[entry.getKey()] = entry.getValue();
+      Integer superId = typeToId.get(entry.getValue());
+      if (superId != null) {
+        superClass[entry.getKey()] = superId;
+      }
+    }
+
+    return new Snapshot(
+        typeToId,
+        types.toArray(new ClassType[0]),
+        interfaceVertex,
+        declared,
+        declaredInterface,
+        superClass,
+        superClassTypeArray,
+        subtypeEdges.toRows(typeCount),
+        interfaceEdges.toRows(typeCount));
+  }
+
+  private static int getOrCreateId(
+      @Nonnull ClassType type,
+      boolean isInterface,
+      @Nonnull Map<ClassType, Integer> typeToId,
+      @Nonnull List<ClassType> types,
+      @Nonnull BitSet interfaceVertex) {
+    Integer id = typeToId.get(type);
+    if (id == null) {
+      id = types.size();
+      types.add(type);
+      typeToId.put(type, id);
+      interfaceVertex.set(id, isInterface);
+    }
+    return id;
+  }
+
+  /** Growable list of int edges that is turned into compressed sparse rows. */
+  private static final class EdgeList {
+    int[] sources = new int[16];
+    int[] targets = new int[16];
+    int size = 0;
+
+    void add(int source, int target) {
+      if (size == sources.length) {
+        sources = Arrays.copyOf(sources, size * 2);
+        targets = Arrays.copyOf(targets, size * 2);
+      }
+      sources[size] = source;
+      targets[size] = target;
+      size++;
+    }
+
+    /** sorts the edges by source and target and drops duplicates */
+    void removeDuplicates() {
+      long[] packed = new long[size];
+      for (int i = 0; i < size; i++) {
+        packed[i] = ((long) sources[i] << 32) | targets[i];
+      }
+      Arrays.sort(packed);
+      int unique = 0;
+      for (int i = 0; i < packed.length; i++) {
+        if (i == 0 || packed[i] != packed[i - 1]) {
+          sources[unique] = (int) (packed[i] >>> 32);
+          targets[unique] = (int) packed[i];
+          unique++;
+        }
+      }
+      size = unique;
+    }
+
+    /** @return the row offsets (of length rowCount + 1) and the targets of the sorted edges */
+    int[][] toRows(int rowCount) {
+      int[] offsets = new int[rowCount + 1];
+      for (int i = 0; i < size; i++) {
+        offsets[sources[i] + 1]++;
+      }
+      for (int row = 0; row < rowCount; row++) {
+        offsets[row + 1] += offsets[row];
+      }
+      return new int[][] {offsets, Arrays.copyOf(targets, size)};
+    }
+  }
+
+  /** The frozen hierarchy: every type that is declared or referenced in the view has an id. */
+  private static final class Snapshot {
+    @Nonnull final Map<ClassType, Integer> typeToId;
+    @Nonnull final ClassType[] types;
+    /** whether the type is an interface, as it was first encountered */
+    @Nonnull final BitSet interfaceVertex;
+    /** whether the type is declared by a class of the view */
+    @Nonnull final BitSet declared;
+    /** whether the type is declared by an interface of the view */
+    @Nonnull final BitSet declaredInterface;
+    /** id of the declared superclass, also for interfaces; -1 if there is none */
+    @Nonnull final int[] superClass;
+
+    @Nonnull final ClassType[] superClassTypes;
+    /** direct subtypes as compressed sparse rows */
+    @Nonnull final int[] subtypeOffsets;
+
+    @Nonnull final int[] subtypeIds;
+    /** directly implemented (classes) or extended (interfaces) interfaces as compressed rows */
+    @Nonnull final int[] interfaceOffsets;
+
+    @Nonnull final int[] interfaceIds;
+    /** numbering of the superclass tree; -1 for types that can not reach a root e.g. cycles */
+    @Nonnull final int[] preOrder;
+
+    @Nonnull final int[] postOrder;
+
+    @Nonnull final AtomicReferenceArray<Set<ClassType>> subtypes;
+    @Nonnull final AtomicReferenceArray<Set<ClassType>> implementedInterfaces;
+
+    Snapshot(
+        @Nonnull Map<ClassType, Integer> typeToId,
+        @Nonnull ClassType[] types,
+        @Nonnull BitSet interfaceVertex,
+        @Nonnull BitSet declared,
+        @Nonnull BitSet declaredInterface,
+        @Nonnull int[] superClass,
+        @Nonnull ClassType[] superClassTypes,
+        @Nonnull int[][] subtypeRows,
+        @Nonnull int[][] interfaceRows) {
+      this.typeToId = typeToId;
+      this.types = types;
+      this.interfaceVertex = interfaceVertex;
+      this.declared = declared;
+      this.declaredInterface = declaredInterface;
+      this.superClass = superClass;
+      this.superClassTypes = superClassTypes;
+      this.subtypeOffsets = subtypeRows[0];
+      this.subtypeIds = subtypeRows[1];
+      this.interfaceOffsets = interfaceRows[0];
+      this.interfaceIds = interfaceRows[1];
+      this.preOrder = new int[types.length];
+      this.postOrder = new int[types.length];
+      this.subtypes = new AtomicReferenceArray<>(types.length);
+      this.implementedInterfaces = new AtomicReferenceArray<>(types.length);
+      numberSuperClassTree();
+    }
+
+    boolean declaredClass(int id) {
+      return declared.get(id) && !declaredInterface.get(id);
+    }
+
+    /** the superclass a declared class extends in the hierarchy graph; -1 if there is none */
+    int extendedClass(int id) {
+      return declaredClass(id) ? superClass[id] : -1;
+    }
+
+    private void numberSuperClassTree() {
+      int typeCount = types.length;
+      EdgeList children = new EdgeList();
+      for (int id = 0; id < typeCount; id++) {
+        if (superClass[id] >= 0) {
+          children.add(superClass[id], id);
+        }
+      }
+      children.removeDuplicates();
+      int[][] childRows = children.toRows(typeCount);
+      int[] childOffsets = childRows[0];
+      int[] childIds = childRows[1];
+
+      Arrays.fill(preOrder, -1);
+      Arrays.fill(postOrder, -1);
+      int[] stack = new int[typeCount];
+      int[] nextChild = new int[typeCount];
+      int clock = 0;
+      for (int root = 0; root < typeCount; root++) {
+        if (superClass[root] >= 0) {
+          continue;
+        }
+        int size = 0;
+        stack[size++] = root;
+        preOrder[root] = clock++;
+        nextChild[root] = childOffsets[root];
+        while (size > 0) {
+          int current = stack[size - 1];
+          if (nextChild[current] < childOffsets[current + 1]) {
+            int child = childIds[nextChild[current]++];
+            stack[size++] = child;
+            preOrder[child] = clock++;
+            nextChild[child] = childOffsets[child];
+          } else {
+            postOrder[current] = clock++;
+            size--;
+          }
+        }
+      }
+    }
+  }
+}
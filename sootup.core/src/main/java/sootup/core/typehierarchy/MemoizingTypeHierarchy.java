@@ -0,0 +1,255 @@
+package sootup.core.typehierarchy;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.IdentifierFactory;
+import sootup.core.types.*;
+
+/**
+ * A {@link TypeHierarchy} that answers {@link #isSubtype(Type, Type)} from a bounded, concurrent
+ * cache keyed by the pair of queried types and delegates every other query to the wrapped
+ * hierarchy. Queries involving <code>java.lang.Object</code>, <code>java.io.Serializable</code>,
+ * <code>java.lang.Cloneable</code>, arrays or null are answered without consulting the cache or
+ * the wrapped hierarchy; the well-known types are recognized by identity or by their simple and
+ * package names instead of building and comparing their fully qualified names.
+ *
+ * <p>The cache is never invalidated, i.e. the wrapped hierarchy must not change anymore.
+ */
+public class MemoizingTypeHierarchy implements TypeHierarchy {
+
+  public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+  @Nonnull private final TypeHierarchy delegate;
+  @Nonnull private final ClassType objectType;
+  @Nonnull private final ClassType serializableType;
+  @Nonnull private final ClassType cloneableType;
+  @Nonnull private final Cache<TypePair, Boolean> subtypeCache;
+
+  public MemoizingTypeHierarchy(
+      @Nonnull TypeHierarchy delegate, @Nonnull IdentifierFactory identifierFactory) {
+    this(delegate, identifierFactory, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param identifierFactory creates the well-known types the queried types are compared with
+   * @param maximumSize the maximum amount of cached subtype relations
+   */
+  public MemoizingTypeHierarchy(
+      @Nonnull TypeHierarchy delegate,
+      @Nonnull IdentifierFactory identifierFactory,
+      long maximumSize) {
+    this.delegate = delegate;
+    this.objectType = identifierFactory.getClassType("java.lang.Object");
+    this.serializableType = identifierFactory.getClassType("java.io.Serializable");
+    this.cloneableType = identifierFactory.getClassType("java.lang.Cloneable");
+    this.subtypeCache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+  }
+
+  /**
+   * compares the names of the type without concatenating them, as e.g. types of different modules
+   * are not equal but have the same fully qualified name
+   */
+  private static boolean isType(@Nonnull Type type, @Nonnull ClassType wellKnownType) {
+    if (type == wellKnownType) {
+      return true;
+    }
+    if (!(type instanceof ClassType)) {
+      return false;
+    }
+    ClassType classType = (ClassType) type;
+    return classType.getClassName().equals(wellKnownType.getClassName())
+        && classType.getPackageName().getName().equals(wellKnownType.getPackageName().getName());
+  }
+
+  @Override
+  public boolean isSubtype(@Nonnull Type supertype, @Nonnull Type potentialSubtype) {
+    if (!(supertype instanceof ReferenceType) || !(potentialSubtype instanceof ReferenceType)) {
+      // Subtyping applies to ReferenceTypes only
+      return false;
+    }
+    if (supertype instanceof NullType) {
+      // NullType has no subtypes
+      return false;
+    }
+    if (potentialSubtype instanceof NullType) {
+      // Null can be assigned to any type
+      return true;
+    }
+
+    if (supertype instanceof ArrayType) {
+      if (!(potentialSubtype instanceof ArrayType)) {
+        return false;
+      }
+      ArrayType superArrayType = (ArrayType) supertype;
+      ArrayType potentialSubArrayType = (ArrayType) potentialSubtype;
+      Type superBaseType = superArrayType.getBaseType();
+      if (superBaseType instanceof PrimitiveType) {
+        // Arrays of primitives have no subtypes
+        return false;
+      }
+      if (potentialSubArrayType.getDimension() == superArrayType.getDimension()
+          && isSubtype(superBaseType, potentialSubArrayType.getBaseType())) {
+        // Arrays are covariant: Object[] x = new String[0];
+        return true;
+      }
+      if (isType(superBaseType, objectType)
+          || isType(superBaseType, serializableType)
+          || isType(superBaseType, cloneableType)) {
+        // Special case: Object[] x = new double[0][0], Object[][] y = new double[0][0][0], ...
+        return potentialSubArrayType.getDimension() > superArrayType.getDimension();
+      }
+      return false;
+    }
+
+    if (potentialSubtype instanceof ArrayType) {
+      // Arrays are subtypes of java.lang.Object, java.io.Serializable and java.lang.Cloneable
+      return isType(supertype, objectType)
+          || isType(supertype, serializableType)
+          || isType(supertype, cloneableType);
+    }
+    if (isType(supertype, objectType)) {
+      // any class is a subtype of java.lang.Object except java.lang.Object itself
+      return !isType(potentialSubtype, objectType);
+    }
+
+    TypePair key = new TypePair(supertype, potentialSubtype);
+    Boolean isSubtype = subtypeCache.getIfPresent(key);
+    if (isSubtype == null) {
+      isSubtype = delegate.isSubtype(supertype, potentialSubtype);
+      subtypeCache.put(key, isSubtype);
+    }
+    return isSubtype;
+  }
+
+  /** Returns the hit, miss and eviction counts of the subtype cache. */
+  @Nonnull
+  public CacheStats getStats() {
+    return subtypeCache.stats();
+  }
+
+  @Nonnull
+  public TypeHierarchy getDelegate() {
+    return delegate;
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> implementersOf(@Nonnull ClassType interfaceType) {
+    return delegate.implementersOf(interfaceType);
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> subclassesOf(@Nonnull ClassType classType) {
+    return delegate.subclassesOf(classType);
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> implementedInterfacesOf(@Nonnull ClassType type) {
+    return delegate.implementedInterfacesOf(type);
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> subtypesOf(@Nonnull ClassType type) {
+    return delegate.subtypesOf(type);
+  }
+
+  @Nonnull
+  @Override
+  public Set<ClassType> directSubtypesOf(@Nonnull ClassType type) {
+    return delegate.directSubtypesOf(type);
+  }
+
+  @Nullable
+  @Override
+  public ClassType superClassOf(@Nonnull ClassType classType) {
+    return delegate.superClassOf(classType);
+  }
+
+  @Nonnull
+  @Override
+  public List<ClassType> superClassesOf(@Nonnull ClassType classType) {
+    return delegate.superClassesOf(classType);
+  }
+
+  @Override
+  public Set<ClassType> directlyImplementedInterfacesOf(@Nonnull ClassType type) {
+    return delegate.directlyImplementedInterfacesOf(type);
+  }
+
+  @Override
+  public boolean isInterface(@Nonnull ClassType type) {
+    return delegate.isInterface(type);
+  }
+
+  @Override
+  public Set<ClassType> directlyExtendedInterfacesOf(@Nonnull ClassType type) {
+    return delegate.directlyExtendedInterfacesOf(type);
+  }
+
+  @Override
+  public boolean contains(ClassType type) {
+    return delegate.contains(type);
+  }
+
+  /** Key of the subtype cache. */
+  private static final class TypePair {
+    @Nonnull private final Type supertype;
+    @Nonnull private final Type potentialSubtype;
+    private final int hashCode;
+
+    private TypePair(@Nonnull Type supertype, @Nonnull Type potentialSubtype) {
+      this.supertype = supertype;
+      this.potentialSubtype = potentialSubtype;
+      this.hashCode = 31 * supertype.hashCode() + potentialSubtype.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TypePair)) {
+        return false;
+      }
+      TypePair other = (TypePair) o;
+      return hashCode == other.hashCode
+          && supertype.equals(other.supertype)
+          && potentialSubtype.equals(other.potentialSubtype);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -130,18 +130,14 @@ public interface TypeHierarchy {
           && potentialSubArrayType.getDimension() == superArrayType.getDimension()) {
         // Arrays are covariant: Object[] x = new String[0];
         return true;
-      } else if (superArrayType.getBaseType() instanceof ClassType
-          && (((ClassType) superArrayType.getBaseType())
-                  .getFullyQualifiedName()
-                  .equals("java.lang.Object")
-              || ((ClassType) superArrayType.getBaseType())
-                  .getFullyQualifiedName()
-                  .equals("java.io.Serializable")
-              || ((ClassType) superArrayType.getBaseType())
-                  .getFullyQualifiedName()
-                  .equals("java.lang.Cloneable"))) {
+      } else if (superArrayType.getBaseType() instanceof ClassType) {
+        String superBaseTypeName =
+            ((ClassType) superArrayType.getBaseType()).getFullyQualifiedName();
         // Special case: Object[] x = new double[0][0], Object[][] y = new double[0][0][0], ...
-        return potentialSubArrayType.getDimension() > superArrayType.getDimension();
+        return (superBaseTypeName.equals("java.lang.Object")
+                || superBaseTypeName.equals("java.io.Serializable")
+                || superBaseTypeName.equals("java.lang.Cloneable"))
+            && potentialSubArrayType.getDimension() > superArrayType.getDimension();
       } else {
         return false;
       }
@@ -22,6 +22,8 @@ package sootup.core.util.printer;
  * #L%
  */
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Nonnull;
@@ -37,13 +39,15 @@ import sootup.core.types.Type;
 /** Partial default StmtPrinter implementation. */
 public abstract class AbstractStmtPrinter extends StmtPrinter {
 
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
   protected boolean startOfLine = true;
   protected final char indentChar = '\u0020';
   protected final int indentStep = 4;
   protected int indent = 0;
 
   protected StringBuilder output = new StringBuilder();
-  private final HashMap<String, PackageName> imports = new HashMap<>();
+  private HashMap<String, PackageName> imports = new HashMap<>();
 
   boolean useImports = false;
 
@@ -164,6 +168,29 @@ public abstract class AbstractStmtPrinter extends StmtPrinter {
     startOfLine = false;
   }
 
+  /**
+   * Discards everything printed so far and the StmtGraph of the last printed body, so that the
+   * printer can be reused for the next class. The capacity of the output buffer is kept.
+   */
+  public void clear() {
+    output.setLength(0);
+    graph = null;
+    // a new map, as the iteration order of a cleared one depends on its former size
+    imports = new HashMap<>();
+    indent = 0;
+    startOfLine = true;
+  }
+
+  /** writes the printed output to the writer without creating a String of it */
+  void writeTo(@Nonnull Writer writer) throws IOException {
+    char[] buffer = new char[Math.min(output.length(), WRITE_BUFFER_SIZE)];
+    for (int start = 0; start < output.length(); start += buffer.length) {
+      int end = Math.min(output.length(), start + buffer.length);
+      output.getChars(start, end, buffer, 0);
+      writer.write(buffer, 0, end - start);
+    }
+  }
+
   @Override
   public String toString() {
     return output.toString();
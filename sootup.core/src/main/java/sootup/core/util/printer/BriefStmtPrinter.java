@@ -90,4 +90,10 @@ public class BriefStmtPrinter extends LabeledStmtPrinter {
 
     output.append(s);
   }
+
+  @Override
+  public void clear() {
+    super.clear();
+    eatSpace = false;
+  }
 }
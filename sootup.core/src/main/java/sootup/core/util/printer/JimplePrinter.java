@@ -22,7 +22,9 @@ package sootup.core.util.printer;
  * #L%
  */
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.*;
 import java.util.stream.Collectors;
 import sootup.core.graph.StmtGraph;
@@ -65,7 +67,7 @@ public class JimplePrinter {
   }
 
   private final Set<Option> options = EnumSet.noneOf(Option.class);
-  private static int jimpleLnNum = 0; // actual line number
+  private int jimpleLnNum = 0; // actual line number
 
   public JimplePrinter(Option... options) {
     this.options.addAll(Arrays.asList(options));
@@ -99,7 +101,7 @@ public class JimplePrinter {
     jimpleLnNum++;
   }
 
-  private LabeledStmtPrinter determinePrinter() {
+  LabeledStmtPrinter determinePrinter() {
     if (useAbbreviations()) {
       return new BriefStmtPrinter();
     } else if (options.contains(Option.LegacyMode)) {
@@ -114,6 +116,46 @@ public class JimplePrinter {
   }
 
   public void printTo(SootClass cl, PrintWriter out, LabeledStmtPrinter printer) {
+    printClass(cl, printer);
+
+    // if enabled: print the list of imports and append class contents
+    if (options.contains(Option.UseImports)) {
+      for (Map.Entry<String, PackageName> item : getImports(cl, printer).entrySet()) {
+        out.println("import " + item.getValue() + "." + item.getKey() + ";");
+      }
+      out.println();
+    }
+
+    out.println(printer.toString());
+  }
+
+  /**
+   * Prints the class like {@link #printTo(SootClass, PrintWriter, LabeledStmtPrinter)}, but writes
+   * the content of the printer to <code>out</code> without creating a String of it first.
+   */
+  void writeTo(SootClass cl, Writer out, LabeledStmtPrinter printer) throws IOException {
+    printClass(cl, printer);
+
+    String lineSeparator = System.lineSeparator();
+    if (options.contains(Option.UseImports)) {
+      for (Map.Entry<String, PackageName> item : getImports(cl, printer).entrySet()) {
+        out.write("import " + item.getValue() + "." + item.getKey() + ";" + lineSeparator);
+      }
+      out.write(lineSeparator);
+    }
+
+    printer.writeTo(out);
+    out.write(lineSeparator);
+  }
+
+  private Map<String, PackageName> getImports(SootClass cl, LabeledStmtPrinter printer) {
+    Map<String, PackageName> entries = printer.getImports();
+    // remove current class itself from imports
+    entries.remove(cl.getType().getClassName());
+    return entries;
+  }
+
+  private void printClass(SootClass cl, LabeledStmtPrinter printer) {
     printer.enableImports(options.contains(Option.UseImports));
 
     // add jimple line number tags
@@ -213,20 +255,6 @@ public class JimplePrinter {
 
     printer.newline();
     incJimpleLnNum();
-
-    // if enabled: print the list of imports and append class contents
-    if (options.contains(Option.UseImports)) {
-      Map<String, PackageName> entries = printer.getImports();
-      // remove current class itself from imports
-      entries.remove(cl.getType().getClassName());
-
-      for (Map.Entry<String, PackageName> item : entries.entrySet()) {
-        out.println("import " + item.getValue() + "." + item.getKey() + ";");
-      }
-      out.println();
-    }
-
-    out.println(printer.toString());
   }
 
   private void printMethods(SootClass cl, LabeledStmtPrinter printer) {
@@ -0,0 +1,202 @@
+package sootup.core.util.printer;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Markus Schmidt and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+import sootup.core.views.View;
+
+/**
+ * Writes the Jimple of many classes, e.g. of a whole {@link View}, either to one file per class in
+ * a directory or to the entries of a zip archive. Classes are printed in parallel; every thread
+ * reuses its own {@link JimplePrinter} and {@link LabeledStmtPrinter}, so only the text of the
+ * classes that are currently printed is held in memory.
+ *
+ * <p>Like {@link sootup.core.util.Utils#outputJimple(SootClass, boolean)} the file of a class is
+ * named after its fully qualified name, e.g. <code>java.lang.Object.jimple</code>.
+ */
+public class JimpleWriter {
+
+  public static final String FILE_EXTENSION = ".jimple";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  @Nonnull private final JimplePrinter.Option[] options;
+
+  @Nonnull
+  private final ThreadLocal<ClassPrinter> printers = ThreadLocal.withInitial(ClassPrinter::new);
+
+  /** number of classes which are printed in parallel before they are added to an archive */
+  private int archiveBatchSize = Runtime.getRuntime().availableProcessors() * 16;
+
+  public JimpleWriter(@Nonnull JimplePrinter.Option... options) {
+    this.options = options;
+  }
+
+  public int getArchiveBatchSize() {
+    return archiveBatchSize;
+  }
+
+  public void setArchiveBatchSize(int archiveBatchSize) {
+    if (archiveBatchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be positive.");
+    }
+    this.archiveBatchSize = archiveBatchSize;
+  }
+
+  /** writes every class of the view to its own file in the given directory */
+  public void writeToDirectory(@Nonnull View view, @Nonnull Path directory) throws IOException {
+    writeToDirectory(view.getClasses(), directory);
+  }
+
+  /** writes every class to its own file in the given directory */
+  public void writeToDirectory(
+      @Nonnull Collection<? extends SootClass> classes, @Nonnull Path directory)
+      throws IOException {
+    Files.createDirectories(directory);
+    try {
+      classes.parallelStream()
+          .forEach(
+              sc -> {
+                Path file = directory.resolve(getFileName(sc));
+                try (FileChannel channel =
+                        FileChannel.open(
+                            file,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.WRITE);
+                    Writer writer =
+                        Channels.newWriter(
+                            channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE)) {
+                  printers.get().print(sc, writer);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /** writes every class of the view to its own entry of a newly created zip archive */
+  public void writeToArchive(@Nonnull View view, @Nonnull Path archive) throws IOException {
+    writeToArchive(view.getClasses(), archive);
+  }
+
+  /** writes every class to its own entry of a newly created zip archive */
+  public void writeToArchive(
+      @Nonnull Collection<? extends SootClass> classes, @Nonnull Path archive) throws IOException {
+    try (OutputStream out =
+        new BufferedOutputStream(
+            Channels.newOutputStream(
+                FileChannel.open(
+                    archive,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)),
+            BUFFER_SIZE)) {
+      writeToArchive(classes, out);
+    }
+  }
+
+  /**
+   * writes every class to its own entry of a zip archive which is written to the given stream. The
+   * entries are added in the iteration order of the classes. The stream is not closed.
+   */
+  public void writeToArchive(
+      @Nonnull Collection<? extends SootClass> classes, @Nonnull OutputStream out)
+      throws IOException {
+    ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+    List<? extends SootClass> classList = new ArrayList<>(classes);
+    for (int start = 0; start < classList.size(); start += archiveBatchSize) {
+      // print a batch in parallel and add its entries in order, while the archive itself can only
+      // be written by one thread
+      List<byte[]> batch =
+          classList.subList(start, Math.min(classList.size(), start + archiveBatchSize))
+              .parallelStream()
+              .map(sc -> printers.get().print(sc))
+              .collect(Collectors.toList());
+      for (int i = 0; i < batch.size(); i++) {
+        zip.putNextEntry(new ZipEntry(getFileName(classList.get(start + i))));
+        zip.write(batch.get(i));
+        zip.closeEntry();
+      }
+    }
+    zip.finish();
+    zip.flush();
+  }
+
+  @Nonnull
+  private static String getFileName(@Nonnull SootClass sc) {
+    return sc.getName() + FILE_EXTENSION;
+  }
+
+  /** the printers of one thread which are reused for every class the thread prints */
+  private class ClassPrinter {
+    @Nonnull private final JimplePrinter jimplePrinter = new JimplePrinter(options);
+    @Nonnull private final LabeledStmtPrinter stmtPrinter = jimplePrinter.determinePrinter();
+    @Nonnull private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+
+    void print(@Nonnull SootClass sc, @Nonnull Writer writer) throws IOException {
+      clear();
+      try {
+        jimplePrinter.writeTo(sc, writer, stmtPrinter);
+      } finally {
+        // do not keep the text, labels and graph of the class until the thread prints its next
+        // class
+        clear();
+      }
+    }
+
+    /** resets the printers to the state of newly created ones */
+    private void clear() {
+      stmtPrinter.clear();
+      jimplePrinter.setJimpleLnNum(0);
+    }
+
+    @Nonnull
+    byte[] print(@Nonnull SootClass sc) {
+      bytes.reset();
+      try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+        print(sc, writer);
+      } catch (IOException e) {
+        // writing to memory does not fail
+        throw new UncheckedIOException(e);
+      }
+      return bytes.toByteArray();
+    }
+  }
+}
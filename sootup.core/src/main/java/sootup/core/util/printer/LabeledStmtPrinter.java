@@ -166,6 +166,13 @@ public abstract class LabeledStmtPrinter extends AbstractStmtPrinter {
     return linearizedStmtGraph;
   }
 
+  @Override
+  public void clear() {
+    super.clear();
+    labels = null;
+    references = null;
+  }
+
   @Override
   public void methodSignature(MethodSignature methodSig) {
     output.append('<');
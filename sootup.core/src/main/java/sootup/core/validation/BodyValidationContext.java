@@ -0,0 +1,98 @@
+package sootup.core.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997-2024 Raja Vallée-Rai, Linghui Luo, Marcus Nachtigall and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+
+/**
+ * Holds the data of a {@link Body} that several {@link BodyValidator}s need, so that it is computed
+ * once per body instead of once per validator. Everything is computed on first use.
+ *
+ * <p>A context is not thread-safe: it is meant to be shared by the validators which check the same
+ * body one after another.
+ */
+public class BodyValidationContext {
+
+  @Nonnull private final Body body;
+
+  private List<Stmt> stmts;
+  private Map<Stmt, Integer> stmtNumbers;
+  private Map<LValue, Collection<Stmt>> defs;
+  private Map<Value, Collection<Stmt>> uses;
+
+  public BodyValidationContext(@Nonnull Body body) {
+    this.body = body;
+  }
+
+  @Nonnull
+  public Body getBody() {
+    return body;
+  }
+
+  /** returns the statements of the body in the order of {@link Body#getStmts()} */
+  @Nonnull
+  public List<Stmt> getStmts() {
+    if (stmts == null) {
+      stmts = Collections.unmodifiableList(body.getStmts());
+    }
+    return stmts;
+  }
+
+  /**
+   * returns the position of the statement in {@link #getStmts()} or -1 if the statement is not part
+   * of the body
+   */
+  public int getStmtNumber(@Nonnull Stmt stmt) {
+    if (stmtNumbers == null) {
+      List<Stmt> stmtList = getStmts();
+      stmtNumbers = new HashMap<>(stmtList.size() * 2);
+      for (int i = 0; i < stmtList.size(); i++) {
+        stmtNumbers.put(stmtList.get(i), i);
+      }
+    }
+    return stmtNumbers.getOrDefault(stmt, -1);
+  }
+
+  /** returns the defining statements of every value that is defined in the body */
+  @Nonnull
+  public Map<LValue, Collection<Stmt>> getDefs() {
+    if (defs == null) {
+      defs = Body.collectDefs(getStmts());
+    }
+    return defs;
+  }
+
+  /** returns the using statements of every value that is used in the body */
+  @Nonnull
+  public Map<Value, Collection<Stmt>> getUses() {
+    if (uses == null) {
+      uses = Body.collectUses(getStmts());
+    }
+    return uses;
+  }
+}
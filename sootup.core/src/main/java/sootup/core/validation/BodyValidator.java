@@ -36,6 +36,19 @@ public interface BodyValidator {
    */
   List<ValidationException> validate(Body body, View view);
 
+  /**
+   * Validates the given body like {@link #validate(Body, View)}. Validators which need the
+   * statement numbering or the def/use maps of the body override this method to take them from
+   * the context, which is shared with the other validators of the body.
+   *
+   * @param body the body to check
+   * @param view the view
+   * @param context the data of the body shared by its validators
+   */
+  default List<ValidationException> validate(Body body, View view, BodyValidationContext context) {
+    return validate(body, view);
+  }
+
   /**
    * Basic validators run essential checks and are run always if validate is called.<br>
    * If this method returns false and the caller of the validator respects this property,<br>
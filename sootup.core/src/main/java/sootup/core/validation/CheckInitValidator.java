@@ -23,8 +23,10 @@ package sootup.core.validation;
  */
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
@@ -43,19 +45,32 @@ public class CheckInitValidator implements BodyValidator {
    */
   @Override
   public List<ValidationException> validate(Body body, View view) {
+    return validate(body, view, new BodyValidationContext(body));
+  }
+
+  @Override
+  public List<ValidationException> validate(Body body, View view, BodyValidationContext context) {
 
     List<ValidationException> validationException = new ArrayList<>();
 
-    List<LValue> localList = new ArrayList<>();
+    // a local counts as defined from its first definition on, including the defining statement
+    Map<LValue, Integer> firstDefs = new HashMap<>();
+    context
+        .getDefs()
+        .forEach(
+            (def, stmts) ->
+                firstDefs.put(
+                    def, stmts.stream().mapToInt(context::getStmtNumber).min().getAsInt()));
 
-    for (Stmt s : body.getStmts()) {
-      // Add locals defined in the statement to list.
-      s.getDef().ifPresent(localList::add);
+    List<Stmt> stmts = context.getStmts();
+    for (int i = 0; i < stmts.size(); i++) {
+      Stmt s = stmts.get(i);
       for (Iterator<Value> iterator = s.getUses().iterator(); iterator.hasNext(); ) {
         Value v = iterator.next();
         if (v instanceof Local) {
           Local l = (Local) v;
-          if (!localList.contains(l)) {
+          Integer firstDef = firstDefs.get(l);
+          if (firstDef == null || firstDef > i) {
             validationException.add(
                 new ValidationException(
                     l,
@@ -23,10 +23,13 @@ package sootup.core.validation;
  */
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 import sootup.core.views.View;
 
@@ -39,38 +42,39 @@ public class LocalsValidator implements BodyValidator {
    */
   @Override
   public List<ValidationException> validate(@Nonnull Body body, @Nonnull View view) {
+    return validate(body, view, new BodyValidationContext(body));
+  }
+
+  @Override
+  public List<ValidationException> validate(
+      @Nonnull Body body, @Nonnull View view, @Nonnull BodyValidationContext context) {
     List<ValidationException> exception = new ArrayList<>();
 
     final Set<Local> locals = body.getLocals();
 
-    body.getUses()
-        .filter(value -> value instanceof Local && !locals.contains(value))
-        .forEach(
-            value ->
-                exception.add(
-                    new ValidationException(
-                        value,
-                        "Local is not in the StmtGraph : "
-                            + value
-                            + " in "
-                            + body.getMethodSignature())));
-
-    body.getDefs()
-        .parallelStream()
-        .filter(value -> value instanceof Local && !locals.contains(value))
-        .forEach(
-            value ->
-                exception.add(
-                    new ValidationException(
-                        value,
-                        "Local is not in the StmtGraph : "
-                            + value
-                            + " in "
-                            + body.getMethodSignature())));
+    context.getUses().forEach((value, stmts) -> checkLocal(body, locals, value, stmts, exception));
+    context.getDefs().forEach((value, stmts) -> checkLocal(body, locals, value, stmts, exception));
 
     return exception;
   }
 
+  // reports the value once for every statement that uses or defines it
+  private static void checkLocal(
+      Body body,
+      Set<Local> locals,
+      Value value,
+      Collection<Stmt> stmts,
+      List<ValidationException> exception) {
+    if (value instanceof Local && !locals.contains(value)) {
+      for (int i = 0; i < stmts.size(); i++) {
+        exception.add(
+            new ValidationException(
+                value,
+                "Local is not in the StmtGraph : " + value + " in " + body.getMethodSignature()));
+      }
+    }
+  }
+
   @Override
   public boolean isBasicValidator() {
     return true;
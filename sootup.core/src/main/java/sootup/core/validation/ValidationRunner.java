@@ -0,0 +1,174 @@
+package sootup.core.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997-2024 Raja Vallée-Rai, Linghui Luo, Marcus Nachtigall and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.views.View;
+
+/**
+ * Runs a set of {@link ClassValidator}s and {@link BodyValidator}s on every class and every body of
+ * a {@link View}. Classes and bodies are validated in parallel, the validators of one body run one
+ * after another and share a {@link BodyValidationContext}.
+ *
+ * <p>Found {@link ValidationException}s are passed to a sink as soon as the class or body they
+ * belong to is validated. The sink is never called concurrently, so it does not need to be
+ * thread-safe. In fail-fast mode only the first found exception is passed to the sink and no
+ * further classes or bodies are validated afterwards.
+ */
+public class ValidationRunner {
+
+  @Nonnull private final List<ClassValidator> classValidators;
+  @Nonnull private final List<BodyValidator> bodyValidators;
+  private boolean failFast = false;
+
+  public ValidationRunner(
+      @Nonnull List<ClassValidator> classValidators, @Nonnull List<BodyValidator> bodyValidators) {
+    this.classValidators = classValidators;
+    this.bodyValidators = bodyValidators;
+  }
+
+  public boolean isFailFast() {
+    return failFast;
+  }
+
+  /** stop the validation at the first found exception */
+  public ValidationRunner setFailFast(boolean failFast) {
+    this.failFast = failFast;
+    return this;
+  }
+
+  /** validates the classes of the view and returns the found exceptions */
+  @Nonnull
+  public List<ValidationException> validate(@Nonnull View view) {
+    List<ValidationException> exceptions = new ArrayList<>();
+    validate(view, exceptions::add);
+    return exceptions;
+  }
+
+  /**
+   * validates the classes of the view
+   *
+   * @return the number of exceptions passed to the sink
+   */
+  public long validate(@Nonnull View view, @Nonnull Consumer<ValidationException> sink) {
+    return validate(view.getClasses(), view, sink);
+  }
+
+  /**
+   * validates the given classes and their bodies
+   *
+   * @return the number of exceptions passed to the sink
+   */
+  public long validate(
+      @Nonnull Collection<? extends SootClass> classes,
+      @Nonnull View view,
+      @Nonnull Consumer<ValidationException> sink) {
+    Reporter reporter = new Reporter(sink);
+
+    if (!classValidators.isEmpty()) {
+      classes.parallelStream()
+          .forEach(
+              sc -> {
+                for (ClassValidator validator : classValidators) {
+                  if (reporter.isStopped()) {
+                    return;
+                  }
+                  List<ValidationException> exceptions = new ArrayList<>();
+                  validator.validate(sc, exceptions);
+                  reporter.report(exceptions);
+                }
+              });
+    }
+
+    if (!bodyValidators.isEmpty()) {
+      // collect the methods first: bodies are the units of work, not classes
+      List<SootMethod> methods =
+          classes.stream()
+              .flatMap(sc -> sc.getMethods().stream())
+              .filter(SootMethod::isConcrete)
+              .collect(Collectors.toList());
+      methods.parallelStream()
+          .forEach(
+              method -> {
+                if (reporter.isStopped()) {
+                  return;
+                }
+                Body body = method.getBody();
+                BodyValidationContext context = new BodyValidationContext(body);
+                for (BodyValidator validator : bodyValidators) {
+                  if (reporter.isStopped()) {
+                    return;
+                  }
+                  reporter.report(validator.validate(body, view, context));
+                }
+              });
+    }
+
+    return reporter.getReportedCount();
+  }
+
+  /** passes exceptions of concurrently validated classes and bodies one by one to the sink */
+  private class Reporter {
+    @Nonnull private final Consumer<ValidationException> sink;
+    @Nonnull private final AtomicLong reported = new AtomicLong();
+    private volatile boolean stopped = false;
+
+    private Reporter(@Nonnull Consumer<ValidationException> sink) {
+      this.sink = sink;
+    }
+
+    boolean isStopped() {
+      return stopped;
+    }
+
+    long getReportedCount() {
+      return reported.get();
+    }
+
+    // validators which are not implemented yet return null
+    void report(List<ValidationException> exceptions) {
+      if (exceptions == null || exceptions.isEmpty()) {
+        return;
+      }
+      synchronized (this) {
+        for (ValidationException exception : exceptions) {
+          if (stopped) {
+            return;
+          }
+          sink.accept(exception);
+          reported.incrementAndGet();
+          if (failFast) {
+            stopped = true;
+          }
+        }
+      }
+    }
+  }
+}
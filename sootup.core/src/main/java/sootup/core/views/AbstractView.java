@@ -39,7 +39,7 @@ import sootup.core.typehierarchy.ViewTypeHierarchy;
  * @author Linghui Luo
  */
 public abstract class AbstractView implements View {
-  @Nullable private TypeHierarchy typeHierarchy;
+  @Nullable private volatile TypeHierarchy typeHierarchy;
 
   public AbstractView() {
     this.typeHierarchy = new ViewTypeHierarchy(this);
@@ -54,6 +54,15 @@ public abstract class AbstractView implements View {
     return typeHierarchy;
   }
 
+  /**
+   * Replaces the type hierarchy of this view, e.g. by an {@link
+   * sootup.core.typehierarchy.ImmutableTypeHierarchy} once the view does not change anymore, so
+   * that all analyses querying the view benefit from it.
+   */
+  public void setTypeHierarchy(@Nonnull TypeHierarchy typeHierarchy) {
+    this.typeHierarchy = typeHierarchy;
+  }
+
   /**
    * resolve and check for accessibility of the class from a given package * TODO: incorporate
    * AccessUtil @Nonnull public synchronized Optional&lt;T&gt; getClass( @Nonnull PackageName
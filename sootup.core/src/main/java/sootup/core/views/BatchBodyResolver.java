@@ -0,0 +1,143 @@
+package sootup.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Resolves the bodies of many methods in parallel, i.e. runs their {@link
+ * sootup.core.frontend.BodySource} and the interceptors of the frontend on a pool of worker
+ * threads. At most a bounded amount of methods is pending at any time: the thread that passes the
+ * methods blocks until a worker is done, so the methods can be supplied lazily (e.g. class by
+ * class) without queueing the whole program.
+ *
+ * <p>A method whose resolution (or whose processing by the given body consumer) throws an
+ * exception or an error, e.g. a {@link StackOverflowError}, is reported in the {@link
+ * BodyResolutionReport} and does not abort the batch.
+ *
+ * <p>The {@link View} the methods belong to has to allow concurrent class resolution, which the
+ * views of SootUp do.
+ */
+public class BatchBodyResolver {
+
+  /** the pool of this resolver; <code>null</code> if a pool is created for each batch. */
+  @Nullable private final ExecutorService executor;
+
+  private final int parallelism;
+  private final int maxPendingMethods;
+
+  /** Creates a resolver which uses a pool of <code>parallelism</code> threads for each batch. */
+  public BatchBodyResolver(int parallelism) {
+    this(null, parallelism, 2 * parallelism);
+  }
+
+  /**
+   * Creates a resolver which resolves the bodies on the given pool and submits at most <code>
+   * maxPendingMethods</code> methods that are not resolved yet. The pool is not shut down by the
+   * resolver.
+   */
+  public BatchBodyResolver(@Nonnull ExecutorService executor, int maxPendingMethods) {
+    this(executor, 0, maxPendingMethods);
+  }
+
+  private BatchBodyResolver(
+      @Nullable ExecutorService executor, int parallelism, int maxPendingMethods) {
+    if (executor == null && parallelism < 1) {
+      throw new IllegalArgumentException("parallelism has to be at least 1");
+    }
+    if (maxPendingMethods < 1) {
+      throw new IllegalArgumentException("maxPendingMethods has to be at least 1");
+    }
+    this.executor = executor;
+    this.parallelism = parallelism;
+    this.maxPendingMethods = maxPendingMethods;
+  }
+
+  /** Resolves the bodies of the concrete methods among the given methods. */
+  @Nonnull
+  public BodyResolutionReport resolveBodies(@Nonnull Iterable<? extends SootMethod> methods) {
+    return resolveBodies(methods, (method, body) -> {});
+  }
+
+  /**
+   * Resolves the bodies of the concrete methods among the given methods and passes each body to
+   * the <code>bodyConsumer</code> on the worker thread that resolved it, e.g. to run a
+   * transformation over the whole program in parallel.
+   */
+  @Nonnull
+  public BodyResolutionReport resolveBodies(
+      @Nonnull Iterable<? extends SootMethod> methods,
+      @Nonnull BiConsumer<? super SootMethod, ? super Body> bodyConsumer) {
+    ExecutorService pool = executor != null ? executor : new ForkJoinPool(parallelism);
+    Semaphore pendingMethods = new Semaphore(maxPendingMethods);
+    AtomicInteger resolvedBodies = new AtomicInteger();
+    Map<MethodSignature, Throwable> failures = new ConcurrentHashMap<>();
+
+    try {
+      for (SootMethod method : methods) {
+        if (!method.isConcrete()) {
+          continue;
+        }
+        // backpressure: wait until a worker is done if too many methods are pending
+        pendingMethods.acquireUninterruptibly();
+        try {
+          pool.execute(
+              () -> {
+                try {
+                  bodyConsumer.accept(method, method.getBody());
+                  resolvedBodies.incrementAndGet();
+                } catch (Throwable e) {
+                  failures.put(method.getSignature(), e);
+                } finally {
+                  pendingMethods.release();
+                }
+              });
+        } catch (RejectedExecutionException e) {
+          pendingMethods.release();
+          throw e;
+        }
+      }
+      // wait for the remaining methods
+      pendingMethods.acquireUninterruptibly(maxPendingMethods);
+      pendingMethods.release(maxPendingMethods);
+    } finally {
+      if (executor == null) {
+        pool.shutdown();
+      }
+    }
+
+    return new BodyResolutionReport(resolvedBodies.get(), failures);
+  }
+}
@@ -0,0 +1,71 @@
+package sootup.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * The outcome of a batch of body resolutions (see {@link BatchBodyResolver}): the amount of
+ * resolved bodies and the exception for each method whose body could not be resolved.
+ */
+public class BodyResolutionReport {
+  private final int resolvedBodyCount;
+  @Nonnull private final Map<MethodSignature, Throwable> failures;
+
+  public BodyResolutionReport(
+      int resolvedBodyCount, @Nonnull Map<MethodSignature, Throwable> failures) {
+    this.resolvedBodyCount = resolvedBodyCount;
+    this.failures = Collections.unmodifiableMap(new HashMap<>(failures));
+  }
+
+  /** Returns the amount of methods whose body was resolved (and processed) successfully. */
+  public int getResolvedBodyCount() {
+    return resolvedBodyCount;
+  }
+
+  /**
+   * Returns the exception or error thrown while resolving (or processing) the body of each method.
+   */
+  @Nonnull
+  public Map<MethodSignature, Throwable> getFailures() {
+    return failures;
+  }
+
+  /** Returns true if the body of every method was resolved. */
+  public boolean isSuccessful() {
+    return failures.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "BodyResolutionReport{resolved="
+        + resolvedBodyCount
+        + ", failed="
+        + failures.size()
+        + "}";
+  }
+}
@@ -24,8 +24,11 @@ package sootup.core.views;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import sootup.core.IdentifierFactory;
+import sootup.core.cache.BodyRetentionPolicy;
+import sootup.core.cache.StrongBodyRetentionPolicy;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootField;
 import sootup.core.model.SootMethod;
@@ -65,6 +68,49 @@ public interface View {
   @Nonnull
   IdentifierFactory getIdentifierFactory();
 
+  /**
+   * Returns the {@link BodyRetentionPolicy} which frontends apply to the methods they create for
+   * this view. By default, resolved bodies are kept forever.
+   */
+  @Nonnull
+  default BodyRetentionPolicy getBodyRetentionPolicy() {
+    return StrongBodyRetentionPolicy.getInstance();
+  }
+
+  /**
+   * Resolves the bodies of the concrete methods among the given methods with <code>parallelism
+   * </code> threads. Methods whose body can not be resolved are reported instead of aborting the
+   * resolution.
+   *
+   * @see BatchBodyResolver for using an own pool or processing the bodies in parallel
+   */
+  @Nonnull
+  default BodyResolutionReport resolveBodies(
+      @Nonnull Iterable<? extends SootMethod> methods, int parallelism) {
+    return new BatchBodyResolver(parallelism).resolveBodies(methods);
+  }
+
+  /** Resolves the bodies of all concrete methods of the given classes in parallel. */
+  @Nonnull
+  default BodyResolutionReport resolveBodiesOfClasses(
+      @Nonnull Collection<? extends SootClass> classes, int parallelism) {
+    return resolveBodies(
+        classes.stream().flatMap(clazz -> clazz.getMethods().stream()).collect(Collectors.toList()),
+        parallelism);
+  }
+
+  /**
+   * Resolves the bodies of all concrete methods of the application classes in parallel. The default
+   * implementation filters {@link #getClasses()}, which resolves the library classes as well. Views
+   * that know the origin of their classes should only resolve the application classes.
+   */
+  @Nonnull
+  default BodyResolutionReport resolveApplicationBodies(int parallelism) {
+    return resolveBodiesOfClasses(
+        getClasses().stream().filter(SootClass::isApplicationClass).collect(Collectors.toList()),
+        parallelism);
+  }
+
   @Nonnull
   default SootClass getClassOrThrow(@Nonnull ClassType classType) {
     return getClass(classType)
@@ -0,0 +1,167 @@
+package sootup.core.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JAddExpr;
+import sootup.core.jimple.common.expr.JLeExpr;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.types.PrimitiveType;
+
+@Tag("Java8")
+public class BitVectorFlowAnalysisTest {
+
+  private final StmtPositionInfo noPosition = StmtPositionInfo.getNoStmtPositionInfo();
+
+  private final Local i = new Local("i", PrimitiveType.getInt());
+  private final Local j = new Local("j", PrimitiveType.getInt());
+
+  // def 0
+  private final FallsThroughStmt initI =
+      new JAssignStmt(i, IntConstant.getInstance(0), noPosition);
+  private final BranchingStmt ifStmt =
+      new JIfStmt(new JLeExpr(i, IntConstant.getInstance(3)), noPosition);
+  // def 1
+  private final FallsThroughStmt incI =
+      new JAssignStmt(i, new JAddExpr(i, IntConstant.getInstance(1)), noPosition);
+  // def 2
+  private final FallsThroughStmt copyI = new JAssignStmt(j, i, noPosition);
+  private final BranchingStmt gotoStmt = new JGotoStmt(noPosition);
+  private final Stmt returnStmt = new JReturnStmt(i, noPosition);
+
+  /**
+   * i = 0; label1: if i <= 3 goto label2; i = i + 1; j = i; goto label1; label2: return i;
+   */
+  private MutableStmtGraph createGraph() {
+    MutableStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(initI);
+    graph.putEdge(initI, ifStmt);
+    graph.putEdge(ifStmt, JIfStmt.FALSE_BRANCH_IDX, incI);
+    graph.putEdge(ifStmt, JIfStmt.TRUE_BRANCH_IDX, returnStmt);
+    graph.putEdge(incI, copyI);
+    graph.putEdge(copyI, gotoStmt);
+    graph.putEdge(gotoStmt, JGotoStmt.BRANCH_IDX, ifStmt);
+    return graph;
+  }
+
+  /** the definitions of a local are numbered consecutively, so that they can be killed at once. */
+  private static class ReachingDefinitions extends BitVectorFlowAnalysis {
+    private final Map<Stmt, Integer> defToIndex = new HashMap<>();
+    private final Map<Local, int[]> localToDefRange = new HashMap<>();
+
+    ReachingDefinitions(@Nonnull StmtGraph<?> graph, @Nonnull List<List<Stmt>> defsPerLocal) {
+      super(graph, AnalysisDirection.FORWARD);
+      int idx = 0;
+      for (List<Stmt> defs : defsPerLocal) {
+        int from = idx;
+        for (Stmt def : defs) {
+          defToIndex.put(def, idx++);
+        }
+        localToDefRange.put((Local) defs.get(0).getDef().get(), new int[] {from, idx});
+      }
+      doAnalysis(idx);
+    }
+
+    @Override
+    protected void flowThrough(@Nonnull Stmt stmt, @Nonnull GenKill genKill) {
+      Integer def = defToIndex.get(stmt);
+      if (def != null) {
+        int[] range = localToDefRange.get((Local) stmt.getDef().get());
+        genKill.kill(range[0], range[1]);
+        genKill.gen(def);
+      }
+    }
+  }
+
+  private static BitSet bits(int... elements) {
+    BitSet bitSet = new BitSet();
+    for (int element : elements) {
+      bitSet.set(element);
+    }
+    return bitSet;
+  }
+
+  @Test
+  public void testReachingDefinitions() {
+    MutableStmtGraph graph = createGraph();
+    ReachingDefinitions analysis =
+        new ReachingDefinitions(
+            graph,
+            Arrays.asList(Arrays.asList(initI, incI), Collections.singletonList(copyI)));
+
+    assertEquals(graph.getNodes().size(), analysis.getStmtCount());
+    // forward analyses number the stmts in reverse postorder
+    assertEquals(initI, analysis.getStmt(0));
+    assertEquals(0, analysis.getStmtIndex(initI));
+    assertEquals(-1, analysis.getStmtIndex(new JNopStmt(noPosition)));
+
+    assertEquals(bits(), analysis.getFlowBefore(initI));
+    assertEquals(bits(0), analysis.getFlowAfter(initI));
+    assertEquals(bits(0, 1, 2), analysis.getFlowBefore(ifStmt));
+    assertEquals(bits(0, 1, 2), analysis.getFlowBefore(incI));
+    assertEquals(bits(1, 2), analysis.getFlowAfter(incI));
+    assertEquals(bits(1, 2), analysis.getFlowAfter(copyI));
+    assertEquals(bits(0, 1, 2), analysis.getFlowBefore(returnStmt));
+    assertEquals(bits(0, 1, 2), analysis.getFlowAfter(returnStmt));
+
+    int incIdx = analysis.getStmtIndex(incI);
+    assertTrue(analysis.isSetBefore(incIdx, 0));
+    assertFalse(analysis.isSetAfter(incIdx, 0));
+    assertTrue(analysis.isSetAfter(incIdx, 1));
+  }
+
+  @Test
+  public void testBackwardAnalysis() {
+    MutableStmtGraph graph = createGraph();
+    // a local is live if it is used later on: a single element which represents i
+    BitVectorFlowAnalysis liveness =
+        new BitVectorFlowAnalysis(graph, BitVectorFlowAnalysis.AnalysisDirection.BACKWARD) {
+          {
+            doAnalysis(1);
+          }
+
+          @Override
+          protected void flowThrough(@Nonnull Stmt stmt, @Nonnull GenKill genKill) {
+            if (stmt.getDef().isPresent() && stmt.getDef().get() == i) {
+              genKill.kill(0);
+            }
+            if (stmt.getUses().anyMatch(use -> use == i)) {
+              genKill.gen(0);
+            }
+          }
+        };
+
+    // backward analyses number the stmts in postorder
+    assertEquals(initI, liveness.getStmt(liveness.getStmtCount() - 1));
+    assertEquals(bits(), liveness.getFlowBefore(initI));
+    assertEquals(bits(0), liveness.getFlowAfter(initI));
+    assertEquals(bits(0), liveness.getFlowBefore(copyI));
+    assertEquals(bits(0), liveness.getFlowAfter(gotoStmt));
+    assertEquals(bits(0), liveness.getFlowBefore(returnStmt));
+    assertEquals(bits(), liveness.getFlowAfter(returnStmt));
+  }
+
+  @Test
+  public void testInvalidElements() {
+    MutableStmtGraph graph = createGraph();
+    assertThrows(
+        IndexOutOfBoundsException.class,
+        () ->
+            new ReachingDefinitions(graph, Collections.emptyList()) {
+              @Override
+              protected void flowThrough(@Nonnull Stmt stmt, @Nonnull GenKill genKill) {
+                genKill.gen(0);
+              }
+            });
+    ReachingDefinitions analysis = new ReachingDefinitions(graph, Collections.emptyList());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> analysis.getFlowBefore(new JNopStmt(noPosition)));
+  }
+}
@@ -0,0 +1,216 @@
+package sootup.core.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.basic.Trap;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JLeExpr;
+import sootup.core.jimple.common.ref.JCaughtExceptionRef;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.JSwitchStmt;
+import sootup.core.signatures.PackageName;
+import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
+
+@Tag("Java8")
+public class ImmutableBlockStmtGraphTest {
+
+  private final StmtPositionInfo noPosition = StmtPositionInfo.getNoStmtPositionInfo();
+
+  private static ClassType createClassType(String packageName, String className) {
+    return new ClassType() {
+      @Override
+      public boolean isBuiltInClass() {
+        return false;
+      }
+
+      @Override
+      public String getFullyQualifiedName() {
+        return getPackageName() + "." + getClassName();
+      }
+
+      @Override
+      public String getClassName() {
+        return className;
+      }
+
+      @Override
+      public PackageName getPackageName() {
+        return new PackageName(packageName);
+      }
+    };
+  }
+
+  private final ClassType throwable = createClassType("java.lang", "Throwable");
+  private final ClassType ioException = createClassType("java.io", "IOException");
+
+  private final Local i = new Local("i", PrimitiveType.getInt());
+  private final Stmt first = new JNopStmt(noPosition);
+  private final BranchingStmt ifStmt =
+      new JIfStmt(new JLeExpr(i, IntConstant.getInstance(3)), noPosition);
+  private final Stmt second = new JNopStmt(noPosition);
+  private final BranchingStmt switchStmt = new JSwitchStmt(i, 0, 1, noPosition);
+  private final Stmt third = new JNopStmt(noPosition);
+  private final BranchingStmt gotoStmt = new JGotoStmt(noPosition);
+  private final Stmt returnStmt = new JReturnVoidStmt(noPosition);
+  private final Stmt handler =
+      new JIdentityStmt(new Local("ex", throwable), new JCaughtExceptionRef(throwable), noPosition);
+  private final Stmt ioHandler =
+      new JIdentityStmt(
+          new Local("ex2", ioException), new JCaughtExceptionRef(ioException), noPosition);
+  private final Stmt handlerReturn = new JReturnVoidStmt(noPosition);
+  private final Stmt ioHandlerReturn = new JReturnVoidStmt(noPosition);
+
+  private MutableBlockStmtGraph createGraph() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    Map<BranchingStmt, List<Stmt>> branches = new HashMap<>();
+    branches.put(ifStmt, Collections.singletonList(returnStmt));
+    // the default target and both cases of the switch jump to the same stmts
+    branches.put(switchStmt, Arrays.asList(third, returnStmt, third));
+    branches.put(gotoStmt, Collections.singletonList(returnStmt));
+    graph.initializeWith(
+        Arrays.asList(
+            first,
+            ifStmt,
+            second,
+            switchStmt,
+            third,
+            gotoStmt,
+            returnStmt,
+            handler,
+            handlerReturn,
+            ioHandler,
+            ioHandlerReturn),
+        branches,
+        Arrays.asList(
+            new Trap(throwable, first, switchStmt, handler),
+            new Trap(ioException, second, returnStmt, ioHandler)));
+    return graph;
+  }
+
+  @Test
+  public void sameAsMutableGraph() {
+    MutableBlockStmtGraph mutableGraph = createGraph();
+    ImmutableBlockStmtGraph graph = new ImmutableBlockStmtGraph(mutableGraph);
+
+    assertSame(mutableGraph.getStartingStmt(), graph.getStartingStmt());
+    assertEquals(mutableGraph.getStmts(), graph.getStmts());
+    assertEquals(mutableGraph.getStmts(), new ArrayList<>(graph.getNodes()));
+    assertEquals(mutableGraph.getNodes().size(), graph.getNodes().size());
+    assertEquals(mutableGraph.getTraps(), graph.getTraps());
+    assertEquals(mutableGraph, graph);
+    assertEquals(graph, mutableGraph);
+
+    for (Stmt stmt : mutableGraph.getNodes()) {
+      assertTrue(graph.containsNode(stmt));
+      assertTrue(graph.getNodes().contains(stmt));
+      assertEquals(mutableGraph.successors(stmt), graph.successors(stmt));
+      assertEquals(
+          new HashSet<>(mutableGraph.predecessors(stmt)), new HashSet<>(graph.predecessors(stmt)));
+      assertEquals(mutableGraph.exceptionalSuccessors(stmt), graph.exceptionalSuccessors(stmt));
+      assertEquals(mutableGraph.inDegree(stmt), graph.inDegree(stmt));
+      assertEquals(mutableGraph.outDegree(stmt), graph.outDegree(stmt));
+      assertEquals(mutableGraph.isStmtBranchTarget(stmt), graph.isStmtBranchTarget(stmt));
+      for (Stmt target : mutableGraph.getNodes()) {
+        assertEquals(
+            mutableGraph.hasEdgeConnecting(stmt, target), graph.hasEdgeConnecting(stmt, target));
+      }
+
+      BasicBlock<?> mutableBlock = mutableGraph.getBlockOf(stmt);
+      BasicBlock<?> block = graph.getBlockOf(stmt);
+      assertEquals(mutableBlock.getStmts(), block.getStmts());
+      assertSame(mutableBlock.getHead(), block.getHead());
+      assertSame(mutableBlock.getTail(), block.getTail());
+      assertEquals(mutableBlock.getStmtCount(), block.getStmtCount());
+      assertEquals(
+          heads(mutableBlock.getSuccessors()), heads(new ArrayList<>(block.getSuccessors())));
+      assertEquals(
+          new HashSet<>(heads(mutableBlock.getPredecessors())),
+          new HashSet<>(heads(block.getPredecessors())));
+      assertEquals(
+          heads(mutableBlock.getExceptionalSuccessors()), heads(block.getExceptionalSuccessors()));
+      assertEquals(
+          heads(mutableBlock.getExceptionalPredecessors()),
+          heads(block.getExceptionalPredecessors()));
+    }
+    assertEquals(mutableGraph.getBlocks().size(), graph.getBlocks().size());
+    assertEquals(heads(mutableGraph.getBlocksSorted()), heads(graph.getBlocksSorted()));
+    assertSame(graph.getBlockOf(first), graph.getStartingStmtBlock());
+
+    assertEquals(
+        new HashSet<>(Arrays.asList(first, ifStmt, second)),
+        new HashSet<>(graph.exceptionalPredecessors(handler)));
+    assertTrue(graph.exceptionalPredecessors(third).isEmpty());
+    // blocks with the same exceptional flows share them
+    assertNotSame(graph.getBlockOf(switchStmt), graph.getBlockOf(third));
+    assertSame(graph.exceptionalSuccessors(switchStmt), graph.exceptionalSuccessors(third));
+  }
+
+  @Test
+  public void copyIntoMutableGraph() {
+    MutableBlockStmtGraph mutableGraph = createGraph();
+    ImmutableBlockStmtGraph graph = new ImmutableBlockStmtGraph(mutableGraph);
+    MutableBlockStmtGraph copy = new MutableBlockStmtGraph(graph);
+    assertEquals(mutableGraph, copy);
+    assertEquals(mutableGraph.getStmts(), copy.getStmts());
+
+    copy.removeNode(second);
+    assertTrue(graph.containsNode(second));
+    assertEquals(mutableGraph.getStmts(), graph.getStmts());
+  }
+
+  @Test
+  public void unknownStmt() {
+    ImmutableBlockStmtGraph graph = new ImmutableBlockStmtGraph(createGraph());
+    Stmt unknown = new JNopStmt(noPosition);
+    assertFalse(graph.containsNode(unknown));
+    assertFalse(graph.getNodes().contains(unknown));
+    assertThrows(IllegalArgumentException.class, () -> graph.successors(unknown));
+    assertThrows(IllegalArgumentException.class, () -> graph.predecessors(unknown));
+    assertThrows(IllegalArgumentException.class, () -> graph.getBlockOf(unknown));
+    assertThrows(UnsupportedOperationException.class, () -> graph.getTraps().clear());
+  }
+
+  @Test
+  public void emptyGraph() {
+    ImmutableBlockStmtGraph graph = new ImmutableBlockStmtGraph(new MutableBlockStmtGraph());
+    assertNull(graph.getStartingStmt());
+    assertTrue(graph.getNodes().isEmpty());
+    assertTrue(graph.getBlocks().isEmpty());
+    assertFalse(graph.iterator().hasNext());
+    assertTrue(graph.getTraps().isEmpty());
+  }
+
+  @Test
+  public void trapsAreAggregatedOnDemand() {
+    MutableBlockStmtGraph mutableGraph = new MutableBlockStmtGraph();
+    mutableGraph.addBlock(Arrays.asList(first, returnStmt));
+    mutableGraph.setStartingStmt(first);
+    // the trap of the last block has no end, so no Trap can be aggregated for it
+    mutableGraph.addBlock(
+        Arrays.asList(handler, handlerReturn), Collections.singletonMap(throwable, handler));
+    assertThrows(IllegalArgumentException.class, mutableGraph::getTraps);
+
+    // freezing the graph does not aggregate the traps
+    ImmutableBlockStmtGraph graph = new ImmutableBlockStmtGraph(mutableGraph);
+    assertEquals(mutableGraph.getStmts(), graph.getStmts());
+    assertThrows(IllegalArgumentException.class, graph::getTraps);
+  }
+
+  private static List<Stmt> heads(Collection<? extends BasicBlock<?>> blocks) {
+    List<Stmt> heads = new ArrayList<>();
+    blocks.forEach(block -> heads.add(block.getHead()));
+    return heads;
+  }
+
+  private static Map<ClassType, Stmt> heads(Map<? extends ClassType, ? extends BasicBlock<?>> map) {
+    Map<ClassType, Stmt> heads = new HashMap<>();
+    map.forEach((type, block) -> heads.put(type, block.getHead()));
+    return heads;
+  }
+}
@@ -25,7 +25,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,10 +47,34 @@ import sootup.java.core.types.ModuleJavaClassType;
 public class AsmJavaClassProvider implements ClassProvider {
 
   @Nonnull private final View view;
+  @Nullable private final PersistentBodyCache bodyCache;
+  private final boolean lazyMethodParsing;
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(AsmJavaClassProvider.class);
 
   public AsmJavaClassProvider(@Nonnull View view) {
+    this(view, null);
+  }
+
+  /**
+   * @param bodyCache the persistent cache of the resolved bodies or <code>null</code> to convert
+   *     every body from bytecode
+   */
+  public AsmJavaClassProvider(@Nonnull View view, @Nullable PersistentBodyCache bodyCache) {
+    this(view, bodyCache, false);
+  }
+
+  /**
+   * @param bodyCache the persistent cache of the resolved bodies or <code>null</code> to convert
+   *     every body from bytecode
+   * @param lazyMethodParsing if <code>true</code>, only the headers of the methods are parsed and
+   *     the bytes of the class are kept instead of the instructions of every method. The code of a
+   *     method is read from these bytes when its body is resolved.
+   */
+  public AsmJavaClassProvider(
+      @Nonnull View view, @Nullable PersistentBodyCache bodyCache, boolean lazyMethodParsing) {
     this.view = view;
+    this.bodyCache = bodyCache;
+    this.lazyMethodParsing = lazyMethodParsing;
   }
 
   @Override
@@ -60,11 +87,51 @@ public class AsmJavaClassProvider implements ClassProvider {
       return Optional.empty();
     }
 
-    SootClassNode classNode = new SootClassNode(analysisInputLocation);
-
+    SootClassNode classNode;
     final String actualClassSignature;
     try {
-      actualClassSignature = AsmUtil.initAsmClassSource(sourcePath, classNode);
+      if (bodyCache == null && !lazyMethodParsing) {
+        classNode = new SootClassNode(analysisInputLocation, null, null);
+        actualClassSignature = AsmUtil.initAsmClassSource(sourcePath, classNode);
+      } else if (bodyCache == null) {
+        byte[] classBytes = Files.readAllBytes(sourcePath);
+        classNode = new SootClassNode(analysisInputLocation, null, classBytes);
+        ClassReader classReader = new ClassReader(classBytes);
+        classReader.accept(classNode, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        actualClassSignature = classReader.getClassName();
+      } else {
+        byte[] classBytes = Files.readAllBytes(sourcePath);
+        PersistentBodyCache.ClassBodies cachedBodies =
+            bodyCache.open(
+                classBytes,
+                analysisInputLocation.getBodyInterceptors(),
+                view.getIdentifierFactory());
+        // the bytes are kept if the code is not parsed, so that the code of a method can still be
+        // read if its cached body can not be loaded
+        boolean complete = cachedBodies.isComplete();
+        classNode =
+            new SootClassNode(
+                analysisInputLocation,
+                cachedBodies,
+                complete || lazyMethodParsing ? classBytes : null);
+        ClassReader classReader = new ClassReader(classBytes);
+        if (complete) {
+          // all bodies are cached, so there is no need to parse the code of the methods
+          classReader.accept(classNode, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        } else if (lazyMethodParsing) {
+          classReader.accept(classNode, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+          cachedBodies.setBodyCount(
+              (int)
+                  classNode.methods.stream()
+                      .filter(m -> (m.access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)) == 0)
+                      .count());
+        } else {
+          classReader.accept(classNode, ClassReader.SKIP_FRAMES);
+          cachedBodies.setBodyCount(
+              (int) classNode.methods.stream().filter(m -> m.instructions.size() > 0).count());
+        }
+        actualClassSignature = classReader.getClassName();
+      }
     } catch (IOException exception) {
       logger.warn("ioe: " + sourcePath, exception);
       return Optional.empty();
@@ -102,7 +169,12 @@ public class AsmJavaClassProvider implements ClassProvider {
       }
 
       return Optional.of(
-          new AsmClassSource(analysisInputLocation, sourcePath, klassType, classNode));
+          new AsmClassSource(
+              analysisInputLocation,
+              sourcePath,
+              klassType,
+              classNode,
+              view.getBodyRetentionPolicy()));
     }
   }
 
@@ -115,10 +187,21 @@ public class AsmJavaClassProvider implements ClassProvider {
   class SootClassNode extends ClassNode {
 
     private final AnalysisInputLocation analysisInputLocation;
-
-    SootClassNode(AnalysisInputLocation analysisInputLocation) {
+    @Nullable private final PersistentBodyCache.ClassBodies cachedBodies;
+    @Nullable private final byte[] classBytes;
+
+    /**
+     * @param classBytes the bytes of the class if it is parsed without the code of its methods,
+     *     <code>null</code> otherwise
+     */
+    SootClassNode(
+        AnalysisInputLocation analysisInputLocation,
+        @Nullable PersistentBodyCache.ClassBodies cachedBodies,
+        @Nullable byte[] classBytes) {
       super(AsmUtil.SUPPORTED_ASM_OPCODE);
       this.analysisInputLocation = analysisInputLocation;
+      this.cachedBodies = cachedBodies;
+      this.classBytes = classBytes;
     }
 
     @Override
@@ -138,7 +221,9 @@ public class AsmJavaClassProvider implements ClassProvider {
               signature,
               exceptions,
               view,
-              analysisInputLocation.getBodyInterceptors());
+              analysisInputLocation.getBodyInterceptors(),
+              cachedBodies,
+              classBytes);
       methods.add(mn);
       return mn;
     }
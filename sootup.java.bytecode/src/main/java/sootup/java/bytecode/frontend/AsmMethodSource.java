@@ -35,7 +35,15 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Attribute;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.TypePath;
 import org.objectweb.asm.commons.JSRInlinerAdapter;
 import org.objectweb.asm.tree.*;
 import sootup.core.frontend.BodySource;
@@ -105,6 +113,18 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   private final View view;
   private final List<BodyInterceptor> bodyInterceptors;
 
+  /** the persistent cache of the bodies of the declaring class, if one is configured */
+  @Nullable private final PersistentBodyCache.ClassBodies cachedBodies;
+
+  /**
+   * the bytes of the declaring class if the class has been parsed without the code of its methods.
+   * The code is then read from these bytes when the body is resolved and released afterwards.
+   */
+  @Nullable private final byte[] classBytes;
+
+  /** whether the code contains subroutines, which keep state in the {@link JSRInlinerAdapter} */
+  private boolean containsSubroutines = false;
+
   @Nonnull private final Set<LabelNode> inlineExceptionLabels = new HashSet<>();
 
   @Nonnull private final Map<LabelNode, JIdentityStmt> inlineExceptionHandlers = new HashMap<>();
@@ -121,10 +141,14 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       @Nonnull String signature,
       @Nonnull String[] exceptions,
       View view,
-      @Nonnull List<BodyInterceptor> bodyInterceptors) {
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nullable PersistentBodyCache.ClassBodies cachedBodies,
+      @Nullable byte[] classBytes) {
     super(AsmUtil.SUPPORTED_ASM_OPCODE, null, access, name, desc, signature, exceptions);
     this.bodyInterceptors = bodyInterceptors;
     this.view = view;
+    this.cachedBodies = cachedBodies;
+    this.classBytes = classBytes;
 
     identifierFactory = (JavaIdentifierFactory) view.getIdentifierFactory();
     lazyMethodSignature =
@@ -157,6 +181,20 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   @Nonnull
   public Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
 
+    if (cachedBodies != null) {
+      Body cachedBody =
+          cachedBodies.load(name + desc, lazyMethodSignature.get(), identifierFactory);
+      if (cachedBody != null) {
+        return cachedBody;
+      }
+    }
+
+    // a cached body which can not be loaded is a cache miss: the body is built from the code
+    final boolean readCode = classBytes != null && instructions.size() == 0;
+    if (readCode) {
+      readCode(classBytes);
+    }
+
     /* initialize */
     nextLocal = maxLocals;
     locals =
@@ -238,7 +276,108 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
             "Failed to apply " + bodyInterceptor + " to " + lazyMethodSignature.get(), e);
       }
     }
-    return bodyBuilder.build();
+    Body body = bodyBuilder.build();
+    if (cachedBodies != null) {
+      cachedBodies.store(name + desc, body);
+    }
+    if (readCode && !containsSubroutines) {
+      releaseCode();
+    }
+    return body;
+  }
+
+  /**
+   * Reads the code of this method from the bytes of its declaring class. The code of all other
+   * methods is skipped by the {@link ClassReader}.
+   */
+  private void readCode(@Nonnull byte[] classBytes) {
+    new ClassReader(classBytes)
+        .accept(
+            new ClassVisitor(AsmUtil.SUPPORTED_ASM_OPCODE) {
+              @Override
+              public MethodVisitor visitMethod(
+                  int access,
+                  String methodName,
+                  String methodDesc,
+                  String signature,
+                  String[] exceptions) {
+                if (name.equals(methodName) && desc.equals(methodDesc)) {
+                  return new CodeVisitor();
+                }
+                return null;
+              }
+            },
+            ClassReader.SKIP_FRAMES);
+  }
+
+  /** Drops the code and the conversion state of this method, as the body has been built. */
+  private void releaseCode() {
+    instructions.clear();
+    tryCatchBlocks.clear();
+    localVariables = null;
+    visibleLocalVariableAnnotations = null;
+    invisibleLocalVariableAnnotations = null;
+    replacedStmt.clear();
+    startTrapHandler.clear();
+    endTrapHandler.clear();
+    activeTrapHandlers.clear();
+    inlineExceptionLabels.clear();
+    inlineExceptionHandlers.clear();
+    labelsToStmt.clear();
+    trapHandler = null;
+    currentLineNumber = -1;
+    maxLineNumber = 0;
+  }
+
+  /**
+   * Forwards the code of a method to this {@link AsmMethodSource}. The header of the method
+   * (parameters, annotations, attributes) has already been visited when the class was parsed and is
+   * not visited again.
+   */
+  private class CodeVisitor extends MethodVisitor {
+
+    CodeVisitor() {
+      super(AsmUtil.SUPPORTED_ASM_OPCODE, AsmMethodSource.this);
+    }
+
+    @Override
+    public void visitParameter(String name, int access) {}
+
+    @Override
+    public AnnotationVisitor visitAnnotationDefault() {
+      return null;
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+      return null;
+    }
+
+    @Override
+    public AnnotationVisitor visitTypeAnnotation(
+        int typeRef, TypePath typePath, String descriptor, boolean visible) {
+      return null;
+    }
+
+    @Override
+    public void visitAnnotableParameterCount(int parameterCount, boolean visible) {}
+
+    @Override
+    public AnnotationVisitor visitParameterAnnotation(
+        int parameter, String descriptor, boolean visible) {
+      return null;
+    }
+
+    @Override
+    public void visitAttribute(Attribute attribute) {}
+
+    @Override
+    public void visitJumpInsn(int opcode, Label label) {
+      if (opcode == Opcodes.JSR) {
+        containsSubroutines = true;
+      }
+      super.visitJumpInsn(opcode, label);
+    }
   }
 
   @Override
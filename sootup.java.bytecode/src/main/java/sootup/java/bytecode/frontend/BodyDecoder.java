@@ -0,0 +1,483 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static sootup.java.bytecode.frontend.BodyEncoder.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.LinePosition;
+import sootup.core.model.Position;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.*;
+import sootup.java.core.language.JavaJimple;
+
+/**
+ * Reads a {@link Body} that has been written by the {@link BodyEncoder}. Every decoded body
+ * consists of new Stmt and Local instances.
+ */
+final class BodyDecoder {
+
+  @Nonnull private final ByteBuffer in;
+  @Nonnull private final IdentifierFactory identifierFactory;
+  private String[] strings;
+  private Local[] locals;
+
+  /**
+   * @param in contains exactly one encoded body. Its position is advanced while decoding.
+   * @param identifierFactory creates the types and signatures of the body.
+   */
+  BodyDecoder(@Nonnull ByteBuffer in, @Nonnull IdentifierFactory identifierFactory) {
+    this.in = in;
+    this.identifierFactory = identifierFactory;
+  }
+
+  @Nonnull
+  Body decode(@Nonnull MethodSignature methodSignature) {
+    strings = new String[readVarInt()];
+    for (int i = 0; i < strings.length; i++) {
+      char[] chars = new char[readVarInt()];
+      for (int j = 0; j < chars.length; j++) {
+        chars[j] = (char) readVarInt();
+      }
+      strings[i] = new String(chars);
+    }
+
+    locals = new Local[readVarInt()];
+    int declaredLocalCount = readVarInt();
+    Set<Local> declaredLocals = new LinkedHashSet<>(declaredLocalCount * 2);
+    for (int i = 0; i < locals.length; i++) {
+      int kind = readVarInt();
+      String name = readString();
+      Type type = readType();
+      locals[i] =
+          kind == JAVA_LOCAL ? JavaJimple.newLocal(name, type) : Jimple.newLocal(name, type);
+      if (i < declaredLocalCount) {
+        declaredLocals.add(locals[i]);
+      }
+    }
+
+    Position position = readPosition();
+    int stmtCount = readVarInt();
+    List<Stmt> stmts = new ArrayList<>(stmtCount);
+    for (int i = 0; i < stmtCount; i++) {
+      StmtPositionInfo positionInfo = readStmtPositionInfo();
+      stmts.add(readStmt(positionInfo));
+    }
+    Map<BranchingStmt, List<Stmt>> branchingMap = new HashMap<>();
+    for (Stmt stmt : stmts) {
+      if (stmt instanceof BranchingStmt) {
+        int targetCount = readVarInt();
+        List<Stmt> targets = new ArrayList<>(targetCount);
+        for (int i = 0; i < targetCount; i++) {
+          targets.add(stmts.get(readVarInt()));
+        }
+        branchingMap.put((BranchingStmt) stmt, targets);
+      }
+    }
+    int trapCount = readVarInt();
+    List<Trap> traps = new ArrayList<>(trapCount);
+    for (int i = 0; i < trapCount; i++) {
+      ClassType exceptionType = (ClassType) readType();
+      Stmt beginStmt = stmts.get(readVarInt());
+      Stmt endStmt = stmts.get(readVarInt());
+      Stmt handlerStmt = stmts.get(readVarInt());
+      traps.add(Jimple.newTrap(exceptionType, beginStmt, endStmt, handlerStmt));
+    }
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.initializeWith(stmts, branchingMap, traps);
+    return Body.builder(graph)
+        .setMethodSignature(methodSignature)
+        .setLocals(declaredLocals)
+        .setPosition(position)
+        .build();
+  }
+
+  private int readVarInt() {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = in.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  private int readSignedVarInt() {
+    int value = readVarInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  @Nonnull
+  private String readString() {
+    return strings[readVarInt()];
+  }
+
+  @Nonnull
+  private Position readPosition() {
+    int kind = readVarInt();
+    switch (kind) {
+      case NO_POSITION:
+        return NoPositionInformation.getInstance();
+      case LINE_POSITION:
+        return new LinePosition(readSignedVarInt());
+      case FULL_POSITION:
+        return new FullPosition(
+            readSignedVarInt(), readSignedVarInt(), readSignedVarInt(), readSignedVarInt());
+      default:
+        throw new IllegalStateException("Unknown position kind " + kind);
+    }
+  }
+
+  @Nonnull
+  private StmtPositionInfo readStmtPositionInfo() {
+    Position position = readPosition();
+    return position == NoPositionInformation.getInstance()
+        ? StmtPositionInfo.getNoStmtPositionInfo()
+        : new SimpleStmtPositionInfo(position);
+  }
+
+  @Nonnull
+  private Type readType() {
+    int tag = readVarInt();
+    switch (tag) {
+      case VOID_TYPE:
+        return VoidType.getInstance();
+      case NULL_TYPE:
+        return NullType.getInstance();
+      case UNKNOWN_TYPE:
+        return UnknownType.getInstance();
+      case BOOLEAN_TYPE:
+        return PrimitiveType.getBoolean();
+      case BYTE_TYPE:
+        return PrimitiveType.getByte();
+      case CHAR_TYPE:
+        return PrimitiveType.getChar();
+      case SHORT_TYPE:
+        return PrimitiveType.getShort();
+      case INT_TYPE:
+        return PrimitiveType.getInt();
+      case LONG_TYPE:
+        return PrimitiveType.getLong();
+      case FLOAT_TYPE:
+        return PrimitiveType.getFloat();
+      case DOUBLE_TYPE:
+        return PrimitiveType.getDouble();
+      case CLASS_TYPE:
+        return identifierFactory.getClassType(readString());
+      case ARRAY_TYPE:
+        int dimension = readVarInt();
+        return identifierFactory.getArrayType(readType(), dimension);
+      default:
+        throw new IllegalStateException("Unknown type tag " + tag);
+    }
+  }
+
+  @Nonnull
+  private List<Type> readTypes() {
+    int count = readVarInt();
+    List<Type> types = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      types.add(readType());
+    }
+    return types;
+  }
+
+  @Nonnull
+  private MethodSignature readMethodSignature() {
+    ClassType declaringClass = (ClassType) readType();
+    String name = readString();
+    Type returnType = readType();
+    return identifierFactory.getMethodSignature(declaringClass, name, returnType, readTypes());
+  }
+
+  @Nonnull
+  private FieldSignature readFieldSignature() {
+    ClassType declaringClass = (ClassType) readType();
+    String name = readString();
+    return identifierFactory.getFieldSignature(name, declaringClass, readType());
+  }
+
+  @Nonnull
+  private Local readLocal() {
+    return locals[readVarInt()];
+  }
+
+  @Nonnull
+  private Immediate readImmediate() {
+    return (Immediate) readValue();
+  }
+
+  @Nonnull
+  private List<Immediate> readImmediates() {
+    int count = readVarInt();
+    List<Immediate> immediates = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      immediates.add(readImmediate());
+    }
+    return immediates;
+  }
+
+  @Nonnull
+  private Stmt readStmt(@Nonnull StmtPositionInfo positionInfo) {
+    int tag = readVarInt();
+    switch (tag) {
+      case ASSIGN_STMT:
+        LValue leftOp = (LValue) readValue();
+        return Jimple.newAssignStmt(leftOp, readValue(), positionInfo);
+      case IDENTITY_STMT:
+        Local local = readLocal();
+        return Jimple.newIdentityStmt(local, (IdentityRef) readValue(), positionInfo);
+      case INVOKE_STMT:
+        return Jimple.newInvokeStmt((AbstractInvokeExpr) readValue(), positionInfo);
+      case IF_STMT:
+        return Jimple.newIfStmt((AbstractConditionExpr) readValue(), positionInfo);
+      case GOTO_STMT:
+        return Jimple.newGotoStmt(positionInfo);
+      case NOP_STMT:
+        return Jimple.newNopStmt(positionInfo);
+      case RETURN_STMT:
+        return Jimple.newReturnStmt(readImmediate(), positionInfo);
+      case RETURN_VOID_STMT:
+        return Jimple.newReturnVoidStmt(positionInfo);
+      case THROW_STMT:
+        return Jimple.newThrowStmt(readImmediate(), positionInfo);
+      case ENTER_MONITOR_STMT:
+        return Jimple.newEnterMonitorStmt(readImmediate(), positionInfo);
+      case EXIT_MONITOR_STMT:
+        return Jimple.newExitMonitorStmt(readImmediate(), positionInfo);
+      case BREAKPOINT_STMT:
+        return Jimple.newBreakpointStmt(positionInfo);
+      case RET_STMT:
+        return new JRetStmt(readValue(), positionInfo);
+      case TABLE_SWITCH_STMT:
+        {
+          Immediate key = readImmediate();
+          int lowIndex = readSignedVarInt();
+          int highIndex = readSignedVarInt();
+          return Jimple.newTableSwitchStmt(key, lowIndex, highIndex, positionInfo);
+        }
+      case LOOKUP_SWITCH_STMT:
+        {
+          Immediate key = readImmediate();
+          int count = readVarInt();
+          List<IntConstant> values = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            values.add(IntConstant.getInstance(readSignedVarInt()));
+          }
+          return Jimple.newLookupSwitchStmt(key, values, positionInfo);
+        }
+      default:
+        throw new IllegalStateException("Unknown stmt tag " + tag);
+    }
+  }
+
+  @Nonnull
+  private Value readValue() {
+    int tag = readVarInt();
+    switch (tag) {
+      case LOCAL:
+        return readLocal();
+      case INT_CONSTANT:
+        return IntConstant.getInstance(readSignedVarInt());
+      case LONG_CONSTANT:
+        return LongConstant.getInstance(in.getLong());
+      case FLOAT_CONSTANT:
+        return FloatConstant.getInstance(Float.intBitsToFloat(readVarInt()));
+      case DOUBLE_CONSTANT:
+        return DoubleConstant.getInstance(Double.longBitsToDouble(in.getLong()));
+      case NULL_CONSTANT:
+        return NullConstant.getInstance();
+      case STRING_CONSTANT:
+        {
+          String value = readString();
+          return new StringConstant(value, readType());
+        }
+      case CLASS_CONSTANT:
+        {
+          String value = readString();
+          return new ClassConstant(value, readType());
+        }
+      case ENUM_CONSTANT:
+        {
+          String value = readString();
+          return new EnumConstant(value, (ClassType) readType());
+        }
+      case BOOLEAN_CONSTANT:
+        return BooleanConstant.getInstance(readVarInt());
+      case METHOD_HANDLE:
+        {
+          MethodHandle.Kind kind = MethodHandle.Kind.getKind(readVarInt());
+          boolean isMethodRef = MethodHandle.isMethodRef(kind.getValue());
+          return new MethodHandle(
+              isMethodRef ? readMethodSignature() : readFieldSignature(), kind, readType());
+        }
+      case METHOD_TYPE:
+        {
+          Type returnType = readType();
+          return JavaJimple.getInstance().newMethodType(readTypes(), returnType);
+        }
+      case ADD_EXPR:
+        return Jimple.newAddExpr(readImmediate(), readImmediate());
+      case AND_EXPR:
+        return Jimple.newAndExpr(readImmediate(), readImmediate());
+      case CMP_EXPR:
+        return Jimple.newCmpExpr(readImmediate(), readImmediate());
+      case CMPG_EXPR:
+        return Jimple.newCmpgExpr(readImmediate(), readImmediate());
+      case CMPL_EXPR:
+        return Jimple.newCmplExpr(readImmediate(), readImmediate());
+      case DIV_EXPR:
+        return Jimple.newDivExpr(readImmediate(), readImmediate());
+      case EQ_EXPR:
+        return Jimple.newEqExpr(readImmediate(), readImmediate());
+      case NE_EXPR:
+        return Jimple.newNeExpr(readImmediate(), readImmediate());
+      case GE_EXPR:
+        return Jimple.newGeExpr(readImmediate(), readImmediate());
+      case GT_EXPR:
+        return Jimple.newGtExpr(readImmediate(), readImmediate());
+      case LE_EXPR:
+        return Jimple.newLeExpr(readImmediate(), readImmediate());
+      case LT_EXPR:
+        return Jimple.newLtExpr(readImmediate(), readImmediate());
+      case MUL_EXPR:
+        return Jimple.newMulExpr(readImmediate(), readImmediate());
+      case OR_EXPR:
+        return Jimple.newOrExpr(readImmediate(), readImmediate());
+      case REM_EXPR:
+        return Jimple.newRemExpr(readImmediate(), readImmediate());
+      case SHL_EXPR:
+        return Jimple.newShlExpr(readImmediate(), readImmediate());
+      case SHR_EXPR:
+        return Jimple.newShrExpr(readImmediate(), readImmediate());
+      case USHR_EXPR:
+        return Jimple.newUshrExpr(readImmediate(), readImmediate());
+      case SUB_EXPR:
+        return Jimple.newSubExpr(readImmediate(), readImmediate());
+      case XOR_EXPR:
+        return Jimple.newXorExpr(readImmediate(), readImmediate());
+      case NEG_EXPR:
+        return Jimple.newNegExpr(readImmediate());
+      case LENGTH_EXPR:
+        return Jimple.newLengthExpr(readImmediate());
+      case CAST_EXPR:
+        {
+          Immediate op = readImmediate();
+          return Jimple.newCastExpr(op, readType());
+        }
+      case INSTANCE_OF_EXPR:
+        {
+          Immediate op = readImmediate();
+          return Jimple.newInstanceOfExpr(op, readType());
+        }
+      case NEW_EXPR:
+        return Jimple.newNewExpr((ClassType) readType());
+      case NEW_ARRAY_EXPR:
+        {
+          Type baseType = readType();
+          return JavaJimple.getInstance().newNewArrayExpr(baseType, readImmediate());
+        }
+      case NEW_MULTI_ARRAY_EXPR:
+        {
+          ArrayType type = (ArrayType) readType();
+          return Jimple.newNewMultiArrayExpr(type, readImmediates());
+        }
+      case SPECIAL_INVOKE_EXPR:
+        {
+          Local base = readLocal();
+          MethodSignature method = readMethodSignature();
+          return Jimple.newSpecialInvokeExpr(base, method, readImmediates());
+        }
+      case VIRTUAL_INVOKE_EXPR:
+        {
+          Local base = readLocal();
+          MethodSignature method = readMethodSignature();
+          return Jimple.newVirtualInvokeExpr(base, method, readImmediates());
+        }
+      case INTERFACE_INVOKE_EXPR:
+        {
+          Local base = readLocal();
+          MethodSignature method = readMethodSignature();
+          return Jimple.newInterfaceInvokeExpr(base, method, readImmediates());
+        }
+      case STATIC_INVOKE_EXPR:
+        {
+          MethodSignature method = readMethodSignature();
+          return Jimple.newStaticInvokeExpr(method, readImmediates());
+        }
+      case DYNAMIC_INVOKE_EXPR:
+        {
+          MethodSignature bootstrapMethod = readMethodSignature();
+          List<Immediate> bootstrapArgs = readImmediates();
+          MethodSignature method = readMethodSignature();
+          int handleTag = readVarInt();
+          return new JDynamicInvokeExpr(
+              bootstrapMethod, bootstrapArgs, method, handleTag, readImmediates());
+        }
+      case STATIC_FIELD_REF:
+        return Jimple.newStaticFieldRef(readFieldSignature());
+      case INSTANCE_FIELD_REF:
+        {
+          Local base = readLocal();
+          return Jimple.newInstanceFieldRef(base, readFieldSignature());
+        }
+      case ARRAY_REF:
+        {
+          Local base = readLocal();
+          return JavaJimple.getInstance().newArrayRef(base, readImmediate());
+        }
+      case PARAMETER_REF:
+        {
+          int index = readVarInt();
+          return Jimple.newParameterRef(readType(), index);
+        }
+      case CAUGHT_EXCEPTION_REF:
+        return new JCaughtExceptionRef(readType());
+      case THIS_REF:
+        return Jimple.newThisRef((ClassType) readType());
+      default:
+        throw new IllegalStateException("Unknown value tag " + tag);
+    }
+  }
+}
@@ -0,0 +1,877 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.collect.Iterables;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.jimple.visitor.StmtVisitor;
+import sootup.core.jimple.visitor.ValueVisitor;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.LinePosition;
+import sootup.core.model.Position;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.*;
+import sootup.java.core.jimple.basic.JavaLocal;
+import sootup.java.core.signatures.ModuleSignature;
+import sootup.java.core.types.JavaClassType;
+import sootup.java.core.types.ModuleJavaClassType;
+
+/**
+ * Writes an intercepted {@link Body} into the compact binary format of the {@link
+ * PersistentBodyCache}. A record starts with a table of all strings of the body, i.e. every class
+ * name, member name and constant is stored once, followed by the Locals and the Stmts in their
+ * linearized order. Stmts refer to Locals, Stmts and strings by their index in the respective
+ * table. Counts and indices are written as variable length integers. {@link BodyDecoder} reads the
+ * format.
+ *
+ * <p>Only the Jimple that the bytecode frontend and its interceptors produce can be encoded, i.e.
+ * no {@link JPhiExpr}s, no annotated Locals and no column based position information. {@link
+ * #encode(Body)} throws an {@link IllegalArgumentException} for such bodies.
+ */
+final class BodyEncoder implements StmtVisitor, ValueVisitor {
+
+  /** is part of the fingerprint of a cache file, so it has to change with the format. */
+  static final int FORMAT_VERSION = 1;
+
+  // Stmts
+  static final int ASSIGN_STMT = 0;
+  static final int IDENTITY_STMT = 1;
+  static final int INVOKE_STMT = 2;
+  static final int IF_STMT = 3;
+  static final int GOTO_STMT = 4;
+  static final int NOP_STMT = 5;
+  static final int RETURN_STMT = 6;
+  static final int RETURN_VOID_STMT = 7;
+  static final int THROW_STMT = 8;
+  static final int ENTER_MONITOR_STMT = 9;
+  static final int EXIT_MONITOR_STMT = 10;
+  static final int BREAKPOINT_STMT = 11;
+  static final int RET_STMT = 12;
+  static final int TABLE_SWITCH_STMT = 13;
+  static final int LOOKUP_SWITCH_STMT = 14;
+
+  // Immediates
+  static final int LOCAL = 0;
+  static final int INT_CONSTANT = 1;
+  static final int LONG_CONSTANT = 2;
+  static final int FLOAT_CONSTANT = 3;
+  static final int DOUBLE_CONSTANT = 4;
+  static final int NULL_CONSTANT = 5;
+  static final int STRING_CONSTANT = 6;
+  static final int CLASS_CONSTANT = 7;
+  static final int ENUM_CONSTANT = 8;
+  static final int BOOLEAN_CONSTANT = 9;
+  static final int METHOD_HANDLE = 10;
+  static final int METHOD_TYPE = 11;
+
+  // Exprs, the binary operations are numbered consecutively
+  static final int ADD_EXPR = 20;
+  static final int AND_EXPR = 21;
+  static final int CMP_EXPR = 22;
+  static final int CMPG_EXPR = 23;
+  static final int CMPL_EXPR = 24;
+  static final int DIV_EXPR = 25;
+  static final int EQ_EXPR = 26;
+  static final int NE_EXPR = 27;
+  static final int GE_EXPR = 28;
+  static final int GT_EXPR = 29;
+  static final int LE_EXPR = 30;
+  static final int LT_EXPR = 31;
+  static final int MUL_EXPR = 32;
+  static final int OR_EXPR = 33;
+  static final int REM_EXPR = 34;
+  static final int SHL_EXPR = 35;
+  static final int SHR_EXPR = 36;
+  static final int USHR_EXPR = 37;
+  static final int SUB_EXPR = 38;
+  static final int XOR_EXPR = 39;
+  static final int NEG_EXPR = 40;
+  static final int LENGTH_EXPR = 41;
+  static final int CAST_EXPR = 42;
+  static final int INSTANCE_OF_EXPR = 43;
+  static final int NEW_EXPR = 44;
+  static final int NEW_ARRAY_EXPR = 45;
+  static final int NEW_MULTI_ARRAY_EXPR = 46;
+  static final int SPECIAL_INVOKE_EXPR = 47;
+  static final int VIRTUAL_INVOKE_EXPR = 48;
+  static final int INTERFACE_INVOKE_EXPR = 49;
+  static final int STATIC_INVOKE_EXPR = 50;
+  static final int DYNAMIC_INVOKE_EXPR = 51;
+
+  // Refs
+  static final int STATIC_FIELD_REF = 60;
+  static final int INSTANCE_FIELD_REF = 61;
+  static final int ARRAY_REF = 62;
+  static final int PARAMETER_REF = 63;
+  static final int CAUGHT_EXCEPTION_REF = 64;
+  static final int THIS_REF = 65;
+
+  // Types
+  static final int VOID_TYPE = 0;
+  static final int NULL_TYPE = 1;
+  static final int UNKNOWN_TYPE = 2;
+  static final int BOOLEAN_TYPE = 3;
+  static final int BYTE_TYPE = 4;
+  static final int CHAR_TYPE = 5;
+  static final int SHORT_TYPE = 6;
+  static final int INT_TYPE = 7;
+  static final int LONG_TYPE = 8;
+  static final int FLOAT_TYPE = 9;
+  static final int DOUBLE_TYPE = 10;
+  static final int CLASS_TYPE = 11;
+  static final int ARRAY_TYPE = 12;
+
+  // Locals
+  static final int PLAIN_LOCAL = 0;
+  static final int JAVA_LOCAL = 1;
+
+  // Positions
+  static final int NO_POSITION = 0;
+  static final int LINE_POSITION = 1;
+  static final int FULL_POSITION = 2;
+
+  @Nonnull private final Map<String, Integer> strings = new LinkedHashMap<>();
+  @Nonnull private final Map<Local, Integer> localIndices = new IdentityHashMap<>();
+  @Nonnull private final List<Local> locals = new ArrayList<>();
+  @Nonnull private final Map<Stmt, Integer> stmtIndices = new IdentityHashMap<>();
+  @Nonnull private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  /** Encodes the given body. An encoder instance can encode a single body only. */
+  @Nonnull
+  byte[] encode(@Nonnull Body body) {
+    // the declared Locals come first; Locals that are used but not declared are appended
+    body.getLocals().forEach(this::indexOf);
+    int declaredLocalCount = locals.size();
+
+    StmtGraph<?> graph = body.getStmtGraph();
+    List<Stmt> stmts = graph.getStmts();
+    ByteArrayOutputStream stmtPart = new ByteArrayOutputStream(stmts.size() * 16);
+    out = stmtPart;
+    writePosition(body.getPosition());
+    writeVarInt(stmts.size());
+    for (int i = 0; i < stmts.size(); i++) {
+      stmtIndices.put(stmts.get(i), i);
+    }
+    for (Stmt stmt : stmts) {
+      writeStmtPositionInfo(stmt.getPositionInfo());
+      stmt.accept(this);
+    }
+    for (Stmt stmt : stmts) {
+      if (stmt instanceof BranchingStmt) {
+        List<Stmt> targets = graph.getBranchTargetsOf((BranchingStmt) stmt);
+        writeVarInt(targets.size());
+        targets.forEach(this::writeStmtIndex);
+      }
+    }
+    List<Trap> traps = collectTraps(graph, stmts);
+    writeVarInt(traps.size());
+    for (Trap trap : traps) {
+      writeType(trap.getExceptionType());
+      writeStmtIndex(trap.getBeginStmt());
+      writeStmtIndex(trap.getEndStmt());
+      writeStmtIndex(trap.getHandlerStmt());
+    }
+
+    ByteArrayOutputStream localPart = new ByteArrayOutputStream(locals.size() * 4);
+    out = localPart;
+    writeVarInt(locals.size());
+    writeVarInt(declaredLocalCount);
+    for (Local local : locals) {
+      if (local.getClass() == JavaLocal.class) {
+        if (!Iterables.isEmpty(((JavaLocal) local).getAnnotations())) {
+          throw new IllegalArgumentException("Annotated Locals are not supported: " + local);
+        }
+        writeVarInt(JAVA_LOCAL);
+      } else if (local.getClass() == Local.class) {
+        writeVarInt(PLAIN_LOCAL);
+      } else {
+        throw new IllegalArgumentException("Unsupported Local: " + local.getClass());
+      }
+      writeString(local.getName());
+      writeType(local.getType());
+    }
+
+    out = new ByteArrayOutputStream(strings.size() * 16 + localPart.size() + stmtPart.size());
+    writeVarInt(strings.size());
+    for (String string : strings.keySet()) {
+      writeVarInt(string.length());
+      for (int i = 0; i < string.length(); i++) {
+        writeVarInt(string.charAt(i));
+      }
+    }
+    out.write(localPart.toByteArray(), 0, localPart.size());
+    out.write(stmtPart.toByteArray(), 0, stmtPart.size());
+    return out.toByteArray();
+  }
+
+  /**
+   * Collects the traps of the graph from the exceptional successors of its blocks, which are
+   * visited in the linearized order of the stmts. Consecutive blocks with the same handler for an
+   * exception type are covered by one trap.
+   *
+   * @throws IllegalArgumentException if the last block is covered by a trap, as such a trap has no
+   *     end stmt
+   */
+  @Nonnull
+  private static List<Trap> collectTraps(@Nonnull StmtGraph<?> graph, @Nonnull List<Stmt> stmts) {
+    List<Trap> traps = new ArrayList<>();
+    // the begin and the handler of every trap that covers the previous block
+    Map<ClassType, Stmt> beginStmts = new HashMap<>();
+    Map<ClassType, Stmt> handlerStmts = new LinkedHashMap<>();
+    for (Stmt stmt : stmts) {
+      BasicBlock<?> block = graph.getBlockOf(stmt);
+      if (block.getHead() != stmt) {
+        continue;
+      }
+      Map<? extends ClassType, ? extends BasicBlock<?>> exceptionalSuccessors =
+          block.getExceptionalSuccessors();
+
+      // the traps which do not cover this block end at its head
+      Iterator<Map.Entry<ClassType, Stmt>> it = handlerStmts.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<ClassType, Stmt> handler = it.next();
+        BasicBlock<?> handlerBlock = exceptionalSuccessors.get(handler.getKey());
+        if (handlerBlock == null || handlerBlock.getHead() != handler.getValue()) {
+          traps.add(
+              new Trap(
+                  handler.getKey(), beginStmts.remove(handler.getKey()), stmt, handler.getValue()));
+          it.remove();
+        }
+      }
+      exceptionalSuccessors.forEach(
+          (type, handlerBlock) -> {
+            if (!handlerStmts.containsKey(type)) {
+              beginStmts.put(type, stmt);
+              handlerStmts.put(type, handlerBlock.getHead());
+            }
+          });
+    }
+    if (!handlerStmts.isEmpty()) {
+      throw new IllegalArgumentException("The last block is covered by a trap.");
+    }
+    return traps;
+  }
+
+  private int indexOf(@Nonnull Local local) {
+    Integer index = localIndices.get(local);
+    if (index == null) {
+      index = locals.size();
+      localIndices.put(local, index);
+      locals.add(local);
+    }
+    return index;
+  }
+
+  private void writeStmtIndex(@Nonnull Stmt stmt) {
+    Integer index = stmtIndices.get(stmt);
+    if (index == null) {
+      throw new IllegalArgumentException("'" + stmt + "' is not part of the StmtGraph.");
+    }
+    writeVarInt(index);
+  }
+
+  /** writes an unsigned LEB128 integer */
+  private void writeVarInt(int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  /** writes a zigzag encoded integer, so that small negative values stay small */
+  private void writeSignedVarInt(int value) {
+    writeVarInt((value << 1) ^ (value >> 31));
+  }
+
+  private void writeLong(long value) {
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      out.write((int) (value >>> shift));
+    }
+  }
+
+  private void writeString(@Nonnull String string) {
+    Integer index = strings.get(string);
+    if (index == null) {
+      index = strings.size();
+      strings.put(string, index);
+    }
+    writeVarInt(index);
+  }
+
+  private void writePosition(@Nonnull Position position) {
+    if (position == NoPositionInformation.getInstance()) {
+      writeVarInt(NO_POSITION);
+    } else if (position.getClass() == LinePosition.class) {
+      writeVarInt(LINE_POSITION);
+      writeSignedVarInt(position.getFirstLine());
+    } else if (position.getClass() == FullPosition.class) {
+      writeVarInt(FULL_POSITION);
+      writeSignedVarInt(position.getFirstLine());
+      writeSignedVarInt(position.getFirstCol());
+      writeSignedVarInt(position.getLastLine());
+      writeSignedVarInt(position.getLastCol());
+    } else {
+      throw new IllegalArgumentException("Unsupported Position: " + position.getClass());
+    }
+  }
+
+  private void writeStmtPositionInfo(@Nonnull StmtPositionInfo positionInfo) {
+    if (positionInfo == StmtPositionInfo.getNoStmtPositionInfo()) {
+      writeVarInt(NO_POSITION);
+    } else if (positionInfo.getClass() == SimpleStmtPositionInfo.class) {
+      writePosition(positionInfo.getStmtPosition());
+    } else {
+      throw new IllegalArgumentException("Unsupported StmtPositionInfo: " + positionInfo);
+    }
+  }
+
+  private void writeType(@Nonnull Type type) {
+    if (type == VoidType.getInstance()) {
+      writeVarInt(VOID_TYPE);
+    } else if (type == NullType.getInstance()) {
+      writeVarInt(NULL_TYPE);
+    } else if (type == UnknownType.getInstance()) {
+      writeVarInt(UNKNOWN_TYPE);
+    } else if (type == PrimitiveType.getBoolean()) {
+      writeVarInt(BOOLEAN_TYPE);
+    } else if (type == PrimitiveType.getByte()) {
+      writeVarInt(BYTE_TYPE);
+    } else if (type == PrimitiveType.getChar()) {
+      writeVarInt(CHAR_TYPE);
+    } else if (type == PrimitiveType.getShort()) {
+      writeVarInt(SHORT_TYPE);
+    } else if (type == PrimitiveType.getInt()) {
+      writeVarInt(INT_TYPE);
+    } else if (type == PrimitiveType.getLong()) {
+      writeVarInt(LONG_TYPE);
+    } else if (type == PrimitiveType.getFloat()) {
+      writeVarInt(FLOAT_TYPE);
+    } else if (type == PrimitiveType.getDouble()) {
+      writeVarInt(DOUBLE_TYPE);
+    } else if (type.getClass() == JavaClassType.class) {
+      writeVarInt(CLASS_TYPE);
+      writeString(((JavaClassType) type).getFullyQualifiedName());
+    } else if (type.getClass() == ModuleJavaClassType.class) {
+      writeVarInt(CLASS_TYPE);
+      ModuleJavaClassType classType = (ModuleJavaClassType) type;
+      ModuleSignature module = classType.getPackageName().getModuleSignature();
+      writeString(
+          module.isUnnamedModule()
+              ? classType.getFullyQualifiedName()
+              : module.getModuleName() + "/" + classType.getFullyQualifiedName());
+    } else if (type instanceof ArrayType) {
+      writeVarInt(ARRAY_TYPE);
+      writeVarInt(((ArrayType) type).getDimension());
+      writeType(((ArrayType) type).getBaseType());
+    } else {
+      throw new IllegalArgumentException("Unsupported Type: " + type.getClass());
+    }
+  }
+
+  private void writeTypes(@Nonnull List<Type> types) {
+    writeVarInt(types.size());
+    types.forEach(this::writeType);
+  }
+
+  private void writeMethodSignature(@Nonnull MethodSignature signature) {
+    writeType(signature.getDeclClassType());
+    writeString(signature.getName());
+    writeType(signature.getType());
+    writeTypes(signature.getParameterTypes());
+  }
+
+  private void writeFieldSignature(@Nonnull FieldSignature signature) {
+    writeType(signature.getDeclClassType());
+    writeString(signature.getName());
+    writeType(signature.getType());
+  }
+
+  private void writeValue(@Nonnull Value value) {
+    value.accept(this);
+  }
+
+  private void writeValues(@Nonnull List<? extends Value> values) {
+    writeVarInt(values.size());
+    values.forEach(this::writeValue);
+  }
+
+  private void writeBinop(int tag, @Nonnull AbstractBinopExpr expr) {
+    writeVarInt(tag);
+    writeValue(expr.getOp1());
+    writeValue(expr.getOp2());
+  }
+
+  private void writeInstanceInvoke(int tag, @Nonnull AbstractInstanceInvokeExpr expr) {
+    writeVarInt(tag);
+    writeVarInt(indexOf(expr.getBase()));
+    writeMethodSignature(expr.getMethodSignature());
+    writeValues(expr.getArgs());
+  }
+
+  // Stmts
+
+  @Override
+  public void caseBreakpointStmt(@Nonnull JBreakpointStmt stmt) {
+    writeVarInt(BREAKPOINT_STMT);
+  }
+
+  @Override
+  public void caseInvokeStmt(@Nonnull JInvokeStmt stmt) {
+    writeVarInt(INVOKE_STMT);
+    writeValue(stmt.getInvokeExpr());
+  }
+
+  @Override
+  public void caseAssignStmt(@Nonnull JAssignStmt stmt) {
+    writeVarInt(ASSIGN_STMT);
+    writeValue(stmt.getLeftOp());
+    writeValue(stmt.getRightOp());
+  }
+
+  @Override
+  public void caseIdentityStmt(@Nonnull JIdentityStmt stmt) {
+    writeVarInt(IDENTITY_STMT);
+    writeVarInt(indexOf(stmt.getLeftOp()));
+    writeValue(stmt.getRightOp());
+  }
+
+  @Override
+  public void caseEnterMonitorStmt(@Nonnull JEnterMonitorStmt stmt) {
+    writeVarInt(ENTER_MONITOR_STMT);
+    writeValue(stmt.getOp());
+  }
+
+  @Override
+  public void caseExitMonitorStmt(@Nonnull JExitMonitorStmt stmt) {
+    writeVarInt(EXIT_MONITOR_STMT);
+    writeValue(stmt.getOp());
+  }
+
+  @Override
+  public void caseGotoStmt(@Nonnull JGotoStmt stmt) {
+    writeVarInt(GOTO_STMT);
+  }
+
+  @Override
+  public void caseIfStmt(@Nonnull JIfStmt stmt) {
+    writeVarInt(IF_STMT);
+    writeValue(stmt.getCondition());
+  }
+
+  @Override
+  public void caseNopStmt(@Nonnull JNopStmt stmt) {
+    writeVarInt(NOP_STMT);
+  }
+
+  @Override
+  public void caseRetStmt(@Nonnull JRetStmt stmt) {
+    writeVarInt(RET_STMT);
+    writeValue(stmt.getStmtAddress());
+  }
+
+  @Override
+  public void caseReturnStmt(@Nonnull JReturnStmt stmt) {
+    writeVarInt(RETURN_STMT);
+    writeValue(stmt.getOp());
+  }
+
+  @Override
+  public void caseReturnVoidStmt(@Nonnull JReturnVoidStmt stmt) {
+    writeVarInt(RETURN_VOID_STMT);
+  }
+
+  @Override
+  public void caseSwitchStmt(@Nonnull JSwitchStmt stmt) {
+    List<IntConstant> values = stmt.getValues();
+    if (stmt.isTableSwitch()) {
+      writeVarInt(TABLE_SWITCH_STMT);
+      writeValue(stmt.getKey());
+      writeSignedVarInt(values.get(0).getValue());
+      writeSignedVarInt(values.get(values.size() - 1).getValue());
+    } else {
+      writeVarInt(LOOKUP_SWITCH_STMT);
+      writeValue(stmt.getKey());
+      writeVarInt(values.size());
+      values.forEach(value -> writeSignedVarInt(value.getValue()));
+    }
+  }
+
+  @Override
+  public void caseThrowStmt(@Nonnull JThrowStmt stmt) {
+    writeVarInt(THROW_STMT);
+    writeValue(stmt.getOp());
+  }
+
+  @Override
+  public void defaultCaseStmt(@Nonnull Stmt stmt) {
+    throw new IllegalArgumentException("Unsupported Stmt: " + stmt.getClass());
+  }
+
+  // Immediates
+
+  @Override
+  public void caseLocal(@Nonnull Local local) {
+    writeVarInt(LOCAL);
+    writeVarInt(indexOf(local));
+  }
+
+  @Override
+  public void caseBooleanConstant(@Nonnull BooleanConstant constant) {
+    writeVarInt(BOOLEAN_CONSTANT);
+    writeVarInt(constant == BooleanConstant.getTrue() ? 1 : 0);
+  }
+
+  @Override
+  public void caseDoubleConstant(@Nonnull DoubleConstant constant) {
+    writeVarInt(DOUBLE_CONSTANT);
+    writeLong(Double.doubleToRawLongBits(constant.getValue()));
+  }
+
+  @Override
+  public void caseFloatConstant(@Nonnull FloatConstant constant) {
+    writeVarInt(FLOAT_CONSTANT);
+    writeVarInt(Float.floatToRawIntBits(constant.getValue()));
+  }
+
+  @Override
+  public void caseIntConstant(@Nonnull IntConstant constant) {
+    writeVarInt(INT_CONSTANT);
+    writeSignedVarInt(constant.getValue());
+  }
+
+  @Override
+  public void caseLongConstant(@Nonnull LongConstant constant) {
+    writeVarInt(LONG_CONSTANT);
+    writeLong(constant.getValue());
+  }
+
+  @Override
+  public void caseNullConstant(@Nonnull NullConstant constant) {
+    writeVarInt(NULL_CONSTANT);
+  }
+
+  @Override
+  public void caseStringConstant(@Nonnull StringConstant constant) {
+    writeVarInt(STRING_CONSTANT);
+    writeString(constant.getValue());
+    writeType(constant.getType());
+  }
+
+  @Override
+  public void caseEnumConstant(@Nonnull EnumConstant constant) {
+    writeVarInt(ENUM_CONSTANT);
+    writeString(constant.getValue());
+    writeType(constant.getType());
+  }
+
+  @Override
+  public void caseClassConstant(@Nonnull ClassConstant constant) {
+    writeVarInt(CLASS_CONSTANT);
+    writeString(constant.getValue());
+    writeType(constant.getType());
+  }
+
+  @Override
+  public void caseMethodHandle(@Nonnull MethodHandle handle) {
+    writeVarInt(METHOD_HANDLE);
+    writeVarInt(handle.getKind().getValue());
+    if (handle.isMethodRef()) {
+      writeMethodSignature((MethodSignature) handle.getReferenceSignature());
+    } else {
+      writeFieldSignature((FieldSignature) handle.getReferenceSignature());
+    }
+    writeType(handle.getType());
+  }
+
+  @Override
+  public void caseMethodType(@Nonnull MethodType methodType) {
+    writeVarInt(METHOD_TYPE);
+    writeType(methodType.getReturnType());
+    writeTypes(methodType.getParameterTypes());
+  }
+
+  @Override
+  public void defaultCaseConstant(@Nonnull Constant constant) {
+    throw new IllegalArgumentException("Unsupported Constant: " + constant.getClass());
+  }
+
+  // Exprs
+
+  @Override
+  public void caseAddExpr(@Nonnull JAddExpr expr) {
+    writeBinop(ADD_EXPR, expr);
+  }
+
+  @Override
+  public void caseAndExpr(@Nonnull JAndExpr expr) {
+    writeBinop(AND_EXPR, expr);
+  }
+
+  @Override
+  public void caseCmpExpr(@Nonnull JCmpExpr expr) {
+    writeBinop(CMP_EXPR, expr);
+  }
+
+  @Override
+  public void caseCmpgExpr(@Nonnull JCmpgExpr expr) {
+    writeBinop(CMPG_EXPR, expr);
+  }
+
+  @Override
+  public void caseCmplExpr(@Nonnull JCmplExpr expr) {
+    writeBinop(CMPL_EXPR, expr);
+  }
+
+  @Override
+  public void caseDivExpr(@Nonnull JDivExpr expr) {
+    writeBinop(DIV_EXPR, expr);
+  }
+
+  @Override
+  public void caseEqExpr(@Nonnull JEqExpr expr) {
+    writeBinop(EQ_EXPR, expr);
+  }
+
+  @Override
+  public void caseNeExpr(@Nonnull JNeExpr expr) {
+    writeBinop(NE_EXPR, expr);
+  }
+
+  @Override
+  public void caseGeExpr(@Nonnull JGeExpr expr) {
+    writeBinop(GE_EXPR, expr);
+  }
+
+  @Override
+  public void caseGtExpr(@Nonnull JGtExpr expr) {
+    writeBinop(GT_EXPR, expr);
+  }
+
+  @Override
+  public void caseLeExpr(@Nonnull JLeExpr expr) {
+    writeBinop(LE_EXPR, expr);
+  }
+
+  @Override
+  public void caseLtExpr(@Nonnull JLtExpr expr) {
+    writeBinop(LT_EXPR, expr);
+  }
+
+  @Override
+  public void caseMulExpr(@Nonnull JMulExpr expr) {
+    writeBinop(MUL_EXPR, expr);
+  }
+
+  @Override
+  public void caseOrExpr(@Nonnull JOrExpr expr) {
+    writeBinop(OR_EXPR, expr);
+  }
+
+  @Override
+  public void caseRemExpr(@Nonnull JRemExpr expr) {
+    writeBinop(REM_EXPR, expr);
+  }
+
+  @Override
+  public void caseShlExpr(@Nonnull JShlExpr expr) {
+    writeBinop(SHL_EXPR, expr);
+  }
+
+  @Override
+  public void caseShrExpr(@Nonnull JShrExpr expr) {
+    writeBinop(SHR_EXPR, expr);
+  }
+
+  @Override
+  public void caseUshrExpr(@Nonnull JUshrExpr expr) {
+    writeBinop(USHR_EXPR, expr);
+  }
+
+  @Override
+  public void caseSubExpr(@Nonnull JSubExpr expr) {
+    writeBinop(SUB_EXPR, expr);
+  }
+
+  @Override
+  public void caseXorExpr(@Nonnull JXorExpr expr) {
+    writeBinop(XOR_EXPR, expr);
+  }
+
+  @Override
+  public void caseSpecialInvokeExpr(@Nonnull JSpecialInvokeExpr expr) {
+    writeInstanceInvoke(SPECIAL_INVOKE_EXPR, expr);
+  }
+
+  @Override
+  public void caseVirtualInvokeExpr(@Nonnull JVirtualInvokeExpr expr) {
+    writeInstanceInvoke(VIRTUAL_INVOKE_EXPR, expr);
+  }
+
+  @Override
+  public void caseInterfaceInvokeExpr(@Nonnull JInterfaceInvokeExpr expr) {
+    writeInstanceInvoke(INTERFACE_INVOKE_EXPR, expr);
+  }
+
+  @Override
+  public void caseStaticInvokeExpr(@Nonnull JStaticInvokeExpr expr) {
+    writeVarInt(STATIC_INVOKE_EXPR);
+    writeMethodSignature(expr.getMethodSignature());
+    writeValues(expr.getArgs());
+  }
+
+  @Override
+  public void caseDynamicInvokeExpr(@Nonnull JDynamicInvokeExpr expr) {
+    writeVarInt(DYNAMIC_INVOKE_EXPR);
+    writeMethodSignature(expr.getBootstrapMethodSignature());
+    writeValues(expr.getBootstrapArgs());
+    writeMethodSignature(expr.getMethodSignature());
+    writeVarInt(expr.getHandleTag());
+    writeValues(expr.getArgs());
+  }
+
+  @Override
+  public void caseCastExpr(@Nonnull JCastExpr expr) {
+    writeVarInt(CAST_EXPR);
+    writeValue(expr.getOp());
+    writeType(expr.getType());
+  }
+
+  @Override
+  public void caseInstanceOfExpr(@Nonnull JInstanceOfExpr expr) {
+    writeVarInt(INSTANCE_OF_EXPR);
+    writeValue(expr.getOp());
+    writeType(expr.getCheckType());
+  }
+
+  @Override
+  public void caseNewArrayExpr(@Nonnull JNewArrayExpr expr) {
+    writeVarInt(NEW_ARRAY_EXPR);
+    writeType(expr.getBaseType());
+    writeValue(expr.getSize());
+  }
+
+  @Override
+  public void caseNewMultiArrayExpr(@Nonnull JNewMultiArrayExpr expr) {
+    writeVarInt(NEW_MULTI_ARRAY_EXPR);
+    writeType(expr.getBaseType());
+    writeValues(expr.getSizes());
+  }
+
+  @Override
+  public void caseNewExpr(@Nonnull JNewExpr expr) {
+    writeVarInt(NEW_EXPR);
+    writeType(expr.getType());
+  }
+
+  @Override
+  public void caseLengthExpr(@Nonnull JLengthExpr expr) {
+    writeVarInt(LENGTH_EXPR);
+    writeValue(expr.getOp());
+  }
+
+  @Override
+  public void caseNegExpr(@Nonnull JNegExpr expr) {
+    writeVarInt(NEG_EXPR);
+    writeValue(expr.getOp());
+  }
+
+  @Override
+  public void casePhiExpr(@Nonnull JPhiExpr expr) {
+    defaultCaseExpr(expr);
+  }
+
+  @Override
+  public void defaultCaseExpr(@Nonnull Expr expr) {
+    throw new IllegalArgumentException("Unsupported Expr: " + expr.getClass());
+  }
+
+  // Refs
+
+  @Override
+  public void caseStaticFieldRef(@Nonnull JStaticFieldRef ref) {
+    writeVarInt(STATIC_FIELD_REF);
+    writeFieldSignature(ref.getFieldSignature());
+  }
+
+  @Override
+  public void caseInstanceFieldRef(@Nonnull JInstanceFieldRef ref) {
+    writeVarInt(INSTANCE_FIELD_REF);
+    writeVarInt(indexOf(ref.getBase()));
+    writeFieldSignature(ref.getFieldSignature());
+  }
+
+  @Override
+  public void caseArrayRef(@Nonnull JArrayRef ref) {
+    writeVarInt(ARRAY_REF);
+    writeVarInt(indexOf(ref.getBase()));
+    writeValue(ref.getIndex());
+  }
+
+  @Override
+  public void caseParameterRef(@Nonnull JParameterRef ref) {
+    writeVarInt(PARAMETER_REF);
+    writeVarInt(ref.getIndex());
+    writeType(ref.getType());
+  }
+
+  @Override
+  public void caseCaughtExceptionRef(@Nonnull JCaughtExceptionRef ref) {
+    writeVarInt(CAUGHT_EXCEPTION_REF);
+    writeType(ref.getType());
+  }
+
+  @Override
+  public void caseThisRef(@Nonnull JThisRef ref) {
+    writeVarInt(THIS_REF);
+    writeType(ref.getType());
+  }
+
+  @Override
+  public void defaultCaseRef(@Nonnull Ref ref) {
+    throw new IllegalArgumentException("Unsupported Ref: " + ref.getClass());
+  }
+
+  @Override
+  public void defaultCaseValue(@Nonnull Value value) {
+    throw new IllegalArgumentException("Unsupported Value: " + value.getClass());
+  }
+}
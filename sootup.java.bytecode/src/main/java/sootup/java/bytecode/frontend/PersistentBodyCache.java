@@ -0,0 +1,337 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.IdentifierFactory;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.MeasuredBodyInterceptor;
+
+/**
+ * A persistent cache for the bodies which the bytecode frontend creates, i.e. the bodies after all
+ * {@link BodyInterceptor}s have been applied. On a warm start the cached bodies are read instead of
+ * converting the bytecode with ASM and running the interceptors again.
+ *
+ * <p>The cache stores one file per class in the given directory. A file is identified by a hash of
+ * the bytes of the class file and a fingerprint of the interceptor list, i.e. the names of the
+ * interceptor classes in order, the {@link IdentifierFactory} and the format version. A changed
+ * class or a changed interceptor list therefore never hits an outdated file. Interceptors which can
+ * be configured, e.g. with constructor arguments, are only distinguished by their class, so use a
+ * separate directory per configuration.
+ *
+ * <p>A file starts with the number of bodies of its class and is appended to whenever a body of
+ * the class has been resolved. It is memory-mapped for reading and a body is only decoded when its
+ * method is resolved. Once a file contains all bodies of its class, the frontend skips the method
+ * code when it parses the class.
+ *
+ * <p>The cache is enabled per input location, e.g. via {@link
+ * sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation#setPersistentBodyCache}. It can
+ * be shared by several input locations and by concurrent processes.
+ */
+public class PersistentBodyCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(PersistentBodyCache.class);
+
+  private static final int MAGIC = 0x4a424f44;
+  private static final int HEADER_SIZE = 12;
+  private static final int UNKNOWN_BODY_COUNT = -1;
+
+  @Nonnull private final Path directory;
+
+  /** the class files which are currently in use, so that every file is opened once */
+  @Nonnull private final Cache<Path, ClassBodies> openFiles;
+
+  /**
+   * @param directory the directory of the cache files. It is created if it does not exist yet.
+   */
+  public PersistentBodyCache(@Nonnull Path directory) {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Can not create the cache directory " + directory, e);
+    }
+    this.directory = directory;
+    this.openFiles = CacheBuilder.newBuilder().weakValues().build();
+  }
+
+  @Nonnull
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Opens the cache file of a class. The file does not have to exist yet.
+   *
+   * @param classBytes the content of the class file
+   * @param bodyInterceptors the interceptors which are applied to the bodies of the class
+   * @param identifierFactory the identifier factory of the view
+   */
+  @Nonnull
+  ClassBodies open(
+      @Nonnull byte[] classBytes,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nonnull IdentifierFactory identifierFactory) {
+    StringBuilder fingerprint = new StringBuilder();
+    fingerprint.append(BodyEncoder.FORMAT_VERSION);
+    fingerprint.append(';').append(identifierFactory.getClass().getName());
+    for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
+      // measuring an interceptor does not change the bodies it produces
+      BodyInterceptor measured = MeasuredBodyInterceptor.unwrap(bodyInterceptor);
+      fingerprint.append(';').append(measured.getClass().getName());
+    }
+    String classHash = sha256(classBytes);
+    String fileName =
+        classHash
+            + "-"
+            + sha256(fingerprint.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16)
+            + ".bodies";
+    Path file = directory.resolve(classHash.substring(0, 2)).resolve(fileName);
+    try {
+      return openFiles.get(file, () -> new ClassBodies(file));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Can not open " + file, e.getCause());
+    }
+  }
+
+  @Nonnull
+  private static String sha256(@Nonnull byte[] bytes) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    StringBuilder sb = new StringBuilder(64);
+    for (byte b : digest.digest(bytes)) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * The cached bodies of a single class. A file consists of a header (magic number, format version,
+   * number of bodies of the class) and a sequence of records (length, CRC32 of the content, length
+   * of the method key, method key, encoded body). The method key is the name and the descriptor of
+   * the method.
+   */
+  static final class ClassBodies {
+
+    @Nonnull private final Path file;
+
+    /** maps method keys to the position of their record in the file */
+    @Nonnull private final Map<String, Integer> recordPositions = new HashMap<>();
+
+    @Nullable private MappedByteBuffer mapped;
+
+    /** the position behind the last valid record */
+    private int end = HEADER_SIZE;
+
+    private int bodyCount = UNKNOWN_BODY_COUNT;
+
+    ClassBodies(@Nonnull Path file) {
+      this.file = file;
+      if (Files.exists(file)) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+          scan(channel);
+        } catch (IOException | RuntimeException e) {
+          logger.warn("Ignoring the unreadable body cache file " + file, e);
+          recordPositions.clear();
+          mapped = null;
+          end = HEADER_SIZE;
+          bodyCount = UNKNOWN_BODY_COUNT;
+        }
+      }
+    }
+
+    /** Maps the file and indexes the records that have been appended since the last scan. */
+    private void scan(@Nonnull FileChannel channel) throws IOException {
+      long size = channel.size();
+      if (size < HEADER_SIZE) {
+        return;
+      }
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("The file is too large.");
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != BodyEncoder.FORMAT_VERSION) {
+        throw new IOException("The file has an unknown format.");
+      }
+      bodyCount = buffer.getInt(8);
+      int position = end;
+      while (position + 12 <= size) {
+        int length = buffer.getInt(position);
+        int keyLength = buffer.getInt(position + 8);
+        if (length < 4 || keyLength < 0 || keyLength > length - 4 || length > size - position - 8) {
+          // the record has not been written completely
+          break;
+        }
+        byte[] key = new byte[keyLength];
+        ByteBuffer keyBuffer = buffer.duplicate();
+        keyBuffer.position(position + 12);
+        keyBuffer.get(key);
+        recordPositions.putIfAbsent(new String(key, StandardCharsets.UTF_8), position);
+        position += 8 + length;
+      }
+      end = position;
+      mapped = buffer;
+    }
+
+    /** Returns whether the file contains the bodies of all methods of the class. */
+    synchronized boolean isComplete() {
+      return bodyCount != UNKNOWN_BODY_COUNT && recordPositions.size() >= bodyCount;
+    }
+
+    /**
+     * Sets the number of bodies of the class. It is written into the header of the file when the
+     * first body is stored.
+     */
+    synchronized void setBodyCount(int bodyCount) {
+      if (this.bodyCount == UNKNOWN_BODY_COUNT) {
+        this.bodyCount = bodyCount;
+      }
+    }
+
+    /**
+     * Returns the cached body of the method or <code>null</code> if the method has not been cached
+     * yet.
+     */
+    @Nullable
+    synchronized Body load(
+        @Nonnull String methodKey,
+        @Nonnull MethodSignature methodSignature,
+        @Nonnull IdentifierFactory identifierFactory) {
+      Integer position = recordPositions.get(methodKey);
+      if (position == null) {
+        return null;
+      }
+      if (mapped == null || position >= mapped.limit()) {
+        // the record has been appended after the file was mapped
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+          scan(channel);
+        } catch (IOException e) {
+          logger.warn("Can not read the body cache file " + file, e);
+          return null;
+        }
+      }
+      ByteBuffer record = mapped.duplicate();
+      int length = record.getInt(position);
+      record.position(position + 8).limit(position + 8 + length);
+      CRC32 crc = new CRC32();
+      crc.update(record.duplicate());
+      if ((int) crc.getValue() != record.getInt(position + 4)) {
+        logger.warn("The cached body of " + methodSignature + " in " + file + " is corrupted.");
+        return null;
+      }
+      record.position(record.position() + 4 + record.getInt(position + 8));
+      try {
+        return new BodyDecoder(record.slice(), identifierFactory).decode(methodSignature);
+      } catch (RuntimeException e) {
+        logger.warn("Can not decode the cached body of " + methodSignature + " in " + file, e);
+        return null;
+      }
+    }
+
+    /**
+     * Appends the body of the method to the file. Bodies which can not be encoded are not cached.
+     */
+    synchronized void store(@Nonnull String methodKey, @Nonnull Body body) {
+      if (recordPositions.containsKey(methodKey) || bodyCount == UNKNOWN_BODY_COUNT) {
+        return;
+      }
+      byte[] encodedBody;
+      try {
+        encodedBody = new BodyEncoder().encode(body);
+      } catch (IllegalArgumentException e) {
+        logger.debug("The body of " + body.getMethodSignature() + " is not cached.", e);
+        return;
+      }
+      byte[] key = methodKey.getBytes(StandardCharsets.UTF_8);
+      ByteBuffer content = ByteBuffer.allocate(4 + key.length + encodedBody.length);
+      content.putInt(key.length).put(key).put(encodedBody).flip();
+      CRC32 crc = new CRC32();
+      crc.update(content.duplicate());
+      ByteBuffer record = ByteBuffer.allocate(8 + content.remaining());
+      record.putInt(content.remaining()).putInt((int) crc.getValue()).put(content).flip();
+
+      try {
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel =
+            FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+          FileLock lock = channel.lock();
+          try {
+            if (channel.size() < HEADER_SIZE) {
+              ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+              header.putInt(MAGIC).putInt(BodyEncoder.FORMAT_VERSION).putInt(bodyCount).flip();
+              channel.truncate(0);
+              channel.write(header, 0);
+            } else {
+              // index the records of other processes and drop an incompletely written record
+              scan(channel);
+              if (recordPositions.containsKey(methodKey)) {
+                return;
+              }
+              channel.truncate(end);
+            }
+            while (record.hasRemaining()) {
+              channel.write(record, end + record.position());
+            }
+            recordPositions.put(methodKey, end);
+            end += record.limit();
+          } finally {
+            lock.release();
+          }
+        }
+      } catch (IOException | OverlappingFileLockException e) {
+        logger.debug("Can not write the body cache file " + file, e);
+      }
+    }
+  }
+}
@@ -22,6 +22,7 @@ package sootup.java.bytecode.inputlocation;
  * #L%
  */
 
+import com.google.common.base.Suppliers;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -32,18 +33,28 @@ import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.inputlocation.FileType;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
-import sootup.java.bytecode.frontend.AsmJavaClassProvider;
 import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
 import sootup.java.core.JavaSootClassSource;
 import sootup.java.core.types.JavaClassType;
 
 public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLocation {
 
+  private static final @Nonnull Logger logger =
+      LoggerFactory.getLogger(ArchiveBasedAnalysisInputLocation.class);
+
+  private static final String CLASS_FILE_EXTENSION = FileType.CLASS.getExtensionWithDot();
+
   // We cache the FileSystem instances as their creation is expensive.
   // The Guava Cache is thread-safe (see JavaDoc of LoadingCache) hence this
   // cache can be safely shared in a static variable.
@@ -74,6 +85,10 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
                     }
                   }));
 
+  /** the names of the classes in the archive, read once from its central directory */
+  private final Supplier<Optional<Set<String>>> classNames =
+      Suppliers.memoize(this::readClassNames);
+
   public ArchiveBasedAnalysisInputLocation(@Nonnull Path path, @Nonnull SourceType srcType) {
     this(path, srcType, BytecodeBodyInterceptors.Default.getBodyInterceptors());
   }
@@ -93,14 +108,57 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
     super(path, srcType, bodyInterceptors, ignoredPaths);
   }
 
+  @Nonnull
+  private Optional<Set<String>> readClassNames() {
+    if (path.getFileSystem() != FileSystems.getDefault()) {
+      return Optional.empty();
+    }
+    Set<String> names = new HashSet<>();
+    // ZipFile only reads the central directory, in opposite to walking the zip file system
+    try (ZipFile zipFile = new ZipFile(path.toFile())) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        String entryName = entries.nextElement().getName();
+        if (!entryName.endsWith(CLASS_FILE_EXTENSION)) {
+          continue;
+        }
+        int start = entryName.startsWith("/") ? 1 : 0;
+        names.add(
+            entryName
+                .substring(start, entryName.length() - CLASS_FILE_EXTENSION.length())
+                .replace('/', '.'));
+      }
+    } catch (IOException e) {
+      logger.warn("Could not index the classes of " + path, e);
+      return Optional.empty();
+    }
+    return Optional.of(Collections.unmodifiableSet(names));
+  }
+
+  /**
+   * Returns the names of all class files of the archive. They are read once from the central
+   * directory of the archive, so a lookup of a class which is not contained in the archive does
+   * not access its file system.
+   */
+  @Override
+  @Nonnull
+  public Optional<Set<String>> getIndexedClassNames() {
+    return classNames.get();
+  }
+
   @Override
   @Nonnull
   public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
+    Optional<Set<String>> indexedClassNames = getIndexedClassNames();
+    if (indexedClassNames.isPresent()
+        && !indexedClassNames.get().contains(type.getFullyQualifiedName())) {
+      return Optional.empty();
+    }
     try {
       FileSystem fs = fileSystemCache.get(path);
       final Path archiveRoot = fs.getPath("/");
       return getClassSourceInternal(
-          (JavaClassType) type, archiveRoot, new AsmJavaClassProvider(view));
+          (JavaClassType) type, archiveRoot, createClassProvider(view));
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
     }
@@ -109,11 +167,22 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
   @Override
   @Nonnull
   public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
+    return walkArchive(view, false);
+  }
+
+  @Override
+  @Nonnull
+  public Collection<JavaSootClassSource> getClassSourcesInParallel(@Nonnull View view) {
+    return walkArchive(view, true);
+  }
+
+  @Nonnull
+  private Collection<JavaSootClassSource> walkArchive(@Nonnull View view, boolean parallel) {
     try {
       FileSystem fs = fileSystemCache.get(path);
       final Path archiveRoot = fs.getPath("/");
       return walkDirectory(
-          archiveRoot, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
+          archiveRoot, view.getIdentifierFactory(), createClassProvider(view), parallel);
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
     }
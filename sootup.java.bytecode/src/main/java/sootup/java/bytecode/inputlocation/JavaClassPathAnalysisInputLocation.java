@@ -22,9 +22,11 @@ package sootup.java.bytecode.inputlocation;
  * #L%
  */
 
+import com.google.common.base.Suppliers;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
@@ -34,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.ClassLocationIndex;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.types.ClassType;
@@ -58,6 +61,10 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
 
   @Nonnull private final Collection<AnalysisInputLocation> cpEntries;
 
+  /** maps a class to the class path entries which may contain it; built on the first lookup */
+  @Nonnull
+  private final Supplier<ClassLocationIndex<AnalysisInputLocation>> classLocationIndex;
+
   /** Variable to track if user has specified the SourceType. By default, it will be set to null. */
   private final SourceType srcType;
 
@@ -100,6 +107,8 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     if (cpEntries.isEmpty()) {
       throw new IllegalArgumentException("Empty class path is given.");
     }
+    List<AnalysisInputLocation> entries = new ArrayList<>(cpEntries);
+    classLocationIndex = Suppliers.memoize(() -> new ClassLocationIndex<>(entries));
   }
 
   @Override
@@ -187,10 +196,24 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     return found.stream().map(src -> (JavaSootClassSource) src).collect(Collectors.toList());
   }
 
+  @Override
+  @Nonnull
+  public Collection<JavaSootClassSource> getClassSourcesInParallel(@Nonnull View view) {
+    // the entries are scanned in parallel but merged in class path order, so the class which is
+    // found first is kept as in the sequential scan
+    Set<SootClassSource> found = new HashSet<>();
+    cpEntries.parallelStream()
+        .map(inputLocation -> inputLocation.getClassSourcesInParallel(view))
+        .collect(Collectors.toList())
+        .forEach(found::addAll);
+    return found.stream().map(src -> (JavaSootClassSource) src).collect(Collectors.toList());
+  }
+
   @Override
   @Nonnull
   public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
-    for (AnalysisInputLocation inputLocation : cpEntries) {
+    for (AnalysisInputLocation inputLocation :
+        classLocationIndex.get().getCandidateLocations(type)) {
       final Optional<? extends SootClassSource> classSource =
           inputLocation.getClassSource(type, view);
       if (classSource.isPresent()) {
@@ -200,6 +223,24 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     return Optional.empty();
   }
 
+  /**
+   * Returns the names of the classes of all class path entries if every entry lists its classes,
+   * e.g. if the class path consists of archives only.
+   */
+  @Override
+  @Nonnull
+  public Optional<Set<String>> getIndexedClassNames() {
+    Set<String> names = new HashSet<>();
+    for (AnalysisInputLocation inputLocation : cpEntries) {
+      Optional<Set<String>> entryNames = inputLocation.getIndexedClassNames();
+      if (!entryNames.isPresent()) {
+        return Optional.empty();
+      }
+      names.addAll(entryNames.get());
+    }
+    return Optional.of(names);
+  }
+
   @Nonnull
   private Optional<AnalysisInputLocation> inputLocationForPath(@Nonnull Path path) {
     if (Files.exists(path) && (Files.isDirectory(path) || PathUtils.isArchive(path))) {
@@ -28,6 +28,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.commons.io.FilenameUtils;
 import sootup.core.IdentifierFactory;
 import sootup.core.frontend.ClassProvider;
@@ -40,6 +41,7 @@ import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.java.bytecode.frontend.AsmJavaClassProvider;
 import sootup.java.bytecode.frontend.AsmModuleSource;
+import sootup.java.bytecode.frontend.PersistentBodyCache;
 import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
 import sootup.java.core.*;
 import sootup.java.core.signatures.ModulePackageName;
@@ -62,6 +64,9 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
 
   @Nonnull private final List<BodyInterceptor> bodyInterceptors;
 
+  @Nullable private PersistentBodyCache persistentBodyCache;
+  private boolean lazyMethodParsing;
+
   public JrtFileSystemAnalysisInputLocation() {
     this(SourceType.Library);
   }
@@ -82,7 +87,8 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
       @Nonnull ClassType classType, @Nonnull View view) {
     JavaClassType klassType = (JavaClassType) classType;
 
-    ClassProvider classProvider = new AsmJavaClassProvider(view);
+    ClassProvider classProvider =
+        new AsmJavaClassProvider(view, persistentBodyCache, lazyMethodParsing);
     Path filepath =
         theFileSystem.getPath(
             klassType.getFullyQualifiedName().replace('.', '/')
@@ -142,8 +148,16 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
       @Nonnull IdentifierFactory identifierFactory,
       @Nonnull View view) {
 
-    ClassProvider classProvider = new AsmJavaClassProvider(view);
+    ClassProvider classProvider =
+        new AsmJavaClassProvider(view, persistentBodyCache, lazyMethodParsing);
+    return getClassFiles(moduleSignature, classProvider)
+        .flatMap(p -> createClassSource(p, classProvider, identifierFactory));
+  }
 
+  /** returns the paths of the class files contained in the given module */
+  @Nonnull
+  private Stream<Path> getClassFiles(
+      @Nonnull ModuleSignature moduleSignature, @Nonnull ClassProvider classProvider) {
     String moduleInfoFilename =
         JavaModuleIdentifierFactory.MODULE_INFO_FILE
             + classProvider.getHandledFileType().getExtensionWithDot();
@@ -158,17 +172,23 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
                       && filePath
                           .toString()
                           .endsWith(classProvider.getHandledFileType().getExtensionWithDot())
-                      && !filePath.toString().endsWith(moduleInfoFilename))
-          .flatMap(
-              p ->
-                  StreamUtils.optionalToStream(
-                      classProvider.createClassSource(this, p, fromPath(p, identifierFactory))))
-          .map(src -> (JavaSootClassSource) src);
+                      && !filePath.toString().endsWith(moduleInfoFilename));
     } catch (IOException e) {
       throw new ResolveException("Error loading module " + moduleSignature, archiveRoot, e);
     }
   }
 
+  @Nonnull
+  private Stream<JavaSootClassSource> createClassSource(
+      @Nonnull Path classFile,
+      @Nonnull ClassProvider classProvider,
+      @Nonnull IdentifierFactory identifierFactory) {
+    return StreamUtils.optionalToStream(
+            classProvider.createClassSource(
+                this, classFile, fromPath(classFile, identifierFactory)))
+        .map(src -> (JavaSootClassSource) src);
+  }
+
   @Override
   public @Nonnull Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
 
@@ -178,6 +198,19 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
         .collect(Collectors.toList());
   }
 
+  @Override
+  public @Nonnull Collection<JavaSootClassSource> getClassSourcesInParallel(@Nonnull View view) {
+    ClassProvider classProvider =
+        new AsmJavaClassProvider(view, persistentBodyCache, lazyMethodParsing);
+    List<Path> classFiles =
+        discoverModules().stream()
+            .flatMap(sig -> getClassFiles(sig, classProvider))
+            .collect(Collectors.toList());
+    return classFiles.parallelStream()
+        .flatMap(p -> createClassSource(p, classProvider, view.getIdentifierFactory()))
+        .collect(Collectors.toList());
+  }
+
   /**
    * Discover and return all modules contained in the jrt filesystem.
    *
@@ -265,6 +298,38 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
     return bodyInterceptors;
   }
 
+  @Nullable
+  public PersistentBodyCache getPersistentBodyCache() {
+    return persistentBodyCache;
+  }
+
+  /**
+   * Enables the persistent caching of the resolved bodies of the JDK classes. The cache has to be
+   * set before classes are resolved from this location.
+   *
+   * @param persistentBodyCache the cache or <code>null</code> to disable the caching
+   */
+  public void setPersistentBodyCache(@Nullable PersistentBodyCache persistentBodyCache) {
+    this.persistentBodyCache = persistentBodyCache;
+  }
+
+  public boolean isLazyMethodParsing() {
+    return lazyMethodParsing;
+  }
+
+  /**
+   * Enables the lazy parsing of the code of the methods of the JDK classes: only the method headers
+   * are parsed when a class is resolved and the class bytes are kept instead of the instructions of
+   * every method. The code of a method is read again from these bytes when its body is resolved,
+   * which saves memory for analyses that resolve many classes but only a few bodies. The mode has
+   * to be set before classes are resolved from this location.
+   *
+   * @param lazyMethodParsing whether to parse the code of the methods on demand
+   */
+  public void setLazyMethodParsing(boolean lazyMethodParsing) {
+    this.lazyMethodParsing = lazyMethodParsing;
+  }
+
   @Override
   public boolean equals(Object o) {
     return o instanceof JrtFileSystemAnalysisInputLocation;
@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -58,11 +59,15 @@ public class ModuleFinder {
 
   // associate a module name with the input location, that represents the module
   @Nonnull
-  private final Map<ModuleSignature, AnalysisInputLocation> moduleInputLocation = new HashMap<>();
+  private final Map<ModuleSignature, AnalysisInputLocation> moduleInputLocation =
+      new ConcurrentHashMap<>();
 
-  @Nonnull private final Map<ModuleSignature, JavaModuleInfo> moduleInfoMap = new HashMap<>();
+  @Nonnull
+  private final Map<ModuleSignature, JavaModuleInfo> moduleInfoMap = new ConcurrentHashMap<>();
 
-  private int next = 0;
+  // entries of the module path are discovered under the lock of the finder, lookups of already
+  // discovered modules do not take it
+  private volatile int next = 0;
 
   @Nonnull private final List<Path> modulePathEntries;
   @Nonnull private final SourceType sourceType;
@@ -147,14 +152,14 @@ public class ModuleFinder {
     }
 
     // search iterative on the remaining entries of the modulePath for the module
-    while (hasMoreToResolve()) {
-      discoverModulesIn(modulePathEntries.get(next++));
+    synchronized (this) {
       inputLocationForModule = moduleInputLocation.get(moduleName);
-      if (inputLocationForModule != null) {
-        return inputLocationForModule;
+      while (inputLocationForModule == null && hasMoreToResolve()) {
+        discoverNextModulePathEntry();
+        inputLocationForModule = moduleInputLocation.get(moduleName);
       }
+      return inputLocationForModule;
     }
-    return null;
   }
 
   /**
@@ -163,14 +168,24 @@ public class ModuleFinder {
    * @return the names of all modules found
    */
   @Nonnull
-  public Collection<ModuleSignature> getAllModules() {
+  public synchronized Collection<ModuleSignature> getAllModules() {
 
     while (hasMoreToResolve()) {
-      discoverModulesIn(modulePathEntries.get(next++));
+      discoverNextModulePathEntry();
     }
     return Collections.unmodifiableCollection(moduleInputLocation.keySet());
   }
 
+  /**
+   * Discovers the modules of the next entry of the module path. The entry only counts as resolved
+   * after its modules are registered, so that callers which see no more entries to resolve also
+   * see all modules.
+   */
+  private void discoverNextModulePathEntry() {
+    discoverModulesIn(modulePathEntries.get(next));
+    next++;
+  }
+
   // TODO: in general it makes sense to traverse the directories further and associate packages with
   // a module
   // this is, for instance, done in the JDK
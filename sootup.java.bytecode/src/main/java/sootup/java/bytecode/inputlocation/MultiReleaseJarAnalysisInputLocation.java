@@ -174,6 +174,13 @@ public class MultiReleaseJarAnalysisInputLocation extends ArchiveBasedAnalysisIn
     return Optional.empty();
   }
 
+  /** The classes of the versioned directories are not indexed, so the archive is not indexed. */
+  @Override
+  @Nonnull
+  public Optional<Set<String>> getIndexedClassNames() {
+    return Optional.empty();
+  }
+
   @Override
   @Nonnull
   public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
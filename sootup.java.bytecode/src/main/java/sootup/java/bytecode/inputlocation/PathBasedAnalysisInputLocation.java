@@ -8,6 +8,7 @@ import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -29,6 +30,7 @@ import sootup.core.util.PathUtils;
 import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.java.bytecode.frontend.AsmJavaClassProvider;
+import sootup.java.bytecode.frontend.PersistentBodyCache;
 import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
 import sootup.java.core.*;
 import sootup.java.core.types.JavaClassType;
@@ -67,6 +69,8 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
   @Nonnull protected Collection<Path> ignoredPaths;
   @Nonnull protected final SourceType sourceType;
   @Nonnull protected final List<BodyInterceptor> bodyInterceptors;
+  @Nullable protected PersistentBodyCache persistentBodyCache;
+  protected boolean lazyMethodParsing;
 
   protected PathBasedAnalysisInputLocation(@Nonnull Path path, @Nonnull SourceType srcType) {
     this(path, srcType, Collections.emptyList());
@@ -109,6 +113,43 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     return bodyInterceptors;
   }
 
+  @Nullable
+  public PersistentBodyCache getPersistentBodyCache() {
+    return persistentBodyCache;
+  }
+
+  /**
+   * Enables the persistent caching of the resolved bodies of this input location. The cache has to
+   * be set before classes are resolved from this location.
+   *
+   * @param persistentBodyCache the cache or <code>null</code> to disable the caching
+   */
+  public void setPersistentBodyCache(@Nullable PersistentBodyCache persistentBodyCache) {
+    this.persistentBodyCache = persistentBodyCache;
+  }
+
+  public boolean isLazyMethodParsing() {
+    return lazyMethodParsing;
+  }
+
+  /**
+   * Enables the lazy parsing of the code of the methods of this input location: only the method
+   * headers are parsed when a class is resolved and the class bytes are kept instead of the
+   * instructions of every method. The code of a method is read again from these bytes when its body
+   * is resolved, which saves memory for analyses that resolve many classes but only a few bodies.
+   * The mode has to be set before classes are resolved from this location.
+   *
+   * @param lazyMethodParsing whether to parse the code of the methods on demand
+   */
+  public void setLazyMethodParsing(boolean lazyMethodParsing) {
+    this.lazyMethodParsing = lazyMethodParsing;
+  }
+
+  @Nonnull
+  protected AsmJavaClassProvider createClassProvider(@Nonnull View view) {
+    return new AsmJavaClassProvider(view, persistentBodyCache, lazyMethodParsing);
+  }
+
   @Nonnull
   public static PathBasedAnalysisInputLocation create(
       @Nonnull Path path, @Nonnull SourceType sourceType) {
@@ -160,30 +201,48 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
       @Nonnull Path dirPath,
       @Nonnull IdentifierFactory factory,
       @Nonnull ClassProvider classProvider) {
+    return walkDirectory(dirPath, factory, classProvider, false);
+  }
+
+  /**
+   * Creates the ClassSources of all class files below <code>dirPath</code>. If <code>parallel
+   * </code> is set, the directory is walked first and the found files are parsed in a parallel
+   * stream.
+   */
+  @Nonnull
+  Collection<JavaSootClassSource> walkDirectory(
+      @Nonnull Path dirPath,
+      @Nonnull IdentifierFactory factory,
+      @Nonnull ClassProvider classProvider,
+      boolean parallel) {
 
     final FileType handledFileType = classProvider.getHandledFileType();
     final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
+    final List<Path> classFiles;
     try (final Stream<Path> walk = Files.walk(dirPath)) {
-      return walk.filter(
-              filePath ->
-                  PathUtils.hasExtension(filePath, handledFileType)
-                      && !filePath.toString().endsWith(moduleInfoFilename)
-                      && ignoredPaths.stream()
-                          .noneMatch(p -> filePath.toString().startsWith(p.toString())))
-          .flatMap(
-              p -> {
-                final String fullyQualifiedName = fromPath(dirPath, p);
-
-                return StreamUtils.optionalToStream(
-                    classProvider.createClassSource(
-                        this, p, factory.getClassType(fullyQualifiedName)));
-              })
-          .map(src -> (JavaSootClassSource) src)
-          .collect(Collectors.toList());
-
+      classFiles =
+          walk.filter(
+                  filePath ->
+                      PathUtils.hasExtension(filePath, handledFileType)
+                          && !filePath.toString().endsWith(moduleInfoFilename)
+                          && ignoredPaths.stream()
+                              .noneMatch(p -> filePath.toString().startsWith(p.toString())))
+              .collect(Collectors.toList());
     } catch (IOException e) {
       throw new IllegalArgumentException(e);
     }
+
+    return (parallel ? classFiles.parallelStream() : classFiles.stream())
+        .flatMap(
+            p -> {
+              final String fullyQualifiedName = fromPath(dirPath, p);
+
+              return StreamUtils.optionalToStream(
+                  classProvider.createClassSource(
+                      this, p, factory.getClassType(fullyQualifiedName)));
+            })
+        .map(src -> (JavaSootClassSource) src)
+        .collect(Collectors.toList());
   }
 
   @Nonnull
@@ -256,13 +315,13 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     @Nonnull
     public Optional<JavaSootClassSource> getClassSource(
         @Nonnull ClassType type, @Nonnull View view) {
-      return getSingleClass((JavaClassType) type, path, new AsmJavaClassProvider(view));
+      return getSingleClass((JavaClassType) type, path, createClassProvider(view));
     }
 
     @Nonnull
     @Override
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
-      AsmJavaClassProvider classProvider = new AsmJavaClassProvider(view);
+      AsmJavaClassProvider classProvider = createClassProvider(view);
       IdentifierFactory factory = view.getIdentifierFactory();
       Path dirPath = this.path.getParent();
 
@@ -310,14 +369,21 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
       // FIXME: 1) store the classprovider reference as a field; 2) and above too; and 3) move view
       // which is only used in SootNode to be just there?
-      return walkDirectory(path, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
+      return walkDirectory(path, view.getIdentifierFactory(), createClassProvider(view));
+    }
+
+    @Override
+    @Nonnull
+    public Collection<JavaSootClassSource> getClassSourcesInParallel(@Nonnull View view) {
+      return walkDirectory(
+          path, view.getIdentifierFactory(), createClassProvider(view), true);
     }
 
     @Override
     @Nonnull
     public Optional<JavaSootClassSource> getClassSource(
         @Nonnull ClassType type, @Nonnull View view) {
-      return getClassSourceInternal((JavaClassType) type, path, new AsmJavaClassProvider(view));
+      return getClassSourceInternal((JavaClassType) type, path, createClassProvider(view));
     }
   }
 
@@ -393,6 +459,20 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
           .collect(Collectors.toList());
     }
 
+    @Override
+    @Nonnull
+    public Collection<JavaSootClassSource> getClassSourcesInParallel(@Nonnull View view) {
+      Set<SootClassSource> foundClasses = new HashSet<>();
+
+      containedInputLocations.parallelStream()
+          .map(inputLoc -> inputLoc.getClassSourcesInParallel(view))
+          .collect(Collectors.toList())
+          .forEach(foundClasses::addAll);
+      return foundClasses.stream()
+          .map(src -> (JavaSootClassSource) src)
+          .collect(Collectors.toList());
+    }
+
     @Override
     @Nonnull
     public Optional<JavaSootClassSource> getClassSource(
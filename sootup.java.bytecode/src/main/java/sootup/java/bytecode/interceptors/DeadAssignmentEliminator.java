@@ -193,45 +193,34 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
       }
     }
 
-    // Remove the dead statements from the stmtGraph
+    // Remove the dead statements from the stmtGraph. Their Locals can still be defined or used by
+    // other statements, so they are only collected here and removed at the end
+    Set<Local> defLocalsOfRemovedStmts = new HashSet<>();
     for (Stmt stmt : stmts) {
       if (!essentialStmts.contains(stmt)) {
         if (stmtGraph.containsNode(stmt)) {
           stmtGraph.removeNode(stmt);
-          builder.removeDefLocalsOf(stmt);
+          addDefLocal(defLocalsOfRemovedStmts, stmt);
         }
       }
     }
 
     if (!containsInvoke) {
+      removeUnusedLocals(builder, defLocalsOfRemovedStmts);
       return;
     }
 
-    Map<Value, Collection<Stmt>> essentialUses = Body.collectUses(essentialStmts);
     // Eliminate dead assignments from invokes such as x = f(), where x is no longer used
+    LocalLivenessAnalyser liveness = new LocalLivenessAnalyser(stmtGraph);
     List<JAssignStmt> postProcess = new ArrayList<>();
     for (Stmt stmt : stmts) {
       if (stmt instanceof JAssignStmt) {
         JAssignStmt assignStmt = (JAssignStmt) stmt;
-        if (assignStmt.containsInvokeExpr()) {
-          // find at least one use of Value which is in an essential stmt
-          boolean deadAssignment = true;
-
-          for (Iterator<Value> iterator = assignStmt.getUsesAndDefs().iterator();
-              iterator.hasNext(); ) {
-            Value value = iterator.next();
-            if (!(value instanceof LValue)) {
-              continue;
-            }
-            final Collection<Stmt> stmtsWithValuesUse = essentialUses.get(value);
-            if (stmtsWithValuesUse != null) {
-              deadAssignment = false;
-              break;
-            }
-          }
-          if (deadAssignment) {
-            postProcess.add(assignStmt);
-          }
+        if (assignStmt.containsInvokeExpr()
+            && assignStmt.getLeftOp() instanceof Local
+            && stmtGraph.containsNode(assignStmt)
+            && !liveness.isLiveAfterStmt(assignStmt, (Local) assignStmt.getLeftOp())) {
+          postProcess.add(assignStmt);
         }
       }
     }
@@ -242,7 +231,31 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
       Stmt newInvoke =
           Jimple.newInvokeStmt(assignStmt.getInvokeExpr(), assignStmt.getPositionInfo());
       stmtGraph.replaceNode(assignStmt, newInvoke);
-      builder.removeDefLocalsOf(assignStmt);
+      addDefLocal(defLocalsOfRemovedStmts, assignStmt);
+    }
+
+    removeUnusedLocals(builder, defLocalsOfRemovedStmts);
+  }
+
+  private static void addDefLocal(@Nonnull Set<Local> locals, @Nonnull Stmt stmt) {
+    stmt.getDef()
+        .ifPresent(
+            def -> {
+              if (def instanceof Local) {
+                locals.add((Local) def);
+              }
+            });
+  }
+
+  /** Removes the given Locals from the body unless a remaining Stmt still defines or uses them. */
+  private static void removeUnusedLocals(
+      @Nonnull Body.BodyBuilder builder, @Nonnull Set<Local> locals) {
+    if (locals.isEmpty()) {
+      return;
+    }
+    for (Stmt stmt : builder.getStmtGraph().getNodes()) {
+      stmt.getUsesAndDefs().forEach(locals::remove);
     }
+    builder.getLocals().removeAll(locals);
   }
 }
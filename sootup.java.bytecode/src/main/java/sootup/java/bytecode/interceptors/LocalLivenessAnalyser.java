@@ -24,135 +24,98 @@ package sootup.java.bytecode.interceptors;
 
 import java.util.*;
 import javax.annotation.Nonnull;
+import sootup.core.graph.BitVectorFlowAnalysis;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.stmt.Stmt;
 
-/** @author Zun Wang */
-public class LocalLivenessAnalyser {
+/**
+ * Computes the live locals before and after each Stmt. A local is live-in at a Stmt if it is used
+ * by the Stmt or live-out and not defined by it. A local is live-out at a Stmt if it is live-in at
+ * any of its (exceptional) successors. e.g: a = b + c; live-in={b,c} live-out={a,b,c}
+ *
+ * @author Zun Wang
+ */
+public class LocalLivenessAnalyser extends BitVectorFlowAnalysis {
 
-  // Each stmt(node) has out-edges and in-edges
-  // A local is live-in at a node if it is live on any its in-edges
-  private final Map<Stmt, Set<Local>> liveIn = new HashMap<>();
-  // A local is live-out at a node if it is live on any of its out-edges.
-  // e.g: a = b + c; live-in={b,c}  live-out={a,b,c}
-  private final Map<Stmt, Set<Local>> liveOut = new HashMap<>();
+  @Nonnull private final Map<Local, Integer> localToIndex = new HashMap<>();
+  @Nonnull private final List<Local> locals = new ArrayList<>();
 
   public LocalLivenessAnalyser(@Nonnull StmtGraph<?> graph) {
-    // initial liveIn and liveOut
-    List<Stmt> startingStmts = new ArrayList<>();
-    for (Stmt stmt : graph.getNodes()) {
-      liveIn.put(stmt, Collections.emptySet());
-      liveOut.put(stmt, Collections.emptySet());
-      if (graph.successors(stmt).isEmpty() && graph.exceptionalSuccessors(stmt).isEmpty()) {
-        startingStmts.add(stmt);
+    super(graph, AnalysisDirection.BACKWARD);
+    for (int i = 0; i < getStmtCount(); i++) {
+      Stmt stmt = getStmt(i);
+      for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
+        Value use = iterator.next();
+        if (use instanceof Local) {
+          indexOf((Local) use);
+        }
+      }
+      final Optional<LValue> def = stmt.getDef();
+      if (def.isPresent() && def.get() instanceof Local) {
+        indexOf((Local) def.get());
       }
     }
+    doAnalysis(locals.size());
+  }
 
-    boolean fixed = false;
-    while (!fixed) {
-      fixed = true;
-      Deque<Stmt> queue = new ArrayDeque<>(startingStmts);
-      HashSet<Stmt> visitedStmts = new HashSet<>();
-      while (!queue.isEmpty()) {
-        Stmt stmt = queue.removeFirst();
-        visitedStmts.add(stmt);
-
-        Set<Local> out = new HashSet<>(liveOut.get(stmt));
-        for (Stmt succ : graph.successors(stmt)) {
-          out = merge(out, liveIn.get(succ));
-        }
-        for (Stmt esucc : graph.exceptionalSuccessors(stmt).values()) {
-          out = merge(out, liveIn.get(esucc));
-        }
-        if (isNotEqual(out, liveOut.get(stmt))) {
-          fixed = false;
-          liveOut.put(stmt, new HashSet<>(out));
-        }
+  private int indexOf(@Nonnull Local local) {
+    Integer idx = localToIndex.get(local);
+    if (idx == null) {
+      idx = locals.size();
+      localToIndex.put(local, idx);
+      locals.add(local);
+    }
+    return idx;
+  }
 
-        Set<Local> in = new HashSet<>();
-        for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
-          Value use = iterator.next();
-          if (use instanceof Local) {
-            in.add((Local) use);
-          }
-        }
-        final Optional<LValue> def = stmt.getDef();
-        if (def.isPresent()) {
-          final Value value = def.get();
-          if (value instanceof Local) {
-            out.remove(value);
-          }
-        }
-        in = merge(in, out);
-        if (isNotEqual(in, liveIn.get(stmt))) {
-          fixed = false;
-          liveIn.put(stmt, in);
-        }
-        for (Stmt pred : graph.predecessors(stmt)) {
-          if (!visitedStmts.contains(pred)) {
-            queue.addLast(pred);
-          }
-        }
-        for (Stmt epred : graph.exceptionalPredecessors(stmt)) {
-          if (!visitedStmts.contains(epred)) {
-            queue.addLast(epred);
-          }
-        }
+  @Override
+  protected void flowThrough(@Nonnull Stmt stmt, @Nonnull GenKill genKill) {
+    final Optional<LValue> def = stmt.getDef();
+    if (def.isPresent() && def.get() instanceof Local) {
+      genKill.kill(localToIndex.get(def.get()));
+    }
+    for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
+      Value use = iterator.next();
+      if (use instanceof Local) {
+        genKill.gen(localToIndex.get(use));
       }
     }
   }
 
+  /** Checks whether the given local is live after the given stmt. */
+  public boolean isLiveAfterStmt(@Nonnull Stmt stmt, @Nonnull Local local) {
+    int stmtIdx = getStmtIndex(stmt);
+    if (stmtIdx < 0) {
+      throw new RuntimeException("Stmt: " + stmt + " is not in StmtGraph!");
+    }
+    Integer localIdx = localToIndex.get(local);
+    return localIdx != null && isSetAfter(stmtIdx, localIdx);
+  }
+
   /** Get all live locals before the given stmt. */
   @Nonnull
   public Set<Local> getLiveLocalsBeforeStmt(@Nonnull Stmt stmt) {
-    if (!liveIn.containsKey(stmt)) {
-      throw new RuntimeException("Stmt: " + stmt + " is not in StmtGraph!");
-    }
-    return liveIn.get(stmt);
+    return toLocals(getFlowBefore(stmt));
   }
 
   /** Get all live locals after the given stmt. */
   @Nonnull
   public Set<Local> getLiveLocalsAfterStmt(@Nonnull Stmt stmt) {
-    if (!liveOut.containsKey(stmt)) {
-      throw new RuntimeException("Stmt: " + stmt + " is not in StmtGraph!");
-    }
-    return liveOut.get(stmt);
+    return toLocals(getFlowAfter(stmt));
   }
 
-  /**
-   * Merge two local sets into one set.
-   *
-   * @return a merged local set
-   */
   @Nonnull
-  private Set<Local> merge(@Nonnull Set<Local> set1, @Nonnull Set<Local> set2) {
-    if (set1.isEmpty()) {
-      return set2;
-    } else {
-      set1.addAll(set2);
-      return set1;
+  private Set<Local> toLocals(@Nonnull BitSet liveLocals) {
+    if (liveLocals.isEmpty()) {
+      return Collections.emptySet();
     }
-  }
-
-  /**
-   * Check whether two sets contains same locals.
-   *
-   * @return if same return true, else return false;
-   */
-  private boolean isNotEqual(@Nonnull Set<Local> set1, @Nonnull Set<Local> set2) {
-    if (set1.size() != set2.size()) {
-      return true;
-    } else {
-      for (Local local : set1) {
-        if (!set2.contains(local)) {
-          return true;
-        }
-      }
+    Set<Local> set = new HashSet<>();
+    for (int i = liveLocals.nextSetBit(0); i >= 0; i = liveLocals.nextSetBit(i + 1)) {
+      set.add(locals.get(i));
     }
-    return false;
+    return set;
   }
 }
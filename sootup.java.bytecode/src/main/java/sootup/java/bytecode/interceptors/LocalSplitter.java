@@ -23,12 +23,13 @@ package sootup.java.bytecode.interceptors;
  */
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import sootup.core.graph.BitVectorFlowAnalysis;
 import sootup.core.graph.MutableStmtGraph;
+import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.stmt.AbstractDefinitionStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
@@ -62,59 +63,51 @@ import sootup.core.views.View;
  *    l2#1 = l2#0 + 1
  *    return
  * </pre>
+ *
+ * <p>The Stmts are numbered densely and a single reaching definitions analysis over the definitions
+ * of all locals that are assigned more than once determines which definitions reach each use. A
+ * use and all definitions reaching it have to be the same local, so they are merged in a
+ * union-find over ints. Every resulting set of definitions and uses is a local on its own.
  */
 public class LocalSplitter implements BodyInterceptor {
 
   /**
-   * Contains disjoint sets of nodes which are implemented as trees. Every set is represented by a
-   * tree in the forest. Each set is identified by the root node of its tree, also known as its
-   * representative.
+   * Contains disjoint sets of the ints [0, size) which are implemented as trees. Every set is
+   * represented by a tree in the forest. Each set is identified by the root node of its tree, also
+   * known as its representative.
    *
    * <p><a href="https://en.wikipedia.org/wiki/Disjoint-set_data_structure">Disjoint-set data
    * structure</a>
    */
-  static class DisjointSetForest<T> {
+  static class DisjointSetForest {
     /** Every node points to its parent in its tree. Roots of trees point to themselves. */
-    @Nonnull private final Map<T, T> parent = new HashMap<>();
+    @Nonnull private final int[] parent;
 
-    /** Stores the size of a tree under the key. Only updated for roots of trees. */
-    @Nonnull private final Map<T, Integer> sizes = new HashMap<>();
+    /** Stores the size of a tree. Only valid for roots of trees. */
+    @Nonnull private final int[] sizes;
 
-    /**
-     * Creates a new set that only contains the {@code node}. Does nothing when the forest already
-     * contains the {@code node}.
-     */
-    void add(@Nonnull T node) {
-      if (parent.containsKey(node)) {
-        return;
+    DisjointSetForest(int size) {
+      parent = new int[size];
+      sizes = new int[size];
+      for (int i = 0; i < size; i++) {
+        parent[i] = i;
+        sizes[i] = 1;
       }
-
-      parent.put(node, node);
-      sizes.put(node, 1);
     }
 
     /** Finds the representative of the set that contains the {@code node}. */
-    @Nonnull
-    T find(T node) {
-      if (!parent.containsKey(node)) {
-        throw new IllegalArgumentException("The DisjointSetForest does not contain the node.");
-      }
-
-      while (parent.get(node) != node) {
+    int find(int node) {
+      while (parent[node] != node) {
         // Path Halving to get amortized constant operations
-        T grandparent = parent.get(parent.get(node));
-        parent.put(node, grandparent);
-
+        int grandparent = parent[parent[node]];
+        parent[node] = grandparent;
         node = grandparent;
       }
       return node;
     }
 
-    /**
-     * Combines the sets of {@code first} and {@code second}. Returns the representative of the
-     * combined set.
-     */
-    void union(@Nonnull T first, @Nonnull T second) {
+    /** Combines the sets of {@code first} and {@code second}. */
+    void union(int first, int second) {
       first = find(first);
       second = find(second);
 
@@ -122,215 +115,286 @@ public class LocalSplitter implements BodyInterceptor {
         return;
       }
 
-      final Integer firstSize = sizes.get(first);
-      final Integer secondSize = sizes.get(second);
-
-      T smaller, larger;
-      if (firstSize > secondSize) {
-        larger = first;
-        smaller = second;
+      // adding the smaller subtree to the larger tree keeps the tree flatter
+      if (sizes[first] > sizes[second]) {
+        parent[second] = first;
+        sizes[first] += sizes[second];
       } else {
-        larger = second;
-        smaller = first;
+        parent[first] = second;
+        sizes[second] += sizes[first];
       }
-
-      // adding the smaller subtree to the larger tree keeps the tree flatter
-      parent.put(smaller, larger);
-      sizes.put(larger, firstSize + secondSize);
-      sizes.remove(smaller);
-    }
-
-    int getSetCount() {
-      // `sizes` only contains values for the root of the trees,
-      // so its size matches the total number of sets
-      return sizes.size();
     }
   }
 
-  static class PartialStmt {
-    @Nonnull final Stmt backingStmt;
-
-    /**
-     * Whether the partial statement refers to only the definitions of the inner statement or only
-     * to the uses.
-     */
-    final boolean isDef;
-
-    PartialStmt(@Nonnull Stmt backingStmt, boolean isDef) {
-      this.backingStmt = backingStmt;
-      this.isDef = isDef;
+  /**
+   * Computes which definitions reach each Stmt. The definitions of a local are numbered
+   * consecutively, so an assignment kills all other definitions of its local at once.
+   */
+  private static class ReachingDefinitions extends BitVectorFlowAnalysis {
+    @Nonnull private final Map<Stmt, Integer> defToElement;
+    @Nonnull private final int[] elementToLocal;
+    @Nonnull private final boolean[] isKillingDef;
+    @Nonnull private final int[] defRangeStart;
+    @Nonnull private final int[] defRangeEnd;
+
+    ReachingDefinitions(
+        @Nonnull StmtGraph<?> graph,
+        @Nonnull Map<Stmt, Integer> defToElement,
+        @Nonnull int[] elementToLocal,
+        @Nonnull boolean[] isKillingDef,
+        @Nonnull int[] defRangeStart,
+        @Nonnull int[] defRangeEnd) {
+      super(graph, AnalysisDirection.FORWARD);
+      this.defToElement = defToElement;
+      this.elementToLocal = elementToLocal;
+      this.isKillingDef = isKillingDef;
+      this.defRangeStart = defRangeStart;
+      this.defRangeEnd = defRangeEnd;
+      doAnalysis(elementToLocal.length);
     }
 
     @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || getClass() != o.getClass()) {
-        return false;
-      }
-
-      PartialStmt that = (PartialStmt) o;
-
-      if (isDef != that.isDef) {
-        return false;
+    protected void flowThrough(@Nonnull Stmt stmt, @Nonnull GenKill genKill) {
+      Integer element = defToElement.get(stmt);
+      if (element != null) {
+        if (isKillingDef[element]) {
+          int local = elementToLocal[element];
+          genKill.kill(defRangeStart[local], defRangeEnd[local]);
+        }
+        genKill.gen(element);
       }
-      return backingStmt.equals(that.backingStmt);
-    }
-
-    @Override
-    public int hashCode() {
-      int result = backingStmt.hashCode();
-      result = 31 * result + (isDef ? 1 : 0);
-      return result;
     }
   }
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
     MutableStmtGraph graph = builder.getStmtGraph();
-
-    // Cache the stmts to not have to retrieve them for every local
-    List<Stmt> stmts = graph.getStmts();
-    // Maps every local to its assignment stmts.
-    // Contains indices to the above list to reduce bookkeeping when modifying stmts.
-    Map<Local, List<Integer>> assignmentsByLocal = groupAssignmentsByLocal(stmts);
-
-    Set<Local> newLocals = new HashSet<>();
-
     final Set<Local> locals = builder.getLocals();
-    for (Local local : locals) {
-      // Use a disjoint set while walking the statement graph to union all uses of the local that
-      // can be reached from each definition. This will automatically union definitions that have
-      // overlapping uses and therefore can't be split.
-      // It uses a `PartialStmt` instead of `Stmt` because a statement might contain both a
-      // definition and use of a local, and they need to be processed separately.
-      DisjointSetForest<PartialStmt> disjointSet = new DisjointSetForest<>();
 
-      List<AbstractDefinitionStmt> assignments =
-          assignmentsByLocal.getOrDefault(local, Collections.emptyList()).stream()
-              .map(i -> (AbstractDefinitionStmt) stmts.get(i))
-              .collect(Collectors.toList());
+    // number the locals. Assignments are grouped by equal locals, but only the Local objects of
+    // the body are split, i.e. an assignment to an equal Local object is a definition which
+    // does not end the lifetime of the local.
+    Map<Local, Integer> localToIdx = new HashMap<>(locals.size());
+    Local[] idxToLocal = new Local[locals.size()];
+    for (Local local : locals) {
+      idxToLocal[localToIdx.size()] = local;
+      localToIdx.put(local, localToIdx.size());
+    }
+    int localCount = localToIdx.size();
 
-      if (assignments.size() <= 1) {
-        // There is only a single assignment to the local, so no splitting is necessary
-        newLocals.add(local);
-        continue;
+    // Cache the stmts and the local each of them defines
+    List<Stmt> stmts = graph.getStmts();
+    int stmtCount = stmts.size();
+    int[] defLocal = new int[stmtCount];
+    int[] assignmentCount = new int[localCount];
+    for (int i = 0; i < stmtCount; i++) {
+      defLocal[i] = getDefinedLocal(stmts.get(i), localToIdx);
+      if (defLocal[i] >= 0) {
+        assignmentCount[defLocal[i]]++;
       }
+    }
 
-      // Walk the statement graph starting from every definition and union all uses until a
-      // different definition is encountered.
-      for (AbstractDefinitionStmt assignment : assignments) {
-        PartialStmt defStmt = new PartialStmt(assignment, true);
-        disjointSet.add(defStmt);
-
-        Deque<Stmt> stack = new ArrayDeque<>(graph.successors(assignment));
-        stack.addAll(graph.exceptionalSuccessors(assignment).values());
-        Set<Stmt> visited = new HashSet<>();
-
-        while (!stack.isEmpty()) {
-          Stmt stmt = stack.pop();
-          if (!visited.add(stmt)) {
-            continue;
-          }
-
-          if (stmt.getUses().anyMatch(l -> l == local)) {
-            PartialStmt useStmt = new PartialStmt(stmt, false);
-            disjointSet.add(useStmt);
-            disjointSet.union(defStmt, useStmt);
-          }
+    // only locals with more than one assignment can be split: number their definitions so that
+    // the definitions of a local are consecutive
+    int[] defRangeStart = new int[localCount];
+    int[] defRangeEnd = new int[localCount];
+    int defCount = 0;
+    for (int local = 0; local < localCount; local++) {
+      defRangeStart[local] = defCount;
+      if (assignmentCount[local] > 1) {
+        defCount += assignmentCount[local];
+      }
+      defRangeEnd[local] = defCount;
+    }
+    if (defCount == 0) {
+      return;
+    }
+    int[] elementToLocal = new int[defCount];
+    boolean[] isKillingDef = new boolean[defCount];
+    int[] stmtToDefElement = new int[stmtCount];
+    Map<Stmt, Integer> defToElement = new IdentityHashMap<>(defCount);
+    int[] nextDefElement = Arrays.copyOf(defRangeStart, localCount);
+    for (int i = 0; i < stmtCount; i++) {
+      int local = defLocal[i];
+      if (local >= 0 && assignmentCount[local] > 1) {
+        int element = nextDefElement[local]++;
+        elementToLocal[element] = local;
+        isKillingDef[element] =
+            ((AbstractDefinitionStmt) stmts.get(i)).getLeftOp() == idxToLocal[local];
+        stmtToDefElement[i] = element;
+        defToElement.put(stmts.get(i), element);
+      } else {
+        stmtToDefElement[i] = -1;
+      }
+    }
 
-          // a new assignment to the local -> end walk here
-          // otherwise continue by adding all successors to the stack
-          Optional<LValue> defOpt = stmt.getDef();
-          if (!defOpt.isPresent() || defOpt.get() != local) {
-            stack.addAll(graph.getAllSuccessors(stmt));
+    // the uses of locals which can be split: the nodes [useOffsets[i], useOffsets[i+1]) of the
+    // disjoint set forest are the uses of the locals useLocals[..] in the i-th stmt
+    int[] useOffsets = new int[stmtCount + 1];
+    int[] useLocals = new int[Math.max(16, stmtCount)];
+    int useCount = 0;
+    for (int i = 0; i < stmtCount; i++) {
+      useOffsets[i] = useCount;
+      for (Iterator<Value> iterator = stmts.get(i).getUses().iterator(); iterator.hasNext(); ) {
+        Value use = iterator.next();
+        Integer local = use instanceof Local ? localToIdx.get(use) : null;
+        if (local == null || assignmentCount[local] <= 1 || use != idxToLocal[local]) {
+          continue;
+        }
+        boolean known = false;
+        for (int u = useOffsets[i]; u < useCount; u++) {
+          known |= useLocals[u] == local;
+        }
+        if (!known) {
+          if (useCount == useLocals.length) {
+            useLocals = Arrays.copyOf(useLocals, useCount * 2);
           }
+          useLocals[useCount++] = local;
         }
       }
-
-      if (disjointSet.getSetCount() <= 1) {
-        // There is only a single that local that can't be split
-        newLocals.add(local);
+    }
+    useOffsets[stmtCount] = useCount;
+
+    // union every use with all definitions reaching it. This will automatically union
+    // definitions that have overlapping uses and therefore can't be split.
+    ReachingDefinitions reachingDefinitions =
+        new ReachingDefinitions(
+            graph, defToElement, elementToLocal, isKillingDef, defRangeStart, defRangeEnd);
+    DisjointSetForest disjointSet = new DisjointSetForest(defCount + useCount);
+    for (int i = 0; i < stmtCount; i++) {
+      if (useOffsets[i] == useOffsets[i + 1]) {
         continue;
       }
-
-      // Split locals, according to the disjoint sets found above.
-      Map<PartialStmt, Local> representativeToNewLocal = new HashMap<>();
-      final int[] nextId = {0}; // Java quirk; just an `int` doesn't work
-
-      for (int i = 0; i < stmts.size(); i++) {
-        Stmt stmt = stmts.get(i);
-
-        Optional<LValue> stmtDef = stmt.getDef();
-        boolean localIsDef = stmtDef.isPresent() && stmtDef.get() == local;
-        boolean localIsUse = stmt.getUses().anyMatch(l -> l == local);
-
-        if (!localIsDef && !localIsUse) {
-          continue;
+      int stmtIdx = reachingDefinitions.getStmtIndex(stmts.get(i));
+      for (int u = useOffsets[i]; u < useOffsets[i + 1]; u++) {
+        int local = useLocals[u];
+        for (int def = reachingDefinitions.nextSetBefore(stmtIdx, defRangeStart[local]);
+            def >= 0 && def < defRangeEnd[local];
+            def = reachingDefinitions.nextSetBefore(stmtIdx, def + 1)) {
+          disjointSet.union(def, defCount + u);
         }
+      }
+    }
 
-        Stmt oldStmt = stmt;
-
-        Function<Boolean, Local> getNewLocal =
-            isDef ->
-                representativeToNewLocal.computeIfAbsent(
-                    disjointSet.find(new PartialStmt(oldStmt, isDef)),
-                    s -> {
-                      Local newLocal;
-                      do {
-                        newLocal = local.withName(local.getName() + "#" + (nextId[0]++));
-                      } while (locals.contains(newLocal));
-                      return newLocal;
-                    });
+    // Split locals, according to the disjoint sets found above. The new locals are named in
+    // the order in which their definitions and uses occur in the stmts.
+    Map<Integer, Local> representativeToNewLocal = new HashMap<>();
+    int[] nextId = new int[localCount];
+    boolean[] isSplit = findSplitLocals(disjointSet, defCount, useLocals, useCount, defRangeStart);
 
-        if (localIsDef) {
-          Local newDefLocal = getNewLocal.apply(true);
-          if (local != newDefLocal) {
-            newLocals.add(newDefLocal);
-            stmt = ((AbstractDefinitionStmt) stmt).withNewDef(newDefLocal);
-          }
-        }
+    Set<Local> newLocals = new HashSet<>();
+    for (int local = 0; local < localCount; local++) {
+      if (!isSplit[local]) {
+        newLocals.add(idxToLocal[local]);
+      }
+    }
 
-        if (localIsUse) {
-          Local newUseLocal = getNewLocal.apply(false);
-          if (local != newUseLocal) {
-            newLocals.add(newUseLocal);
-            stmt = stmt.withNewUse(local, newUseLocal);
-          }
-        }
+    for (int i = 0; i < stmtCount; i++) {
+      Stmt oldStmt = stmts.get(i);
+      Stmt stmt = oldStmt;
+
+      int defElement = stmtToDefElement[i];
+      if (defElement >= 0 && isKillingDef[defElement] && isSplit[elementToLocal[defElement]]) {
+        int local = elementToLocal[defElement];
+        Local newDefLocal =
+            getNewLocal(
+                disjointSet.find(defElement),
+                idxToLocal[local],
+                local,
+                representativeToNewLocal,
+                nextId,
+                locals);
+        newLocals.add(newDefLocal);
+        stmt = ((AbstractDefinitionStmt) stmt).withNewDef(newDefLocal);
+      }
 
-        if (oldStmt == stmt) {
+      for (int u = useOffsets[i]; u < useOffsets[i + 1]; u++) {
+        int local = useLocals[u];
+        if (!isSplit[local]) {
           continue;
         }
+        Local newUseLocal =
+            getNewLocal(
+                disjointSet.find(defCount + u),
+                idxToLocal[local],
+                local,
+                representativeToNewLocal,
+                nextId,
+                locals);
+        newLocals.add(newUseLocal);
+        stmt = stmt.withNewUse(idxToLocal[local], newUseLocal);
+      }
 
+      if (oldStmt != stmt) {
         graph.replaceNode(oldStmt, stmt);
-        stmts.set(i, stmt);
       }
     }
 
     builder.setLocals(newLocals);
   }
 
-  @Nonnull
-  Map<Local, List<Integer>> groupAssignmentsByLocal(List<Stmt> statements) {
-    Map<Local, List<Integer>> groupings = new HashMap<>();
+  /** Returns the index of the local that is assigned by the stmt or -1 if there is none. */
+  private static int getDefinedLocal(@Nonnull Stmt stmt, @Nonnull Map<Local, Integer> localToIdx) {
+    if (!(stmt instanceof AbstractDefinitionStmt)) {
+      return -1;
+    }
+    LValue leftOp = ((AbstractDefinitionStmt) stmt).getLeftOp();
+    if (!(leftOp instanceof Local)) {
+      return -1;
+    }
+    Integer local = localToIdx.get(leftOp);
+    return local == null ? -1 : local;
+  }
 
-    for (int i = 0; i < statements.size(); i++) {
-      Stmt stmt = statements.get(i);
-      if (!(stmt instanceof AbstractDefinitionStmt)) {
-        continue;
+  /** A local is split if its definitions and uses form more than one disjoint set. */
+  @Nonnull
+  private static boolean[] findSplitLocals(
+      @Nonnull DisjointSetForest disjointSet,
+      int defCount,
+      @Nonnull int[] useLocals,
+      int useCount,
+      @Nonnull int[] defRangeStart) {
+    int localCount = defRangeStart.length;
+    // the representative of the first definition of each local
+    int[] firstRepresentative = new int[localCount];
+    Arrays.fill(firstRepresentative, -1);
+    boolean[] isSplit = new boolean[localCount];
+    int local = 0;
+    for (int def = 0; def < defCount; def++) {
+      while (local + 1 < localCount && defRangeStart[local + 1] <= def) {
+        local++;
       }
-
-      AbstractDefinitionStmt defStmt = (AbstractDefinitionStmt) stmt;
-      LValue leftOp = defStmt.getLeftOp();
-      if (!(leftOp instanceof Local)) {
-        continue;
+      int representative = disjointSet.find(def);
+      if (firstRepresentative[local] < 0) {
+        firstRepresentative[local] = representative;
+      } else if (firstRepresentative[local] != representative) {
+        isSplit[local] = true;
       }
-
-      groupings.computeIfAbsent((Local) leftOp, x -> new ArrayList<>()).add(i);
     }
+    for (int u = 0; u < useCount; u++) {
+      // uses which are not reached by any definition form a set on their own
+      if (disjointSet.find(defCount + u) != firstRepresentative[useLocals[u]]) {
+        isSplit[useLocals[u]] = true;
+      }
+    }
+    return isSplit;
+  }
 
-    return groupings;
+  @Nonnull
+  private static Local getNewLocal(
+      int representative,
+      @Nonnull Local local,
+      int localIdx,
+      @Nonnull Map<Integer, Local> representativeToNewLocal,
+      @Nonnull int[] nextId,
+      @Nonnull Set<Local> locals) {
+    Local newLocal = representativeToNewLocal.get(representative);
+    if (newLocal == null) {
+      do {
+        newLocal = local.withName(local.getName() + "#" + (nextId[localIdx]++));
+      } while (locals.contains(newLocal));
+      representativeToNewLocal.put(representative, newLocal);
+    }
+    return newLocal;
   }
 }
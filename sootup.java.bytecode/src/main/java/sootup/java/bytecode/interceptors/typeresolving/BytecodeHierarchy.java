@@ -21,35 +21,94 @@ package sootup.java.bytecode.interceptors.typeresolving;
  * #L%
  */
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
+import sootup.core.model.SootClass;
 import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.*;
 import sootup.core.views.View;
 import sootup.java.bytecode.interceptors.typeresolving.types.BottomType;
 import sootup.java.bytecode.interceptors.typeresolving.types.TopType;
 
-/** @author Zun Wang */
+/**
+ * Answers the subtype and least common ancestor queries of the {@link TypeResolver}. The direct
+ * supertypes of all classes are copied from the view once; the ancestors of a type and the least
+ * common ancestors of a pair of types are cached, so an instance can be shared by all bodies of a
+ * view, see {@link #of(View)}. Instances are thread-safe.
+ *
+ * <p>The caches are never invalidated, i.e. the classes of the view must not change anymore.
+ *
+ * @author Zun Wang
+ */
 public class BytecodeHierarchy {
-  private final TypeHierarchy typeHierarchy;
+
+  public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+  // keyed by the identity of the type hierarchy, so replacing the hierarchy of a view also
+  // replaces its BytecodeHierarchy
+  private static final Cache<TypeHierarchy, BytecodeHierarchy> hierarchies =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   public final ClassType objectClassType;
   public final ClassType throwableClassType;
   private final ClassType serializableClassType;
   private final ClassType cloneableClassType;
 
+  /** the direct superclass and interfaces of the types of the view */
+  private final Map<ClassType, ClassType[]> directSupertypes = new HashMap<>();
+
+  /** all supertypes of a type including the type itself */
+  private final Map<ClassType, Set<ClassType>> ancestors = new ConcurrentHashMap<>();
+
+  private final Cache<TypePair, Collection<Type>> leastCommonAncestors;
+
   public BytecodeHierarchy(View view) {
-    this.typeHierarchy = view.getTypeHierarchy();
+    this(view, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /** @param maximumSize the maximum amount of cached least common ancestors of pairs of types */
+  public BytecodeHierarchy(View view, long maximumSize) {
     IdentifierFactory factory = view.getIdentifierFactory();
     objectClassType = factory.getClassType("java.lang.Object");
     throwableClassType = factory.getClassType("java.lang.Throwable");
     serializableClassType = factory.getClassType("java.io.Serializable");
     cloneableClassType = factory.getClassType("java.lang.Cloneable");
+    leastCommonAncestors = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+
+    for (SootClass sootClass : view.getClasses()) {
+      List<ClassType> supertypes = new ArrayList<>(sootClass.getInterfaces());
+      // the superclass of an interface is java.lang.Object, which is not one of its ancestors
+      if (!sootClass.isInterface()) {
+        sootClass.getSuperclass().ifPresent(supertypes::add);
+      }
+      for (ClassType supertype : supertypes) {
+        // supertypes that are not part of the view are known, but do not have any supertypes
+        directSupertypes.putIfAbsent(supertype, new ClassType[0]);
+      }
+      directSupertypes.put(sootClass.getType(), supertypes.toArray(new ClassType[0]));
+    }
+  }
+
+  /**
+   * Returns the {@link BytecodeHierarchy} of the given view, which is created once for the current
+   * {@link TypeHierarchy} of the view and shared by all bodies that are typed afterwards.
+   */
+  @Nonnull
+  public static BytecodeHierarchy of(@Nonnull View view) {
+    try {
+      return hierarchies.get(view.getTypeHierarchy(), () -> new BytecodeHierarchy(view));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
   }
 
   boolean contains(ClassType type) {
-    return typeHierarchy.contains(type);
+    return directSupertypes.containsKey(type);
   }
 
   public boolean isAncestor(@Nonnull Type ancestor, @Nonnull Type child) {
@@ -115,6 +174,23 @@ public class BytecodeHierarchy {
   }
 
   public Collection<Type> getLeastCommonAncestor(Type a, Type b) {
+    if (!isReferenceType(a) || !isReferenceType(b)) {
+      return computeLeastCommonAncestor(a, b);
+    }
+    TypePair pair = new TypePair(a, b);
+    Collection<Type> lca = leastCommonAncestors.getIfPresent(pair);
+    if (lca == null) {
+      lca = computeLeastCommonAncestor(a, b);
+      leastCommonAncestors.put(pair, lca);
+    }
+    return lca;
+  }
+
+  private static boolean isReferenceType(Type type) {
+    return type instanceof ClassType || type instanceof ArrayType;
+  }
+
+  private Collection<Type> computeLeastCommonAncestor(Type a, Type b) {
     Set<Type> ret = new HashSet<>();
     if (a instanceof TopType || b instanceof TopType) {
       return Collections.singleton(TopType.getInstance());
@@ -176,116 +252,93 @@ public class BytecodeHierarchy {
         ret.add(objectClassType);
       }
     } else {
-      // if a and b are both ClassType
-      Set<AncestryPath> pathsA = buildAncestryPaths((ClassType) a);
-      Set<AncestryPath> pathsB = buildAncestryPaths((ClassType) b);
-      // TODO: [ms] implement an algorithm with better wc runtime costs.. e.g.
-      // https://www.baeldung.com/cs/tree-lowest-common-ancestor /
-      // https://de.wikipedia.org/wiki/Range_Minimum_Query
-      for (AncestryPath pathA : pathsA) {
-        for (AncestryPath pathB : pathsB) {
-          ClassType lcn = leastCommonNode(pathA, pathB);
-          if (lcn == null) {
-            continue;
-          }
-          boolean isLcn = true;
-          Iterator<Type> it = ret.iterator();
-          while (it.hasNext()) {
-            Type l = it.next();
-            if (isAncestor(lcn, l)) {
-              isLcn = false;
-              break;
-            }
-            if (isAncestor(l, lcn)) {
-              it.remove();
-            }
-          }
-          if (isLcn) {
-            ret.add(lcn);
+      // if a and b are both ClassType: keep the common ancestors which are not an ancestor of
+      // another common ancestor
+      Set<ClassType> ancestorsB = getAncestors((ClassType) b);
+      List<ClassType> commonAncestors = new ArrayList<>();
+      for (ClassType ancestor : getAncestors((ClassType) a)) {
+        if (ancestor != objectClassType && ancestorsB.contains(ancestor)) {
+          commonAncestors.add(ancestor);
+        }
+      }
+      for (ClassType ancestor : commonAncestors) {
+        boolean isLeast = true;
+        for (ClassType other : commonAncestors) {
+          if (other != ancestor && getAncestors(other).contains(ancestor)) {
+            isLeast = false;
+            break;
           }
         }
+        if (isLeast) {
+          ret.add(ancestor);
+        }
       }
       if (ret.isEmpty()) {
         ret.add(objectClassType);
       }
     }
-    return ret;
+    return Collections.unmodifiableSet(ret);
   }
 
   private boolean canStoreType(ClassType ancestor, ClassType child) {
     return ancestor == objectClassType
-        || (typeHierarchy.contains(ancestor) && typeHierarchy.subtypesOf(ancestor).contains(child));
+        || (!ancestor.equals(child) && getAncestors(child).contains(ancestor));
   }
 
-  private Set<AncestryPath> buildAncestryPaths(ClassType type) {
-    Deque<AncestryPath> pathNodes = new ArrayDeque<>();
-    pathNodes.add(new AncestryPath(type, null));
-    Set<AncestryPath> paths = new HashSet<>();
-    while (!pathNodes.isEmpty()) {
-      AncestryPath node = pathNodes.removeFirst();
-      if (!typeHierarchy.contains(node.type)) {
-        break;
-      }
-      if (node.type == objectClassType) {
-        paths.add(node);
-      } else {
-        if (typeHierarchy.isInterface(node.type)) {
-          Set<ClassType> superInterfaces = typeHierarchy.directlyExtendedInterfacesOf(node.type);
-          if (superInterfaces.isEmpty()) {
-            paths.add(node);
-          } else {
-            for (ClassType superInterface : superInterfaces) {
-              AncestryPath superNode = new AncestryPath(superInterface, node);
-              pathNodes.add(superNode);
-            }
-          }
-        } else {
-
-          Set<ClassType> superInterfaces;
-          ClassType superClass;
-          try {
-            superInterfaces = typeHierarchy.directlyImplementedInterfacesOf(node.type);
-            superClass = typeHierarchy.superClassOf(node.type);
-          } catch (IllegalArgumentException iae) {
-            // node.type does not exist in
-            continue;
-          }
-
-          for (ClassType superInterface : superInterfaces) {
-            AncestryPath superNode = new AncestryPath(superInterface, node);
-            pathNodes.add(superNode);
-          }
+  @Nonnull
+  private Set<ClassType> getAncestors(@Nonnull ClassType type) {
+    Set<ClassType> typeAncestors = ancestors.get(type);
+    if (typeAncestors == null) {
+      typeAncestors = ancestors.computeIfAbsent(type, this::collectAncestors);
+    }
+    return typeAncestors;
+  }
 
-          // only java.lang.Object can have no SuperClass i.e. is null
-          if (superClass != null) {
-            AncestryPath superNode = new AncestryPath(superClass, node);
-            pathNodes.add(superNode);
-          }
-        }
+  private Set<ClassType> collectAncestors(@Nonnull ClassType type) {
+    Set<ClassType> typeAncestors = new HashSet<>();
+    Deque<ClassType> worklist = new ArrayDeque<>();
+    worklist.add(type);
+    while (!worklist.isEmpty()) {
+      ClassType ancestor = worklist.removeFirst();
+      if (!typeAncestors.add(ancestor)) {
+        continue;
+      }
+      ClassType[] supertypes = directSupertypes.get(ancestor);
+      if (supertypes != null) {
+        Collections.addAll(worklist, supertypes);
       }
     }
-    return paths;
+    return typeAncestors;
   }
 
-  @Nullable
-  private ClassType leastCommonNode(AncestryPath a, AncestryPath b) {
-    ClassType lcn = null;
-    while (a != null && b != null && a.type == b.type) {
-      lcn = a.type;
-      a = a.next;
-      b = b.next;
+  private static final class TypePair {
+    @Nonnull private final Type first;
+    @Nonnull private final Type second;
+    private final int hashCode;
+
+    private TypePair(@Nonnull Type first, @Nonnull Type second) {
+      this.first = first;
+      this.second = second;
+      this.hashCode = 31 * first.hashCode() + second.hashCode();
     }
-    return lcn;
-  }
 
-  // TODO: [ms] thats a linked list.. please refactor that
-  private static class AncestryPath {
-    public AncestryPath next;
-    public ClassType type;
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TypePair)) {
+        return false;
+      }
+      TypePair other = (TypePair) o;
+      return hashCode == other.hashCode
+          && first.equals(other.first)
+          && second.equals(other.second);
+    }
 
-    public AncestryPath(@Nonnull ClassType type, @Nullable AncestryPath next) {
-      this.type = type;
-      this.next = next;
+    @Override
+    public int hashCode() {
+      return hashCode;
     }
   }
 }
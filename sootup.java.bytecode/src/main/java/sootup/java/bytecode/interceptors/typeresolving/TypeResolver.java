@@ -60,7 +60,7 @@ public class TypeResolver {
 
   public boolean resolve(@Nonnull Body.BodyBuilder builder) {
     init(builder);
-    BytecodeHierarchy hierarchy = new BytecodeHierarchy(view);
+    BytecodeHierarchy hierarchy = BytecodeHierarchy.of(view);
     AugEvalFunction evalFunction = new AugEvalFunction(view);
     Typing iniTyping = new Typing(builder.getLocals());
     Collection<Typing> typings =
@@ -2,10 +2,13 @@ package categories;
 
 public enum TestCategories {
   JAVA_8("Java8"),
-  JAVA_9("Java9");
+  JAVA_9("Java9"),
+  BENCHMARK("Benchmark");
 
   public static final String JAVA_8_CATEGORY = "Java8";
   public static final String JAVA_9_CATEGORY = "Java9";
+  /** not part of the default test groups, run explicitly via -Dtestcase.groups=Benchmark */
+  public static final String BENCHMARK_CATEGORY = "Benchmark";
 
   private final String category;
 
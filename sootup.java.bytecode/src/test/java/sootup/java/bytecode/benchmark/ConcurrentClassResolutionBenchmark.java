@@ -0,0 +1,100 @@
+package sootup.java.bytecode.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import categories.TestCategories;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.inputlocation.JrtFileSystemAnalysisInputLocation;
+import sootup.java.core.JavaModuleIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures the throughput of {@link JavaView#getClass(ClassType)} over the classes of the
+ * java.base module with an increasing number of threads, once for the serialized and once for the
+ * concurrent resolution mode.
+ */
+@Tag(TestCategories.BENCHMARK_CATEGORY)
+public class ConcurrentClassResolutionBenchmark {
+
+  private static final int WARM_ROUNDS = 5;
+
+  @Test
+  public void classResolutionThroughput() throws Exception {
+    JrtFileSystemAnalysisInputLocation inputLocation = new JrtFileSystemAnalysisInputLocation();
+    List<AnalysisInputLocation> inputLocations = Collections.singletonList(inputLocation);
+
+    JavaView typeView = new JavaView(inputLocations);
+    List<ClassType> types =
+        inputLocation
+            .getModulesClassSources(
+                JavaModuleIdentifierFactory.getModuleSignature("java.base"), typeView)
+            .stream()
+            .map(src -> src.getClassType())
+            .collect(Collectors.toList());
+
+    int maxThreads =
+        Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+    System.out.printf(
+        "%d classes%n%8s %12s %16s %16s%n", types.size(), "threads", "mode", "cold [ms]", "hits/s");
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      for (boolean concurrent : new boolean[] {false, true}) {
+        JavaView view = new JavaView(inputLocations, new FullCacheProvider(), concurrent);
+        long coldNanos = resolveAll(view, types, threads, 1);
+        long warmNanos = resolveAll(view, types, threads, WARM_ROUNDS);
+        assertEquals(types.size(), view.getCachedClassesCount());
+
+        double hitsPerSecond = (double) types.size() * threads * WARM_ROUNDS / warmNanos * 1e9;
+        System.out.printf(
+            "%8d %12s %16d %16.0f%n",
+            threads,
+            concurrent ? "concurrent" : "serialized",
+            TimeUnit.NANOSECONDS.toMillis(coldNanos),
+            hitsPerSecond);
+      }
+    }
+  }
+
+  /** every thread resolves all types in its own random order; returns the elapsed nanoseconds */
+  private long resolveAll(JavaView view, List<ClassType> types, int threads, int rounds)
+      throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        List<ClassType> order = new ArrayList<>(types);
+        Collections.shuffle(order, new Random(i));
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int round = 0; round < rounds; round++) {
+                    for (ClassType type : order) {
+                      Optional<JavaSootClass> clazz = view.getClass(type);
+                      if (!clazz.isPresent()) {
+                        throw new IllegalStateException(type + " could not be resolved.");
+                      }
+                    }
+                  }
+                  return null;
+                }));
+      }
+      long startTime = System.nanoTime();
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      return System.nanoTime() - startTime;
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package sootup.java.bytecode.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import categories.TestCategories;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.stmt.BranchingStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.jimple.javabytecode.stmt.JSwitchStmt;
+import sootup.core.model.Body;
+import sootup.core.types.PrimitiveType;
+import sootup.java.bytecode.interceptors.LocalSplitter;
+
+/**
+ * Measures the {@link LocalSplitter} on generated switch based state machines, i.e. large methods
+ * with thousands of reassignments of the same locals, which is typical for generated parsers. The
+ * time per stmt should stay roughly constant with a growing amount of states.
+ */
+@Tag(TestCategories.BENCHMARK_CATEGORY)
+public class LocalSplitterBenchmark {
+
+  private static final int ROUNDS = 5;
+  private static final StmtPositionInfo noPosition = StmtPositionInfo.getNoStmtPositionInfo();
+
+  /**
+   * state = 0; acc = 0; label0: switch(state) { case i: tmp = acc + i; acc = tmp; state = i + 1;
+   * goto label0; ... default: return acc; }
+   */
+  private static Body.BodyBuilder createStateMachine(int states) {
+    Local state = Jimple.newLocal("state", PrimitiveType.getInt());
+    Local acc = Jimple.newLocal("acc", PrimitiveType.getInt());
+    Local tmp = Jimple.newLocal("tmp", PrimitiveType.getInt());
+
+    List<Stmt> stmts = new ArrayList<>();
+    Map<BranchingStmt, List<Stmt>> branches = new HashMap<>();
+    stmts.add(Jimple.newAssignStmt(state, IntConstant.getInstance(0), noPosition));
+    stmts.add(Jimple.newAssignStmt(acc, IntConstant.getInstance(0), noPosition));
+    JSwitchStmt switchStmt = new JSwitchStmt(state, 0, states - 1, noPosition);
+    stmts.add(switchStmt);
+
+    List<Stmt> targets = new ArrayList<>();
+    for (int i = 0; i < states; i++) {
+      Stmt caseStmt =
+          Jimple.newAssignStmt(
+              tmp, Jimple.newAddExpr(acc, IntConstant.getInstance(i)), noPosition);
+      targets.add(caseStmt);
+      stmts.add(caseStmt);
+      stmts.add(Jimple.newAssignStmt(acc, tmp, noPosition));
+      stmts.add(Jimple.newAssignStmt(state, IntConstant.getInstance(i + 1), noPosition));
+      BranchingStmt gotoStmt = Jimple.newGotoStmt(noPosition);
+      stmts.add(gotoStmt);
+      branches.put(gotoStmt, Collections.singletonList(switchStmt));
+    }
+    Stmt returnStmt = Jimple.newReturnStmt(acc, noPosition);
+    stmts.add(returnStmt);
+    targets.add(returnStmt);
+    branches.put(switchStmt, targets);
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.initializeWith(stmts, branches, Collections.emptyList());
+    Body.BodyBuilder builder = Body.builder(graph);
+    builder.setLocals(new LinkedHashSet<>(Arrays.asList(state, acc, tmp)));
+    return builder;
+  }
+
+  @Test
+  public void largeMethods() {
+    System.out.printf("%10s %10s %14s %14s%n", "states", "stmts", "split [ms]", "ns per stmt");
+    for (int states = 500; states <= 8000; states *= 2) {
+      long nanos = 0;
+      int stmtCount = 0;
+      for (int round = 0; round < ROUNDS; round++) {
+        Body.BodyBuilder builder = createStateMachine(states);
+        stmtCount = builder.getStmtGraph().getNodes().size();
+        long start = System.nanoTime();
+        new LocalSplitter().interceptBody(builder, null);
+        nanos += System.nanoTime() - start;
+
+        // every definition of tmp has its own use; all definitions of acc reach the switch
+        assertEquals(states + 2, builder.getLocals().size());
+      }
+      nanos /= ROUNDS;
+      System.out.printf(
+          "%10d %10d %14d %14d%n",
+          states, stmtCount, TimeUnit.NANOSECONDS.toMillis(nanos), nanos / stmtCount);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package sootup.java.bytecode.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import categories.TestCategories;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.graph.ImmutableBlockStmtGraph;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Compares the retained heap and the iteration speed of the {@link ImmutableBlockStmtGraph} with
+ * the {@link MutableBlockStmtGraph} for all bodies of an android library. The iteration visits
+ * every Stmt with its successors, predecessors and exceptional successors like a dataflow analysis.
+ */
+@Tag(TestCategories.BENCHMARK_CATEGORY)
+public class StmtGraphBenchmark {
+
+  private static final String JAR = "../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar";
+  private static final int ROUNDS = 20;
+  private static final int COPIES = 10;
+
+  @Test
+  public void memoryAndIteration() {
+    JavaView view =
+        new JavaView(PathBasedAnalysisInputLocation.create(Paths.get(JAR), SourceType.Library));
+    List<StmtGraph<?>> bodyGraphs = new ArrayList<>();
+    view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .forEach(method -> bodyGraphs.add(method.getBody().getStmtGraph()));
+
+    Map<String, Function<StmtGraph<?>, StmtGraph<?>>> implementations = new LinkedHashMap<>();
+    implementations.put("MutableBlockStmtGraph", MutableBlockStmtGraph::new);
+    implementations.put("ImmutableBlockStmtGraph", ImmutableBlockStmtGraph::new);
+
+    System.out.printf(
+        "%d bodies%n%24s %14s %14s%n", bodyGraphs.size(), "graph", "heap [KiB]", "iteration [ms]");
+    long expectedChecksum = -1;
+    for (Map.Entry<String, Function<StmtGraph<?>, StmtGraph<?>>> entry :
+        implementations.entrySet()) {
+      long heapBefore = usedHeap();
+      // several copies of every graph make the heap measurement less sensitive to noise
+      List<StmtGraph<?>> graphs = new ArrayList<>(COPIES * bodyGraphs.size());
+      for (int i = 0; i < COPIES; i++) {
+        for (StmtGraph<?> bodyGraph : bodyGraphs) {
+          graphs.add(entry.getValue().apply(bodyGraph));
+        }
+      }
+      long heap = (usedHeap() - heapBefore) / COPIES;
+
+      long checksum = 0;
+      long start = System.nanoTime();
+      for (int round = 0; round < ROUNDS; round++) {
+        checksum = 0;
+        for (StmtGraph<?> graph : graphs.subList(0, bodyGraphs.size())) {
+          for (Stmt stmt : graph) {
+            checksum += graph.successors(stmt).size();
+            checksum += graph.predecessors(stmt).size();
+            checksum += graph.exceptionalSuccessors(stmt).size();
+          }
+        }
+      }
+      long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      System.out.printf("%24s %14d %14d%n", entry.getKey(), heap / 1024, millis);
+
+      if (expectedChecksum < 0) {
+        expectedChecksum = checksum;
+      } else {
+        assertEquals(expectedChecksum, checksum);
+      }
+      // keep the graphs reachable until the heap is measured
+      assertEquals(COPIES * bodyGraphs.size(), graphs.size());
+    }
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
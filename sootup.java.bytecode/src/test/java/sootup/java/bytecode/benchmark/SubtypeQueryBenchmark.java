@@ -0,0 +1,106 @@
+package sootup.java.bytecode.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import categories.TestCategories;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.typehierarchy.ImmutableTypeHierarchy;
+import sootup.core.typehierarchy.MemoizingTypeHierarchy;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.JrtFileSystemAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures the throughput of {@link TypeHierarchy#isSubtype(Type, Type)} on the hierarchy of the
+ * Java runtime (rt.jar up to Java 8, the jrt file system afterwards) for the available hierarchy
+ * implementations with and without the {@link MemoizingTypeHierarchy} layer. The queries are
+ * repeated like the type resolver and the call graph algorithms repeat them.
+ */
+@Tag(TestCategories.BENCHMARK_CATEGORY)
+public class SubtypeQueryBenchmark {
+
+  private static final int DISTINCT_QUERIES = 20_000;
+  private static final int ROUNDS = 20;
+
+  @Test
+  public void subtypeQueryThroughput() {
+    AnalysisInputLocation inputLocation =
+        System.getProperty("java.specification.version").startsWith("1.")
+            ? new DefaultRTJarAnalysisInputLocation()
+            : new JrtFileSystemAnalysisInputLocation();
+    JavaView view = new JavaView(inputLocation);
+    List<ClassType> types = new ArrayList<>();
+    for (SootClass sootClass : view.getClasses()) {
+      types.add(sootClass.getType());
+    }
+
+    // half of the queries ask for a superclass or an interface of a class, half are random pairs
+    Random random = new Random(42);
+    ViewTypeHierarchy viewTypeHierarchy = new ViewTypeHierarchy(view);
+    List<Type[]> queries = new ArrayList<>();
+    while (queries.size() < DISTINCT_QUERIES) {
+      ClassType subtype = types.get(random.nextInt(types.size()));
+      List<ClassType> supertypes = new ArrayList<>(viewTypeHierarchy.superClassesOf(subtype));
+      supertypes.addAll(viewTypeHierarchy.implementedInterfacesOf(subtype));
+      Type supertype =
+          random.nextBoolean() || supertypes.isEmpty()
+              ? types.get(random.nextInt(types.size()))
+              : supertypes.get(random.nextInt(supertypes.size()));
+      if (random.nextInt(10) == 0) {
+        queries.add(new Type[] {new ArrayType(supertype, 1), new ArrayType(subtype, 1)});
+      } else {
+        queries.add(new Type[] {supertype, subtype});
+      }
+    }
+
+    Map<String, TypeHierarchy> typeHierarchies = new LinkedHashMap<>();
+    typeHierarchies.put("ViewTypeHierarchy", new ViewTypeHierarchy(view));
+    typeHierarchies.put(
+        "Memoizing(ViewTypeHierarchy)",
+        new MemoizingTypeHierarchy(new ViewTypeHierarchy(view), view.getIdentifierFactory()));
+    typeHierarchies.put("ImmutableTypeHierarchy", new ImmutableTypeHierarchy(view));
+    typeHierarchies.put(
+        "Memoizing(ImmutableTypeHierarchy)",
+        new MemoizingTypeHierarchy(new ImmutableTypeHierarchy(view), view.getIdentifierFactory()));
+
+    boolean[] expected = null;
+    System.out.printf(
+        "%d types, %d queries%n%36s %16s%n",
+        types.size(), DISTINCT_QUERIES * ROUNDS, "hierarchy", "queries/s");
+    for (Map.Entry<String, TypeHierarchy> entry : typeHierarchies.entrySet()) {
+      TypeHierarchy typeHierarchy = entry.getValue();
+      // builds the hierarchy
+      typeHierarchy.contains(types.get(0));
+
+      boolean[] answers = new boolean[queries.size()];
+      long start = System.nanoTime();
+      for (int round = 0; round < ROUNDS; round++) {
+        for (int i = 0; i < queries.size(); i++) {
+          answers[i] = typeHierarchy.isSubtype(queries.get(i)[0], queries.get(i)[1]);
+        }
+      }
+      long elapsed = System.nanoTime() - start;
+      if (expected == null) {
+        expected = answers;
+      } else {
+        for (int i = 0; i < answers.length; i++) {
+          assertEquals(expected[i], answers[i], Arrays.toString(queries.get(i)));
+        }
+      }
+      System.out.printf(
+          "%36s %16.0f%n",
+          entry.getKey(),
+          (double) queries.size() * ROUNDS / elapsed * TimeUnit.SECONDS.toNanos(1));
+    }
+  }
+}
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 import categories.TestCategories;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -285,6 +286,36 @@ public class JavaModuleViewTest {
     assertTrue(view.getClass(modMain, targetClassFromJavaBase).isPresent());
   }
 
+  @Test
+  public void testConcurrentCrossModuleLookups() {
+    List<ModuleInfoAnalysisInputLocation> moduleInfoAnalysisInputLocations = new ArrayList<>();
+    moduleInfoAnalysisInputLocations.add(
+        new JavaModulePathAnalysisInputLocation(
+            Paths.get(testPath + "requires_exports_requires-transitive_exports-to/jar")));
+    moduleInfoAnalysisInputLocations.add(new JrtFileSystemAnalysisInputLocation());
+    JavaModuleView view =
+        new JavaModuleView(Collections.emptyList(), moduleInfoAnalysisInputLocations);
+
+    JavaModuleIdentifierFactory identifierFactory = JavaModuleIdentifierFactory.getInstance();
+    ModulePackageName modMain = identifierFactory.getPackageName("pkgmain", "modmain");
+    ModulePackageName modC = identifierFactory.getPackageName("pkgc", "modc");
+    ModuleJavaClassType targetClassMain =
+        identifierFactory.getClassType("Main", "pkgmain", "modmain");
+    ModuleJavaClassType targetClassC = identifierFactory.getClassType("C", "pkgc", "modc");
+    ModuleJavaClassType targetClassFromJavaBase =
+        identifierFactory.getClassType("String", "java.lang", "java.base");
+
+    // transitive: modmain -> modc, but modc does not read modmain
+    assertTrue(
+        IntStream.range(0, 200)
+            .parallel()
+            .allMatch(
+                i ->
+                    view.getClass(modMain, targetClassC).isPresent()
+                        && view.getClass(modC, targetClassFromJavaBase).isPresent()
+                        && !view.getClass(modC, targetClassMain).isPresent()));
+  }
+
   @Test
   public void testReflection() {
     List<AnalysisInputLocation> inputLocations = Collections.emptyList();
@@ -0,0 +1,90 @@
+package sootup.java.bytecode.frontend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import categories.TestCategories;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class LazyMethodParsingTest {
+
+  private static final Path jar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  private static JavaView createView(boolean lazyMethodParsing, PersistentBodyCache cache) {
+    PathBasedAnalysisInputLocation inputLocation =
+        PathBasedAnalysisInputLocation.create(
+            jar,
+            SourceType.Application,
+            BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    inputLocation.setLazyMethodParsing(lazyMethodParsing);
+    inputLocation.setPersistentBodyCache(cache);
+    return new JavaView(Collections.singletonList(inputLocation));
+  }
+
+  private static Map<String, String> resolveBodies(JavaView view) {
+    Map<String, String> bodies = new TreeMap<>();
+    view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .forEach(
+            method ->
+                bodies.put(
+                    method.getSignature().toString(),
+                    method.getBody() + method.getBody().getPosition().toString()));
+    return bodies;
+  }
+
+  @Test
+  public void lazilyParsedBodiesEqualEagerlyParsedBodies() {
+    Map<String, String> expected = resolveBodies(createView(false, null));
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, resolveBodies(createView(true, null)));
+  }
+
+  @Test
+  public void codeIsReadAgainAfterTheBodyHasBeenBuilt() throws IOException {
+    JavaView view = createView(true, null);
+    int methods = 0;
+    for (SootMethod method :
+        view.getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .toArray(SootMethod[]::new)) {
+      Body first = method.getBodySource().resolveBody(method.getModifiers());
+      Body second = method.getBodySource().resolveBody(method.getModifiers());
+      assertEquals(first.toString(), second.toString());
+      methods++;
+    }
+    assertTrue(methods > 0);
+  }
+
+  @Test
+  public void lazyParsingWithPersistentBodyCache() throws IOException {
+    Map<String, String> expected = resolveBodies(createView(false, null));
+
+    Path directory = Files.createTempDirectory("sootup-body-cache");
+    try {
+      PersistentBodyCache cache = new PersistentBodyCache(directory);
+      // the first run reads the code on demand and fills the cache, the second reads the cache
+      assertEquals(expected, resolveBodies(createView(true, cache)));
+      assertEquals(expected, resolveBodies(createView(true, new PersistentBodyCache(directory))));
+    } finally {
+      FileUtils.deleteDirectory(directory.toFile());
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package sootup.java.bytecode.frontend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import categories.TestCategories;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class PersistentBodyCacheTest {
+
+  private static final Path jar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  private static Map<String, String> resolveBodies(
+      List<BodyInterceptor> bodyInterceptors, PersistentBodyCache cache) {
+    return resolveBodies(bodyInterceptors, cache, new HashSet<>());
+  }
+
+  /** collects the signatures of the methods whose code has been parsed into methodsWithCode */
+  private static Map<String, String> resolveBodies(
+      List<BodyInterceptor> bodyInterceptors,
+      PersistentBodyCache cache,
+      Set<String> methodsWithCode) {
+    PathBasedAnalysisInputLocation inputLocation =
+        PathBasedAnalysisInputLocation.create(jar, SourceType.Application, bodyInterceptors);
+    inputLocation.setPersistentBodyCache(cache);
+    JavaView view = new JavaView(Collections.singletonList(inputLocation));
+
+    Map<String, String> bodies = new TreeMap<>();
+    view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .forEach(
+            method -> {
+              Body body = method.getBody();
+              if (((AsmMethodSource) method.getBodySource()).instructions.size() > 0) {
+                methodsWithCode.add(method.getSignature().toString());
+              }
+              // the printed body does not contain the positions of its stmts
+              String positions =
+                  body.getStmts().stream()
+                      .map(Stmt::getPositionInfo)
+                      .map(info -> String.valueOf(info.getStmtPosition()))
+                      .collect(Collectors.joining(","));
+              bodies.put(
+                  method.getSignature().toString(),
+                  body + body.getPosition().toString() + positions);
+            });
+    return bodies;
+  }
+
+  private static long countCacheFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files.filter(Files::isRegularFile).count();
+    }
+  }
+
+  @Test
+  public void cachedBodiesEqualConvertedBodies() throws IOException {
+    List<BodyInterceptor> interceptors = BytecodeBodyInterceptors.Default.getBodyInterceptors();
+    Map<String, String> expected = resolveBodies(interceptors, null);
+    assertFalse(expected.isEmpty());
+
+    Path directory = Files.createTempDirectory("sootup-body-cache");
+    try {
+      // the first run converts the bodies and writes them into the cache
+      Set<String> methodsWithCode = new HashSet<>();
+      assertEquals(
+          expected,
+          resolveBodies(interceptors, new PersistentBodyCache(directory), methodsWithCode));
+      assertEquals(expected.keySet(), methodsWithCode);
+      long cacheFiles = countCacheFiles(directory);
+      assertTrue(cacheFiles > 0);
+
+      // the second run reads all bodies from the cache and skips the code of the methods
+      PersistentBodyCache warmCache = new PersistentBodyCache(directory);
+      methodsWithCode.clear();
+      assertEquals(expected, resolveBodies(interceptors, warmCache, methodsWithCode));
+      assertEquals(Collections.emptySet(), methodsWithCode);
+      assertEquals(cacheFiles, countCacheFiles(directory));
+    } finally {
+      FileUtils.deleteDirectory(directory.toFile());
+    }
+  }
+
+  @Test
+  public void corruptedBodiesAreConvertedAgain() throws IOException {
+    List<BodyInterceptor> interceptors = BytecodeBodyInterceptors.Default.getBodyInterceptors();
+    Map<String, String> expected = resolveBodies(interceptors, null);
+
+    Path directory = Files.createTempDirectory("sootup-body-cache");
+    try {
+      resolveBodies(interceptors, new PersistentBodyCache(directory));
+
+      // change the last byte of the last record of a file, so that its checksum does not match
+      Path file;
+      try (Stream<Path> files = Files.walk(directory)) {
+        file = files.filter(Files::isRegularFile).findFirst().get();
+      }
+      byte[] bytes = Files.readAllBytes(file);
+      bytes[bytes.length - 1] ^= 0xff;
+      Files.write(file, bytes);
+
+      // the file still claims to contain all bodies, so the class is parsed without its code
+      assertEquals(expected, resolveBodies(interceptors, new PersistentBodyCache(directory)));
+    } finally {
+      FileUtils.deleteDirectory(directory.toFile());
+    }
+  }
+
+  @Test
+  public void differentInterceptorsUseDifferentFiles() throws IOException {
+    List<BodyInterceptor> interceptors = BytecodeBodyInterceptors.Default.getBodyInterceptors();
+    Path directory = Files.createTempDirectory("sootup-body-cache");
+    try {
+      PersistentBodyCache cache = new PersistentBodyCache(directory);
+      resolveBodies(interceptors, cache);
+      long cacheFiles = countCacheFiles(directory);
+
+      Map<String, String> expected = resolveBodies(Collections.emptyList(), null);
+      assertEquals(expected, resolveBodies(Collections.emptyList(), cache));
+      assertEquals(2 * cacheFiles, countCacheFiles(directory));
+      assertEquals(expected, resolveBodies(Collections.emptyList(), cache));
+    } finally {
+      FileUtils.deleteDirectory(directory.toFile());
+    }
+  }
+}
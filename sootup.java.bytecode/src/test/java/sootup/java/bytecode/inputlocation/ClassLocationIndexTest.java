@@ -0,0 +1,113 @@
+package sootup.java.bytecode.inputlocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import categories.TestCategories;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.ClassLocationIndex;
+import sootup.core.model.SourceType;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class ClassLocationIndexTest {
+
+  private static final Path miniApp =
+      Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+  private static final Path jpush =
+      Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar");
+  private static final Path directory =
+      Paths.get("../shared-test-resources/miniTestSuite/java6/binary");
+
+  @Test
+  public void archiveListsAllOfItsClasses() {
+    AnalysisInputLocation location =
+        PathBasedAnalysisInputLocation.create(miniApp, SourceType.Application);
+    Optional<Set<String>> classNames = location.getIndexedClassNames();
+    assertTrue(classNames.isPresent());
+
+    Set<String> resolvedNames =
+        location.getClassSources(new JavaView(location)).stream()
+            .map(src -> src.getClassType().getFullyQualifiedName())
+            .collect(Collectors.toSet());
+    // the index may contain class files which do not contain the class their path denotes
+    assertTrue(classNames.get().containsAll(resolvedNames));
+    assertTrue(classNames.get().contains("ds.Employee"));
+
+    // directories are not indexed
+    assertFalse(
+        PathBasedAnalysisInputLocation.create(directory, SourceType.Application)
+            .getIndexedClassNames()
+            .isPresent());
+  }
+
+  @Test
+  public void candidatesKeepTheOrderOfTheLocations() {
+    AnalysisInputLocation miniAppLocation =
+        PathBasedAnalysisInputLocation.create(miniApp, SourceType.Application);
+    AnalysisInputLocation directoryLocation =
+        PathBasedAnalysisInputLocation.create(directory, SourceType.Application);
+    AnalysisInputLocation jpushLocation =
+        PathBasedAnalysisInputLocation.create(jpush, SourceType.Application);
+    ClassLocationIndex<AnalysisInputLocation> index =
+        new ClassLocationIndex<>(Arrays.asList(miniAppLocation, directoryLocation, jpushLocation));
+    assertTrue(index.hasIndexedLocations());
+
+    assertEquals(
+        Arrays.asList(miniAppLocation, directoryLocation),
+        index.getCandidateLocations("ds.Employee"));
+    assertEquals(
+        Arrays.asList(directoryLocation, jpushLocation),
+        index.getCandidateLocations("cn.jpush.a.a"));
+    assertEquals(
+        Collections.singletonList(directoryLocation),
+        index.getCandidateLocations("does.not.Exist"));
+
+    ClassLocationIndex<AnalysisInputLocation> archivesOnly =
+        new ClassLocationIndex<>(Arrays.asList(miniAppLocation, jpushLocation, miniAppLocation));
+    assertEquals(
+        Arrays.asList(miniAppLocation, miniAppLocation),
+        archivesOnly.getCandidateLocations("MiniApp"));
+    assertTrue(archivesOnly.getCandidateLocations("does.not.Exist").isEmpty());
+  }
+
+  @Test
+  public void classPathLookupsAreRoutedToTheOwningEntry() {
+    JavaClassPathAnalysisInputLocation classPath =
+        new JavaClassPathAnalysisInputLocation(miniApp + File.pathSeparator + jpush);
+    Optional<Set<String>> classNames = classPath.getIndexedClassNames();
+    assertTrue(classNames.isPresent());
+    assertTrue(classNames.get().contains("ds.Employee"));
+    assertTrue(classNames.get().contains("cn.jpush.a.a"));
+
+    JavaView view = new JavaView(classPath);
+    JavaIdentifierFactory identifierFactory = view.getIdentifierFactory();
+    assertTrue(view.getClass(identifierFactory.getClassType("ds.Employee")).isPresent());
+    assertTrue(view.getClass(identifierFactory.getClassType("cn.jpush.a.a")).isPresent());
+    assertFalse(view.getClass(identifierFactory.getClassType("does.not.Exist")).isPresent());
+  }
+
+  @Test
+  public void viewResolvesClassesOfIndexedAndUnindexedLocations() {
+    JavaView view =
+        new JavaView(
+            Arrays.asList(
+                PathBasedAnalysisInputLocation.create(miniApp, SourceType.Application),
+                PathBasedAnalysisInputLocation.create(directory, SourceType.Application),
+                PathBasedAnalysisInputLocation.create(jpush, SourceType.Library)));
+    JavaIdentifierFactory identifierFactory = view.getIdentifierFactory();
+    assertTrue(view.getClass(identifierFactory.getClassType("ds.Employee")).isPresent());
+    assertTrue(view.getClass(identifierFactory.getClassType("Employee")).isPresent());
+    assertTrue(view.getClass(identifierFactory.getClassType("cn.jpush.a.a")).isPresent());
+    assertFalse(view.getClass(identifierFactory.getClassType("does.not.Exist")).isPresent());
+  }
+}
@@ -0,0 +1,105 @@
+package sootup.java.bytecode.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import categories.TestCategories;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorMeasurement;
+import sootup.core.transform.BodyInterceptorMetrics;
+import sootup.core.transform.MeasuredBodyInterceptor;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class BodyInterceptorMetricsTest {
+
+  private static final Path jar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  private static Map<String, String> resolveBodies(List<BodyInterceptor> interceptors) {
+    JavaView view =
+        new JavaView(
+            Collections.singletonList(
+                PathBasedAnalysisInputLocation.create(jar, SourceType.Application, interceptors)));
+    return view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(
+            Collectors.toMap(
+                method -> method.getSignature().toString(),
+                method -> method.getBody().toString()));
+  }
+
+  @Test
+  public void aggregatesPerInterceptorAndMethod() {
+    List<BodyInterceptor> interceptors = BytecodeBodyInterceptors.Default.getBodyInterceptors();
+    BodyInterceptorMetrics metrics = new BodyInterceptorMetrics(true, 3);
+    List<BodyInterceptor> instrumented = metrics.instrument(interceptors);
+    assertEquals(interceptors.size(), instrumented.size());
+    assertSame(interceptors.get(0), MeasuredBodyInterceptor.unwrap(instrumented.get(0)));
+
+    Map<String, String> bodies = resolveBodies(instrumented);
+    // measuring does not change the bodies
+    assertEquals(resolveBodies(interceptors), bodies);
+
+    List<BodyInterceptorMetrics.InterceptorStatistics> statistics =
+        metrics.getInterceptorStatistics();
+    assertEquals(
+        interceptors.stream().map(i -> i.getClass().getSimpleName()).collect(Collectors.toSet()),
+        statistics.stream()
+            .map(BodyInterceptorMetrics.InterceptorStatistics::getName)
+            .collect(Collectors.toSet()));
+    for (int i = 1; i < statistics.size(); i++) {
+      assertTrue(
+          statistics.get(i - 1).getTotalWallTimeNanos()
+              >= statistics.get(i).getTotalWallTimeNanos());
+    }
+    BodyInterceptorMetrics.InterceptorStatistics nopEliminator =
+        statistics.stream().filter(s -> s.getName().equals("NopEliminator")).findAny().get();
+    assertEquals(bodies.size(), nopEliminator.getInvocations());
+    assertTrue(nopEliminator.getStmtCountDelta() <= 0);
+    assertTrue(statistics.stream().mapToLong(s -> s.getAllocatedBytes()).sum() > 0);
+
+    List<BodyInterceptorMetrics.MethodTiming> slowestMethods = metrics.getSlowestMethods();
+    assertEquals(3, slowestMethods.size());
+    assertTrue(
+        slowestMethods.get(0).getWallTimeNanos() >= slowestMethods.get(2).getWallTimeNanos());
+    assertTrue(bodies.containsKey(slowestMethods.get(0).getMethod().toString()));
+    assertTrue(metrics.report().contains("NopEliminator"));
+
+    metrics.reset();
+    assertTrue(metrics.getInterceptorStatistics().isEmpty());
+    assertTrue(metrics.getSlowestMethods().isEmpty());
+  }
+
+  @Test
+  public void notifiesListenerPerApplication() {
+    List<BodyInterceptorMeasurement> measurements = new ArrayList<>();
+    List<BodyInterceptor> interceptors =
+        Collections.singletonList(
+            new MeasuredBodyInterceptor(
+                new NopEliminator(),
+                measurement -> {
+                  synchronized (measurements) {
+                    measurements.add(measurement);
+                  }
+                },
+                false));
+    Map<String, String> bodies = resolveBodies(interceptors);
+
+    assertEquals(bodies.size(), measurements.size());
+    for (BodyInterceptorMeasurement measurement : measurements) {
+      assertTrue(measurement.getInterceptor() instanceof NopEliminator);
+      assertEquals(-1, measurement.getAllocatedBytes());
+      assertTrue(measurement.getStmtCountAfter() <= measurement.getStmtCountBefore());
+      assertTrue(bodies.containsKey(measurement.getMethod().toString()));
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package sootup.java.bytecode.interceptors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import categories.TestCategories;
 import java.util.*;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.graph.StmtGraph;
@@ -13,6 +16,7 @@ import sootup.core.jimple.common.constant.IntConstant;
 import sootup.core.jimple.common.stmt.BranchingStmt;
 import sootup.core.jimple.common.stmt.FallsThroughStmt;
 import sootup.core.jimple.common.stmt.JIfStmt;
+import sootup.core.jimple.common.stmt.JInvokeStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 import sootup.core.types.PrimitiveType;
@@ -21,6 +25,7 @@ import sootup.java.core.language.JavaJimple;
 import sootup.java.core.types.JavaClassType;
 import sootup.java.core.views.JavaView;
 
+@Tag(TestCategories.JAVA_8_CATEGORY)
 public class DeadAssignmentEliminatorTest {
 
   /**
@@ -114,6 +119,70 @@ public class DeadAssignmentEliminatorTest {
     assertEquals(expectedGraph.getNodes().size(), actualGraph.getNodes().size());
   }
 
+  /**
+   *
+   *
+   * <pre>
+   *     int test() {
+   *       x = f();
+   *       x = g();
+   *       return x;
+   *     }
+   * </pre>
+   *
+   * gets simplified to
+   *
+   * <pre>
+   *     int test() {
+   *       f();
+   *       x = g();
+   *       return x;
+   *     }
+   * </pre>
+   *
+   * The Local x is still defined and used, so it has to stay a Local of the body.
+   */
+  @Test
+  public void testRedefinedLocal() {
+    StmtPositionInfo noPositionInfo = StmtPositionInfo.getNoStmtPositionInfo();
+    JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+
+    Local x = JavaJimple.newLocal("x", PrimitiveType.getInt());
+    FallsThroughStmt fToX =
+        JavaJimple.newAssignStmt(
+            x,
+            JavaJimple.newStaticInvokeExpr(
+                identifierFactory.getMethodSignature("ab.c", "f", "int", Collections.emptyList())),
+            noPositionInfo);
+    FallsThroughStmt gToX =
+        JavaJimple.newAssignStmt(
+            x,
+            JavaJimple.newStaticInvokeExpr(
+                identifierFactory.getMethodSignature("ab.c", "g", "int", Collections.emptyList())),
+            noPositionInfo);
+    Stmt ret = JavaJimple.newReturnStmt(x, noPositionInfo);
+
+    Body.BodyBuilder builder = Body.builder();
+    builder.setMethodSignature(
+        identifierFactory.getMethodSignature("ab.c", "test", "int", Collections.emptyList()));
+    builder.setLocals(new LinkedHashSet<>(Collections.singletonList(x)));
+    builder.setPosition(NoPositionInformation.getInstance());
+    final MutableStmtGraph stmtGraph = builder.getStmtGraph();
+    stmtGraph.setStartingStmt(fToX);
+    stmtGraph.putEdge(fToX, gToX);
+    stmtGraph.putEdge(gToX, ret);
+
+    new DeadAssignmentEliminator().interceptBody(builder, new JavaView(Collections.emptyList()));
+    Body processedBody = builder.build();
+
+    List<Stmt> stmts = processedBody.getStmts();
+    assertEquals(3, stmts.size());
+    assertEquals(fToX.getInvokeExpr(), ((JInvokeStmt) stmts.get(0)).getInvokeExpr());
+    assertSame(gToX, stmts.get(1));
+    assertSame(ret, stmts.get(2));
+    assertEquals(Collections.singleton(x), processedBody.getLocals());
+  }
+
   private static Body.BodyBuilder createBody(boolean essentialOption) {
     JavaJimple javaJimple = JavaJimple.getInstance();
     StmtPositionInfo noPositionInfo = StmtPositionInfo.getNoStmtPositionInfo();
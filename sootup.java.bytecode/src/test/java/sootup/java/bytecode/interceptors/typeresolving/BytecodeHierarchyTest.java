@@ -2,6 +2,8 @@ package sootup.java.bytecode.interceptors.typeresolving;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import categories.TestCategories;
@@ -205,4 +207,31 @@ public class BytecodeHierarchyTest {
     expectedSet = ImmutableUtils.immutableSet(object, serializable, cloneable);
     assertEquals(expectedSet, actualSet);
   }
+
+  @Test
+  public void testSharedHierarchy() {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/TypeResolverTestSuite/ByteCodeHierarchyTest/MiniHierarchy.jar"));
+    IdentifierFactory factory = view.getIdentifierFactory();
+    ClassType rootInterface1 = factory.getClassType("RootInterface1");
+    ClassType class2 = factory.getClassType("Class2");
+    ClassType class3 = factory.getClassType("Class3");
+    ClassType class4 = factory.getClassType("Class4");
+
+    BytecodeHierarchy hierarchy = BytecodeHierarchy.of(view);
+    assertSame(hierarchy, BytecodeHierarchy.of(view));
+
+    assertTrue(hierarchy.isAncestor(rootInterface1, class2));
+    assertFalse(hierarchy.isAncestor(class3, class4));
+    Collection<Type> lca = hierarchy.getLeastCommonAncestor(class3, class4);
+    assertEquals(Collections.singleton(class2), lca);
+    // the result is cached
+    assertSame(lca, hierarchy.getLeastCommonAncestor(class3, class4));
+
+    // a view with a new type hierarchy gets a new instance
+    view.setTypeHierarchy(new ViewTypeHierarchy(view));
+    assertNotSame(hierarchy, BytecodeHierarchy.of(view));
+  }
 }
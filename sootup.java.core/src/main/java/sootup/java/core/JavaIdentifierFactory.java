@@ -24,6 +24,8 @@ package sootup.java.core;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Maps;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -100,6 +102,24 @@ public class JavaIdentifierFactory implements IdentifierFactory {
   protected final Cache<String, JavaClassType> classTypeCache =
       CacheBuilder.newBuilder().weakValues().build();
 
+  /**
+   * Hash-conses the member signatures: equal signatures are represented by the same instance, so
+   * comparing them in the maps and sets of an analysis mostly short-circuits on identity.
+   */
+  @Nonnull
+  protected final Interner<MethodSubSignature> methodSubSignatureInterner =
+      Interners.newWeakInterner();
+
+  @Nonnull
+  protected final Interner<MethodSignature> methodSignatureInterner = Interners.newWeakInterner();
+
+  @Nonnull
+  protected final Interner<FieldSubSignature> fieldSubSignatureInterner =
+      Interners.newWeakInterner();
+
+  @Nonnull
+  protected final Interner<FieldSignature> fieldSignatureInterner = Interners.newWeakInterner();
+
   @Nonnull
   protected final Map<String, PrimitiveType> primitiveTypeMap = Maps.newHashMapWithExpectedSize(8);
 
@@ -131,8 +151,8 @@ public class JavaIdentifierFactory implements IdentifierFactory {
   }
 
   /**
-   * Always creates a new ClassSignature. In opposite to PackageSignatures, ClassSignatures are not
-   * cached because the are unique per class, and thus reusing them does not make sense.
+   * Returns the unique ClassSignature of the given class; instances are cached as long as they are
+   * referenced.
    *
    * @param className the simple class name
    * @param packageName the Java package name; must not be null use empty string for the default
@@ -147,11 +167,12 @@ public class JavaIdentifierFactory implements IdentifierFactory {
     return classTypeCache
         .asMap()
         .computeIfAbsent(
-            className + packageName, (k) -> new JavaClassType(className, packageIdentifier));
+            packageName + '.' + className,
+            (k) -> new JavaClassType(className, packageIdentifier));
   }
 
   /**
-   * Always creates a new ClassSignature.
+   * Returns the unique ClassSignature of the given class.
    *
    * @param fullyQualifiedClassName the fully-qualified name of the class
    * @return a ClassSignature for a Java Class
@@ -274,7 +295,7 @@ public class JavaIdentifierFactory implements IdentifierFactory {
   }
 
   /**
-   * Always creates a new MethodSignature AND a new ClassSignature.
+   * Returns the unique MethodSignature of the described method.
    *
    * @param fullyQualifiedNameDeclClass the fully-qualified name of the declaring class
    * @param methodName the method's name
@@ -295,11 +316,12 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       Type parameterSignature = getType(fqParameterName);
       parameterSignatures.add(parameterSignature);
     }
-    return new MethodSignature(declaringClass, methodName, parameterSignatures, returnType);
+    return getMethodSignature(
+        declaringClass, getMethodSubSignature(methodName, returnType, parameterSignatures));
   }
 
   /**
-   * Always creates a new MethodSignature reusing the given ClassSignature.
+   * Returns the unique MethodSignature of the described method in the given class.
    *
    * @param declaringClassSignature the ClassSignature of the declaring class
    * @param methodName the method's name
@@ -319,8 +341,9 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       Type parameterSignature = getType(fqParameterName);
       parameterSignatures.add(parameterSignature);
     }
-    return new MethodSignature(
-        declaringClassSignature, methodName, parameterSignatures, returnType);
+    return getMethodSignature(
+        declaringClassSignature,
+        getMethodSubSignature(methodName, returnType, parameterSignatures));
   }
 
   @Override
@@ -330,14 +353,17 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       final Type fqReturnType,
       final List<Type> parameters) {
 
-    return new MethodSignature(declaringClassSignature, methodName, parameters, fqReturnType);
+    return getMethodSignature(
+        declaringClassSignature, getMethodSubSignature(methodName, fqReturnType, parameters));
   }
 
   @Override
   @Nonnull
   public MethodSignature getMethodSignature(
       @Nonnull ClassType declaringClassSignature, @Nonnull MethodSubSignature subSignature) {
-    return new MethodSignature(declaringClassSignature, subSignature);
+    return methodSignatureInterner.intern(
+        new MethodSignature(
+            declaringClassSignature, methodSubSignatureInterner.intern(subSignature)));
   }
 
   private static final class MethodSignatureParserPatternHolder {
@@ -441,7 +467,8 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       @Nonnull String name,
       @Nonnull Type returnType,
       @Nonnull Iterable<? extends Type> parameterSignatures) {
-    return new MethodSubSignature(name, parameterSignatures, returnType);
+    return methodSubSignatureInterner.intern(
+        new MethodSubSignature(name, parameterSignatures, returnType));
   }
 
   @Nonnull
@@ -598,26 +625,28 @@ public class JavaIdentifierFactory implements IdentifierFactory {
   public FieldSignature getFieldSignature(
       final String fieldName, final ClassType declaringClassSignature, final String fieldType) {
     Type type = getType(fieldType);
-    return new FieldSignature(declaringClassSignature, fieldName, type);
+    return getFieldSignature(declaringClassSignature, getFieldSubSignature(fieldName, type));
   }
 
   @Override
   public FieldSignature getFieldSignature(
       final String fieldName, final ClassType declaringClassSignature, final Type fieldType) {
-    return new FieldSignature(declaringClassSignature, fieldName, fieldType);
+    return getFieldSignature(declaringClassSignature, getFieldSubSignature(fieldName, fieldType));
   }
 
   @Override
   @Nonnull
   public FieldSignature getFieldSignature(
       @Nonnull ClassType declaringClassSignature, @Nonnull FieldSubSignature subSignature) {
-    return new FieldSignature(declaringClassSignature, subSignature);
+    return fieldSignatureInterner.intern(
+        new FieldSignature(
+            declaringClassSignature, fieldSubSignatureInterner.intern(subSignature)));
   }
 
   @Nonnull
   @Override
   public FieldSubSignature getFieldSubSignature(@Nonnull String name, @Nonnull Type type) {
-    return new FieldSubSignature(name, type);
+    return fieldSubSignatureInterner.intern(new FieldSubSignature(name, type));
   }
 
   @Nonnull
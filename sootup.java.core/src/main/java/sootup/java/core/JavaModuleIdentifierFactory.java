@@ -113,9 +113,7 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
   }
 
   /**
-   * Always creates a new ClassSignature. In opposite to PackageSignatures and ModuleSignatures,
-   * ClassSignatures are not cached because the are unique per class, and thus reusing them does not
-   * make sense.
+   * Returns the unique ClassSignature of the given class in the given module.
    *
    * @param className the simple name of the class
    * @param packageName the declaring package
@@ -129,7 +127,12 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
       final @Nonnull String packageName,
       final @Nonnull String moduleName) {
     ModulePackageName packageIdentifier = getPackageName(packageName, moduleName);
-    return new ModuleJavaClassType(className, packageIdentifier);
+    return (ModuleJavaClassType)
+        classTypeCache
+            .asMap()
+            .computeIfAbsent(
+                moduleName + '/' + packageName + '.' + className,
+                key -> new ModuleJavaClassType(className, packageIdentifier));
   }
 
   public ModuleJavaClassType getClassType(
@@ -137,7 +140,12 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
       final @Nonnull String packageName,
       final @Nonnull ModuleSignature moduleSignature) {
     ModulePackageName packageIdentifier = getPackageName(packageName, moduleSignature);
-    return new ModuleJavaClassType(className, packageIdentifier);
+    return (ModuleJavaClassType)
+        classTypeCache
+            .asMap()
+            .computeIfAbsent(
+                moduleSignature.getModuleName() + '/' + packageName + '.' + className,
+                key -> new ModuleJavaClassType(className, packageIdentifier));
   }
 
   /**
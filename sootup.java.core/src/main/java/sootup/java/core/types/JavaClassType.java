@@ -44,6 +44,11 @@ public class JavaClassType extends ClassType {
   @Nonnull private final String className;
   @Nonnull private final PackageName packageName;
 
+  /** Cached, as class types are compared and hashed far more often than they are created. */
+  @Nonnull private final String fullyQualifiedName;
+
+  private final int hashCode;
+
   /**
    * Internal: Constructs the fully-qualified ClassSignature. Instances should only be created by a
    * {@link IdentifierFactory}
@@ -59,6 +64,11 @@ public class JavaClassType extends ClassType {
     }
     this.className = realClassName;
     this.packageName = packageName;
+    this.fullyQualifiedName =
+        packageName.getName().isEmpty()
+            ? realClassName
+            : packageName.getName() + '.' + realClassName;
+    this.hashCode = Objects.hashCode(realClassName, packageName);
   }
 
   @Override
@@ -70,12 +80,15 @@ public class JavaClassType extends ClassType {
       return false;
     }
     JavaClassType that = (JavaClassType) o;
+    if (hashCode != that.hashCode) {
+      return false;
+    }
     return Objects.equal(className, that.className) && Objects.equal(packageName, that.packageName);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(className, packageName);
+    return hashCode;
   }
 
   /**
@@ -85,13 +98,7 @@ public class JavaClassType extends ClassType {
    * @return fully-qualified name
    */
   public String getFullyQualifiedName() {
-    StringBuilder sb = new StringBuilder();
-    if (!packageName.getName().isEmpty()) {
-      sb.append(packageName.getName());
-      sb.append('.');
-    }
-    sb.append(className);
-    return sb.toString();
+    return fullyQualifiedName;
   }
 
   @Override
@@ -22,7 +22,10 @@ package sootup.java.core.views;
  * #L%
  */
 
+import com.google.common.base.Suppliers;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -44,7 +47,11 @@ import sootup.java.core.types.JavaClassType;
 public class JavaModuleView extends JavaView {
 
   @Nonnull private final List<ModuleInfoAnalysisInputLocation> moduleInfoAnalysisInputLocations;
-  @Nonnull final HashMap<ModuleSignature, JavaModuleInfo> moduleInfoMap = new HashMap<>();
+
+  @Nonnull
+  final Map<ModuleSignature, JavaModuleInfo> moduleInfoMap = new ConcurrentHashMap<>();
+
+  @Nonnull private final Supplier<ModuleReadability> moduleReadability;
 
   public JavaModuleView(
       @Nonnull List<AnalysisInputLocation> inputLocations,
@@ -59,6 +66,8 @@ public class JavaModuleView extends JavaView {
       @Nonnull ClassCacheProvider cacheProvider) {
     super(inputLocations, cacheProvider, JavaModuleIdentifierFactory.getInstance());
     this.moduleInfoAnalysisInputLocations = moduleInputLocations;
+    this.moduleReadability =
+        Suppliers.memoize(() -> new ModuleReadability(this, moduleInputLocations));
     JavaModuleInfo unnamedModuleInfo = JavaModuleInfo.getUnnamedModuleInfo();
     moduleInfoMap.put(unnamedModuleInfo.getModuleSignature(), unnamedModuleInfo);
   }
@@ -73,7 +82,7 @@ public class JavaModuleView extends JavaView {
     for (ModuleInfoAnalysisInputLocation inputLocation : moduleInfoAnalysisInputLocations) {
       Optional<JavaModuleInfo> moduleInfoOpt = inputLocation.getModuleInfo(sig, this);
       if (moduleInfoOpt.isPresent()) {
-        moduleInfoMap.put(sig, moduleInfoOpt.get());
+        moduleInfoMap.putIfAbsent(sig, moduleInfoOpt.get());
         return moduleInfoOpt;
       }
     }
@@ -92,6 +101,12 @@ public class JavaModuleView extends JavaView {
       return true;
     }
 
+    Set<ModulePackageName> exportedPackages =
+        moduleReadability.get().getExportedPackages(packageName.getModuleSignature());
+    if (exportedPackages != null) {
+      return exportedPackages.contains(packageName);
+    }
+
     Optional<JavaModuleInfo> moduleInfoOpt = getModuleInfo(packageName.getModuleSignature());
     if (!moduleInfoOpt.isPresent()) {
       throw new IllegalStateException("ModuleDescriptor not available.");
@@ -126,7 +141,7 @@ public class JavaModuleView extends JavaView {
   protected Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type) {
 
     Optional<JavaSootClassSource> cs =
-        moduleInfoAnalysisInputLocations.stream()
+        getModuleLocations(type).stream()
             .map(location -> location.getClassSource(type, this))
             .filter(Optional::isPresent)
             .map(Optional::get)
@@ -140,8 +155,13 @@ public class JavaModuleView extends JavaView {
     return super.getClassSource(type);
   }
 
+  /**
+   * Resolves the class of the given type as seen from the given package, i.e. if the module of the
+   * package can read the class. Lookups do not take a lock: the readability of the modules is
+   * computed once for the module graph.
+   */
   @Nonnull
-  public synchronized Optional<JavaSootClass> getClass(
+  public Optional<JavaSootClass> getClass(
       @Nonnull ModulePackageName entryPackage, @Nonnull JavaClassType type) {
 
     Optional<JavaModuleInfo> startOpt = getModuleInfo(entryPackage.getModuleSignature());
@@ -212,18 +232,7 @@ public class JavaModuleView extends JavaView {
                         return true;
                       }
                       // does the current module have a reads relation to the target module
-                      if (moduleInfo.requires().stream()
-                          .anyMatch(
-                              req ->
-                                  req.getModuleSignature()
-                                      .equals(
-                                          ((ModulePackageName) sc.getClassType().getPackageName())
-                                              .getModuleSignature()))) {
-                        return true;
-                      }
-
-                      // or is it accessible via a transitive relation
-                      return isTransitiveRequires(
+                      return canRead(
                               moduleInfo,
                               ((ModulePackageName) sc.getClassType().getPackageName())
                                   .getModuleSignature())
@@ -238,11 +247,23 @@ public class JavaModuleView extends JavaView {
     return Optional.empty();
   }
 
+  /** returns true if the module requires moduleSignature directly or transitively */
+  private boolean canRead(JavaModuleInfo moduleInfo, ModuleSignature moduleSignature) {
+    ModuleReadability readability = moduleReadability.get();
+    if (readability.contains(moduleInfo.getModuleSignature())) {
+      return readability.reads(moduleInfo.getModuleSignature(), moduleSignature);
+    }
+
+    // the module is not part of the module graph of the input locations
+    return moduleInfo.requires().stream()
+            .anyMatch(req -> req.getModuleSignature().equals(moduleSignature))
+        || isTransitiveRequires(moduleInfo, moduleSignature);
+  }
+
   // find a transitive relation from entryModuleInfo to moduleSignature
   private boolean isTransitiveRequires(
       JavaModuleInfo entryModuleInfo, ModuleSignature moduleSignature) {
 
-    // TODO: expensive! cache results.. maybe union-find for transitive hull?
     Set<ModuleSignature> visited = new HashSet<>();
     visited.add(entryModuleInfo.getModuleSignature());
 
@@ -279,8 +300,7 @@ public class JavaModuleView extends JavaView {
 
   /** return the classes which belong to the moduleSignature */
   @Nonnull
-  public synchronized Collection<JavaSootClass> getModuleClasses(
-      @Nonnull ModuleSignature moduleSignature) {
+  public Collection<JavaSootClass> getModuleClasses(@Nonnull ModuleSignature moduleSignature) {
 
     Optional<JavaModuleInfo> startOpt = getModuleInfo(moduleSignature);
     if (!startOpt.isPresent()) {
@@ -398,7 +418,7 @@ public class JavaModuleView extends JavaView {
       ModuleSignature moduleSig, @Nonnull JavaClassType type) {
 
     // find the class in exported packages of modules
-    return moduleInfoAnalysisInputLocations.stream()
+    return getModuleLocations(type).stream()
         .map(location -> location.getClassSource(type, this))
         .filter(Optional::isPresent)
         .filter(
@@ -410,6 +430,24 @@ public class JavaModuleView extends JavaView {
         .map(srcOpt -> srcOpt.map(src -> (JavaSootClassSource) src));
   }
 
+  /**
+   * returns the input locations which contain the module of the type or all module input locations
+   * if the type is not part of a module they list
+   */
+  @Nonnull
+  private List<ModuleInfoAnalysisInputLocation> getModuleLocations(@Nonnull ClassType type) {
+    if (type.getPackageName() instanceof ModulePackageName) {
+      List<ModuleInfoAnalysisInputLocation> locations =
+          moduleReadability
+              .get()
+              .getLocations(((ModulePackageName) type.getPackageName()).getModuleSignature());
+      if (locations != null) {
+        return locations;
+      }
+    }
+    return moduleInfoAnalysisInputLocations;
+  }
+
   private boolean isProvidedInterfaceImplementation(@Nonnull JavaClassType type) {
     ModulePackageName packageName = (ModulePackageName) type.getPackageName();
     JavaModuleInfo moduleInfo = getModuleInfo(packageName.getModuleSignature()).get();
@@ -22,19 +22,31 @@ package sootup.java.core.views;
  * #L%
  */
 
+import com.google.common.base.Suppliers;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.cache.BodyRetentionPolicy;
 import sootup.core.cache.ClassCache;
 import sootup.core.cache.FullCache;
+import sootup.core.cache.StrongBodyRetentionPolicy;
 import sootup.core.cache.provider.ClassCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.frontend.AbstractClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.ClassLocationIndex;
+import sootup.core.model.SourceType;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.types.ClassType;
 import sootup.core.views.AbstractView;
+import sootup.core.views.BodyResolutionReport;
 import sootup.java.core.*;
 import sootup.java.core.types.AnnotationType;
 
@@ -42,6 +54,12 @@ import sootup.java.core.types.AnnotationType;
  * The Class JavaView manages the Java classes of the application being analyzed. This view cannot
  * be altered after its creation.
  *
+ * <p>By default every class resolution is serialized on the view. If the view is created with
+ * <code>concurrentResolution</code> enabled, cache hits do not take a lock and only the first
+ * thread that requests a given {@link ClassType} builds the class, while other threads requesting
+ * the same type wait for its result. This mode requires the {@link ClassCache} created by the
+ * given {@link ClassCacheProvider} to be thread-safe.
+ *
  * @author Linghui Luo created on 31.07.2018
  * @author Jan Martin Persch
  */
@@ -51,8 +69,24 @@ public class JavaView extends AbstractView {
   @Nonnull protected final List<AnalysisInputLocation> inputLocations;
   @Nonnull protected final ClassCache cache;
 
+  /**
+   * routes the lookup of a class to the input locations which may contain it; built on the first
+   * lookup, as indexing reads e.g. the central directories of all archives
+   */
+  @Nonnull
+  private final Supplier<ClassLocationIndex<AnalysisInputLocation>> classLocationIndex;
+
+  @Nonnull protected final BodyRetentionPolicy bodyRetentionPolicy;
+
   protected volatile boolean isFullyResolved = false;
 
+  /**
+   * classes which are currently built by a thread in concurrent resolution mode; <code>null</code>
+   * if the view serializes class resolution.
+   */
+  @Nullable
+  private final Map<ClassType, CompletableFuture<Optional<JavaSootClass>>> pendingResolutions;
+
   public JavaView(@Nonnull AnalysisInputLocation inputLocation) {
     this(Collections.singletonList(inputLocation));
   }
@@ -64,22 +98,100 @@ public class JavaView extends AbstractView {
   public JavaView(
       @Nonnull List<AnalysisInputLocation> inputLocations,
       @Nonnull ClassCacheProvider cacheProvider) {
-    this(inputLocations, cacheProvider, JavaIdentifierFactory.getInstance());
+    this(inputLocations, cacheProvider, false);
+  }
+
+  /**
+   * Creates a view which resolves classes concurrently if <code>concurrentResolution</code> is
+   * set. The cache created by the <code>cacheProvider</code> has to be thread-safe in that case.
+   */
+  public JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      boolean concurrentResolution) {
+    this(
+        inputLocations,
+        cacheProvider,
+        concurrentResolution,
+        StrongBodyRetentionPolicy.getInstance());
+  }
+
+  /**
+   * Creates a view whose frontends retain the resolved method bodies according to the given {@link
+   * BodyRetentionPolicy}, e.g. to run analyses over huge classpaths in a bounded heap.
+   */
+  public JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      boolean concurrentResolution,
+      @Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
+    this(
+        inputLocations,
+        cacheProvider,
+        JavaIdentifierFactory.getInstance(),
+        concurrentResolution,
+        bodyRetentionPolicy);
   }
 
   protected JavaView(
       @Nonnull List<AnalysisInputLocation> inputLocations,
       @Nonnull ClassCacheProvider cacheProvider,
       @Nonnull JavaIdentifierFactory idf) {
+    this(inputLocations, cacheProvider, idf, false);
+  }
+
+  protected JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull JavaIdentifierFactory idf,
+      boolean concurrentResolution) {
+    this(
+        inputLocations,
+        cacheProvider,
+        idf,
+        concurrentResolution,
+        StrongBodyRetentionPolicy.getInstance());
+  }
+
+  protected JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull JavaIdentifierFactory idf,
+      boolean concurrentResolution,
+      @Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
     this.inputLocations = inputLocations;
+    this.classLocationIndex = Suppliers.memoize(() -> new ClassLocationIndex<>(inputLocations));
     this.cache = cacheProvider.createCache();
     this.identifierFactory = idf;
+    this.pendingResolutions = concurrentResolution ? new ConcurrentHashMap<>() : null;
+    this.bodyRetentionPolicy = bodyRetentionPolicy;
+  }
+
+  @Override
+  @Nonnull
+  public BodyRetentionPolicy getBodyRetentionPolicy() {
+    return bodyRetentionPolicy;
+  }
+
+  /** Returns true if classes of this view are resolved concurrently instead of one at a time. */
+  public boolean isConcurrentResolution() {
+    return pendingResolutions != null;
   }
 
   /** Resolves all classes that are part of the view and stores them in the cache. */
   @Override
   @Nonnull
-  public synchronized Collection<JavaSootClass> getClasses() {
+  public Collection<JavaSootClass> getClasses() {
+    if (isConcurrentResolution()) {
+      return resolveAllClasses();
+    }
+    synchronized (this) {
+      return resolveAllClasses();
+    }
+  }
+
+  @Nonnull
+  private Collection<JavaSootClass> resolveAllClasses() {
     if (isFullyResolved && cache instanceof FullCache) {
       return cache.getClasses().stream()
           .map(clazz -> (JavaSootClass) clazz)
@@ -99,17 +211,110 @@ public class JavaView extends AbstractView {
     return resolvedClasses;
   }
 
+  /**
+   * Resolves all classes that are part of the view like {@link #getClasses()}, but scans the input
+   * locations and builds their classes with the given number of threads.
+   */
+  @Nonnull
+  public Collection<JavaSootClass> getClasses(int parallelism) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return getClasses(pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Resolves all classes that are part of the view like {@link #getClasses()}, but scans the input
+   * locations and their class sources in parallel on the given pool. The classes themselves are
+   * built in parallel as well if the view resolves classes concurrently, otherwise they are built
+   * one after another. In both cases the result is the same as the one of {@link #getClasses()}.
+   */
+  @Nonnull
+  public Collection<JavaSootClass> getClasses(@Nonnull ForkJoinPool pool) {
+    if (isFullyResolved && cache instanceof FullCache) {
+      return getClasses();
+    }
+
+    List<AbstractClassSource> classSources = new ArrayList<>();
+    pool.submit(
+            () ->
+                inputLocations.parallelStream()
+                    .map(location -> location.getClassSourcesInParallel(this))
+                    .collect(Collectors.toList()))
+        .join()
+        .forEach(classSources::addAll);
+
+    // as in the sequential resolution the first class source of a type determines its class
+    Map<ClassType, AbstractClassSource> firstClassSources = new LinkedHashMap<>();
+    classSources.forEach(src -> firstClassSources.putIfAbsent(src.getClassType(), src));
+
+    Map<ClassType, JavaSootClass> builtClasses;
+    if (isConcurrentResolution()) {
+      builtClasses =
+          pool.submit(
+                  () ->
+                      firstClassSources.values().parallelStream()
+                          .collect(
+                              Collectors.toMap(
+                                  AbstractClassSource::getClassType,
+                                  src -> buildClassFrom(src).get())))
+              .join();
+    } else {
+      synchronized (this) {
+        builtClasses = new HashMap<>();
+        for (AbstractClassSource src : firstClassSources.values()) {
+          builtClasses.put(src.getClassType(), buildClassFrom(src).get());
+        }
+      }
+    }
+
+    isFullyResolved = true;
+
+    return classSources.stream()
+        .map(src -> builtClasses.get(src.getClassType()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Resolves the bodies of all concrete methods of the application classes in parallel. Only the
+   * input locations with {@link SourceType#Application} are scanned, so library classes are neither
+   * built nor cached.
+   */
+  @Override
+  @Nonnull
+  public BodyResolutionReport resolveApplicationBodies(int parallelism) {
+    List<JavaSootClass> applicationClasses =
+        inputLocations.stream()
+            .filter(location -> location.getSourceType() == SourceType.Application)
+            .flatMap(location -> location.getClassSources(this).stream())
+            .map(classSource -> getClass(classSource.getClassType()))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            // a class of an earlier input location takes precedence over the application class
+            .filter(JavaSootClass::isApplicationClass)
+            .distinct()
+            .collect(Collectors.toList());
+    return resolveBodiesOfClasses(applicationClasses, parallelism);
+  }
+
   /** Resolves the class matching the provided {@link ClassType ClassType}. */
   @Override
   @Nonnull
-  public synchronized Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
-    JavaSootClass cachedClass = (JavaSootClass) cache.getClass(type);
-    if (cachedClass != null) {
-      return Optional.of(cachedClass);
+  public Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
+    if (isConcurrentResolution()) {
+      return resolveConcurrently(type, () -> getClassSource(type));
     }
+    synchronized (this) {
+      JavaSootClass cachedClass = (JavaSootClass) cache.getClass(type);
+      if (cachedClass != null) {
+        return Optional.of(cachedClass);
+      }
 
-    Optional<JavaSootClassSource> abstractClass = getClassSource(type);
-    return abstractClass.flatMap(this::buildClassFrom);
+      Optional<JavaSootClassSource> abstractClass = getClassSource(type);
+      return abstractClass.flatMap(this::buildClassFrom);
+    }
   }
 
   @Override
@@ -145,8 +350,10 @@ public class JavaView extends AbstractView {
 
   @Nonnull
   protected Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type) {
-    return inputLocations
-        .parallelStream()
+    ClassLocationIndex<AnalysisInputLocation> index = classLocationIndex.get();
+    List<AnalysisInputLocation> candidates =
+        index.hasIndexedLocations() ? index.getCandidateLocations(type) : inputLocations;
+    return (candidates.size() > 1 ? candidates.parallelStream() : candidates.stream())
         .map(location -> location.getClassSource(type, this))
         .filter(Optional::isPresent)
         // like javas behaviour: if multiple matching Classes(ClassTypes) are found on the
@@ -158,24 +365,88 @@ public class JavaView extends AbstractView {
   }
 
   @Nonnull
-  protected synchronized Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
+  protected Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
+    if (isConcurrentResolution()) {
+      return resolveConcurrently(classSource.getClassType(), () -> Optional.of(classSource));
+    }
+    synchronized (this) {
+      ClassType classType = classSource.getClassType();
+      JavaSootClass theClass;
+      if (cache.hasClass(classType)) {
+        theClass = (JavaSootClass) cache.getClass(classType);
+      } else {
+        theClass = buildAndCacheClass(classSource);
+      }
+      resolveAnnotationDefaults(theClass);
+      return Optional.of(theClass);
+    }
+  }
 
-    ClassType classType = classSource.getClassType();
-    JavaSootClass theClass;
-    if (cache.hasClass(classType)) {
-      theClass = (JavaSootClass) cache.getClass(classType);
-    } else {
-      theClass =
-          (JavaSootClass)
-              classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
-      cache.putClass(classType, theClass);
+  /**
+   * Resolves the class of the given type without holding a lock on the view. Cache hits return
+   * immediately, otherwise the first thread that registers a pending resolution for the type
+   * builds the class from the class source provided by <code>classSourceSupplier</code> and every
+   * other thread waits for that result.
+   */
+  @Nonnull
+  private Optional<JavaSootClass> resolveConcurrently(
+      @Nonnull ClassType type,
+      @Nonnull Supplier<Optional<? extends AbstractClassSource>> classSourceSupplier) {
+    assert pendingResolutions != null;
+    JavaSootClass cachedClass = (JavaSootClass) cache.getClass(type);
+    if (cachedClass != null) {
+      return Optional.of(cachedClass);
     }
 
+    CompletableFuture<Optional<JavaSootClass>> resolution = new CompletableFuture<>();
+    CompletableFuture<Optional<JavaSootClass>> pendingResolution =
+        pendingResolutions.putIfAbsent(type, resolution);
+    if (pendingResolution != null) {
+      try {
+        return pendingResolution.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+
+    Optional<JavaSootClass> resolvedClass;
+    try {
+      // another thread could have finished building the class after our cache lookup
+      cachedClass = (JavaSootClass) cache.getClass(type);
+      if (cachedClass != null) {
+        resolvedClass = Optional.of(cachedClass);
+      } else {
+        resolvedClass = classSourceSupplier.get().map(this::buildAndCacheClass);
+      }
+      resolution.complete(resolvedClass);
+    } catch (RuntimeException | Error e) {
+      resolution.completeExceptionally(e);
+      throw e;
+    } finally {
+      pendingResolutions.remove(type, resolution);
+    }
+
+    // done after the pending resolution is released, as it can resolve further classes
+    resolvedClass.ifPresent(this::resolveAnnotationDefaults);
+    return resolvedClass;
+  }
+
+  @Nonnull
+  private JavaSootClass buildAndCacheClass(@Nonnull AbstractClassSource classSource) {
+    JavaSootClass theClass =
+        (JavaSootClass)
+            classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
+    cache.putClass(classSource.getClassType(), theClass);
+    return theClass;
+  }
+
+  private void resolveAnnotationDefaults(@Nonnull JavaSootClass theClass) {
     if (theClass.getType() instanceof AnnotationType) {
       JavaAnnotationSootClass jasc = (JavaAnnotationSootClass) theClass;
       jasc.getAnnotations(Optional.of(this)).forEach(AnnotationUsage::getValuesWithDefaults);
     }
-
-    return Optional.of(theClass);
   }
 }
@@ -0,0 +1,166 @@
+package sootup.java.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.java.core.JavaModuleInfo;
+import sootup.java.core.ModuleInfoAnalysisInputLocation;
+import sootup.java.core.signatures.ModulePackageName;
+import sootup.java.core.signatures.ModuleSignature;
+
+/**
+ * The module graph of a {@link JavaModuleView}, computed once: which modules a module reads, which
+ * packages an explicit module exports and which input locations contain a module. The reads
+ * relation is stored in a bit matrix with a row for every module of the input locations and every
+ * module required by one of them. Instances are immutable, so they can be queried concurrently
+ * without taking a lock.
+ */
+final class ModuleReadability {
+
+  @Nonnull private final Map<ModuleSignature, Integer> moduleIndices = new HashMap<>();
+  private final int wordsPerRow;
+  @Nonnull private final long[] reads;
+
+  @Nonnull
+  private final Map<ModuleSignature, Set<ModulePackageName>> exportedPackages = new HashMap<>();
+
+  @Nonnull
+  private final Map<ModuleSignature, List<ModuleInfoAnalysisInputLocation>> moduleLocations =
+      new HashMap<>();
+
+  ModuleReadability(
+      @Nonnull JavaModuleView view,
+      @Nonnull List<ModuleInfoAnalysisInputLocation> moduleInfoAnalysisInputLocations) {
+    for (ModuleInfoAnalysisInputLocation location : moduleInfoAnalysisInputLocations) {
+      for (ModuleSignature module : location.getModules(view)) {
+        moduleLocations.computeIfAbsent(module, key -> new ArrayList<>()).add(location);
+      }
+    }
+
+    // index the modules of the input locations and, transitively, the modules they require
+    List<ModuleSignature> modules = new ArrayList<>();
+    List<JavaModuleInfo> moduleInfos = new ArrayList<>();
+    for (ModuleSignature module : moduleLocations.keySet()) {
+      addModule(module, modules);
+    }
+    addModule(JavaModuleInfo.getUnnamedModuleInfo().getModuleSignature(), modules);
+    for (int i = 0; i < modules.size(); i++) {
+      JavaModuleInfo moduleInfo = view.getModuleInfo(modules.get(i)).orElse(null);
+      moduleInfos.add(moduleInfo);
+      if (moduleInfo != null && isExplicit(moduleInfo)) {
+        for (JavaModuleInfo.ModuleReference require : moduleInfo.requires()) {
+          addModule(require.getModuleSignature(), modules);
+        }
+        Set<ModulePackageName> packages = new HashSet<>();
+        for (JavaModuleInfo.PackageReference export : moduleInfo.exports()) {
+          packages.add(export.getPackageName());
+        }
+        exportedPackages.put(modules.get(i), packages);
+      }
+    }
+
+    int moduleCount = modules.size();
+    wordsPerRow = (moduleCount + 63) >>> 6;
+    reads = new long[moduleCount * wordsPerRow];
+    for (int i = 0; i < moduleCount; i++) {
+      computeReads(i, moduleInfos);
+    }
+  }
+
+  private void addModule(@Nonnull ModuleSignature module, @Nonnull List<ModuleSignature> modules) {
+    if (!moduleIndices.containsKey(module)) {
+      moduleIndices.put(module, modules.size());
+      modules.add(module);
+    }
+  }
+
+  private static boolean isExplicit(@Nonnull JavaModuleInfo moduleInfo) {
+    return !moduleInfo.isAutomaticModule() && !moduleInfo.isUnnamedModule();
+  }
+
+  /**
+   * A module reads the modules it requires and, transitively, the modules required by those.
+   * Automatic modules and the unnamed module, which the view lets read every module, do not forward
+   * their readability, so their requirements are not followed.
+   */
+  private void computeReads(int module, @Nonnull List<JavaModuleInfo> moduleInfos) {
+    BitSet visited = new BitSet(moduleInfos.size());
+    visited.set(module);
+    Deque<Integer> worklist = new ArrayDeque<>();
+    worklist.add(module);
+    int rowOffset = module * wordsPerRow;
+    while (!worklist.isEmpty()) {
+      JavaModuleInfo moduleInfo = moduleInfos.get(worklist.removeFirst());
+      if (moduleInfo == null || !isExplicit(moduleInfo)) {
+        continue;
+      }
+      for (JavaModuleInfo.ModuleReference require : moduleInfo.requires()) {
+        int required = moduleIndices.get(require.getModuleSignature());
+        reads[rowOffset + (required >>> 6)] |= 1L << required;
+        if (!visited.get(required)) {
+          visited.set(required);
+          worklist.add(required);
+        }
+      }
+    }
+  }
+
+  /** Returns true if the module graph contains the given module. */
+  boolean contains(@Nonnull ModuleSignature module) {
+    return moduleIndices.containsKey(module);
+  }
+
+  /**
+   * Returns true if <code>module</code>, which has to be part of the module graph, reads <code>
+   * target</code> by requiring it directly or transitively.
+   */
+  boolean reads(@Nonnull ModuleSignature module, @Nonnull ModuleSignature target) {
+    Integer targetIndex = moduleIndices.get(target);
+    if (targetIndex == null) {
+      // a module that is not part of the graph is not required by any module
+      return false;
+    }
+    int index = moduleIndices.get(module) * wordsPerRow + (targetIndex >>> 6);
+    return (reads[index] & (1L << targetIndex)) != 0;
+  }
+
+  /**
+   * Returns the packages the given explicit module exports or <code>null</code> if it is an
+   * automatic module, the unnamed module or not part of the module graph.
+   */
+  @Nullable
+  Set<ModulePackageName> getExportedPackages(@Nonnull ModuleSignature module) {
+    return exportedPackages.get(module);
+  }
+
+  /**
+   * Returns the input locations that contain the given module in the order of the input locations
+   * of the view or <code>null</code> if no input location lists the module.
+   */
+  @Nullable
+  List<ModuleInfoAnalysisInputLocation> getLocations(@Nonnull ModuleSignature module) {
+    return moduleLocations.get(module);
+  }
+}
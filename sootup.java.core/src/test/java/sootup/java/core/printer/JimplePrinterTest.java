@@ -2,24 +2,41 @@ package sootup.java.core.printer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.OverridingClassSource;
+import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.inputlocation.EagerInputLocation;
+import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.jimple.basic.StmtPositionInfo;
-import sootup.core.jimple.common.stmt.JNopStmt;
-import sootup.core.jimple.common.stmt.JReturnVoidStmt;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JEqExpr;
+import sootup.core.jimple.common.stmt.*;
 import sootup.core.model.*;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.types.PrimitiveType;
 import sootup.core.util.Utils;
 import sootup.core.util.printer.JimplePrinter;
+import sootup.core.util.printer.JimpleWriter;
+import sootup.core.util.printer.LabeledStmtPrinter;
+import sootup.core.util.printer.NormalStmtPrinter;
 import sootup.core.views.View;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.views.JavaView;
@@ -55,6 +72,141 @@ public class JimplePrinterTest {
         Utils.filterJimple(writer.toString()));
   }
 
+  @Test
+  public void testWriterPrintsLikePrinter() throws IOException {
+    SootClass sootClass = buildClass();
+    JimplePrinter p = new JimplePrinter(JimplePrinter.Option.UseImports);
+    final StringWriter writer = new StringWriter();
+    p.printTo(sootClass, new PrintWriter(writer));
+    String expected = writer.toString();
+
+    JimpleWriter jimpleWriter = new JimpleWriter(JimplePrinter.Option.UseImports);
+    Path directory = Files.createTempDirectory("sootup-jimple");
+    try {
+      jimpleWriter.writeToDirectory(Collections.singletonList(sootClass), directory);
+      assertEquals(
+          expected,
+          new String(
+              Files.readAllBytes(directory.resolve("some.package.SomeClass.jimple")),
+              StandardCharsets.UTF_8));
+
+      Path archive = directory.resolve("jimple.zip");
+      jimpleWriter.writeToArchive(Collections.singletonList(sootClass), archive);
+      try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+        ZipEntry entry = zipFile.getEntry("some.package.SomeClass.jimple");
+        assertNotNull(entry);
+        assertEquals(
+            expected,
+            IOUtils.toString(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
+      }
+    } finally {
+      FileUtils.deleteDirectory(directory.toFile());
+    }
+  }
+
+  @Test
+  public void testWriterResetsPrintersBetweenClasses() throws IOException {
+    // the label numbers of the classes have a different width
+    List<SootClass> classes =
+        Arrays.asList(
+            buildClassWithLabels("some.package.FewLabels", 2),
+            buildClassWithLabels("some.package.ManyLabels", 12),
+            buildClassWithLabels("some.package.OtherLabels", 3));
+
+    for (JimplePrinter.Option option : JimplePrinter.Option.values()) {
+      Map<String, String> expected = new HashMap<>();
+      for (SootClass sootClass : classes) {
+        final StringWriter writer = new StringWriter();
+        new JimplePrinter(option).printTo(sootClass, new PrintWriter(writer));
+        expected.put(sootClass.getName() + JimpleWriter.FILE_EXTENSION, writer.toString());
+      }
+
+      // one class per batch, so that the calling thread prints every class with the same printers
+      JimpleWriter jimpleWriter = new JimpleWriter(option);
+      jimpleWriter.setArchiveBatchSize(1);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      jimpleWriter.writeToArchive(classes, out);
+
+      Map<String, String> written = new HashMap<>();
+      try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+          written.put(entry.getName(), IOUtils.toString(zip, StandardCharsets.UTF_8));
+        }
+      }
+      assertEquals(expected, written, option.toString());
+      assertTrue(written.get("some.package.FewLabels.jimple").contains("label2:"));
+      assertTrue(written.get("some.package.ManyLabels.jimple").contains("label12:"));
+    }
+  }
+
+  @Test
+  public void testClearDiscardsLabels() {
+    LabeledStmtPrinter printer = new NormalStmtPrinter();
+    SootMethod method =
+        buildClassWithLabels("some.package.Labels", 2).getMethods().iterator().next();
+    printer.initializeSootMethod(method.getBody().getStmtGraph());
+    assertEquals(2, printer.getLabels().size());
+
+    printer.clear();
+    assertNull(printer.getLabels());
+    assertNull(printer.getReferences());
+  }
+
+  /** builds a class with a method whose body branches to the given number of labels */
+  private SootClass buildClassWithLabels(String className, int labelCount) {
+    View view = new JavaView(new EagerInputLocation());
+    MethodSignature methodSignature =
+        view.getIdentifierFactory()
+            .getMethodSignature(className, "branches", "void", Collections.emptyList());
+
+    StmtPositionInfo noPosInfo = StmtPositionInfo.getNoStmtPositionInfo();
+    Local i = new Local("i", PrimitiveType.getInt());
+    List<Stmt> stmts = new ArrayList<>();
+    stmts.add(new JAssignStmt(i, IntConstant.getInstance(0), noPosInfo));
+    List<Stmt> targets = new ArrayList<>();
+    Map<BranchingStmt, List<Stmt>> branches = new HashMap<>();
+    for (int k = 0; k < labelCount; k++) {
+      BranchingStmt ifStmt = new JIfStmt(new JEqExpr(i, IntConstant.getInstance(k)), noPosInfo);
+      Stmt target = new JReturnVoidStmt(noPosInfo);
+      stmts.add(ifStmt);
+      targets.add(target);
+      branches.put(ifStmt, Collections.singletonList(target));
+    }
+    stmts.add(new JReturnVoidStmt(noPosInfo));
+    stmts.addAll(targets);
+
+    MutableBlockStmtGraph stmtGraph = new MutableBlockStmtGraph();
+    stmtGraph.initializeWith(stmts, branches, Collections.emptyList());
+    Body body =
+        Body.builder(stmtGraph)
+            .setMethodSignature(methodSignature)
+            .setLocals(Collections.singleton(i))
+            .setPosition(NoPositionInformation.getInstance())
+            .build();
+
+    SootMethod method =
+        new SootMethod(
+            new OverridingBodySource(methodSignature, body),
+            methodSignature,
+            EnumSet.of(MethodModifier.PUBLIC),
+            Collections.emptyList(),
+            NoPositionInformation.getInstance());
+
+    return new SootClass(
+        new OverridingClassSource(
+            Collections.singleton(method),
+            Collections.emptySet(),
+            EnumSet.of(ClassModifier.PUBLIC),
+            Collections.emptySet(),
+            JavaIdentifierFactory.getInstance().getClassType("java.lang.Object"),
+            null,
+            NoPositionInformation.getInstance(),
+            null,
+            view.getIdentifierFactory().getClassType(className),
+            new EagerInputLocation()),
+        SourceType.Application);
+  }
+
   private SootClass buildClass() {
 
     View view = new JavaView(new EagerInputLocation());
@@ -39,6 +39,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.OverridingClassSource;
@@ -72,8 +73,10 @@ public class WalaIRToJimpleConverter {
 
   final JavaIdentifierFactory identifierFactory;
   private final AnalysisInputLocation srcNamespace;
-  private final HashMap<String, Integer> clsWithInnerCls;
-  private final HashMap<String, String> walaToSootNameTable;
+  // the numbering of local classes depends on the order in which their names are converted, so
+  // both tables are shared by all converters created from one another
+  private final Map<String, Integer> clsWithInnerCls;
+  private final Map<String, String> walaToSootNameTable;
   private Set<JavaSootField> sootFields;
 
   public WalaIRToJimpleConverter(@Nonnull Set<String> sourceDirPath) {
@@ -81,7 +84,7 @@ public class WalaIRToJimpleConverter {
     // TODO: [ms] get identifierFactory from view - view can hold a different implementation
     identifierFactory = JavaIdentifierFactory.getInstance();
     clsWithInnerCls = new HashMap<>();
-    walaToSootNameTable = new HashMap<>();
+    walaToSootNameTable = new ConcurrentHashMap<>();
   }
 
   public WalaIRToJimpleConverter(@Nonnull Set<String> sourceDirPath, @Nonnull SourceType srcType) {
@@ -89,7 +92,34 @@ public class WalaIRToJimpleConverter {
     // TODO: [ms] get identifierFactory from view - view can hold a different implementation
     identifierFactory = JavaIdentifierFactory.getInstance();
     clsWithInnerCls = new HashMap<>();
-    walaToSootNameTable = new HashMap<>();
+    walaToSootNameTable = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Creates a converter which shares the input location and the class names converted so far with
+   * the given converter, so that both can convert different classes concurrently.
+   */
+  WalaIRToJimpleConverter(@Nonnull WalaIRToJimpleConverter converter) {
+    this(converter, converter.srcNamespace);
+  }
+
+  /**
+   * Creates a converter for classes of the given source type which shares the class names converted
+   * so far with the given converter.
+   */
+  WalaIRToJimpleConverter(
+      @Nonnull WalaIRToJimpleConverter converter,
+      @Nonnull Set<String> sourceDirPath,
+      @Nonnull SourceType srcType) {
+    this(converter, new JavaSourcePathAnalysisInputLocation(srcType, sourceDirPath));
+  }
+
+  private WalaIRToJimpleConverter(
+      @Nonnull WalaIRToJimpleConverter converter, @Nonnull AnalysisInputLocation srcNamespace) {
+    this.srcNamespace = srcNamespace;
+    identifierFactory = converter.identifierFactory;
+    clsWithInnerCls = converter.clsWithInnerCls;
+    walaToSootNameTable = converter.walaToSootNameTable;
   }
 
   /**
@@ -567,11 +597,16 @@ public class WalaIRToJimpleConverter {
    * @return className in sootup.format
    */
   public String convertClassNameFromWala(String className) {
-    String cl = className.intern();
-    final String sootName = walaToSootNameTable.get(cl);
+    final String sootName = walaToSootNameTable.get(className);
     if (sootName != null) {
       return sootName;
     }
+    synchronized (clsWithInnerCls) {
+      return walaToSootNameTable.computeIfAbsent(className, this::createSootClassName);
+    }
+  }
+
+  private String createSootClassName(String className) {
     StringBuilder sb = new StringBuilder();
     if (className.startsWith("L")) {
       className = className.substring(1);
@@ -613,9 +648,7 @@ public class WalaIRToJimpleConverter {
     } else {
       throw new RuntimeException("Can not convert WALA class name: " + className);
     }
-    String ret = sb.toString();
-    walaToSootNameTable.put(cl, ret);
-    return ret;
+    return sb.toString();
   }
 
   /**
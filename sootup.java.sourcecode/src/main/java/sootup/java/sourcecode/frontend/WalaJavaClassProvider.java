@@ -34,13 +34,13 @@ import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
 import com.ibm.wala.ipa.cha.IClassHierarchy;
 import com.ibm.wala.properties.WalaProperties;
 import com.ibm.wala.types.ClassLoaderReference;
-import com.ibm.wala.types.TypeName;
 import com.ibm.wala.util.config.FileOfClasses;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.frontend.ClassProvider;
@@ -64,8 +64,9 @@ public class WalaJavaClassProvider implements ClassProvider {
   private final SourceType sourceType;
   private Set<String> sourcePath;
   private IClassHierarchy classHierarchy;
-  private List<JavaSootClass> sootClasses;
-  private List<JavaSootClassSource> classSources;
+  @Nullable private volatile Map<String, JavaSourceLoaderImpl.JavaClass> walaClassesByName;
+  // converts the names of the classes of the source path, see getWalaClassesByName()
+  private WalaIRToJimpleConverter walaToSoot;
   private AnalysisScope scope;
   private ClassLoaderFactory factory;
   private final File walaPropertiesFile = new File("wala.properties");
@@ -213,32 +214,34 @@ public class WalaJavaClassProvider implements ClassProvider {
     }
   }
 
-  /** Use WALA's JAVA source code front-end to build class hierarchy. */
+  /**
+   * Use WALA's JAVA source code front-end to build class hierarchy.
+   *
+   * @throws IllegalStateException if WALA can not build the class hierarchy
+   */
   private void buildClassHierachy() {
     try {
       this.classHierarchy = ClassHierarchyFactory.make(scope, factory);
     } catch (ClassHierarchyException e) {
-      e.printStackTrace();
+      throw new IllegalStateException("The class hierarchy of the sources can not be built.", e);
     }
   }
 
   /**
-   * Return ClassSources converted from WALA classes.
+   * Return ClassSources converted from WALA classes. The classes are converted in parallel, the
+   * returned list keeps the order in which WALA lists them.
    *
    * @return list of classes
    */
   public List<JavaSootClassSource> getClassSources(SourceType srcType) {
-    Iterator<IClass> it = iterateWalaClasses();
-    if (classSources == null) {
-      classSources = new ArrayList<>();
-    }
-    WalaIRToJimpleConverter walaToSoot = new WalaIRToJimpleConverter(this.sourcePath, srcType);
-    while (it.hasNext()) {
-      JavaSourceLoaderImpl.JavaClass walaClass = (JavaSourceLoaderImpl.JavaClass) it.next();
-      JavaSootClassSource sootClass = walaToSoot.convertToClassSource(walaClass);
-      classSources.add(sootClass);
-    }
-    return classSources;
+    List<JavaSourceLoaderImpl.JavaClass> walaClasses =
+        new ArrayList<>(getWalaClassesByName().values());
+    WalaIRToJimpleConverter converter =
+        new WalaIRToJimpleConverter(walaToSoot, this.sourcePath, srcType);
+    // a converter collects the fields of the class it converts, so every class needs its own one
+    return walaClasses.parallelStream()
+        .map(walaClass -> new WalaIRToJimpleConverter(converter).convertToClassSource(walaClass))
+        .collect(Collectors.toList());
   }
 
   /**
@@ -250,28 +253,44 @@ public class WalaJavaClassProvider implements ClassProvider {
    */
   @Deprecated
   public List<JavaSootClass> getSootClasses() {
-    Iterator<IClass> it = iterateWalaClasses();
-    if (sootClasses == null) {
-      sootClasses = new ArrayList<>();
-    }
-    WalaIRToJimpleConverter walaToSoot = new WalaIRToJimpleConverter(this.sourcePath);
-    while (it.hasNext()) {
-      JavaSourceLoaderImpl.JavaClass walaClass = (JavaSourceLoaderImpl.JavaClass) it.next();
-      JavaSootClass sootClass = walaToSoot.convertClass(walaClass);
-      sootClasses.add(sootClass);
-    }
-    return sootClasses;
+    List<JavaSourceLoaderImpl.JavaClass> walaClasses =
+        new ArrayList<>(getWalaClassesByName().values());
+    return walaClasses.parallelStream()
+        .map(walaClass -> new WalaIRToJimpleConverter(walaToSoot).convertClass(walaClass))
+        .collect(Collectors.toList());
   }
 
-  private Iterator<IClass> iterateWalaClasses() {
-    if (classHierarchy == null) {
-      try {
-        buildClassHierachy();
-      } catch (Exception e) {
-        e.printStackTrace();
+  /**
+   * Returns the source classes indexed by their name in Soot's format, inner and local classes
+   * included. The index is built once, after the class hierarchy has been built.
+   */
+  @Nonnull
+  private Map<String, JavaSourceLoaderImpl.JavaClass> getWalaClassesByName() {
+    Map<String, JavaSourceLoaderImpl.JavaClass> classes = walaClassesByName;
+    if (classes != null) {
+      return classes;
+    }
+    synchronized (this) {
+      if (walaClassesByName == null) {
+        if (classHierarchy == null) {
+          buildClassHierachy();
+        }
+        WalaIRToJimpleConverter converter = new WalaIRToJimpleConverter(this.sourcePath);
+        classes = new LinkedHashMap<>();
+        // converting the names in the order of WALA's iteration numbers the local classes the same
+        // way in every run, no matter in which order the classes are converted afterwards
+        Iterator<IClass> it =
+            classHierarchy.getLoader(JavaSourceAnalysisScope.SOURCE).iterateAllClasses();
+        while (it.hasNext()) {
+          JavaSourceLoaderImpl.JavaClass walaClass = (JavaSourceLoaderImpl.JavaClass) it.next();
+          String className = converter.convertClassNameFromWala(walaClass.getName().toString());
+          classes.put(className, walaClass);
+        }
+        walaToSoot = converter;
+        walaClassesByName = classes;
       }
+      return walaClassesByName;
     }
-    return classHierarchy.getLoader(JavaSourceAnalysisScope.SOURCE).iterateAllClasses();
   }
 
   /**
@@ -282,52 +301,14 @@ public class WalaJavaClassProvider implements ClassProvider {
    */
   @Deprecated
   public Optional<SootClass> getSootClass(JavaClassType signature) {
-    if (classHierarchy == null) {
-      buildClassHierachy();
-    }
-    WalaIRToJimpleConverter walaToSoot = new WalaIRToJimpleConverter(this.sourcePath);
-    JavaSourceLoaderImpl.JavaClass walaClass = loadWalaClass(signature, walaToSoot);
-    return Optional.ofNullable(walaClass).map(walaToSoot::convertClass);
+    return Optional.ofNullable(getWalaClassesByName().get(signature.getFullyQualifiedName()))
+        .map(walaClass -> new WalaIRToJimpleConverter(walaToSoot).convertClass(walaClass));
   }
 
   /** Return a ClassSource with the given signature converted from a WALA class. */
   public Optional<JavaSootClassSource> getClassSource(ClassType signature) {
-    if (classHierarchy == null) {
-      buildClassHierachy();
-    }
-    WalaIRToJimpleConverter walaToSoot = new WalaIRToJimpleConverter(this.sourcePath);
-    JavaSourceLoaderImpl.JavaClass walaClass = loadWalaClass(signature, walaToSoot);
-    return Optional.ofNullable(walaClass).map(walaToSoot::convertToClassSource);
-  }
-
-  @Nullable
-  private JavaSourceLoaderImpl.JavaClass loadWalaClass(
-      ClassType signature, WalaIRToJimpleConverter walaToSoot) {
-    String className = walaToSoot.convertClassNameFromSoot(signature.getFullyQualifiedName());
-
-    IClass clazz =
-        classHierarchy
-            .getLoader(JavaSourceAnalysisScope.SOURCE)
-            .lookupClass(TypeName.findOrCreate(className));
-
-    JavaSourceLoaderImpl.JavaClass walaClass = null;
-    if (clazz instanceof JavaSourceLoaderImpl.JavaClass) {
-      walaClass = (JavaSourceLoaderImpl.JavaClass) clazz;
-    }
-
-    if (walaClass == null && className.contains("$")) {
-      // search for a possible inner class
-      Iterator<IClass> it =
-          classHierarchy.getLoader(JavaSourceAnalysisScope.SOURCE).iterateAllClasses();
-      while (it.hasNext()) {
-        JavaSourceLoaderImpl.JavaClass c = (JavaSourceLoaderImpl.JavaClass) it.next();
-        String cname = walaToSoot.convertClassNameFromWala(c.getName().toString());
-        if (cname.equals(signature.getFullyQualifiedName())) {
-          walaClass = c;
-        }
-      }
-    }
-    return walaClass;
+    return Optional.ofNullable(getWalaClassesByName().get(signature.getFullyQualifiedName()))
+        .map(walaClass -> new WalaIRToJimpleConverter(walaToSoot).convertToClassSource(walaClass));
   }
 
   private void setExclusions(@Nullable String exclusionFilePath) {
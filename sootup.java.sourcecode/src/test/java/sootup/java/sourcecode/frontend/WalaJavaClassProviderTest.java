@@ -2,12 +2,22 @@ package sootup.java.sourcecode.frontend;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import sootup.core.frontend.SootClassSource;
+import sootup.core.model.SourceType;
 import sootup.core.signatures.PackageName;
+import sootup.core.types.ClassType;
 import sootup.core.util.ImmutableUtils;
 import sootup.java.core.JavaSootClassSource;
 import sootup.java.core.types.JavaClassType;
@@ -48,4 +58,63 @@ public class WalaJavaClassProviderTest {
 
     assertEquals(content, (classSource));
   }
+
+  @Test
+  public void testClassSourcesAreIndexedByName(@TempDir Path srcDir) throws IOException {
+    // WALA does not convert traps correctly, so only classes without exception handling are
+    // converted
+    String walaTests = "../shared-test-resources/wala-tests/";
+    for (String file :
+        Arrays.asList(
+            "AnonymousClass.java", "InnerClass.java", "InnerClassA.java", "LocalClass.java")) {
+      Files.copy(Paths.get(walaTests, file), srcDir.resolve(file));
+    }
+    String exclusionFilePath = walaTests + "WalaExclusions.txt";
+
+    List<ClassType> classTypes =
+        new WalaJavaClassProvider(srcDir.toString(), exclusionFilePath)
+            .getClassSources(SourceType.Application).stream()
+                .map(SootClassSource::getClassType)
+                .collect(Collectors.toList());
+    assertEquals(
+        new HashSet<>(
+            Arrays.asList(
+                "AnonymousClass",
+                "AnonymousClass$1",
+                "AnonymousClass$2",
+                "AnonymousClass$Foo",
+                "AnonymousClass1$FooImpl",
+                "InnerClass",
+                "InnerClass$WhatsIt",
+                "InnerClass$WhatsIt$NotAgain",
+                "InnerClass$WhatsThat",
+                "InnerClassA",
+                "InnerClassA$AA",
+                "InnerClassA$AB",
+                "InnerClassA$AB$ABA",
+                "InnerClassA$AB$ABA$ABAA",
+                "InnerClassA$AB$ABA$ABAB",
+                "InnerClassA$AB$ABSubA",
+                "InnerClassA$AB$ABSubA$ABSubAA",
+                "LocalClass",
+                "LocalClass1$Foo",
+                "LocalClass2$Foo")),
+        classTypes.stream().map(ClassType::getFullyQualifiedName).collect(Collectors.toSet()));
+    // the classes are converted in parallel, but listed and named the same way in every run
+    assertEquals(
+        classTypes,
+        new WalaJavaClassProvider(srcDir.toString(), exclusionFilePath)
+            .getClassSources(SourceType.Application).stream()
+                .map(SootClassSource::getClassType)
+                .collect(Collectors.toList()));
+
+    // inner, anonymous and local classes can be looked up by their name
+    WalaJavaClassProvider provider =
+        new WalaJavaClassProvider(srcDir.toString(), exclusionFilePath);
+    for (ClassType type : classTypes) {
+      Optional<JavaSootClassSource> classSource = provider.getClassSource(type);
+      assertTrue(classSource.isPresent(), type.toString());
+      assertEquals(type, classSource.get().getClassType());
+    }
+  }
 }
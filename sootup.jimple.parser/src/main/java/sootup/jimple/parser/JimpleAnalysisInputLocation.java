@@ -89,31 +89,39 @@ public class JimpleAnalysisInputLocation implements AnalysisInputLocation {
     return bodyInterceptors;
   }
 
+  /**
+   * Finds the Jimple files under the path and converts them in parallel. The class sources are
+   * returned in the order in which the files are found.
+   */
   @Nonnull
   List<SootClassSource> walkDirectory(
       @Nonnull Path dirPath,
       @Nonnull IdentifierFactory factory,
       @Nonnull ClassProvider classProvider) {
 
+    final List<Path> jimpleFiles;
     try (final Stream<Path> walk = Files.walk(path)) {
-      return walk.filter(filePath -> PathUtils.hasExtension(filePath, FileType.JIMPLE))
-          .flatMap(
-              p -> {
-                String fullyQualifiedName =
-                    FilenameUtils.removeExtension(
-                        p.subpath(path.getNameCount(), p.getNameCount())
-                            .toString()
-                            .replace(p.getFileSystem().getSeparator(), "."));
-
-                return StreamUtils.optionalToStream(
-                    classProvider.createClassSource(
-                        this, p, factory.getClassType(fullyQualifiedName)));
-              })
-          .collect(Collectors.toList());
-
+      jimpleFiles =
+          walk.filter(filePath -> PathUtils.hasExtension(filePath, FileType.JIMPLE))
+              .collect(Collectors.toList());
     } catch (IOException e) {
       throw new IllegalArgumentException(e);
     }
+
+    return jimpleFiles.parallelStream()
+        .flatMap(
+            p -> {
+              String fullyQualifiedName =
+                  FilenameUtils.removeExtension(
+                      p.subpath(path.getNameCount(), p.getNameCount())
+                          .toString()
+                          .replace(p.getFileSystem().getSeparator(), "."));
+
+              return StreamUtils.optionalToStream(
+                  classProvider.createClassSource(
+                      this, p, factory.getClassType(fullyQualifiedName)));
+            })
+        .collect(Collectors.toList());
   }
 
   @Override
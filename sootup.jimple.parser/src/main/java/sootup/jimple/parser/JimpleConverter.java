@@ -94,7 +94,7 @@ public class JimpleConverter {
     ClassVisitor classVisitor;
     try {
       classVisitor = new ClassVisitor(sourcePath);
-      classVisitor.visit(parser.file());
+      classVisitor.visit(JimpleConverterUtil.parseFile(parser));
     } catch (ParseCancellationException ex) {
       throw new ResolveException("Syntax Error", sourcePath, ex);
     }
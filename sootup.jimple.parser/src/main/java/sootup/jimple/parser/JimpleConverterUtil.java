@@ -26,6 +26,8 @@ import java.nio.file.Path;
 import java.util.*;
 import javax.annotation.Nonnull;
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import sootup.core.IdentifierFactory;
 import sootup.core.frontend.ResolveException;
 import sootup.core.jimple.Jimple;
@@ -276,4 +278,35 @@ public class JimpleConverterUtil {
         });
     return parser;
   }
+
+  /**
+   * Parses the file with the faster SLL prediction of ANTLR first and only parses it again with
+   * full LL prediction if that fails. SLL prediction can fail for valid input, but a successful SLL
+   * parse is the same as the LL parse, so the result and the reported syntax errors do not depend
+   * on the stage that produced them. The error strategy, error listeners and prediction mode of the
+   * parser are restored for the LL stage.
+   */
+  @Nonnull
+  public static JimpleParser.FileContext parseFile(@Nonnull JimpleParser parser) {
+    final ANTLRErrorStrategy errorHandler = parser.getErrorHandler();
+    final List<? extends ANTLRErrorListener> errorListeners =
+        new ArrayList<>(parser.getErrorListeners());
+    final PredictionMode predictionMode = parser.getInterpreter().getPredictionMode();
+
+    parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+    parser.setErrorHandler(new BailErrorStrategy());
+    // a failing SLL stage is no syntax error
+    parser.removeErrorListeners();
+    try {
+      return parser.file();
+    } catch (ParseCancellationException e) {
+      // rewinds the token stream
+      parser.reset();
+    } finally {
+      parser.setErrorHandler(errorHandler);
+      errorListeners.forEach(parser::addErrorListener);
+      parser.getInterpreter().setPredictionMode(predictionMode);
+    }
+    return parser.file();
+  }
 }
@@ -0,0 +1,125 @@
+package sootup.jimple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.frontend.ResolveException;
+import sootup.core.model.SourceType;
+import sootup.jimple.JimpleParser;
+
+/**
+ * Measures parsing the Jimple files of the test resources, once with full LL prediction only and
+ * once with SLL prediction first and LL as fallback, and the time {@link
+ * JimpleAnalysisInputLocation} needs to convert all files with one thread and in parallel.
+ */
+@Tag("Benchmark")
+public class JimpleParsingBenchmark {
+
+  private static final List<Path> CORPUS =
+      Arrays.asList(
+          Paths.get("../shared-test-resources/wala-test-jimple"),
+          Paths.get("../sootup.java.core/src/test/resources/jimple-target"),
+          Paths.get("../sootup.java.core/src/test/java8/resources/reference-jimple"),
+          Paths.get("src/test/java/resources/jimple"));
+
+  private static final int ROUNDS = 5;
+
+  @Test
+  public void parsing() throws IOException {
+    Map<Path, String> files = new LinkedHashMap<>();
+    for (Path directory : CORPUS) {
+      try (Stream<Path> walk = Files.walk(directory)) {
+        for (Path file :
+            walk.filter(p -> p.toString().endsWith(".jimple")).collect(Collectors.toList())) {
+          files.put(file, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        }
+      }
+    }
+    assertTrue(files.size() > 0);
+
+    Map<Path, String> llTrees =
+        parseAll(files, JimpleParser::file, "LL"); // the behaviour before the SLL stage
+    Map<Path, String> twoStageTrees =
+        parseAll(files, JimpleConverterUtil::parseFile, "SLL, then LL");
+    // invalid files are rejected and valid ones result in the same tree in both modes
+    assertEquals(llTrees, twoStageTrees);
+  }
+
+  private Map<Path, String> parseAll(
+      Map<Path, String> files,
+      Function<JimpleParser, JimpleParser.FileContext> parse,
+      String mode) {
+    Map<Path, String> trees = new HashMap<>();
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (Map.Entry<Path, String> file : files.entrySet()) {
+        JimpleParser parser =
+            JimpleConverterUtil.createJimpleParser(
+                CharStreams.fromString(file.getValue()), file.getKey());
+        parser.setErrorHandler(new BailErrorStrategy());
+        String tree;
+        try {
+          tree = parse.apply(parser).toStringTree(parser);
+        } catch (ResolveException | ParseCancellationException e) {
+          tree = "syntax error";
+        }
+        trees.put(file.getKey(), tree);
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf(
+        "%-14s %d files, best of %d rounds: %d ms%n",
+        mode, files.size(), ROUNDS, TimeUnit.NANOSECONDS.toMillis(best));
+    return trees;
+  }
+
+  @Test
+  public void loading() throws Exception {
+    int threads = Runtime.getRuntime().availableProcessors();
+    for (int parallelism : new int[] {1, threads}) {
+      ForkJoinPool pool = new ForkJoinPool(parallelism);
+      try {
+        long best = Long.MAX_VALUE;
+        int classes = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+          long start = System.nanoTime();
+          // parallel streams which are started inside of the pool run in the pool
+          classes = pool.submit(JimpleParsingBenchmark::loadCorpus).get();
+          best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf(
+            "%2d threads: %d classes, best of %d rounds: %d ms%n",
+            parallelism, classes, ROUNDS, TimeUnit.NANOSECONDS.toMillis(best));
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  private static int loadCorpus() {
+    int classes = 0;
+    for (Path directory : CORPUS) {
+      JimpleAnalysisInputLocation inputLocation =
+          new JimpleAnalysisInputLocation(directory, SourceType.Application);
+      classes += inputLocation.getClassSources(new JimpleView(inputLocation)).size();
+    }
+    return classes;
+  }
+}
@@ -0,0 +1,153 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.views.BatchBodyResolver;
+import sootup.core.views.BodyResolutionReport;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.JavaView;
+
+/** Tests the parallel resolution of many bodies of a view. It uses the MiniApp.jar. */
+@Tag("Java8")
+public class BatchBodyResolutionTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  private static JavaView createView() {
+    return new JavaView(
+        Collections.singletonList(
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application)),
+        new FullCacheProvider(),
+        true);
+  }
+
+  private static List<JavaSootMethod> concreteMethods(JavaView view) {
+    return view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void resolveApplicationBodies() {
+    JavaView view = createView();
+    List<JavaSootMethod> methods = concreteMethods(view);
+    assertFalse(methods.isEmpty());
+
+    BodyResolutionReport report = view.resolveApplicationBodies(4);
+    assertTrue(report.isSuccessful());
+    assertEquals(methods.size(), report.getResolvedBodyCount());
+
+    // the bodies are resolved already and equal to the ones resolved sequentially
+    JavaView sequentialView = createView();
+    for (JavaSootMethod method : methods) {
+      assertSame(method.getBody(), method.getBody());
+      assertEquals(
+          sequentialView.getMethod(method.getSignature()).get().getBody().toString(),
+          method.getBody().toString());
+    }
+  }
+
+  @Test
+  public void resolveApplicationBodiesDoesNotResolveLibraryClasses() {
+    List<JavaSootMethod> applicationMethods = concreteMethods(createView());
+    int applicationClassCount = createView().getClasses().size();
+
+    JavaView view =
+        new JavaView(
+            Arrays.asList(
+                PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application),
+                PathBasedAnalysisInputLocation.create(
+                    Paths.get("../shared-test-resources/multi-release-jar/mrjar.jar"),
+                    SourceType.Library)),
+            new FullCacheProvider(),
+            true);
+    BodyResolutionReport report = view.resolveApplicationBodies(4);
+    assertTrue(report.isSuccessful());
+    assertEquals(applicationMethods.size(), report.getResolvedBodyCount());
+    assertEquals(applicationClassCount, view.getCachedClassesCount());
+  }
+
+  @Test
+  public void errorsDoNotAbortTheBatch() {
+    JavaView view = createView();
+    List<JavaSootMethod> methods = concreteMethods(view);
+    MethodSignature failing = methods.get(0).getSignature();
+
+    BodyResolutionReport report =
+        new BatchBodyResolver(2)
+            .resolveBodies(
+                methods,
+                (method, body) -> {
+                  if (method.getSignature().equals(failing)) {
+                    throw new StackOverflowError();
+                  }
+                });
+
+    assertEquals(methods.size() - 1, report.getResolvedBodyCount());
+    assertEquals(Collections.singleton(failing), report.getFailures().keySet());
+    assertTrue(report.getFailures().get(failing) instanceof StackOverflowError);
+  }
+
+  @Test
+  public void failuresDoNotAbortTheBatch() {
+    JavaView view = createView();
+    List<JavaSootMethod> methods = concreteMethods(view);
+    MethodSignature failing = methods.get(0).getSignature();
+
+    BodyResolutionReport report =
+        new BatchBodyResolver(2)
+            .resolveBodies(
+                methods,
+                (method, body) -> {
+                  if (method.getSignature().equals(failing)) {
+                    throw new IllegalStateException("transformation failed");
+                  }
+                });
+
+    assertFalse(report.isSuccessful());
+    assertEquals(methods.size() - 1, report.getResolvedBodyCount());
+    assertEquals(Collections.singleton(failing), report.getFailures().keySet());
+    assertEquals("transformation failed", report.getFailures().get(failing).getMessage());
+  }
+
+  @Test
+  public void pendingMethodsAreBounded() {
+    JavaView view = createView();
+    List<JavaSootMethod> methods = concreteMethods(view);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    try {
+      BodyResolutionReport report =
+          new BatchBodyResolver(executor, 2)
+              .resolveBodies(
+                  methods,
+                  (method, body) -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    running.decrementAndGet();
+                  });
+      assertEquals(methods.size(), report.getResolvedBodyCount());
+      assertTrue(maxRunning.get() <= 2);
+      // the given pool is not shut down by the resolver
+      assertFalse(executor.isShutdown());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.LRUBodyRetentionPolicy;
+import sootup.core.cache.SoftBodyRetentionPolicy;
+import sootup.core.cache.StrongBodyRetentionPolicy;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Tests the {@link sootup.core.cache.BodyRetentionPolicy BodyRetentionPolicies} of a view. It uses
+ * the MiniApp.jar for testing.
+ */
+@Tag("Java8")
+public class BodyRetentionTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+  static List<AnalysisInputLocation> inputLocations;
+
+  /** Load the jar file for analysis as input location. */
+  @BeforeAll
+  public static void setupProject() {
+    inputLocations =
+        Collections.singletonList(
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application));
+  }
+
+  private static List<SootMethod> getConcreteMethods(JavaView view) {
+    return view.getClasses().stream()
+        .flatMap(sootClass -> sootClass.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void strongRetentionTest() {
+    JavaView view = new JavaView(inputLocations);
+    assertSame(StrongBodyRetentionPolicy.getInstance(), view.getBodyRetentionPolicy());
+
+    SootMethod method = getConcreteMethods(view).get(0);
+    assertFalse(method.isBodyResolved());
+    Body body = method.getBody();
+    assertTrue(method.isBodyResolved());
+    assertSame(body, method.getBody());
+    assertSame(body, method.getRetainedBody().get());
+  }
+
+  @Test
+  public void softRetentionTest() {
+    JavaView view =
+        new JavaView(
+            inputLocations, new FullCacheProvider(), false, SoftBodyRetentionPolicy.getInstance());
+
+    SootMethod method = getConcreteMethods(view).get(0);
+    assertSame(SoftBodyRetentionPolicy.getInstance(), method.getBodyRetentionPolicy());
+    // the body is strongly reachable from here, so it can not be dropped
+    Body body = method.getBody();
+    assertSame(body, method.getBody());
+  }
+
+  @Test
+  public void lruRetentionTest() {
+    LRUBodyRetentionPolicy policy = new LRUBodyRetentionPolicy(2);
+    JavaView view = new JavaView(inputLocations, new FullCacheProvider(), false, policy);
+
+    List<SootMethod> methods = getConcreteMethods(view);
+    assertTrue(methods.size() > 2);
+    List<String> bodies =
+        methods.stream().map(method -> method.getBody().toString()).collect(Collectors.toList());
+    assertEquals(2, policy.getRetainedBodyCount());
+
+    SootMethod first = methods.get(0);
+    assertFalse(first.isBodyResolved());
+    assertTrue(methods.get(methods.size() - 1).isBodyResolved());
+
+    // a dropped body is resolved again from its body source
+    Body body = first.getBody();
+    assertEquals(bodies.get(0), body.toString());
+    assertTrue(first.isBodyResolved());
+    assertSame(body, first.getBody());
+    assertEquals(2, policy.getRetainedBodyCount());
+
+    // the policy is kept when a method is copied
+    SootMethod copy = first.withModifiers(first.getModifiers());
+    assertSame(policy, copy.getBodyRetentionPolicy());
+    assertNotSame(body, copy.getBody());
+    assertEquals(bodies.get(0), copy.getBody().toString());
+  }
+
+  @Test
+  public void invalidLruRetentionTest() {
+    assertThrows(IllegalArgumentException.class, () -> new LRUBodyRetentionPolicy(0));
+  }
+}
@@ -1,7 +1,12 @@
 package sootup.tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.google.common.cache.CacheStats;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
@@ -9,9 +14,14 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.cache.LRUCache;
+import sootup.core.cache.WeightedLRUCache;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.cache.provider.LRUCacheProvider;
+import sootup.core.cache.provider.WeightedLRUCacheProvider;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
 import sootup.core.model.SourceType;
 import sootup.core.types.ClassType;
 import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
@@ -75,4 +85,70 @@ public class CacheTest {
     newView.getClasses();
     assertEquals(6, newView.getCachedClassesCount());
   }
+
+  /** Test the eviction order and the statistics of the {@link sootup.core.cache.LRUCache} class */
+  @Test
+  public void lruCacheStatsTest() {
+    JavaView view = new JavaView(inputLocations);
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    ClassType utilsOperationClassType =
+        view.getIdentifierFactory().getClassType("utils.Operations");
+    ClassType departmentClassType = view.getIdentifierFactory().getClassType("ds.Department");
+
+    LRUCache cache = new LRUCache(2);
+    cache.putClass(miniAppClassType, view.getClass(miniAppClassType).get());
+    cache.putClass(utilsOperationClassType, view.getClass(utilsOperationClassType).get());
+    // MiniApp becomes the most recently used class
+    assertNotNull(cache.getClass(miniAppClassType));
+    cache.putClass(departmentClassType, view.getClass(departmentClassType).get());
+
+    assertEquals(2, cache.size());
+    assertNull(cache.getClass(utilsOperationClassType));
+    assertNotNull(cache.getClass(miniAppClassType));
+    assertNotNull(cache.getClass(departmentClassType));
+
+    CacheStats stats = cache.getStats();
+    assertEquals(3, stats.hitCount());
+    assertEquals(1, stats.missCount());
+    assertEquals(1, stats.evictionCount());
+  }
+
+  /** Test the {@link sootup.core.cache.WeightedLRUCache} class */
+  @Test
+  public void weightedLruCacheTest() {
+    JavaView view = new JavaView(inputLocations, new WeightedLRUCacheProvider(1000));
+    view.getClasses();
+    assertEquals(6, view.getCachedClassesCount());
+
+    WeightedLRUCache cache = new WeightedLRUCache(20);
+    // weighs a class with resolved bodies like the whole cache except for one class
+    WeightedLRUCache boundedCache =
+        new WeightedLRUCache(
+            19, sootClass -> WeightedLRUCache.estimateRetainedSize(sootClass) > 20 ? 15 : 1);
+    for (SootClass sootClass : view.getClasses()) {
+      cache.putClass(sootClass.getType(), sootClass);
+      boundedCache.putClass(sootClass.getType(), sootClass);
+    }
+    assertEquals(6, cache.size());
+    assertEquals(6, boundedCache.size());
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    SootClass miniApp = cache.getClass(miniAppClassType);
+    miniApp.getMethods().stream().filter(SootMethod::isConcrete).forEach(SootMethod::getBody);
+    assertTrue(WeightedLRUCache.estimateRetainedSize(miniApp) > 20);
+
+    // the weight is only estimated again on request, then MiniApp does not fit anymore
+    assertNotNull(cache.getClass(miniAppClassType));
+    assertEquals(6, cache.size());
+    cache.updateWeight(miniAppClassType);
+    assertFalse(cache.hasClass(miniAppClassType));
+    assertEquals(5, cache.size());
+    assertEquals(1, cache.getStats().evictionCount());
+
+    // a grown class which still fits evicts the least recently used classes instead
+    boundedCache.updateWeight(miniAppClassType);
+    assertTrue(boundedCache.hasClass(miniAppClassType));
+    assertEquals(5, boundedCache.size());
+    assertEquals(1, boundedCache.getStats().evictionCount());
+  }
 }
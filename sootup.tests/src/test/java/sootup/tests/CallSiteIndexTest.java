@@ -0,0 +1,90 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.callgraph.CallEdge;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.CallKind;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.RapidTypeAnalysisAlgorithm;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Tests that the call graph algorithms record every call together with its invoking statement. It
+ * uses the MiniApp.jar.
+ */
+@Tag("Java8")
+public class CallSiteIndexTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  private static JavaView createView() {
+    return new JavaView(
+        Collections.singletonList(
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application)));
+  }
+
+  private static List<SootMethod> concreteMethods(JavaView view) {
+    return view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(Collectors.toList());
+  }
+
+  private static void assertCallSitesComplete(JavaView view, CallGraph cg) {
+    int invokeStmts = 0;
+    for (SootMethod method : concreteMethods(view)) {
+      Set<MethodSignature> targetsOfCallSites = new HashSet<>();
+      for (Stmt stmt : method.getBody().getStmts()) {
+        List<CallEdge> calls = cg.callsAt(stmt);
+        if (stmt.containsInvokeExpr()) {
+          invokeStmts++;
+          assertFalse(calls.isEmpty(), "no call recorded at " + stmt);
+        }
+        for (CallEdge call : calls) {
+          assertEquals(method.getSignature(), call.getSource());
+          assertSame(stmt, call.getInvokingStmt());
+          assertTrue(cg.containsCall(call.getSource(), call.getTarget()));
+          if (call.getKind().isExplicit()) {
+            assertEquals(CallKind.of(stmt.getInvokeExpr()), call.getKind());
+          }
+          targetsOfCallSites.add(call.getTarget());
+        }
+      }
+      assertEquals(cg.callsFrom(method.getSignature()), targetsOfCallSites);
+    }
+    assertTrue(invokeStmts > 0);
+    assertEquals(cg.getCallSites(), cg.copy().getCallSites());
+  }
+
+  @Test
+  public void classHierarchyAnalysis() {
+    JavaView view = createView();
+    List<MethodSignature> entryPoints =
+        concreteMethods(view).stream().map(SootMethod::getSignature).collect(Collectors.toList());
+    CallGraph cg = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    assertCallSitesComplete(view, cg);
+  }
+
+  @Test
+  public void rapidTypeAnalysis() {
+    JavaView view = createView();
+    List<MethodSignature> entryPoints =
+        concreteMethods(view).stream().map(SootMethod::getSignature).collect(Collectors.toList());
+    CallGraph cg = new RapidTypeAnalysisAlgorithm(view, 2).initialize(entryPoints);
+    assertCallSitesComplete(view, cg);
+  }
+}
@@ -0,0 +1,100 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SourceType;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+/** Tests the concurrent resolution mode of the {@link JavaView}. It uses the MiniApp.jar. */
+@Tag("Java8")
+public class ConcurrentResolutionTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+  static List<AnalysisInputLocation> inputLocations;
+
+  @BeforeAll
+  public static void setupProject() {
+    inputLocations =
+        Collections.singletonList(
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application));
+  }
+
+  @Test
+  public void concurrentGetClass() throws Exception {
+    JavaView view = new JavaView(inputLocations, new FullCacheProvider(), true);
+    assertTrue(view.isConcurrentResolution());
+
+    List<ClassType> types =
+        new JavaView(inputLocations)
+            .getClasses().stream().map(JavaSootClass::getType).collect(Collectors.toList());
+    assertEquals(6, types.size());
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<JavaSootClass>>> results = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      results.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return types.stream()
+                    .map(type -> view.getClass(type).get())
+                    .collect(Collectors.toList());
+              }));
+    }
+    start.countDown();
+
+    List<JavaSootClass> expected = results.get(0).get();
+    for (Future<List<JavaSootClass>> result : results) {
+      List<JavaSootClass> classes = result.get();
+      for (int i = 0; i < classes.size(); i++) {
+        // every thread has to receive the very same instance
+        assertSame(expected.get(i), classes.get(i));
+      }
+    }
+    executor.shutdown();
+
+    assertEquals(6, view.getCachedClassesCount());
+    assertEquals(6, view.getClasses().size());
+    assertEquals(6, view.getCachedClassesCount());
+
+    ClassType nonExisting = view.getIdentifierFactory().getClassType("NonExisting");
+    assertFalse(view.getClass(nonExisting).isPresent());
+  }
+
+  @Test
+  public void parallelGetClasses() {
+    List<ClassType> expected =
+        new JavaView(inputLocations)
+            .getClasses().stream().map(JavaSootClass::getType).collect(Collectors.toList());
+
+    for (boolean concurrentResolution : new boolean[] {false, true}) {
+      JavaView view = new JavaView(inputLocations, new FullCacheProvider(), concurrentResolution);
+      Collection<JavaSootClass> classes = view.getClasses(4);
+      assertEquals(
+          expected, classes.stream().map(JavaSootClass::getType).collect(Collectors.toList()));
+      assertEquals(6, view.getCachedClassesCount());
+
+      // already resolved classes are not built again
+      for (JavaSootClass clazz : classes) {
+        assertSame(clazz, view.getClass(clazz.getType()).get());
+      }
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.callgraph.AbstractCallGraphAlgorithm;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.ConcurrentCallGraph;
+import sootup.callgraph.RapidTypeAnalysisAlgorithm;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Tests that the parallel mode of the call graph algorithms constructs the same call graph as the
+ * sequential mode. It uses the MiniApp.jar and, to let the threads discover the same methods at the
+ * same time, the larger jpush library.
+ */
+@Tag("Java8")
+public class ParallelCallGraphTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+  static List<AnalysisInputLocation> inputLocations;
+  static Path pathToLargerJar =
+      Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar");
+
+  @BeforeAll
+  public static void setupProject() {
+    inputLocations =
+        Collections.singletonList(
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application));
+  }
+
+  private static List<MethodSignature> allConcreteMethods(JavaView view) {
+    return view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .map(SootMethod::getSignature)
+        .collect(Collectors.toList());
+  }
+
+  private static void assertSameCallGraph(CallGraph expected, CallGraph actual) {
+    assertSameCalls(expected, actual);
+    assertEquals(expected.exportAsDot(), actual.exportAsDot());
+  }
+
+  private static void assertSameCalls(CallGraph expected, CallGraph actual) {
+    assertEquals(expected.getMethodSignatures(), actual.getMethodSignatures());
+    assertEquals(expected.callCount(), actual.callCount());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(expected.callsFrom(method), actual.callsFrom(method));
+      assertEquals(expected.callsTo(method), actual.callsTo(method));
+    }
+  }
+
+  private static void assertParallelEqualsSequential(
+      AbstractCallGraphAlgorithm sequential, AbstractCallGraphAlgorithm parallel) {
+    JavaView view = new JavaView(inputLocations);
+    List<MethodSignature> entryPoints = allConcreteMethods(view);
+    assertFalse(entryPoints.isEmpty());
+
+    CallGraph expected = sequential.initialize(entryPoints);
+    CallGraph actual = parallel.initialize(entryPoints);
+    assertTrue(actual instanceof ConcurrentCallGraph);
+    assertTrue(expected.callCount() > 0);
+    assertSameCallGraph(expected, actual);
+  }
+
+  @Test
+  public void parallelClassHierarchyAnalysis() {
+    JavaView view = new JavaView(inputLocations, new FullCacheProvider(), true);
+    ClassHierarchyAnalysisAlgorithm parallel = new ClassHierarchyAnalysisAlgorithm(view, 4);
+    assertEquals(4, parallel.getParallelism());
+    assertParallelEqualsSequential(
+        new ClassHierarchyAnalysisAlgorithm(new JavaView(inputLocations)), parallel);
+  }
+
+  @Test
+  public void parallelRapidTypeAnalysis() {
+    JavaView view = new JavaView(inputLocations, new FullCacheProvider(), true);
+    assertParallelEqualsSequential(
+        new RapidTypeAnalysisAlgorithm(new JavaView(inputLocations)),
+        new RapidTypeAnalysisAlgorithm(view, 4));
+  }
+
+  @Test
+  public void parallelRapidTypeAnalysisOfLargerInput() {
+    List<AnalysisInputLocation> largerInput =
+        Collections.singletonList(
+            PathBasedAnalysisInputLocation.create(pathToLargerJar, SourceType.Application));
+    // only static methods are entry points, so most methods are found while the work list is
+    // processed
+    List<MethodSignature> entryPoints =
+        new JavaView(largerInput)
+            .getClasses().stream()
+                .flatMap(clazz -> clazz.getMethods().stream())
+                .filter(method -> method.isConcrete() && method.isStatic())
+                .map(SootMethod::getSignature)
+                .collect(Collectors.toList());
+    assertFalse(entryPoints.isEmpty());
+
+    CallGraph expected =
+        new RapidTypeAnalysisAlgorithm(new JavaView(largerInput)).initialize(entryPoints);
+    assertTrue(expected.getMethodSignatures().size() > 2 * entryPoints.size());
+    for (int threads : new int[] {2, 4, 8, 8, 8}) {
+      JavaView view = new JavaView(largerInput, new FullCacheProvider(), true);
+      CallGraph actual = new RapidTypeAnalysisAlgorithm(view, threads).initialize(entryPoints);
+      assertSameCalls(expected, actual);
+      // the dot export orders calls to classes with the same name in different packages by the
+      // order they were added, which differs between the runs
+      assertEquals(sortedLines(expected.exportAsDot()), sortedLines(actual.exportAsDot()));
+    }
+  }
+
+  private static List<String> sortedLines(String text) {
+    List<String> lines = new ArrayList<>(Arrays.asList(text.split("\n")));
+    Collections.sort(lines);
+    return lines;
+  }
+
+  @Test
+  public void invalidParallelism() {
+    JavaView view = new JavaView(inputLocations);
+    assertThrows(IllegalArgumentException.class, () -> new RapidTypeAnalysisAlgorithm(view, 0));
+  }
+
+  @Test
+  public void concurrentCallGraph() throws Exception {
+    List<MethodSignature> methods = allConcreteMethods(new JavaView(inputLocations));
+    ConcurrentCallGraph cg = new ConcurrentCallGraph();
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                // every thread adds the complete graph of all methods
+                for (MethodSignature source : methods) {
+                  cg.addMethod(source);
+                  for (MethodSignature target : methods) {
+                    cg.addMethod(target);
+                    cg.addCall(source, target);
+                  }
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    assertEquals(new HashSet<>(methods), cg.getMethodSignatures());
+    assertEquals(methods.size() * methods.size(), cg.callCount());
+    for (MethodSignature method : methods) {
+      assertEquals(methods.size(), cg.callsTo(method).size());
+      assertTrue(cg.containsCall(method, method));
+    }
+    assertSameCallGraph(cg, cg.copy());
+    assertSameCallGraph(cg, cg.toGraphBasedCallGraph());
+  }
+}
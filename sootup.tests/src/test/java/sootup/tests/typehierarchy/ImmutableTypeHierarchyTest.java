@@ -0,0 +1,105 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Function;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.IdentifierFactory;
+import sootup.core.model.SootClass;
+import sootup.core.model.SourceType;
+import sootup.core.typehierarchy.ImmutableTypeHierarchy;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Checks that the {@link ImmutableTypeHierarchy} answers like the {@link ViewTypeHierarchy}. */
+@Tag("Java8")
+public class ImmutableTypeHierarchyTest {
+
+  private static JavaView createView(String jar) {
+    return new JavaView(PathBasedAnalysisInputLocation.create(Paths.get(jar), SourceType.Library));
+  }
+
+  /** returns the result of the query or the message of the IllegalArgumentException it throws */
+  private static Object query(TypeHierarchy typeHierarchy, Function<TypeHierarchy, Object> query) {
+    try {
+      return query.apply(typeHierarchy);
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static void assertSameAnswers(JavaView view) {
+    ViewTypeHierarchy expected = new ViewTypeHierarchy(view);
+    ImmutableTypeHierarchy actual = new ImmutableTypeHierarchy(view);
+
+    Set<ClassType> types = new LinkedHashSet<>();
+    for (SootClass sootClass : view.getClasses()) {
+      types.add(sootClass.getType());
+      types.addAll(sootClass.getInterfaces());
+      sootClass.getSuperclass().ifPresent(types::add);
+    }
+
+    for (ClassType type : types) {
+      List<Function<TypeHierarchy, Object>> queries =
+          Arrays.asList(
+              th -> th.subtypesOf(type),
+              th -> th.directSubtypesOf(type),
+              th -> th.implementersOf(type),
+              th -> th.subclassesOf(type),
+              th -> th.implementedInterfacesOf(type),
+              th -> th.directlyImplementedInterfacesOf(type),
+              th -> th.directlyExtendedInterfacesOf(type),
+              th -> th.superClassOf(type),
+              th -> th.superClassesOf(type),
+              th -> th.isInterface(type),
+              th -> th.contains(type));
+      for (Function<TypeHierarchy, Object> query : queries) {
+        assertEquals(query(expected, query), query(actual, query), type.toString());
+      }
+      for (ClassType potentialSubtype : types) {
+        assertEquals(
+            query(expected, th -> th.isSubtype(type, potentialSubtype)),
+            query(actual, th -> th.isSubtype(type, potentialSubtype)),
+            type + " :> " + potentialSubtype);
+      }
+    }
+  }
+
+  @Test
+  public void miniAppTest() {
+    assertSameAnswers(createView("../shared-test-resources/java-miniapps/MiniApp.jar"));
+  }
+
+  @Test
+  public void libraryTest() {
+    assertSameAnswers(createView("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"));
+  }
+
+  @Test
+  public void cachedAndNonClassTypesTest() {
+    JavaView view = createView("../shared-test-resources/java-miniapps/MiniApp.jar");
+    ImmutableTypeHierarchy typeHierarchy = new ImmutableTypeHierarchy(view);
+    view.setTypeHierarchy(typeHierarchy);
+    assertSame(typeHierarchy, view.getTypeHierarchy());
+
+    IdentifierFactory factory = view.getIdentifierFactory();
+    ClassType abstractDataStructure = factory.getClassType("ds.AbstractDataStrcture");
+    ClassType employee = factory.getClassType("ds.Employee");
+    Set<ClassType> subclasses = typeHierarchy.subclassesOf(abstractDataStructure);
+    assertSame(subclasses, typeHierarchy.subclassesOf(abstractDataStructure));
+    assertThrows(UnsupportedOperationException.class, () -> subclasses.add(employee));
+
+    ClassType object = factory.getClassType("java.lang.Object");
+    assertTrue(typeHierarchy.isSubtype(object, new ArrayType(employee, 1)));
+    assertTrue(typeHierarchy.isSubtype(new ArrayType(object, 1), new ArrayType(employee, 1)));
+    assertFalse(typeHierarchy.isSubtype(PrimitiveType.getInt(), PrimitiveType.getInt()));
+  }
+}
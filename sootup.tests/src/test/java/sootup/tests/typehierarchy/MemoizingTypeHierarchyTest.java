@@ -0,0 +1,84 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.IdentifierFactory;
+import sootup.core.model.SootClass;
+import sootup.core.model.SourceType;
+import sootup.core.typehierarchy.MemoizingTypeHierarchy;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.core.types.NullType;
+import sootup.core.types.PrimitiveType;
+import sootup.core.types.Type;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Checks that the {@link MemoizingTypeHierarchy} answers like the hierarchy it wraps. */
+@Tag("Java8")
+public class MemoizingTypeHierarchyTest {
+
+  /** returns the answer or the message of the IllegalArgumentException for unknown types */
+  private static Object isSubtype(TypeHierarchy typeHierarchy, Type supertype, Type subtype) {
+    try {
+      return typeHierarchy.isSubtype(supertype, subtype);
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  @Test
+  public void isSubtype() {
+    JavaView view =
+        new JavaView(
+            PathBasedAnalysisInputLocation.create(
+                Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+                SourceType.Application));
+    IdentifierFactory factory = view.getIdentifierFactory();
+    ViewTypeHierarchy expected = new ViewTypeHierarchy(view);
+    MemoizingTypeHierarchy actual = new MemoizingTypeHierarchy(expected, factory);
+
+    List<Type> types = new ArrayList<>();
+    for (SootClass sootClass : view.getClasses()) {
+      types.add(sootClass.getType());
+      types.add(new ArrayType(sootClass.getType(), 1));
+    }
+    ClassType object = factory.getClassType("java.lang.Object");
+    types.add(object);
+    types.add(new ArrayType(object, 1));
+    types.add(new ArrayType(object, 2));
+    types.add(factory.getClassType("java.io.Serializable"));
+    types.add(factory.getClassType("java.lang.Cloneable"));
+    types.add(new ArrayType(PrimitiveType.getInt(), 2));
+    types.add(PrimitiveType.getInt());
+    types.add(NullType.getInstance());
+
+    for (int round = 0; round < 2; round++) {
+      for (Type supertype : types) {
+        for (Type potentialSubtype : types) {
+          Object expectedAnswer = isSubtype(expected, supertype, potentialSubtype);
+          // the memoizing layer may skip queries for unknown types that can not change the answer
+          if (expectedAnswer instanceof Boolean) {
+            assertEquals(
+                expectedAnswer,
+                isSubtype(actual, supertype, potentialSubtype),
+                supertype + " :> " + potentialSubtype);
+          }
+        }
+      }
+    }
+    // the second round is answered from the cache
+    assertTrue(actual.getStats().hitCount() > 0);
+
+    ClassType employee = factory.getClassType("ds.Employee");
+    assertEquals(expected.superClassesOf(employee), actual.superClassesOf(employee));
+    assertSame(expected, actual.getDelegate());
+  }
+}
@@ -0,0 +1,104 @@
+package sootup.tests.validator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.validation.*;
+import sootup.jimple.parser.JimpleAnalysisInputLocation;
+import sootup.jimple.parser.JimpleView;
+
+@Tag("Java8")
+public class ValidationRunnerTest {
+  JimpleView jimpleView;
+  List<BodyValidator> bodyValidators;
+  List<ClassValidator> classValidators;
+
+  @BeforeEach
+  public void Setup() {
+    String classPath = "src/test/resources/validator/jimple";
+    JimpleAnalysisInputLocation jimpleInputLocation =
+        new JimpleAnalysisInputLocation(Paths.get(classPath), SourceType.Application);
+    jimpleView = new JimpleView(jimpleInputLocation);
+
+    bodyValidators =
+        Arrays.asList(new LocalsValidator(), new CheckInitValidator(), new NewValidator());
+    classValidators = Collections.singletonList(new ClassModifiersValidator());
+  }
+
+  @Test
+  public void testRunnerFindsTheExceptionsOfEveryValidator() {
+    List<String> expected = new ArrayList<>();
+    for (SootClass sc : jimpleView.getClasses()) {
+      for (ClassValidator validator : classValidators) {
+        List<ValidationException> exceptions = new ArrayList<>();
+        validator.validate(sc, exceptions);
+        exceptions.forEach(e -> expected.add(e.getMessage()));
+      }
+      for (SootMethod method : sc.getMethods()) {
+        if (method.isConcrete()) {
+          for (BodyValidator validator : bodyValidators) {
+            validator
+                .validate(method.getBody(), jimpleView)
+                .forEach(e -> expected.add(e.getMessage()));
+          }
+        }
+      }
+    }
+    // the fixtures contain methods which are meant to fail
+    assertTrue(expected.size() > 0);
+
+    List<String> found = new ArrayList<>();
+    ValidationRunner runner = new ValidationRunner(classValidators, bodyValidators);
+    assertEquals(expected.size(), runner.validate(jimpleView, e -> found.add(e.getMessage())));
+
+    Collections.sort(expected);
+    Collections.sort(found);
+    assertEquals(expected, found);
+  }
+
+  @Test
+  public void testCheckInitValidator() {
+    ValidationRunner runner =
+        new ValidationRunner(
+            Collections.emptyList(), Collections.singletonList(new CheckInitValidator()));
+    // checkInitValidator_fail and localsValidator_fail use $l1 before it is initialized
+    assertEquals(1, runner.validate(getClasses("CheckInitValidator"), jimpleView, e -> {}));
+    assertEquals(1, runner.validate(getClasses("LocalsValidator"), jimpleView, e -> {}));
+  }
+
+  @Test
+  public void testLocalsValidator() {
+    ValidationRunner runner =
+        new ValidationRunner(
+            Collections.emptyList(), Collections.singletonList(new LocalsValidator()));
+    assertEquals(0, runner.validate(getClasses("LocalsValidator"), jimpleView, e -> {}));
+    assertEquals(0, runner.validate(getClasses("CheckInitValidator"), jimpleView, e -> {}));
+  }
+
+  @Test
+  public void testFailFast() {
+    ValidationRunner runner =
+        new ValidationRunner(classValidators, bodyValidators).setFailFast(true);
+    assertTrue(runner.isFailFast());
+    assertEquals(1, runner.validate(jimpleView).size());
+  }
+
+  private List<SootClass> getClasses(String className) {
+    List<SootClass> classes = new ArrayList<>();
+    for (SootClass sc : jimpleView.getClasses()) {
+      if (sc.getType().getClassName().equals(className)) {
+        classes.add(sc);
+      }
+    }
+    assertEquals(1, classes.size());
+    return classes;
+  }
+}